@@ -0,0 +1,625 @@
+package io.github.kingprimes;
+
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.RenderPool;
+import io.github.kingprimes.model.*;
+import io.github.kingprimes.model.market.MarketLichSister;
+import io.github.kingprimes.model.market.MarketRiven;
+import io.github.kingprimes.model.market.Orders;
+import io.github.kingprimes.model.worldstate.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 异步绘图插件
+ * <p>绘图任务统一提交到固定数量（默认等于 {@link RenderPool#PARALLELISM}）的渲染线程执行，
+ * 调用方（包括大量虚拟线程）只负责提交任务和等待结果，不会因并发请求过多而同时渲染过多图像</p>
+ * <ul>
+ *     <li>有界队列：等待中的任务数达到上限后按 {@link RejectionPolicy} 处理新任务</li>
+ *     <li>优先级：等待中的任务按 {@link Priority} 从高到低、同优先级按提交顺序执行，帮助图等小图不会排在紫卡等大图之后</li>
+ *     <li>取消：取消尚未开始的任务会立即将其移出队列；已开始的任务会继续渲染但结果被丢弃</li>
+ * </ul>
+ * <p>同步的绘图方法同样经过队列执行并阻塞等待结果，适合在虚拟线程中直接调用</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public class AsyncDrawImagePlugin extends ForwardingDrawImagePlugin implements AutoCloseable {
+
+    /**
+     * 默认最大等待任务数
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = Integer.getInteger("drawimage.async.queueCapacity", 256);
+
+    // 默认的方法优先级：小图优先，大幅的市场/紫卡图延后
+    private static final Map<String, Priority> DEFAULT_PRIORITIES = Map.ofEntries(
+            Map.entry("drawHelpImage", Priority.HIGH),
+            Map.entry("drawAlertsImage", Priority.HIGH),
+            Map.entry("drawArbitrationImage", Priority.HIGH),
+            Map.entry("drawSortiesImage", Priority.HIGH),
+            Map.entry("drawSteelPath", Priority.HIGH),
+            Map.entry("drawLiteSoriteImage", Priority.HIGH),
+            Map.entry("drawDuviriCycleImage", Priority.HIGH),
+            Map.entry("drawDailyDealsImage", Priority.HIGH),
+            Map.entry("drawMarketRivenImage", Priority.LOW),
+            Map.entry("drawRivenAnalyseTrendImage", Priority.LOW),
+            Map.entry("drawRelicsImage", Priority.LOW),
+            Map.entry("drawMarketLichesImage", Priority.LOW),
+            Map.entry("drawMarketSisterImage", Priority.LOW),
+            Map.entry("drawMarketOrdersImage", Priority.LOW),
+            Map.entry("drawKnownCalendarSeasonsImage", Priority.LOW)
+    );
+
+    private final ThreadPoolExecutor executor;
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+    // 等待队列中剩余的空位，任务被渲染线程取出或取消时归还
+    private final Semaphore slots;
+    private final int queueCapacity;
+    private final RejectionPolicy rejectionPolicy;
+    private final Map<String, Priority> priorities = new ConcurrentHashMap<>(DEFAULT_PRIORITIES);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * 使用默认配置创建异步绘图插件
+     *
+     * @param delegate 实际执行绘制的插件，必须是线程安全的
+     */
+    public AsyncDrawImagePlugin(DrawImagePlugin delegate) {
+        this(delegate, RenderPool.PARALLELISM, DEFAULT_QUEUE_CAPACITY, RejectionPolicy.ABORT);
+    }
+
+    /**
+     * 创建异步绘图插件
+     *
+     * @param delegate        实际执行绘制的插件，必须是线程安全的
+     * @param threads         渲染线程数，必须大于0
+     * @param queueCapacity   最大等待任务数（不含正在渲染的任务），必须大于0
+     * @param rejectionPolicy 队列已满时的处理策略，不可为null
+     * @throws IllegalArgumentException 当参数不合法时抛出
+     */
+    public AsyncDrawImagePlugin(DrawImagePlugin delegate, int threads, int queueCapacity, RejectionPolicy rejectionPolicy) {
+        super(delegate);
+        if (threads <= 0 || queueCapacity <= 0 || rejectionPolicy == null) {
+            throw new IllegalArgumentException("线程数与队列容量需>0，拒绝策略不可为null");
+        }
+        this.queueCapacity = queueCapacity;
+        this.rejectionPolicy = rejectionPolicy;
+        this.slots = new Semaphore(queueCapacity);
+        AtomicInteger index = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "draw-image-async-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * 设置指定绘图方法的优先级
+     *
+     * @param method   绘图方法名，如 {@code drawHelpImage}
+     * @param priority 优先级，为null时恢复默认优先级
+     * @return 返回当前实例，支持链式调用
+     */
+    public AsyncDrawImagePlugin setPriority(String method, Priority priority) {
+        if (priority == null) {
+            priorities.put(method, DEFAULT_PRIORITIES.getOrDefault(method, Priority.NORMAL));
+        } else {
+            priorities.put(method, priority);
+        }
+        return this;
+    }
+
+    /**
+     * 获取指定绘图方法的优先级
+     *
+     * @param method 绘图方法名
+     * @return 优先级，未配置时为 {@link Priority#NORMAL}
+     */
+    public Priority getPriority(String method) {
+        return priorities.getOrDefault(method, Priority.NORMAL);
+    }
+
+    /**
+     * 按方法的配置优先级提交绘图任务
+     *
+     * @param method 绘图方法名
+     * @param call   绘图调用
+     * @return 绘图结果
+     */
+    public CompletableFuture<byte[]> submit(String method, Supplier<byte[]> call) {
+        return submit(method, getPriority(method), call);
+    }
+
+    /**
+     * 以指定优先级提交绘图任务
+     * <p>队列已满时：{@link RejectionPolicy#ABORT} 返回以 {@link RejectedExecutionException} 失败的结果；
+     * {@link RejectionPolicy#CALLER_RUNS} 在调用线程中直接绘制；{@link RejectionPolicy#BLOCK} 阻塞调用线程直到队列有空位</p>
+     *
+     * @param method   绘图方法名
+     * @param priority 优先级，不可为null
+     * @param call     绘图调用
+     * @return 绘图结果，可通过 {@link CompletableFuture#cancel(boolean)} 取消
+     */
+    public CompletableFuture<byte[]> submit(String method, Priority priority, Supplier<byte[]> call) {
+        if (priority == null || call == null) {
+            throw new IllegalArgumentException("优先级与绘图调用不可为null");
+        }
+        if (executor.isShutdown()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("异步绘图插件已关闭"));
+        }
+        if (!slots.tryAcquire()) {
+            switch (rejectionPolicy) {
+                case ABORT -> {
+                    rejected.incrementAndGet();
+                    return CompletableFuture.failedFuture(new RejectedExecutionException(
+                            "绘图队列已满(%d)，拒绝任务: %s".formatted(queueCapacity, method)));
+                }
+                case CALLER_RUNS -> {
+                    rejected.incrementAndGet();
+                    try {
+                        return CompletableFuture.completedFuture(call.get());
+                    } catch (RuntimeException e) {
+                        return CompletableFuture.failedFuture(e);
+                    }
+                }
+                case BLOCK -> {
+                    try {
+                        slots.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return CompletableFuture.failedFuture(new CancellationException("等待绘图队列空位时被中断"));
+                    }
+                }
+            }
+        }
+        RenderTask task = new RenderTask(priority, sequence.getAndIncrement(), call);
+        task.future.whenComplete((bytes, error) -> {
+            // 尚在队列中的任务被取消时立即移出队列并归还空位
+            if (task.future.isCancelled() && queue.remove(task)) {
+                slots.release();
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            task.future.completeExceptionally(e);
+        }
+        return task.future;
+    }
+
+    /**
+     * 同步绘制：经过渲染队列执行并等待结果
+     */
+    @Override
+    protected byte[] draw(String method, Supplier<byte[]> call, Object... args) {
+        try {
+            return submit(method, call).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 获取按指定格式输出图像的插件
+     * <p>新插件使用相同的线程数、队列容量、拒绝策略与方法优先级，但拥有独立的渲染线程，使用完毕后需单独关闭</p>
+     *
+     * @param format 输出格式，不可为null
+     * @return 格式相同时返回自身，否则返回新的异步绘图插件
+     */
+    @Override
+    public AsyncDrawImagePlugin withOutputFormat(ImageCombiner.OutputFormat format) {
+        if (format == getOutputFormat()) {
+            return this;
+        }
+        AsyncDrawImagePlugin plugin = new AsyncDrawImagePlugin(delegate.withOutputFormat(format),
+                executor.getCorePoolSize(), queueCapacity, rejectionPolicy);
+        plugin.priorities.putAll(priorities);
+        return plugin;
+    }
+
+    /**
+     * 获取等待中的任务数
+     *
+     * @return 等待中的任务数
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * 获取正在渲染的任务数
+     *
+     * @return 正在渲染的任务数
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * 获取因队列已满被拒绝（或由调用线程执行）的任务数
+     *
+     * @return 拒绝次数
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * 关闭渲染线程，等待中的任务被取消，正在渲染的任务继续执行完毕
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        for (Runnable runnable : executor.getQueue().toArray(new Runnable[0])) {
+            if (runnable instanceof RenderTask task && queue.remove(task)) {
+                slots.release();
+                task.future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * 绘制帮助图像（异步）
+     *
+     * @param helpInfo 帮助信息
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawHelpImageAsync(List<String> helpInfo) {
+        return submit("drawHelpImage", () -> delegate.drawHelpImage(helpInfo));
+    }
+
+    /**
+     * 绘制所有平原图像（异步）
+     *
+     * @param allCycle 所有平原数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawAllCycleImageAsync(AllCycle allCycle) {
+        return submit("drawAllCycleImage", () -> delegate.drawAllCycleImage(allCycle));
+    }
+
+    /**
+     * 绘制所有系统信息图像（异步）
+     *
+     * @param allInfo 所有信息数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawAllInfoImageAsync(AllInfo allInfo) {
+        return submit("drawAllInfoImage", () -> delegate.drawAllInfoImage(allInfo));
+    }
+
+    /**
+     * 绘制所有警报图像（异步）
+     *
+     * @param alerts 所有警报数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawAlertsImageAsync(List<Alert> alerts) {
+        return submit("drawAlertsImage", () -> delegate.drawAlertsImage(alerts));
+    }
+
+    /**
+     * 绘制仲裁图像（异步）
+     *
+     * @param arbitration 仲裁数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawArbitrationImageAsync(Arbitration arbitration) {
+        return submit("drawArbitrationImage", () -> delegate.drawArbitrationImage(arbitration));
+    }
+
+    /**
+     * 绘制有价值的仲裁图像（异步）
+     *
+     * @param arbitrations 有价值的仲裁数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawArbitrationsImageAsync(List<Arbitration> arbitrations) {
+        return submit("drawArbitrationsImage", () -> delegate.drawArbitrationsImage(arbitrations));
+    }
+
+    /**
+     * 绘制每日交易图像（异步）
+     *
+     * @param dailyDeal 每日交易数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawDailyDealsImageAsync(DailyDeals dailyDeal) {
+        return submit("drawDailyDealsImage", () -> delegate.drawDailyDealsImage(dailyDeal));
+    }
+
+    /**
+     * 绘制双衍王境图像（异步）
+     *
+     * @param duvalierCycle 双衍王境循环数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawDuviriCycleImageAsync(DuvalierCycle duvalierCycle) {
+        return submit("drawDuviriCycleImage", () -> delegate.drawDuviriCycleImage(duvalierCycle));
+    }
+
+    /**
+     * 绘制裂隙图像（异步）
+     *
+     * @param activeMission 裂隙数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawActiveMissionImageAsync(List<ActiveMission> activeMission) {
+        return submit("drawActiveMissionImage", () -> delegate.drawActiveMissionImage(activeMission));
+    }
+
+    /**
+     * 绘制入侵图像（异步）
+     *
+     * @param invasions 入侵数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawInvasionImageAsync(List<Invasion> invasions) {
+        return submit("drawInvasionImage", () -> delegate.drawInvasionImage(invasions));
+    }
+
+    /**
+     * 绘制1999日历季节图像（异步）
+     *
+     * @param knownCalendarSeasons 1999日历季节数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawKnownCalendarSeasonsImageAsync(List<KnownCalendarSeasons> knownCalendarSeasons) {
+        return submit("drawKnownCalendarSeasonsImage", () -> delegate.drawKnownCalendarSeasonsImage(knownCalendarSeasons));
+    }
+
+    /**
+     * 绘制执刑官猎杀图像（异步）
+     *
+     * @param liteSorite 执刑官猎杀数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawLiteSoriteImageAsync(LiteSorite liteSorite) {
+        return submit("drawLiteSoriteImage", () -> delegate.drawLiteSoriteImage(liteSorite));
+    }
+
+    /**
+     * 绘制 Market 市场 金垃圾 杜卡币 图像（异步）
+     *
+     * @param dump 金垃圾数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawMarketGodDumpImageAsync(Map<Ducats.DumpType, List<Ducats.Ducat>> dump) {
+        return submit("drawMarketGodDumpImage", () -> delegate.drawMarketGodDumpImage(dump));
+    }
+
+    /**
+     * 绘制 Market 市场 银垃圾 杜卡币 图像（异步）
+     *
+     * @param dump 银垃圾数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawMarketSilverDumpImageAsync(Map<Ducats.DumpType, List<Ducats.Ducat>> dump) {
+        return submit("drawMarketSilverDumpImage", () -> delegate.drawMarketSilverDumpImage(dump));
+    }
+
+    /**
+     * 绘制 Market Liches 市场拍卖 图像（异步）
+     *
+     * @param marketLichs 市场拍卖数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawMarketLichesImageAsync(MarketLichSister marketLichs) {
+        return submit("drawMarketLichesImage", () -> delegate.drawMarketLichesImage(marketLichs));
+    }
+
+    /**
+     * 绘制 Market Sister 市场拍卖 图像（异步）
+     *
+     * @param marketSister 市场拍卖数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawMarketSisterImageAsync(MarketLichSister marketSister) {
+        return submit("drawMarketSisterImage", () -> delegate.drawMarketSisterImage(marketSister));
+    }
+
+    /**
+     * 绘制 Market Orders 订单 图像（异步）
+     *
+     * @param orders 订单数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawMarketOrdersImageAsync(Orders orders) {
+        return submit("drawMarketOrdersImage", () -> delegate.drawMarketOrdersImage(orders));
+    }
+
+    /**
+     * 绘制 可能要查询的 Orders 订单 图像（异步）
+     *
+     * @param possibleItems 可能要查询的物品列表
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawMarketOrdersImageAsync(List<String> possibleItems) {
+        return submit("drawMarketOrdersImage", () -> delegate.drawMarketOrdersImage(possibleItems));
+    }
+
+    /**
+     * 绘制 Market Riven 紫卡 图像（异步）
+     *
+     * @param marketRiven 紫卡数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawMarketRivenImageAsync(MarketRiven marketRiven) {
+        return submit("drawMarketRivenImage", () -> delegate.drawMarketRivenImage(marketRiven));
+    }
+
+    /**
+     * 绘制 电波 图像（异步）
+     *
+     * @param seasonInfo 电波数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawSeasonInfoImageAsync(SeasonInfo seasonInfo) {
+        return submit("drawSeasonInfoImage", () -> delegate.drawSeasonInfoImage(seasonInfo));
+    }
+
+    /**
+     * 绘制 遗物 图像（异步）
+     *
+     * @param relics 遗物数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawRelicsImageAsync(List<Relics> relics) {
+        return submit("drawRelicsImage", () -> delegate.drawRelicsImage(relics));
+    }
+
+    /**
+     * 绘制 紫卡分析 图像（异步）
+     *
+     * @param rivenAnalyseTrendModel 紫卡分析数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawRivenAnalyseTrendImageAsync(List<RivenAnalyseTrendModel> rivenAnalyseTrendModel) {
+        return submit("drawRivenAnalyseTrendImage", () -> delegate.drawRivenAnalyseTrendImage(rivenAnalyseTrendModel));
+    }
+
+    /**
+     * 绘制 突击 图像（异步）
+     *
+     * @param sorties 突击数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawSortiesImageAsync(Sortie sorties) {
+        return submit("drawSortiesImage", () -> delegate.drawSortiesImage(sorties));
+    }
+
+    /**
+     * 绘制 钢铁奖励 图像（异步）
+     *
+     * @param steelPath 钢铁奖励数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawSteelPathAsync(SteelPathOffering steelPath) {
+        return submit("drawSteelPath", () -> delegate.drawSteelPath(steelPath));
+    }
+
+    /**
+     * 根据枚举绘制对应的 赏金/集团 图像（异步）
+     * <p>
+     * 绘制 赏金/集团 图像
+     *
+     * @param sm 赏金/集团 数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawSyndicateImageAsync(SyndicateMission sm) {
+        return submit("drawSyndicateImage", () -> delegate.drawSyndicateImage(sm));
+    }
+
+    /**
+     * 绘制 虚空商人 图像（异步）
+     *
+     * @param vt 虚空商人数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawVoidTraderImageAsync(List<VoidTrader> vt) {
+        return submit("drawVoidTraderImage", () -> delegate.drawVoidTraderImage(vt));
+    }
+
+    /**
+     * 绘制 订阅 帮助 图像（异步）
+     *
+     * @param subscribe   订阅类型数据
+     * @param missionType 订阅任务类型数据
+     * @return 异步图像流
+     */
+    public CompletableFuture<byte[]> drawWarframeSubscribeImageAsync(Map<Integer, String> subscribe, Map<Integer, String> missionType) {
+        return submit("drawWarframeSubscribeImage", () -> delegate.drawWarframeSubscribeImage(subscribe, missionType));
+    }
+
+    /**
+     * 任务优先级
+     */
+    public enum Priority {
+        /**
+         * 高优先级，适合小而快的图像
+         */
+        HIGH,
+        /**
+         * 普通优先级
+         */
+        NORMAL,
+        /**
+         * 低优先级，适合尺寸大、耗时长的图像
+         */
+        LOW
+    }
+
+    /**
+     * 队列已满时的处理策略
+     */
+    public enum RejectionPolicy {
+        /**
+         * 直接拒绝，返回以 {@link RejectedExecutionException} 失败的结果
+         */
+        ABORT,
+        /**
+         * 在提交任务的线程中直接绘制，自然降低提交速度
+         */
+        CALLER_RUNS,
+        /**
+         * 阻塞提交线程直到队列出现空位（在虚拟线程中阻塞开销很小）
+         */
+        BLOCK
+    }
+
+    /**
+     * 排队中的绘图任务，按优先级、提交顺序排序
+     */
+    private final class RenderTask implements Runnable, Comparable<RenderTask> {
+        private final Priority priority;
+        private final long sequence;
+        private final Supplier<byte[]> call;
+        private final CompletableFuture<byte[]> future = new CompletableFuture<>();
+
+        private RenderTask(Priority priority, long sequence, Supplier<byte[]> call) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.call = call;
+        }
+
+        @Override
+        public void run() {
+            // 任务已被渲染线程取出，归还队列空位
+            slots.release();
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(call.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public int compareTo(RenderTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package io.github.kingprimes;
+
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.model.Arbitration;
+import io.github.kingprimes.model.worldstate.BastWorldState;
+import io.github.kingprimes.model.worldstate.DateField;
+import io.github.kingprimes.model.worldstate.SteelPathOffering;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 绘图结果缓存装饰器
+ * <p>以绘图方法名和参数内容的SHA-256摘要作为键缓存绘图结果，内容相同的数据（即使是不同的对象实例）直接返回缓存的图像</p>
+ * <ul>
+ *     <li>有界：同时限制缓存条目数与图像字节数，超出后按LRU顺序淘汰</li>
+ *     <li>过期：条目在TTL到期或数据自身的开始/结束时间到达时失效，取较早者；TTL同时决定图像中"剩余时间"等文字最多滞后多久</li>
+ *     <li>线程安全：并发请求相同内容时只会触发一次绘制，其余线程等待同一结果</li>
+ * </ul>
+ * <p>参数无法序列化时该次调用不走缓存；空结果不会被缓存</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public class CachingDrawImagePlugin extends ForwardingDrawImagePlugin {
+
+    /**
+     * 默认最大缓存条目数
+     */
+    public static final int DEFAULT_MAX_ENTRIES = Integer.getInteger("drawimage.renderCache.maxEntries", 64);
+    /**
+     * 默认最大缓存字节数
+     */
+    public static final long DEFAULT_MAX_BYTES = Long.getLong("drawimage.renderCache.maxBytes", 64L * 1024 * 1024);
+    /**
+     * 默认缓存有效期
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(Long.getLong("drawimage.renderCache.ttlSeconds", 60));
+
+    private static final Logger LOGGER = Logger.getLogger(CachingDrawImagePlugin.class.getName());
+    // 排序属性与Map键，保证相同内容总是序列化为相同的字节
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .build();
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Duration ttl;
+    private final Clock clock;
+    // 访问顺序的LinkedHashMap，实现LRU淘汰，由this加锁保护
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // 正在绘制中的请求，保证相同内容并发请求时只绘制一次
+    private final Map<String, CompletableFuture<byte[]>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long retainedBytes;
+
+    /**
+     * 使用默认配置创建缓存装饰器
+     *
+     * @param delegate 被装饰的插件
+     */
+    public CachingDrawImagePlugin(DrawImagePlugin delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES, DEFAULT_TTL);
+    }
+
+    /**
+     * 创建缓存装饰器
+     *
+     * @param delegate   被装饰的插件
+     * @param maxEntries 最大缓存条目数，必须大于0
+     * @param maxBytes   最大缓存字节数，必须大于0
+     * @param ttl        缓存有效期，必须大于0
+     */
+    public CachingDrawImagePlugin(DrawImagePlugin delegate, int maxEntries, long maxBytes, Duration ttl) {
+        this(delegate, maxEntries, maxBytes, ttl, Clock.systemUTC());
+    }
+
+    /**
+     * 创建缓存装饰器
+     *
+     * @param delegate   被装饰的插件
+     * @param maxEntries 最大缓存条目数，必须大于0
+     * @param maxBytes   最大缓存字节数，必须大于0
+     * @param ttl        缓存有效期，必须大于0
+     * @param clock      判断过期使用的时钟
+     * @throws IllegalArgumentException 当参数不合法时抛出
+     */
+    public CachingDrawImagePlugin(DrawImagePlugin delegate, int maxEntries, long maxBytes, Duration ttl, Clock clock) {
+        super(delegate);
+        if (maxEntries <= 0 || maxBytes <= 0 || ttl == null || ttl.isNegative() || ttl.isZero() || clock == null) {
+            throw new IllegalArgumentException("缓存条目数与字节数上限需>0，有效期需>0，时钟不可为null");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    @Override
+    protected byte[] draw(String method, Supplier<byte[]> call, Object... args) {
+        String key = keyOf(method, args);
+        if (key == null) {
+            return call.get();
+        }
+        Instant now = clock.instant();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (now.isBefore(entry.expiresAt())) {
+                    hits.incrementAndGet();
+                    return entry.bytes().clone();
+                }
+                remove(key);
+            }
+        }
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            // 其他线程正在绘制相同内容，直接等待其结果
+            hits.incrementAndGet();
+            byte[] bytes = existing.join();
+            return bytes == null ? null : bytes.clone();
+        }
+        misses.incrementAndGet();
+        try {
+            byte[] bytes = call.get();
+            if (bytes != null && bytes.length > 0) {
+                put(key, new Entry(bytes.clone(), expiresAt(now, args)));
+            }
+            future.complete(bytes);
+            return bytes;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key);
+        }
+    }
+
+    /**
+     * 获取按指定格式输出图像的插件，新插件使用独立的缓存
+     *
+     * @param format 输出格式，不可为null
+     * @return 格式相同时返回自身，否则返回新的缓存装饰器
+     */
+    @Override
+    public DrawImagePlugin withOutputFormat(ImageCombiner.OutputFormat format) {
+        if (format == getOutputFormat()) {
+            return this;
+        }
+        return new CachingDrawImagePlugin(delegate.withOutputFormat(format), maxEntries, maxBytes, ttl, clock);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        retainedBytes = 0;
+    }
+
+    /**
+     * 获取当前缓存条目数
+     *
+     * @return 缓存条目数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取当前缓存的图像字节数
+     *
+     * @return 字节数
+     */
+    public synchronized long retainedBytes() {
+        return retainedBytes;
+    }
+
+    /**
+     * 获取缓存命中次数（包括等待其他线程绘制结果的次数）
+     *
+     * @return 命中次数
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     * 获取缓存未命中（实际绘制）次数
+     *
+     * @return 未命中次数
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    /**
+     * 获取因容量限制被淘汰的条目数
+     *
+     * @return 淘汰次数
+     */
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        if (entry.bytes().length > maxBytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, entry);
+        retainedBytes += entry.bytes().length;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || retainedBytes > maxBytes) && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            retainedBytes -= eldest.getValue().bytes().length;
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            retainedBytes -= removed.bytes().length;
+        }
+    }
+
+    /**
+     * 计算缓存键：方法名 + 参数序列化结果的SHA-256摘要
+     *
+     * @param method 绘图方法名
+     * @param args   绘图参数
+     * @return 缓存键，参数无法序列化时返回null
+     */
+    private static String keyOf(String method, Object[] args) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+                MAPPER.writeValue(out, args);
+            }
+            return method + ':' + HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前JVM不支持SHA-256", e);
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "绘图参数无法序列化，跳过缓存: %s".formatted(method), e);
+            return null;
+        }
+    }
+
+    /**
+     * 计算过期时间：TTL到期与数据自身下一个开始/结束时间中的较早者
+     *
+     * @param now  当前时间
+     * @param args 绘图参数
+     * @return 过期时间
+     */
+    private Instant expiresAt(Instant now, Object[] args) {
+        Instant deadline = now.plus(ttl);
+        for (Object arg : args) {
+            deadline = earliestBoundary(arg, now, deadline);
+        }
+        return deadline;
+    }
+
+    private static Instant earliestBoundary(Object model, Instant now, Instant deadline) {
+        if (model instanceof Collection<?> collection) {
+            for (Object element : collection) {
+                deadline = earliestBoundary(element, now, deadline);
+            }
+            return deadline;
+        }
+        if (model instanceof BastWorldState state) {
+            deadline = earlier(instantOf(state.getActivation()), now, deadline);
+            return earlier(instantOf(state.getExpiry()), now, deadline);
+        }
+        if (model instanceof Arbitration arbitration) {
+            deadline = earlier(arbitration.getActivation(), now, deadline);
+            return earlier(arbitration.getExpiry(), now, deadline);
+        }
+        if (model instanceof SteelPathOffering steelPath && steelPath.getExpiry() != null) {
+            // 结束时间是按UTC计算的LocalDateTime，与系统默认时区无关
+            return earlier(steelPath.getExpiry().toInstant(ZoneOffset.UTC), now, deadline);
+        }
+        return deadline;
+    }
+
+    private static Instant instantOf(DateField field) {
+        if (field == null || field.getDate() == null) {
+            return null;
+        }
+        return field.getEpochSecond();
+    }
+
+    // 只考虑尚未到达的时间点，已经过去的开始/结束时间不会再改变图像内容
+    private static Instant earlier(Instant boundary, Instant now, Instant deadline) {
+        return boundary != null && boundary.isAfter(now) && boundary.isBefore(deadline) ? boundary : deadline;
+    }
+
+    private record Entry(byte[] bytes, Instant expiresAt) {
+    }
+}
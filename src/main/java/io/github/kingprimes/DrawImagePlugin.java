@@ -1,20 +1,29 @@
 package io.github.kingprimes;
 
 import com.sun.jna.Pointer;
+import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.*;
 import io.github.kingprimes.model.market.MarketLichSister;
 import io.github.kingprimes.model.market.MarketRiven;
 import io.github.kingprimes.model.market.Orders;
 import io.github.kingprimes.model.worldstate.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * 绘图接口，实现类必须实现除default标记的所有方法
+ * <p>每个返回 {@code byte[]} 的绘图方法都有一个写入 {@link OutputStream} 的重载，默认实现调用前者后写出整个字节数组，
+ * 能够边编码边写出的实现应覆盖这些重载。写入通道时可使用 {@link java.nio.channels.Channels#newOutputStream}：</p>
+ * <pre>{@code
+ * plugin.drawSortiesImage(sortie, Channels.newOutputStream(channel));
+ * }</pre>
  *
  * @author KingPrimes
- * @version 1.0.0
+ * @version 1.0.1
  */
 @SuppressWarnings("unused")
 public interface DrawImagePlugin {
@@ -240,6 +249,345 @@ public interface DrawImagePlugin {
      */
     byte[] drawWarframeSubscribeImage(Map<Integer, String> subscribe, Map<Integer, String> missionType);
 
+    /**
+     * 绘制帮助图像，直接写入输出流
+     *
+     * @param helpInfo 帮助信息
+     * @param out      输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawHelpImage(List<String> helpInfo, OutputStream out) throws IOException {
+        write(out, () -> drawHelpImage(helpInfo));
+    }
+
+    /**
+     * 绘制所有平原图像，直接写入输出流
+     *
+     * @param allCycle 所有平原数据
+     * @param out      输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawAllCycleImage(AllCycle allCycle, OutputStream out) throws IOException {
+        write(out, () -> drawAllCycleImage(allCycle));
+    }
+
+    /**
+     * 绘制所有系统信息图像，直接写入输出流
+     *
+     * @param allInfo 所有信息数据
+     * @param out     输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawAllInfoImage(AllInfo allInfo, OutputStream out) throws IOException {
+        write(out, () -> drawAllInfoImage(allInfo));
+    }
+
+    /**
+     * 绘制所有警报图像，直接写入输出流
+     *
+     * @param alerts 所有警报数据
+     * @param out    输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawAlertsImage(List<Alert> alerts, OutputStream out) throws IOException {
+        write(out, () -> drawAlertsImage(alerts));
+    }
+
+    /**
+     * 绘制仲裁图像，直接写入输出流
+     *
+     * @param arbitration 仲裁数据
+     * @param out         输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawArbitrationImage(Arbitration arbitration, OutputStream out) throws IOException {
+        write(out, () -> drawArbitrationImage(arbitration));
+    }
+
+    /**
+     * 绘制有价值的仲裁图像，直接写入输出流
+     *
+     * @param arbitrations 有价值的仲裁数据
+     * @param out          输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawArbitrationsImage(List<Arbitration> arbitrations, OutputStream out) throws IOException {
+        write(out, () -> drawArbitrationsImage(arbitrations));
+    }
+
+    /**
+     * 绘制每日交易图像，直接写入输出流
+     *
+     * @param dailyDeal 每日交易数据
+     * @param out       输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawDailyDealsImage(DailyDeals dailyDeal, OutputStream out) throws IOException {
+        write(out, () -> drawDailyDealsImage(dailyDeal));
+    }
+
+    /**
+     * 绘制双衍王境图像，直接写入输出流
+     *
+     * @param duvalierCycle 双衍王境循环数据
+     * @param out           输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawDuviriCycleImage(DuvalierCycle duvalierCycle, OutputStream out) throws IOException {
+        write(out, () -> drawDuviriCycleImage(duvalierCycle));
+    }
+
+    /**
+     * 绘制裂隙图像，直接写入输出流
+     *
+     * @param activeMission 裂隙数据
+     * @param out           输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawActiveMissionImage(List<ActiveMission> activeMission, OutputStream out) throws IOException {
+        write(out, () -> drawActiveMissionImage(activeMission));
+    }
+
+    /**
+     * 绘制入侵图像，直接写入输出流
+     *
+     * @param invasions 入侵数据
+     * @param out       输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawInvasionImage(List<Invasion> invasions, OutputStream out) throws IOException {
+        write(out, () -> drawInvasionImage(invasions));
+    }
+
+    /**
+     * 绘制1999日历季节图像，直接写入输出流
+     *
+     * @param knownCalendarSeasons 1999日历季节数据
+     * @param out                  输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawKnownCalendarSeasonsImage(List<KnownCalendarSeasons> knownCalendarSeasons, OutputStream out) throws IOException {
+        write(out, () -> drawKnownCalendarSeasonsImage(knownCalendarSeasons));
+    }
+
+    /**
+     * 绘制执刑官猎杀图像，直接写入输出流
+     *
+     * @param liteSorite 执刑官猎杀数据
+     * @param out        输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawLiteSoriteImage(LiteSorite liteSorite, OutputStream out) throws IOException {
+        write(out, () -> drawLiteSoriteImage(liteSorite));
+    }
+
+    /**
+     * 绘制 Market 市场 金垃圾 杜卡币 图像，直接写入输出流
+     *
+     * @param dump 金垃圾数据
+     * @param out  输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawMarketGodDumpImage(Map<Ducats.DumpType, List<Ducats.Ducat>> dump, OutputStream out) throws IOException {
+        write(out, () -> drawMarketGodDumpImage(dump));
+    }
+
+    /**
+     * 绘制 Market 市场 银垃圾 杜卡币 图像，直接写入输出流
+     *
+     * @param dump 银垃圾数据
+     * @param out  输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawMarketSilverDumpImage(Map<Ducats.DumpType, List<Ducats.Ducat>> dump, OutputStream out) throws IOException {
+        write(out, () -> drawMarketSilverDumpImage(dump));
+    }
+
+    /**
+     * 绘制 Market Liches 市场拍卖 图像，直接写入输出流
+     *
+     * @param marketLichs 市场拍卖数据
+     * @param out         输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawMarketLichesImage(MarketLichSister marketLichs, OutputStream out) throws IOException {
+        write(out, () -> drawMarketLichesImage(marketLichs));
+    }
+
+    /**
+     * 绘制 Market Sister 市场拍卖 图像，直接写入输出流
+     *
+     * @param marketSister 市场拍卖数据
+     * @param out          输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawMarketSisterImage(MarketLichSister marketSister, OutputStream out) throws IOException {
+        write(out, () -> drawMarketSisterImage(marketSister));
+    }
+
+    /**
+     * 绘制 Market Orders 订单 图像，直接写入输出流
+     *
+     * @param orders 订单数据
+     * @param out    输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawMarketOrdersImage(Orders orders, OutputStream out) throws IOException {
+        write(out, () -> drawMarketOrdersImage(orders));
+    }
+
+    /**
+     * 绘制 可能要查询的 Orders 订单 图像，直接写入输出流
+     *
+     * @param possibleItems 可能要查询的物品列表
+     * @param out           输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawMarketOrdersImage(List<String> possibleItems, OutputStream out) throws IOException {
+        write(out, () -> drawMarketOrdersImage(possibleItems));
+    }
+
+    /**
+     * 绘制 Market Riven 紫卡 图像，直接写入输出流
+     *
+     * @param marketRiven 紫卡数据
+     * @param out         输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawMarketRivenImage(MarketRiven marketRiven, OutputStream out) throws IOException {
+        write(out, () -> drawMarketRivenImage(marketRiven));
+    }
+
+    /**
+     * 绘制 电波 图像，直接写入输出流
+     *
+     * @param seasonInfo 电波数据
+     * @param out        输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawSeasonInfoImage(SeasonInfo seasonInfo, OutputStream out) throws IOException {
+        write(out, () -> drawSeasonInfoImage(seasonInfo));
+    }
+
+    /**
+     * 绘制 遗物 图像，直接写入输出流
+     *
+     * @param relics 遗物数据
+     * @param out    输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawRelicsImage(List<Relics> relics, OutputStream out) throws IOException {
+        write(out, () -> drawRelicsImage(relics));
+    }
+
+    /**
+     * 绘制 紫卡分析 图像，直接写入输出流
+     *
+     * @param rivenAnalyseTrendModel 紫卡分析数据
+     * @param out                    输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawRivenAnalyseTrendImage(List<RivenAnalyseTrendModel> rivenAnalyseTrendModel, OutputStream out) throws IOException {
+        write(out, () -> drawRivenAnalyseTrendImage(rivenAnalyseTrendModel));
+    }
+
+    /**
+     * 绘制 突击 图像，直接写入输出流
+     *
+     * @param sorties 突击数据
+     * @param out     输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawSortiesImage(Sortie sorties, OutputStream out) throws IOException {
+        write(out, () -> drawSortiesImage(sorties));
+    }
+
+    /**
+     * 绘制 钢铁奖励 图像，直接写入输出流
+     *
+     * @param steelPath 钢铁奖励数据
+     * @param out       输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawSteelPath(SteelPathOffering steelPath, OutputStream out) throws IOException {
+        write(out, () -> drawSteelPath(steelPath));
+    }
+
+    /**
+     * 根据枚举绘制对应的 赏金/集团 图像，直接写入输出流
+     *
+     * @param sm  赏金/集团 数据
+     * @param out 输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawSyndicateImage(SyndicateMission sm, OutputStream out) throws IOException {
+        write(out, () -> drawSyndicateImage(sm));
+    }
+
+    /**
+     * 绘制 虚空商人 图像，直接写入输出流
+     *
+     * @param vt  虚空商人数据
+     * @param out 输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawVoidTraderImage(List<VoidTrader> vt, OutputStream out) throws IOException {
+        write(out, () -> drawVoidTraderImage(vt));
+    }
+
+    /**
+     * 绘制 订阅 帮助 图像，直接写入输出流
+     *
+     * @param subscribe   订阅类型数据
+     * @param missionType 订阅任务类型数据
+     * @param out         输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    default void drawWarframeSubscribeImage(Map<Integer, String> subscribe, Map<Integer, String> missionType, OutputStream out) throws IOException {
+        write(out, () -> drawWarframeSubscribeImage(subscribe, missionType));
+    }
+
+    /**
+     * 校验输出流后写出绘图方法返回的图像流，没有数据时不写入
+     *
+     * @param out  输出流
+     * @param call 绘图方法
+     * @throws IOException 写入失败时抛出
+     */
+    private static void write(OutputStream out, Supplier<byte[]> call) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("输出流不可为null");
+        }
+        byte[] bytes = call.get();
+        if (bytes != null) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * 获取绘图方法返回的图像格式
+     *
+     * @return 输出格式，默认为PNG
+     */
+    default ImageCombiner.OutputFormat getOutputFormat() {
+        return ImageCombiner.OutputFormat.PNG;
+    }
+
+    /**
+     * 获取按指定格式输出图像的插件
+     * <p>默认实现将本插件的输出解码后重新编码，能够直接编码的实现应覆盖此方法</p>
+     *
+     * @param format 输出格式，不可为null
+     * @return 格式相同时返回自身，否则返回按指定格式输出的插件
+     * @throws IllegalArgumentException 当format为null时抛出
+     */
+    default DrawImagePlugin withOutputFormat(ImageCombiner.OutputFormat format) {
+        if (format == null) {
+            throw new IllegalArgumentException("输出格式不可为null");
+        }
+        return format == getOutputFormat() ? this : new TranscodingDrawImagePlugin(this, format);
+    }
+
     /**
      * 获取插件名称
      *
@@ -0,0 +1,389 @@
+package io.github.kingprimes;
+
+import com.sun.jna.Pointer;
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.model.*;
+import io.github.kingprimes.model.market.MarketLichSister;
+import io.github.kingprimes.model.market.MarketRiven;
+import io.github.kingprimes.model.market.Orders;
+import io.github.kingprimes.model.worldstate.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 绘图插件装饰器基类
+ * <p>将所有方法转发给被装饰的插件，所有绘图方法统一经过 {@link #draw(String, Supplier, Object...)}，
+ * 子类只需覆盖该方法即可实现转码、缓存等横切逻辑</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public abstract class ForwardingDrawImagePlugin implements DrawImagePlugin {
+
+    /**
+     * 被装饰的插件
+     */
+    protected final DrawImagePlugin delegate;
+
+    /**
+     * 构造装饰器
+     *
+     * @param delegate 被装饰的插件，不可为null
+     * @throws IllegalArgumentException 当delegate为null时抛出
+     */
+    protected ForwardingDrawImagePlugin(DrawImagePlugin delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("被装饰的插件不可为null");
+        }
+        this.delegate = delegate;
+    }
+
+    /**
+     * 获取被装饰的插件
+     *
+     * @return 被装饰的插件
+     */
+    public DrawImagePlugin getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 执行一次绘图调用，默认直接调用被装饰插件
+     *
+     * @param method 绘图方法名
+     * @param call   调用被装饰插件的绘图方法
+     * @param args   绘图参数
+     * @return 图像流
+     */
+    protected byte[] draw(String method, Supplier<byte[]> call, Object... args) {
+        return call.get();
+    }
+
+    /**
+     * 绘制帮助图像
+     *
+     * @param helpInfo 帮助信息
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawHelpImage(List<String> helpInfo) {
+        return draw("drawHelpImage", () -> delegate.drawHelpImage(helpInfo), helpInfo);
+    }
+
+    /**
+     * 绘制所有平原图像
+     *
+     * @param allCycle 所有平原数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawAllCycleImage(AllCycle allCycle) {
+        return draw("drawAllCycleImage", () -> delegate.drawAllCycleImage(allCycle), allCycle);
+    }
+
+    /**
+     * 绘制所有系统信息图像
+     *
+     * @param allInfo 所有信息数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawAllInfoImage(AllInfo allInfo) {
+        return draw("drawAllInfoImage", () -> delegate.drawAllInfoImage(allInfo), allInfo);
+    }
+
+    /**
+     * 绘制所有警报图像
+     *
+     * @param alerts 所有警报数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawAlertsImage(List<Alert> alerts) {
+        return draw("drawAlertsImage", () -> delegate.drawAlertsImage(alerts), alerts);
+    }
+
+    /**
+     * 绘制仲裁图像
+     *
+     * @param arbitration 仲裁数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawArbitrationImage(Arbitration arbitration) {
+        return draw("drawArbitrationImage", () -> delegate.drawArbitrationImage(arbitration), arbitration);
+    }
+
+    /**
+     * 绘制有价值的仲裁图像
+     *
+     * @param arbitrations 有价值的仲裁数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawArbitrationsImage(List<Arbitration> arbitrations) {
+        return draw("drawArbitrationsImage", () -> delegate.drawArbitrationsImage(arbitrations), arbitrations);
+    }
+
+    /**
+     * 绘制每日交易图像
+     *
+     * @param dailyDeal 每日交易数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawDailyDealsImage(DailyDeals dailyDeal) {
+        return draw("drawDailyDealsImage", () -> delegate.drawDailyDealsImage(dailyDeal), dailyDeal);
+    }
+
+    /**
+     * 绘制双衍王境图像
+     *
+     * @param duvalierCycle 双衍王境循环数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawDuviriCycleImage(DuvalierCycle duvalierCycle) {
+        return draw("drawDuviriCycleImage", () -> delegate.drawDuviriCycleImage(duvalierCycle), duvalierCycle);
+    }
+
+    /**
+     * 绘制裂隙图像
+     *
+     * @param activeMission 裂隙数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawActiveMissionImage(List<ActiveMission> activeMission) {
+        return draw("drawActiveMissionImage", () -> delegate.drawActiveMissionImage(activeMission), activeMission);
+    }
+
+    /**
+     * 绘制入侵图像
+     *
+     * @param invasions 入侵数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawInvasionImage(List<Invasion> invasions) {
+        return draw("drawInvasionImage", () -> delegate.drawInvasionImage(invasions), invasions);
+    }
+
+    /**
+     * 绘制1999日历季节图像
+     *
+     * @param knownCalendarSeasons 1999日历季节数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawKnownCalendarSeasonsImage(List<KnownCalendarSeasons> knownCalendarSeasons) {
+        return draw("drawKnownCalendarSeasonsImage", () -> delegate.drawKnownCalendarSeasonsImage(knownCalendarSeasons), knownCalendarSeasons);
+    }
+
+    /**
+     * 绘制执刑官猎杀图像
+     *
+     * @param liteSorite 执刑官猎杀数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawLiteSoriteImage(LiteSorite liteSorite) {
+        return draw("drawLiteSoriteImage", () -> delegate.drawLiteSoriteImage(liteSorite), liteSorite);
+    }
+
+    /**
+     * 绘制 Market 市场 金垃圾 杜卡币 图像
+     *
+     * @param dump 金垃圾数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawMarketGodDumpImage(Map<Ducats.DumpType, List<Ducats.Ducat>> dump) {
+        return draw("drawMarketGodDumpImage", () -> delegate.drawMarketGodDumpImage(dump), dump);
+    }
+
+    /**
+     * 绘制 Market 市场 银垃圾 杜卡币 图像
+     *
+     * @param dump 银垃圾数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawMarketSilverDumpImage(Map<Ducats.DumpType, List<Ducats.Ducat>> dump) {
+        return draw("drawMarketSilverDumpImage", () -> delegate.drawMarketSilverDumpImage(dump), dump);
+    }
+
+    /**
+     * 绘制 Market Liches 市场拍卖 图像
+     *
+     * @param marketLichs 市场拍卖数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawMarketLichesImage(MarketLichSister marketLichs) {
+        return draw("drawMarketLichesImage", () -> delegate.drawMarketLichesImage(marketLichs), marketLichs);
+    }
+
+    /**
+     * 绘制 Market Sister 市场拍卖 图像
+     *
+     * @param marketSister 市场拍卖数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawMarketSisterImage(MarketLichSister marketSister) {
+        return draw("drawMarketSisterImage", () -> delegate.drawMarketSisterImage(marketSister), marketSister);
+    }
+
+    /**
+     * 绘制 Market Orders 订单 图像
+     *
+     * @param orders 订单数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawMarketOrdersImage(Orders orders) {
+        return draw("drawMarketOrdersImage", () -> delegate.drawMarketOrdersImage(orders), orders);
+    }
+
+    /**
+     * 绘制 可能要查询的 Orders 订单 图像
+     *
+     * @param possibleItems 可能要查询的物品列表
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawMarketOrdersImage(List<String> possibleItems) {
+        return draw("drawMarketOrdersImage", () -> delegate.drawMarketOrdersImage(possibleItems), possibleItems);
+    }
+
+    /**
+     * 绘制 Market Riven 紫卡 图像
+     *
+     * @param marketRiven 紫卡数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawMarketRivenImage(MarketRiven marketRiven) {
+        return draw("drawMarketRivenImage", () -> delegate.drawMarketRivenImage(marketRiven), marketRiven);
+    }
+
+    /**
+     * 绘制 电波 图像
+     *
+     * @param seasonInfo 电波数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawSeasonInfoImage(SeasonInfo seasonInfo) {
+        return draw("drawSeasonInfoImage", () -> delegate.drawSeasonInfoImage(seasonInfo), seasonInfo);
+    }
+
+    /**
+     * 绘制 遗物 图像
+     *
+     * @param relics 遗物数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawRelicsImage(List<Relics> relics) {
+        return draw("drawRelicsImage", () -> delegate.drawRelicsImage(relics), relics);
+    }
+
+    /**
+     * 绘制 紫卡分析 图像
+     *
+     * @param rivenAnalyseTrendModel 紫卡分析数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawRivenAnalyseTrendImage(List<RivenAnalyseTrendModel> rivenAnalyseTrendModel) {
+        return draw("drawRivenAnalyseTrendImage", () -> delegate.drawRivenAnalyseTrendImage(rivenAnalyseTrendModel), rivenAnalyseTrendModel);
+    }
+
+    /**
+     * 绘制 突击 图像
+     *
+     * @param sorties 突击数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawSortiesImage(Sortie sorties) {
+        return draw("drawSortiesImage", () -> delegate.drawSortiesImage(sorties), sorties);
+    }
+
+    /**
+     * 绘制 钢铁奖励 图像
+     *
+     * @param steelPath 钢铁奖励数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawSteelPath(SteelPathOffering steelPath) {
+        return draw("drawSteelPath", () -> delegate.drawSteelPath(steelPath), steelPath);
+    }
+
+    /**
+     * 根据枚举绘制对应的 赏金/集团 图像
+     * <p>
+     * 绘制 赏金/集团 图像
+     *
+     * @param sm 赏金/集团 数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawSyndicateImage(SyndicateMission sm) {
+        return draw("drawSyndicateImage", () -> delegate.drawSyndicateImage(sm), sm);
+    }
+
+    /**
+     * 绘制 虚空商人 图像
+     *
+     * @param vt 虚空商人数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawVoidTraderImage(List<VoidTrader> vt) {
+        return draw("drawVoidTraderImage", () -> delegate.drawVoidTraderImage(vt), vt);
+    }
+
+    /**
+     * 绘制 订阅 帮助 图像
+     *
+     * @param subscribe   订阅类型数据
+     * @param missionType 订阅任务类型数据
+     * @return 图像流
+     */
+    @Override
+    public byte[] drawWarframeSubscribeImage(Map<Integer, String> subscribe, Map<Integer, String> missionType) {
+        return draw("drawWarframeSubscribeImage", () -> delegate.drawWarframeSubscribeImage(subscribe, missionType), subscribe, missionType);
+    }
+
+    @Override
+    public ImageCombiner.OutputFormat getOutputFormat() {
+        return delegate.getOutputFormat();
+    }
+
+    @Override
+    public String getPluginName() {
+        return delegate.getPluginName();
+    }
+
+    @Override
+    public String getPluginVersion() {
+        return delegate.getPluginVersion();
+    }
+
+    @Override
+    public void releaseMemory() {
+        delegate.releaseMemory();
+    }
+
+    @Override
+    public void releaseMemory(Pointer pointer) {
+        delegate.releaseMemory(pointer);
+    }
+}
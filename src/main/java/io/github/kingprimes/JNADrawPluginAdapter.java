@@ -11,20 +11,26 @@ import io.github.kingprimes.model.market.Orders;
 import io.github.kingprimes.model.worldstate.*;
 import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.logging.Logger;
 
 /**
  * JNA 适配器
+ * <p>写入输出流的绘图方法直接从本地内存分块写出，不复制为 {@code byte[]}；本地函数失败或没有返回数据时改由默认绘图插件写出</p>
  *
  * @author KingPrimes
- * @version 1.0.2
+ * @version 1.0.3
  */
 public final class JNADrawPluginAdapter implements DrawImagePlugin {
 
+    private static final Logger LOGGER = Logger.getLogger(JNADrawPluginAdapter.class.getName());
     private static final ObjectMapper objectMapper = new ObjectMapper();
     private final NativeDrawLibrary library;
-
+    private final NativeInputEncoding inputEncoding;
 
     public JNADrawPluginAdapter(String libraryName) {
         try {
@@ -32,6 +38,7 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
         } catch (Exception e) {
             throw new RuntimeException("无法加载本地库: %s".formatted(libraryName), e);
         }
+        this.inputEncoding = negotiateInputEncoding(library);
     }
 
     /**
@@ -42,9 +49,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawHelpImage(List<String> helpInfo) {
-        try {
-            Pointer pointer = convertToPointer(helpInfo);
-            byte[] bytes = pointerToByteArray(library.nativeDrawHelpImage(pointer));
+        try (Memory input = encode(helpInfo)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawHelpImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -62,9 +68,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawAllCycleImage(AllCycle allCycle) {
-        try {
-            Pointer pointer = convertToPointer(allCycle);
-            byte[] bytes = pointerToByteArray(library.nativeDrawAllCycleImage(pointer));
+        try (Memory input = encode(allCycle)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawAllCycleImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -82,9 +87,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawAllInfoImage(AllInfo allInfo) {
-        try {
-            Pointer pointer = convertToPointer(allInfo);
-            byte[] bytes = pointerToByteArray(library.nativeDrawAllInfoImage(pointer));
+        try (Memory input = encode(allInfo)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawAllInfoImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -102,9 +106,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawAlertsImage(List<Alert> alerts) {
-        try {
-            Pointer pointer = convertToPointer(alerts);
-            byte[] bytes = pointerToByteArray(library.nativeDrawAlertsImage(pointer));
+        try (Memory input = encode(alerts)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawAlertsImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -122,9 +125,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawArbitrationImage(Arbitration arbitration) {
-        try {
-            Pointer pointer = convertToPointer(arbitration);
-            byte[] bytes = pointerToByteArray(library.nativeDrawArbitrationImage(pointer));
+        try (Memory input = encode(arbitration)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawArbitrationImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -142,9 +144,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawArbitrationsImage(List<Arbitration> arbitrations) {
-        try {
-            Pointer pointer = convertToPointer(arbitrations);
-            byte[] bytes = pointerToByteArray(library.nativeDrawArbitrationsImage(pointer));
+        try (Memory input = encode(arbitrations)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawArbitrationsImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -162,9 +163,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawDailyDealsImage(DailyDeals dailyDeal) {
-        try {
-            Pointer pointer = convertToPointer(dailyDeal);
-            byte[] bytes = pointerToByteArray(library.nativeDrawDailyDealsImage(pointer));
+        try (Memory input = encode(dailyDeal)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawDailyDealsImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -182,9 +182,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawDuviriCycleImage(DuvalierCycle duvalierCycle) {
-        try {
-            Pointer pointer = convertToPointer(duvalierCycle);
-            byte[] bytes = pointerToByteArray(library.nativeDrawDuviriCycleImage(pointer));
+        try (Memory input = encode(duvalierCycle)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawDuviriCycleImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -202,9 +201,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawActiveMissionImage(List<ActiveMission> activeMission) {
-        try {
-            Pointer pointer = convertToPointer(activeMission);
-            byte[] bytes = pointerToByteArray(library.nativeDrawActiveMissionImage(pointer));
+        try (Memory input = encode(activeMission)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawActiveMissionImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -222,9 +220,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawInvasionImage(List<Invasion> invasions) {
-        try {
-            Pointer pointer = convertToPointer(invasions);
-            byte[] bytes = pointerToByteArray(library.nativeDrawInvasionImage(pointer));
+        try (Memory input = encode(invasions)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawInvasionImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -243,9 +240,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawKnownCalendarSeasonsImage(List<KnownCalendarSeasons> knownCalendarSeasons) {
-        try {
-            Pointer pointer = convertToPointer(knownCalendarSeasons);
-            byte[] bytes = pointerToByteArray(library.nativeDrawKnownCalendarSeasonsImage(pointer));
+        try (Memory input = encode(knownCalendarSeasons)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawKnownCalendarSeasonsImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -264,9 +260,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawLiteSoriteImage(LiteSorite liteSorite) {
-        try {
-            Pointer pointer = convertToPointer(liteSorite);
-            byte[] bytes = pointerToByteArray(library.nativeDrawLiteSoriteImage(pointer));
+        try (Memory input = encode(liteSorite)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawLiteSoriteImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -285,9 +280,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketGodDumpImage(Map<Ducats.DumpType, List<Ducats.Ducat>> dump) {
-        try {
-            Pointer pointer = convertToPointer(dump);
-            byte[] bytes = pointerToByteArray(library.nativeDrawMarketGodDumpImage(pointer));
+        try (Memory input = encode(dump)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawMarketGodDumpImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -306,9 +300,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketSilverDumpImage(Map<Ducats.DumpType, List<Ducats.Ducat>> dump) {
-        try {
-            Pointer pointer = convertToPointer(dump);
-            byte[] bytes = pointerToByteArray(library.nativeDrawMarketSilverDumpImage(pointer));
+        try (Memory input = encode(dump)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawMarketSilverDumpImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -327,9 +320,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketLichesImage(MarketLichSister marketLichs) {
-        try {
-            Pointer pointer = convertToPointer(marketLichs);
-            byte[] bytes = pointerToByteArray(library.nativeDrawMarketLichesImage(pointer));
+        try (Memory input = encode(marketLichs)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawMarketLichesImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -348,9 +340,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketSisterImage(MarketLichSister marketSister) {
-        try {
-            Pointer pointer = convertToPointer(marketSister);
-            byte[] bytes = pointerToByteArray(library.nativeDrawMarketSisterImage(pointer));
+        try (Memory input = encode(marketSister)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawMarketSisterImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -369,9 +360,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketOrdersImage(Orders orders) {
-        try {
-            Pointer pointer = convertToPointer(orders);
-            byte[] bytes = pointerToByteArray(library.nativeDrawMarketOrdersImage(pointer));
+        try (Memory input = encode(orders)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawMarketOrdersImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -390,9 +380,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketOrdersImage(List<String> possibleItems) {
-        try {
-            Pointer pointer = convertToPointer(possibleItems);
-            byte[] bytes = pointerToByteArray(library.nativeDrawMarketOrdersImageList(pointer));
+        try (Memory input = encode(possibleItems)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawMarketOrdersImageList(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -411,9 +400,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketRivenImage(MarketRiven marketRiven) {
-        try {
-            Pointer pointer = convertToPointer(marketRiven);
-            byte[] bytes = pointerToByteArray(library.nativeDrawMarketRivenImage(pointer));
+        try (Memory input = encode(marketRiven)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawMarketRivenImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -432,9 +420,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawSeasonInfoImage(SeasonInfo seasonInfo) {
-        try {
-            Pointer pointer = convertToPointer(seasonInfo);
-            byte[] bytes = pointerToByteArray(library.nativeDrawSeasonInfoImage(pointer));
+        try (Memory input = encode(seasonInfo)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawSeasonInfoImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -453,9 +440,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawRelicsImage(List<Relics> relics) {
-        try {
-            Pointer pointer = convertToPointer(relics);
-            byte[] bytes = pointerToByteArray(library.nativeDrawRelicsImage(pointer));
+        try (Memory input = encode(relics)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawRelicsImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -474,9 +460,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawRivenAnalyseTrendImage(List<RivenAnalyseTrendModel> rivenAnalyseTrendModel) {
-        try {
-            Pointer pointer = convertToPointer(rivenAnalyseTrendModel);
-            byte[] bytes = pointerToByteArray(library.nativeDrawRivenAnalyseTrendImage(pointer));
+        try (Memory input = encode(rivenAnalyseTrendModel)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawRivenAnalyseTrendImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -495,9 +480,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawSortiesImage(Sortie sorties) {
-        try {
-            Pointer pointer = convertToPointer(sorties);
-            byte[] bytes = pointerToByteArray(library.nativeDrawSortiesImage(pointer));
+        try (Memory input = encode(sorties)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawSortiesImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -516,9 +500,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawSteelPath(SteelPathOffering steelPath) {
-        try {
-            Pointer pointer = convertToPointer(steelPath);
-            byte[] bytes = pointerToByteArray(library.nativeDrawSteelPath(pointer));
+        try (Memory input = encode(steelPath)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawSteelPath(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -539,9 +522,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawSyndicateImage(SyndicateMission sm) {
-        try {
-            Pointer pointer = convertToPointer(sm);
-            byte[] bytes = pointerToByteArray(library.nativeDrawSyndicateImage(pointer));
+        try (Memory input = encode(sm)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawSyndicateImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -560,9 +542,8 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawVoidTraderImage(List<VoidTrader> vt) {
-        try {
-            Pointer pointer = convertToPointer(vt);
-            byte[] bytes = pointerToByteArray(library.nativeDrawVoidTraderImage(pointer));
+        try (Memory input = encode(vt)) {
+            byte[] bytes = pointerToByteArray(library.nativeDrawVoidTraderImage(input));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
             }
@@ -582,9 +563,7 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
      */
     @Override
     public byte[] drawWarframeSubscribeImage(Map<Integer, String> subscribe, Map<Integer, String> missionType) {
-        try {
-            Pointer sp = convertToPointer(subscribe);
-            Pointer mp = convertToPointer(missionType);
+        try (Memory sp = encode(subscribe); Memory mp = encode(missionType)) {
             byte[] bytes = pointerToByteArray(library.nativeDrawWarframeSubscribeImage(sp, mp));
             if (bytes != null && bytes.length > 0) {
                 return bytes;
@@ -596,6 +575,363 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
         }
     }
 
+    /**
+     * 绘制帮助图像，直接写入输出流
+     *
+     * @param helpInfo 帮助信息
+     * @param out      输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawHelpImage(List<String> helpInfo, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawHelpImage, helpInfo,
+                () -> new DefaultDrawImagePlugin().drawHelpImage(helpInfo, out));
+    }
+
+    /**
+     * 绘制所有平原图像，直接写入输出流
+     *
+     * @param allCycle 所有平原数据
+     * @param out      输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawAllCycleImage(AllCycle allCycle, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawAllCycleImage, allCycle,
+                () -> new DefaultDrawImagePlugin().drawAllCycleImage(allCycle, out));
+    }
+
+    /**
+     * 绘制所有系统信息图像，直接写入输出流
+     *
+     * @param allInfo 所有信息数据
+     * @param out     输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawAllInfoImage(AllInfo allInfo, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawAllInfoImage, allInfo,
+                () -> new DefaultDrawImagePlugin().drawAllInfoImage(allInfo, out));
+    }
+
+    /**
+     * 绘制所有警报图像，直接写入输出流
+     *
+     * @param alerts 所有警报数据
+     * @param out    输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawAlertsImage(List<Alert> alerts, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawAlertsImage, alerts,
+                () -> new DefaultDrawImagePlugin().drawAlertsImage(alerts, out));
+    }
+
+    /**
+     * 绘制仲裁图像，直接写入输出流
+     *
+     * @param arbitration 仲裁数据
+     * @param out         输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawArbitrationImage(Arbitration arbitration, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawArbitrationImage, arbitration,
+                () -> new DefaultDrawImagePlugin().drawArbitrationImage(arbitration, out));
+    }
+
+    /**
+     * 绘制有价值的仲裁图像，直接写入输出流
+     *
+     * @param arbitrations 有价值的仲裁数据
+     * @param out          输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawArbitrationsImage(List<Arbitration> arbitrations, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawArbitrationsImage, arbitrations,
+                () -> new DefaultDrawImagePlugin().drawArbitrationsImage(arbitrations, out));
+    }
+
+    /**
+     * 绘制每日交易图像，直接写入输出流
+     *
+     * @param dailyDeal 每日交易数据
+     * @param out       输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawDailyDealsImage(DailyDeals dailyDeal, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawDailyDealsImage, dailyDeal,
+                () -> new DefaultDrawImagePlugin().drawDailyDealsImage(dailyDeal, out));
+    }
+
+    /**
+     * 绘制双衍王境图像，直接写入输出流
+     *
+     * @param duvalierCycle 双衍王境循环数据
+     * @param out           输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawDuviriCycleImage(DuvalierCycle duvalierCycle, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawDuviriCycleImage, duvalierCycle,
+                () -> new DefaultDrawImagePlugin().drawDuviriCycleImage(duvalierCycle, out));
+    }
+
+    /**
+     * 绘制裂隙图像，直接写入输出流
+     *
+     * @param activeMission 裂隙数据
+     * @param out           输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawActiveMissionImage(List<ActiveMission> activeMission, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawActiveMissionImage, activeMission,
+                () -> new DefaultDrawImagePlugin().drawActiveMissionImage(activeMission, out));
+    }
+
+    /**
+     * 绘制入侵图像，直接写入输出流
+     *
+     * @param invasions 入侵数据
+     * @param out       输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawInvasionImage(List<Invasion> invasions, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawInvasionImage, invasions,
+                () -> new DefaultDrawImagePlugin().drawInvasionImage(invasions, out));
+    }
+
+    /**
+     * 绘制1999日历季节图像，直接写入输出流
+     *
+     * @param knownCalendarSeasons 1999日历季节数据
+     * @param out                  输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawKnownCalendarSeasonsImage(List<KnownCalendarSeasons> knownCalendarSeasons, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawKnownCalendarSeasonsImage, knownCalendarSeasons,
+                () -> new DefaultDrawImagePlugin().drawKnownCalendarSeasonsImage(knownCalendarSeasons, out));
+    }
+
+    /**
+     * 绘制执刑官猎杀图像，直接写入输出流
+     *
+     * @param liteSorite 执刑官猎杀数据
+     * @param out        输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawLiteSoriteImage(LiteSorite liteSorite, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawLiteSoriteImage, liteSorite,
+                () -> new DefaultDrawImagePlugin().drawLiteSoriteImage(liteSorite, out));
+    }
+
+    /**
+     * 绘制 Market 市场 金垃圾 杜卡币 图像，直接写入输出流
+     *
+     * @param dump 金垃圾数据
+     * @param out  输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketGodDumpImage(Map<Ducats.DumpType, List<Ducats.Ducat>> dump, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawMarketGodDumpImage, dump,
+                () -> new DefaultDrawImagePlugin().drawMarketGodDumpImage(dump, out));
+    }
+
+    /**
+     * 绘制 Market 市场 银垃圾 杜卡币 图像，直接写入输出流
+     *
+     * @param dump 银垃圾数据
+     * @param out  输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketSilverDumpImage(Map<Ducats.DumpType, List<Ducats.Ducat>> dump, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawMarketSilverDumpImage, dump,
+                () -> new DefaultDrawImagePlugin().drawMarketSilverDumpImage(dump, out));
+    }
+
+    /**
+     * 绘制 Market Liches 市场拍卖 图像，直接写入输出流
+     *
+     * @param marketLichs 市场拍卖数据
+     * @param out         输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketLichesImage(MarketLichSister marketLichs, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawMarketLichesImage, marketLichs,
+                () -> new DefaultDrawImagePlugin().drawMarketLichesImage(marketLichs, out));
+    }
+
+    /**
+     * 绘制 Market Sister 市场拍卖 图像，直接写入输出流
+     *
+     * @param marketSister 市场拍卖数据
+     * @param out          输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketSisterImage(MarketLichSister marketSister, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawMarketSisterImage, marketSister,
+                () -> new DefaultDrawImagePlugin().drawMarketSisterImage(marketSister, out));
+    }
+
+    /**
+     * 绘制 Market Orders 订单 图像，直接写入输出流
+     *
+     * @param orders 订单数据
+     * @param out    输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketOrdersImage(Orders orders, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawMarketOrdersImage, orders,
+                () -> new DefaultDrawImagePlugin().drawMarketOrdersImage(orders, out));
+    }
+
+    /**
+     * 绘制 可能要查询的 Orders 订单 图像，直接写入输出流
+     *
+     * @param possibleItems 可能要查询的物品列表
+     * @param out           输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketOrdersImage(List<String> possibleItems, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawMarketOrdersImageList, possibleItems,
+                () -> new DefaultDrawImagePlugin().drawMarketOrdersImage(possibleItems, out));
+    }
+
+    /**
+     * 绘制 Market Riven 紫卡 图像，直接写入输出流
+     *
+     * @param marketRiven 紫卡数据
+     * @param out         输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketRivenImage(MarketRiven marketRiven, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawMarketRivenImage, marketRiven,
+                () -> new DefaultDrawImagePlugin().drawMarketRivenImage(marketRiven, out));
+    }
+
+    /**
+     * 绘制 电波 图像，直接写入输出流
+     *
+     * @param seasonInfo 电波数据
+     * @param out        输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawSeasonInfoImage(SeasonInfo seasonInfo, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawSeasonInfoImage, seasonInfo,
+                () -> new DefaultDrawImagePlugin().drawSeasonInfoImage(seasonInfo, out));
+    }
+
+    /**
+     * 绘制 遗物 图像，直接写入输出流
+     *
+     * @param relics 遗物数据
+     * @param out    输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawRelicsImage(List<Relics> relics, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawRelicsImage, relics,
+                () -> new DefaultDrawImagePlugin().drawRelicsImage(relics, out));
+    }
+
+    /**
+     * 绘制 紫卡分析 图像，直接写入输出流
+     *
+     * @param rivenAnalyseTrendModel 紫卡分析数据
+     * @param out                    输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawRivenAnalyseTrendImage(List<RivenAnalyseTrendModel> rivenAnalyseTrendModel, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawRivenAnalyseTrendImage, rivenAnalyseTrendModel,
+                () -> new DefaultDrawImagePlugin().drawRivenAnalyseTrendImage(rivenAnalyseTrendModel, out));
+    }
+
+    /**
+     * 绘制 突击 图像，直接写入输出流
+     *
+     * @param sorties 突击数据
+     * @param out     输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawSortiesImage(Sortie sorties, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawSortiesImage, sorties,
+                () -> new DefaultDrawImagePlugin().drawSortiesImage(sorties, out));
+    }
+
+    /**
+     * 绘制 钢铁奖励 图像，直接写入输出流
+     *
+     * @param steelPath 钢铁奖励数据
+     * @param out       输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawSteelPath(SteelPathOffering steelPath, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawSteelPath, steelPath,
+                () -> new DefaultDrawImagePlugin().drawSteelPath(steelPath, out));
+    }
+
+    /**
+     * 根据枚举绘制对应的 赏金/集团 图像，直接写入输出流
+     *
+     * @param sm  赏金/集团 数据
+     * @param out 输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawSyndicateImage(SyndicateMission sm, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawSyndicateImage, sm,
+                () -> new DefaultDrawImagePlugin().drawSyndicateImage(sm, out));
+    }
+
+    /**
+     * 绘制 虚空商人 图像，直接写入输出流
+     *
+     * @param vt  虚空商人数据
+     * @param out 输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawVoidTraderImage(List<VoidTrader> vt, OutputStream out) throws IOException {
+        drawTo(out, NativeDrawLibrary::nativeDrawVoidTraderImage, vt,
+                () -> new DefaultDrawImagePlugin().drawVoidTraderImage(vt, out));
+    }
+
+    /**
+     * 绘制 订阅 帮助 图像，直接写入输出流
+     *
+     * @param subscribe   订阅类型数据
+     * @param missionType 订阅任务类型数据
+     * @param out         输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawWarframeSubscribeImage(Map<Integer, String> subscribe, Map<Integer, String> missionType, OutputStream out) throws IOException {
+        NativeImage image;
+        try (Memory sp = encode(subscribe); Memory mp = encode(missionType)) {
+            image = NativeImage.of(library.nativeDrawWarframeSubscribeImage(sp, mp), library::nativeReleaseMemory);
+        } catch (Exception e) {
+            image = NativeImage.EMPTY;
+        }
+        writeTo(image, out, () -> new DefaultDrawImagePlugin().drawWarframeSubscribeImage(subscribe, missionType, out));
+    }
+
     /**
      * 获取插件名称
      *
@@ -634,37 +970,129 @@ public final class JNADrawPluginAdapter implements DrawImagePlugin {
         library.nativeReleaseMemory(pointer);
     }
 
-    private Pointer convertToPointer(Object obj) {
-        if (obj == null) {
-            return Pointer.NULL;
+    /**
+     * 调用本地绘图函数并直接返回本地内存中的图像，不复制为 {@code byte[]}
+     * <p>返回值必须关闭（推荐 try-with-resources），关闭时通过 {@code nativeReleaseMemory(Pointer)} 释放本地内存；
+     * 与 {@code drawXxx} 方法不同，本地函数没有返回数据时不会回退到默认绘图插件，而是返回 {@link NativeImage#EMPTY}</p>
+     * <pre>{@code
+     * try (NativeImage image = adapter.drawNative(NativeDrawLibrary::nativeDrawHelpImage, helpInfo)) {
+     *     image.transferTo(channel);
+     * }
+     * }</pre>
+     *
+     * @param call  本地绘图函数
+     * @param model 绘图数据
+     * @return 本地图像
+     */
+    public NativeImage drawNative(BiFunction<NativeDrawLibrary, Pointer, Pointer> call, Object model) {
+        try (Memory input = encode(model)) {
+            return NativeImage.of(call.apply(library, input), library::nativeReleaseMemory);
         }
-        byte[] jsonData = objectMapper.writeValueAsBytes(obj);
-        try (Memory memory = new Memory(jsonData.length + 4)
-        ) {
+    }
+
+    /**
+     * 获取与本地插件协商后的绘图数据编码
+     *
+     * @return 数据编码
+     */
+    public NativeInputEncoding getInputEncoding() {
+        return inputEncoding;
+    }
 
-            memory.setInt(0, jsonData.length); // 写入长度
-            memory.write(4, jsonData, 0, jsonData.length);
-            return memory;
+    private static NativeInputEncoding negotiateInputEncoding(NativeDrawLibrary library) {
+        try {
+            int id = library.nativeNegotiateInputEncoding(NativeInputEncoding.supportedMask());
+            NativeInputEncoding encoding = NativeInputEncoding.of(id);
+            if (encoding == null) {
+                LOGGER.warning("本地插件选择了未知的数据编码: %d，使用JSON".formatted(id));
+                return NativeInputEncoding.JSON;
+            }
+            return encoding;
+        } catch (UnsatisfiedLinkError e) {
+            // 旧版本地插件没有协商函数，只支持JSON
+            return NativeInputEncoding.JSON;
+        }
+    }
+
+    /**
+     * 按协商的编码将绘图数据写入本地内存（4字节长度 + 数据）
+     * <p>返回的内存必须在本地函数调用结束后再关闭，调用方使用 try-with-resources 持有</p>
+     *
+     * @param obj 绘图数据
+     * @return 本地内存，数据为null时返回null（即空指针）
+     */
+    private Memory encode(Object obj) {
+        if (obj == null) {
+            return null;
+        }
+        byte[] data;
+        try {
+            data = inputEncoding.encode(objectMapper, obj);
         } catch (Exception e) {
-            throw new RuntimeException("JSON序列化对象失败", e);
+            throw new RuntimeException("%s序列化对象失败".formatted(inputEncoding), e);
         }
+        Memory memory = new Memory(data.length + 4L);
+        memory.setInt(0, data.length); // 写入长度
+        memory.write(4, data, 0, data.length);
+        return memory;
     }
 
-    private byte[] pointerToByteArray(Pointer pointer) {
+    /**
+     * 调用本地绘图函数，把本地内存中的图像直接写入输出流
+     *
+     * @param out      输出流
+     * @param call     本地绘图函数
+     * @param model    绘图数据
+     * @param fallback 本地函数失败或没有返回数据时改由默认绘图插件写出
+     * @throws IOException 写入失败时抛出
+     */
+    private void drawTo(OutputStream out, BiFunction<NativeDrawLibrary, Pointer, Pointer> call, Object model,
+                        Fallback fallback) throws IOException {
+        NativeImage image;
         try {
-            if (pointer == null || Pointer.NULL.equals(pointer)) {
-                return new byte[0];
-            }
+            image = drawNative(call, model);
+        } catch (Exception e) {
+            image = NativeImage.EMPTY;
+        }
+        writeTo(image, out, fallback);
+    }
 
-            // 从Pointer读取数据长度
-            int dataLength = pointer.getInt(0);
-            if (dataLength <= 0) {
-                return new byte[0];
+    /**
+     * 写出本地图像并释放本地内存，没有数据时执行回退
+     * <p>只有本地函数本身失败才回退；写入输出流失败时直接抛出，避免在已写出部分数据的流上再写一张图像</p>
+     */
+    private static void writeTo(NativeImage image, OutputStream out, Fallback fallback) throws IOException {
+        try (image) {
+            if (out == null) {
+                throw new IllegalArgumentException("输出流不可为null");
+            }
+            if (!image.isEmpty()) {
+                image.writeTo(out);
+                return;
             }
+        }
+        fallback.draw();
+    }
 
-            return pointer.getByteArray(4, dataLength);
+    /**
+     * 复制本地图像数据并立即释放本地内存
+     *
+     * @param pointer 本地绘图函数返回的指针
+     * @return 图像数据，没有数据时返回空数组
+     */
+    private byte[] pointerToByteArray(Pointer pointer) {
+        try (NativeImage image = NativeImage.of(pointer, library::nativeReleaseMemory)) {
+            return image.toByteArray();
         } catch (Exception e) {
             throw new RuntimeException("从Pointer读取数据失败", e);
         }
     }
+
+    /**
+     * 回退到默认绘图插件写出图像
+     */
+    @FunctionalInterface
+    private interface Fallback {
+        void draw() throws IOException;
+    }
 }
@@ -27,6 +27,15 @@ public interface NativeDrawLibrary extends Library {
      */
     String nativeGetPluginVersion();
 
+    /**
+     * 协商绘图数据的编码
+     * <p>可选函数：未导出该函数的本地插件只接收JSON编码的数据</p>
+     *
+     * @param supported 适配器支持的编码位掩码，见 {@link NativeInputEncoding#supportedMask()}
+     * @return 本地插件选择的编码标识，见 {@link NativeInputEncoding#getId()}；协商成功后所有绘图函数都按该编码接收数据
+     */
+    int nativeNegotiateInputEncoding(int supported);
+
     /**
      * 绘制帮助图像
      *
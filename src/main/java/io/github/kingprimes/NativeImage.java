@@ -0,0 +1,176 @@
+package io.github.kingprimes;
+
+import com.sun.jna.Pointer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 本地插件返回的图像数据
+ * <p>直接引用本地内存中的图像（格式：4字节长度 + 图像数据），读取时不再额外复制一份 {@code byte[]}；
+ * 使用完毕后必须调用 {@link #close()}（推荐 try-with-resources）释放本地内存，关闭后不可再访问</p>
+ * <p>非线程安全，同一实例不应被多个线程同时读取或关闭</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class NativeImage implements AutoCloseable {
+
+    /**
+     * 空图像（本地插件没有返回数据）
+     */
+    public static final NativeImage EMPTY = new NativeImage(null, 0, null);
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final Pointer pointer;
+    private final int size;
+    private final Consumer<Pointer> releaser;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private NativeImage(Pointer pointer, int size, Consumer<Pointer> releaser) {
+        this.pointer = pointer;
+        this.size = size;
+        this.releaser = releaser;
+    }
+
+    /**
+     * 包装本地插件返回的图像指针
+     *
+     * @param pointer  本地图像指针，开头4字节为图像数据长度，null表示没有数据
+     * @param releaser 释放本地内存的方法，在 {@link #close()} 时调用且只调用一次
+     * @return 本地图像，没有数据时返回 {@link #EMPTY}（此时若指针非空也会立即释放）
+     * @throws RuntimeException 读取数据长度失败时抛出
+     */
+    public static NativeImage of(Pointer pointer, Consumer<Pointer> releaser) {
+        if (pointer == null) {
+            return EMPTY;
+        }
+        int size;
+        try {
+            size = pointer.getInt(0);
+        } catch (RuntimeException e) {
+            release(pointer, releaser);
+            throw new RuntimeException("从Pointer读取数据长度失败", e);
+        }
+        if (size <= 0) {
+            release(pointer, releaser);
+            return EMPTY;
+        }
+        return new NativeImage(pointer, size, releaser);
+    }
+
+    /**
+     * 获取图像数据长度
+     *
+     * @return 字节数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 是否没有图像数据
+     *
+     * @return 没有数据时返回true
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 获取图像数据的只读直接缓冲区视图，不复制数据
+     * <p>视图直接指向本地内存，{@link #close()} 之后不可再使用</p>
+     *
+     * @return 只读缓冲区，position为0，limit为图像长度
+     * @throws IllegalStateException 已关闭时抛出
+     */
+    public ByteBuffer buffer() {
+        if (isEmpty()) {
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+        ensureOpen();
+        return pointer.getByteBuffer(4, size).asReadOnlyBuffer();
+    }
+
+    /**
+     * 将图像数据写入通道（直接从本地内存写出，不经过堆内存）
+     *
+     * @param channel 目标通道
+     * @return 写入的字节数
+     * @throws IOException           写入失败时抛出
+     * @throws IllegalStateException 已关闭时抛出
+     */
+    public long transferTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = buffer();
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        return written;
+    }
+
+    /**
+     * 将图像数据写入输出流
+     * <p>分块读取本地内存写出，只占用固定大小的中转缓冲区</p>
+     *
+     * @param out 目标输出流
+     * @return 写入的字节数
+     * @throws IOException           写入失败时抛出
+     * @throws IllegalStateException 已关闭时抛出
+     */
+    public long writeTo(OutputStream out) throws IOException {
+        if (isEmpty()) {
+            return 0;
+        }
+        ensureOpen();
+        byte[] chunk = new byte[Math.min(size, COPY_BUFFER_SIZE)];
+        for (int offset = 0; offset < size; offset += chunk.length) {
+            int length = Math.min(chunk.length, size - offset);
+            pointer.read(4L + offset, chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+        return size;
+    }
+
+    /**
+     * 复制图像数据到新的字节数组
+     *
+     * @return 图像数据
+     * @throws IllegalStateException 已关闭时抛出
+     */
+    public byte[] toByteArray() {
+        if (isEmpty()) {
+            return new byte[0];
+        }
+        ensureOpen();
+        return pointer.getByteArray(4, size);
+    }
+
+    /**
+     * 释放本地内存，重复调用无效果
+     */
+    @Override
+    public void close() {
+        if (pointer != null && closed.compareAndSet(false, true)) {
+            release(pointer, releaser);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("本地图像已释放");
+        }
+    }
+
+    private static void release(Pointer pointer, Consumer<Pointer> releaser) {
+        if (releaser != null) {
+            releaser.accept(pointer);
+        }
+    }
+}
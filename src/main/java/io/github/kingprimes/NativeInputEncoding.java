@@ -0,0 +1,279 @@
+package io.github.kingprimes;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.util.TokenBuffer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 传递给本地插件的绘图数据编码
+ * <p>编码后的数据仍以"4字节长度 + 数据"的形式写入本地内存，具体使用哪种编码由
+ * {@link NativeDrawLibrary#nativeNegotiateInputEncoding(int)} 与本地插件协商，未实现协商函数的插件一律使用JSON</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public enum NativeInputEncoding {
+
+    /**
+     * JSON（UTF-8）
+     */
+    JSON(0) {
+        @Override
+        public byte[] encode(ObjectMapper mapper, Object value) {
+            return mapper.writeValueAsBytes(value);
+        }
+    },
+
+    /**
+     * CBOR（RFC 8949）
+     * <p>字段名与值直接按二进制写出，对象与数组使用不定长编码；数字不再格式化为文本，体积与编码耗时都小于JSON</p>
+     */
+    CBOR(1) {
+        @Override
+        public byte[] encode(ObjectMapper mapper, Object value) {
+            // 序列化为令牌流后直接写出CBOR，不构建中间的JsonNode树
+            TokenBuffer buffer = mapper.writeValueIntoBuffer(value);
+            try (JsonParser parser = buffer.asParser()) {
+                CborWriter writer = new CborWriter();
+                JsonToken token;
+                while ((token = parser.nextToken()) != null) {
+                    writer.write(token, parser);
+                }
+                return writer.toByteArray();
+            } finally {
+                buffer.close();
+            }
+        }
+    };
+
+    private final int id;
+
+    NativeInputEncoding(int id) {
+        this.id = id;
+    }
+
+    /**
+     * 根据协商结果获取编码
+     *
+     * @param id 编码标识
+     * @return 编码，未知标识返回null
+     */
+    public static NativeInputEncoding of(int id) {
+        for (NativeInputEncoding encoding : values()) {
+            if (encoding.id == id) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 所有编码的位掩码，协商时告知本地插件当前支持哪些编码
+     *
+     * @return 位掩码，第 {@link #getId()} 位表示对应编码
+     */
+    public static int supportedMask() {
+        int mask = 0;
+        for (NativeInputEncoding encoding : values()) {
+            mask |= 1 << encoding.id;
+        }
+        return mask;
+    }
+
+    /**
+     * 获取编码标识
+     *
+     * @return 编码标识
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * 编码绘图数据
+     *
+     * @param mapper 序列化使用的ObjectMapper
+     * @param value  绘图数据
+     * @return 编码后的数据
+     */
+    public abstract byte[] encode(ObjectMapper mapper, Object value);
+
+    /**
+     * 最小化的CBOR写入器，只处理Jackson序列化产生的令牌
+     */
+    private static final class CborWriter {
+        private static final int MAJOR_UNSIGNED = 0;
+        private static final int MAJOR_NEGATIVE = 1 << 5;
+        private static final int MAJOR_BYTES = 2 << 5;
+        private static final int MAJOR_TEXT = 3 << 5;
+        private static final int MAJOR_ARRAY = 4 << 5;
+        private static final int MAJOR_MAP = 5 << 5;
+        private static final int MAJOR_TAG = 6 << 5;
+        private static final int INDEFINITE = 31;
+        private static final int BREAK = 0xFF;
+        private static final int FALSE = 0xF4;
+        private static final int TRUE = 0xF5;
+        private static final int NULL = 0xF6;
+        private static final int FLOAT32 = 0xFA;
+        private static final int FLOAT64 = 0xFB;
+        private static final int TAG_POSITIVE_BIGNUM = 2;
+        private static final int TAG_NEGATIVE_BIGNUM = 3;
+        private static final int TAG_DECIMAL_FRACTION = 4;
+
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        void write(JsonToken token, JsonParser parser) {
+            switch (token) {
+                case START_OBJECT -> writeByte(MAJOR_MAP | INDEFINITE);
+                case START_ARRAY -> writeByte(MAJOR_ARRAY | INDEFINITE);
+                case END_OBJECT, END_ARRAY -> writeByte(BREAK);
+                case PROPERTY_NAME -> writeText(parser.currentName());
+                case VALUE_STRING -> writeText(parser.getString());
+                case VALUE_NUMBER_INT -> writeInteger(parser);
+                case VALUE_NUMBER_FLOAT -> writeFloat(parser);
+                case VALUE_TRUE -> writeByte(TRUE);
+                case VALUE_FALSE -> writeByte(FALSE);
+                case VALUE_NULL -> writeByte(NULL);
+                case VALUE_EMBEDDED_OBJECT -> writeEmbedded(parser.getEmbeddedObject());
+                default -> throw new IllegalStateException("无法编码为CBOR的令牌: %s".formatted(token));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void writeInteger(JsonParser parser) {
+            switch (parser.getNumberType()) {
+                case INT, LONG -> writeLong(parser.getLongValue());
+                default -> writeBigInteger(parser.getBigIntegerValue());
+            }
+        }
+
+        private void writeFloat(JsonParser parser) {
+            if (parser.getNumberType() == JsonParser.NumberType.BIG_DECIMAL) {
+                BigDecimal decimal = parser.getDecimalValue();
+                // 十进制小数：[指数, 尾数]，保持精度
+                writeHead(MAJOR_TAG, TAG_DECIMAL_FRACTION);
+                writeHead(MAJOR_ARRAY, 2);
+                writeLong(-(long) decimal.scale());
+                writeBigInteger(decimal.unscaledValue());
+                return;
+            }
+            double value = parser.getDoubleValue();
+            float single = (float) value;
+            if (single == value || Double.isNaN(value)) {
+                ensure(5);
+                bytes[size++] = (byte) FLOAT32;
+                writeInt(Float.floatToIntBits(single));
+            } else {
+                ensure(9);
+                bytes[size++] = (byte) FLOAT64;
+                long bits = Double.doubleToLongBits(value);
+                writeInt((int) (bits >>> 32));
+                writeInt((int) bits);
+            }
+        }
+
+        private void writeEmbedded(Object value) {
+            if (value == null) {
+                writeByte(NULL);
+            } else if (value instanceof byte[] data) {
+                writeHead(MAJOR_BYTES, data.length);
+                writeRaw(data);
+            } else {
+                writeText(value.toString());
+            }
+        }
+
+        private void writeLong(long value) {
+            if (value >= 0) {
+                writeHead(MAJOR_UNSIGNED, value);
+            } else {
+                // 负整数编码为 -1 - n
+                writeHead(MAJOR_NEGATIVE, -1 - value);
+            }
+        }
+
+        private void writeBigInteger(BigInteger value) {
+            if (value.bitLength() < 64) {
+                writeLong(value.longValue());
+                return;
+            }
+            boolean negative = value.signum() < 0;
+            BigInteger magnitude = negative ? value.negate().subtract(BigInteger.ONE) : value;
+            byte[] data = magnitude.toByteArray();
+            int offset = data[0] == 0 ? 1 : 0;
+            writeHead(MAJOR_TAG, negative ? TAG_NEGATIVE_BIGNUM : TAG_POSITIVE_BIGNUM);
+            writeHead(MAJOR_BYTES, data.length - offset);
+            ensure(data.length - offset);
+            System.arraycopy(data, offset, bytes, size, data.length - offset);
+            size += data.length - offset;
+        }
+
+        private void writeText(String text) {
+            byte[] data = text.getBytes(StandardCharsets.UTF_8);
+            writeHead(MAJOR_TEXT, data.length);
+            writeRaw(data);
+        }
+
+        /**
+         * 写入类型头：主类型 + 参数，参数按值大小使用最短的编码
+         *
+         * @param major 主类型（已左移5位）
+         * @param value 参数，按无符号处理
+         */
+        private void writeHead(int major, long value) {
+            ensure(9);
+            if (value >= 0 && value < 24) {
+                bytes[size++] = (byte) (major | value);
+            } else if (value >= 0 && value <= 0xFF) {
+                bytes[size++] = (byte) (major | 24);
+                bytes[size++] = (byte) value;
+            } else if (value >= 0 && value <= 0xFFFF) {
+                bytes[size++] = (byte) (major | 25);
+                bytes[size++] = (byte) (value >>> 8);
+                bytes[size++] = (byte) value;
+            } else if (value >= 0 && value <= 0xFFFF_FFFFL) {
+                bytes[size++] = (byte) (major | 26);
+                writeInt((int) value);
+            } else {
+                bytes[size++] = (byte) (major | 27);
+                writeInt((int) (value >>> 32));
+                writeInt((int) value);
+            }
+        }
+
+        private void writeInt(int value) {
+            bytes[size++] = (byte) (value >>> 24);
+            bytes[size++] = (byte) (value >>> 16);
+            bytes[size++] = (byte) (value >>> 8);
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeRaw(byte[] data) {
+            ensure(data.length);
+            System.arraycopy(data, 0, bytes, size, data.length);
+            size += data.length;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
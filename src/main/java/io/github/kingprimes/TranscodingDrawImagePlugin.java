@@ -0,0 +1,66 @@
+package io.github.kingprimes;
+
+import io.github.kingprimes.image.ImageCombiner.OutputFormat;
+import io.github.kingprimes.image.encoder.ImageEncoders;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * 输出格式转码装饰器
+ * <p>用于无法直接按指定格式编码的插件（如本地插件），将其输出解码后再按目标格式重新编码</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+final class TranscodingDrawImagePlugin extends ForwardingDrawImagePlugin {
+
+    private final OutputFormat format;
+
+    /**
+     * 构造转码装饰器
+     *
+     * @param delegate 被装饰的插件
+     * @param format   目标输出格式
+     */
+    TranscodingDrawImagePlugin(DrawImagePlugin delegate, OutputFormat format) {
+        super(delegate);
+        if (format == null) {
+            throw new IllegalArgumentException("输出格式不可为null");
+        }
+        this.format = format;
+    }
+
+    @Override
+    protected byte[] draw(String method, Supplier<byte[]> call, Object... args) {
+        byte[] bytes = call.get();
+        if (bytes == null || bytes.length == 0) {
+            return bytes;
+        }
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+            if (image == null) {
+                throw new IOException("无法识别插件输出的图像格式");
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+            ImageEncoders.get(format).encode(image, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("图像转码为%s失败: %s".formatted(format, e.getMessage()), e);
+        }
+    }
+
+    @Override
+    public OutputFormat getOutputFormat() {
+        return format;
+    }
+
+    @Override
+    public DrawImagePlugin withOutputFormat(OutputFormat format) {
+        return delegate.withOutputFormat(format);
+    }
+}
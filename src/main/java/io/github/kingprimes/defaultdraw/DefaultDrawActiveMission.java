@@ -1,10 +1,10 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.worldstate.ActiveMission;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
 import java.util.List;
 
 import static io.github.kingprimes.defaultdraw.DrawConstants.*;
@@ -17,17 +17,33 @@ import static io.github.kingprimes.defaultdraw.DrawConstants.*;
  */
 final class DefaultDrawActiveMission {
 
-    final static Font FONT_FACTION = FONT_WARFRAME_ICON.deriveFont(Font.PLAIN, 48f);
+    final static Font FONT_FACTION = FontRegistry.derive(FONT_WARFRAME_ICON, Font.PLAIN, 48f);
 
     /**
      * 绘制裂隙任务图像
      *
      * @param activeMission 裂隙任务数据
-     * @return 生成的裂隙任务图像的 PNG 格式字节数组
+     * @return PNG格式的图像字节数组，activeMission为null或空列表时返回空数组
      */
     public static byte[] drawActiveMissionImage(List<ActiveMission> activeMission) {
+        try (ImageCombiner combiner = renderActiveMissionImage(activeMission)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制裂隙任务图像，不进行编码
+     *
+     * @param activeMission 裂隙任务数据
+     * @return 绘制完成但尚未编码的图像合成器，activeMission为null或空列表时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderActiveMissionImage(List<ActiveMission> activeMission) {
         if (activeMission == null || activeMission.isEmpty()) {
-            return new byte[0];
+            return null;
         }
 
         // 动态计算高度
@@ -36,60 +52,59 @@ final class DefaultDrawActiveMission {
         int height = IMAGE_MARGIN_TOP + IMAGE_TITLE_HEIGHT + contentHeight + IMAGE_FOOTER_HEIGHT; // 上边距 + 标题高度 + 标题与内容间距 + 内容高度 + 下边距
 
         // 创建画布
-        ImageCombiner combiner = new ImageCombiner(ACTIVE_MISSION_WIDTH, height, ImageCombiner.OutputFormat.PNG);
-
-        // 填充背景色
-        combiner.setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, ACTIVE_MISSION_WIDTH, height)
-                .drawTooRoundRect();
-
-        combiner.setColor(ACTIVE_MISSION_HEADER_COLOR)
-                .setFont(FONT)
-                .addCenteredText(activeMission.getFirst().getVoidStorms() ? "虚空风暴" : activeMission.getFirst().getHard() ? "钢铁裂隙" : "虚空裂隙", IMAGE_MARGIN_TOP)
-                .drawStandingDrawing();
-        // 绘制内容区域
-        int y = IMAGE_MARGIN + IMAGE_ROW_HEIGHT + IMAGE_ROW_HEIGHT;
-
-        for (ActiveMission mission : activeMission) {
-            int x = IMAGE_MARGIN;
-            // 裂隙类型
-            combiner.setColor(mission.getModifierColor())
-                    .addText(mission.getModifierName(), x, y);
-
-            x += IMAGE_MARGIN + 60;
-            // 任务类型和派系
-            String missionInfo = mission.getMissionTypeName();
-            combiner.setColor(mission.getMissionTypeColor())
-                    .addText(missionInfo, x, y);
-            combiner.setFont(FONT_FACTION)
-                    .setColor(mission.getFactionColor())
-                    .addText(mission.getFactionIcon(), x + 140, y + 8)
+        ImageCombiner combiner = ImageCombiner.leased(ACTIVE_MISSION_WIDTH, height, ImageCombiner.OutputFormat.PNG);
+        try {
+            // 填充背景色
+            combiner.setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, ACTIVE_MISSION_WIDTH, height)
+                    .drawTooRoundRect();
+
+            combiner.setColor(ACTIVE_MISSION_HEADER_COLOR)
                     .setFont(FONT)
-                    .addText(mission.getFactionName(), x + 190, y);
-            x += IMAGE_MARGIN + 60;
-            // 节点位置
-            x += IMAGE_MARGIN + 260;
-            String node = mission.getNode();
-            combiner.setColor(ACTIVE_MISSION_LOCATION_COLOR)
-                    .addText(node, x, y);
-
-            // 剩余时间
-            x += IMAGE_MARGIN + combiner.getStringWidth(node) + 60;
-            Color timeColor = getTimeColor(mission);
-            combiner.setColor(timeColor)
-                    .addText(mission.getTimeLeft(), x, y);
-
-            y += IMAGE_ROW_HEIGHT;
-        }
+                    .addCenteredText(activeMission.getFirst().getVoidStorms() ? "虚空风暴" : activeMission.getFirst().getHard() ? "钢铁裂隙" : "虚空裂隙", IMAGE_MARGIN_TOP)
+                    .drawStandingDrawing();
+            // 绘制内容区域
+            int y = IMAGE_MARGIN + IMAGE_ROW_HEIGHT + IMAGE_ROW_HEIGHT;
+
+            for (ActiveMission mission : activeMission) {
+                int x = IMAGE_MARGIN;
+                // 裂隙类型
+                combiner.setColor(mission.getModifierColor())
+                        .addText(mission.getModifierName(), x, y);
+
+                x += IMAGE_MARGIN + 60;
+                // 任务类型和派系
+                String missionInfo = mission.getMissionTypeName();
+                combiner.setColor(mission.getMissionTypeColor())
+                        .addText(missionInfo, x, y);
+                combiner.setFont(FONT_FACTION)
+                        .setColor(mission.getFactionColor())
+                        .addIcon(ICON_ATLAS, mission.getFactionIcon(), x + 140, y + 8)
+                        .setFont(FONT)
+                        .addText(mission.getFactionName(), x + 190, y);
+                x += IMAGE_MARGIN + 60;
+                // 节点位置
+                x += IMAGE_MARGIN + 260;
+                String node = mission.getNode();
+                combiner.setColor(ACTIVE_MISSION_LOCATION_COLOR)
+                        .addText(node, x, y);
+
+                // 剩余时间
+                x += IMAGE_MARGIN + combiner.getStringWidth(node) + 60;
+                Color timeColor = getTimeColor(mission);
+                combiner.setColor(timeColor)
+                        .addText(mission.getTimeLeft(), x, y);
+
+                y += IMAGE_ROW_HEIGHT;
+            }
 
-        // 底部署名
-        addFooter(combiner, height - 40);
+            // 底部署名
+            addFooter(combiner, height - 40);
 
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
     }
 
@@ -1,10 +1,10 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.worldstate.Alert;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
 import java.util.List;
 
 import static io.github.kingprimes.defaultdraw.DrawConstants.*;
@@ -30,94 +30,109 @@ public final class DefaultDrawAlertsImage {
      * 绘制警报图像
      *
      * @param alerts 警报数据列表
-     * @return 生成的警报图像的 PNG 格式字节数组
+     * @return 生成的警报图像的 PNG 格式字节数组，alerts为null或空列表时返回空数组
      */
     public static byte[] drawAlertsImage(List<Alert> alerts) {
+        try (ImageCombiner combiner = renderAlertsImage(alerts)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制警报图像，不进行编码
+     *
+     * @param alerts 警报数据列表
+     * @return 绘制完成但尚未编码的图像合成器，alerts为null或空列表时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderAlertsImage(List<Alert> alerts) {
         if (alerts == null || alerts.isEmpty()) {
-            return new byte[0];
+            return null;
         }
 
         // 计算图像高度
         int height = calculateImageHeight(alerts.size());
 
         // 创建画布
-        ImageCombiner combiner = new ImageCombiner(
+        ImageCombiner combiner = ImageCombiner.leased(
                 ALERTS_IMAGE_WIDTH,
                 height,
                 ImageCombiner.OutputFormat.PNG
         );
+        try {
+            // 填充背景色
+            combiner.setFont(FONT)
+                    .setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, ALERTS_IMAGE_WIDTH, height)
+                    // 绘制双层边框
+                    .drawTooRoundRect();
+
+            // 绘制标题
+            combiner.setColor(HEADER_COLOR)
+                    .setFont(FontRegistry.derive(FONT, Font.BOLD, 40))
+                    .addCenteredText("警报", 80);
+
+            // 绘制表格
+            int tableY = 120;
+            int tableWidth = ALERTS_IMAGE_WIDTH - 2 * IMAGE_MARGIN;
+            int rowHeight = 60;
+
+            // 绘制表头
+            String[] headers = {"任务地点", "任务类型", "派系", "任务奖励", "距离结束"};
+            int[] columnWidths = {200, 150, 150, 350, 150};
+
+            // 绘制表头背景
+            combiner.setColor(HEADER_COLOR)
+                    .fillRect(IMAGE_MARGIN, tableY, tableWidth, rowHeight);
+
+            // 绘制表头文字
+            combiner.setColor(Color.WHITE)
+                    .setFont(FontRegistry.derive(FONT, Font.BOLD, 16));
+            int x = IMAGE_MARGIN;
+            for (int i = 0; i < headers.length; i++) {
+                combiner.addText(headers[i], x + columnWidths[i] / 2, tableY + rowHeight / 2 + 8);
+                x += columnWidths[i];
+            }
+            combiner.drawStandingDrawing();
+            // 绘制表格内容
+            int contentY = tableY + rowHeight;
+            for (int i = 0; i < alerts.size(); i++) {
+                Alert alert = alerts.get(i);
+                int rowY = contentY + i * rowHeight;
+
+                // 绘制斑马纹效果
+                if (i % 2 == 0) {
+                    combiner.setColor(new Color(0xFFFFFF, true)) // 半透明白色
+                            .fillRect(IMAGE_MARGIN, rowY, tableWidth, rowHeight);
+                }
 
-        // 填充背景色
-        combiner.setFont(FONT)
-                .setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, ALERTS_IMAGE_WIDTH, height)
-                // 绘制双层边框
-                .drawTooRoundRect();
-
-        // 绘制标题
-        combiner.setColor(HEADER_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 40))
-                .addCenteredText("警报", 80);
-
-        // 绘制表格
-        int tableY = 120;
-        int tableWidth = ALERTS_IMAGE_WIDTH - 2 * IMAGE_MARGIN;
-        int rowHeight = 60;
+                // 绘制表格行边框
+                combiner.setColor(new Color(0xE0E0E0, true))
+                        .setStroke(1)
+                        .drawLine(IMAGE_MARGIN, rowY + rowHeight, IMAGE_MARGIN + tableWidth, rowY + rowHeight);
 
-        // 绘制表头
-        String[] headers = {"任务地点", "任务类型", "派系", "任务奖励", "距离结束"};
-        int[] columnWidths = {200, 150, 150, 350, 150};
-
-        // 绘制表头背景
-        combiner.setColor(HEADER_COLOR)
-                .fillRect(IMAGE_MARGIN, tableY, tableWidth, rowHeight);
-
-        // 绘制表头文字
-        combiner.setColor(Color.WHITE)
-                .setFont(FONT.deriveFont(Font.BOLD, 16));
-        int x = IMAGE_MARGIN;
-        for (int i = 0; i < headers.length; i++) {
-            combiner.addText(headers[i], x + columnWidths[i] / 2, tableY + rowHeight / 2 + 8);
-            x += columnWidths[i];
-        }
-        combiner.drawStandingDrawing();
-        // 绘制表格内容
-        int contentY = tableY + rowHeight;
-        for (int i = 0; i < alerts.size(); i++) {
-            Alert alert = alerts.get(i);
-            int rowY = contentY + i * rowHeight;
-
-            // 绘制斑马纹效果
-            if (i % 2 == 0) {
-                combiner.setColor(new Color(0xFFFFFF, true)) // 半透明白色
-                        .fillRect(IMAGE_MARGIN, rowY, tableWidth, rowHeight);
+                // 绘制行内容
+                drawAlertRow(combiner, alert, rowY, columnWidths, rowHeight);
             }
 
-            // 绘制表格行边框
+            // 绘制底部边框线
+            int tableHeight = rowHeight + alerts.size() * rowHeight;
             combiner.setColor(new Color(0xE0E0E0, true))
                     .setStroke(1)
-                    .drawLine(IMAGE_MARGIN, rowY + rowHeight, IMAGE_MARGIN + tableWidth, rowY + rowHeight);
-
-            // 绘制行内容
-            drawAlertRow(combiner, alert, rowY, columnWidths, rowHeight);
-        }
-
-        // 绘制底部边框线
-        int tableHeight = rowHeight + alerts.size() * rowHeight;
-        combiner.setColor(new Color(0xE0E0E0, true))
-                .setStroke(1)
-                .drawLine(IMAGE_MARGIN, tableY + tableHeight, IMAGE_MARGIN + tableWidth, tableY + tableHeight);
+                    .drawLine(IMAGE_MARGIN, tableY + tableHeight, IMAGE_MARGIN + tableWidth, tableY + tableHeight);
 
 
-        // 添加底部署名
-        addFooter(combiner, height - IMAGE_FOOTER_HEIGHT);
+            // 添加底部署名
+            addFooter(combiner, height - IMAGE_FOOTER_HEIGHT);
 
-        // 合并图像
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
     }
 
@@ -1,13 +1,19 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.TemplateCache;
 import io.github.kingprimes.image.TextUtils;
 import io.github.kingprimes.model.enums.FactionEnum;
 import io.github.kingprimes.model.enums.IconEnum;
 import io.github.kingprimes.model.worldstate.AllCycle;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 import static io.github.kingprimes.defaultdraw.DrawConstants.*;
 
@@ -19,17 +25,79 @@ import static io.github.kingprimes.defaultdraw.DrawConstants.*;
  */
 final class DefaultDrawAllCycleImage {
 
-    final static Font FONT_STATE = FONT_WARFRAME_ICON.deriveFont(Font.PLAIN, 120f);
+    final static Font FONT_STATE = FontRegistry.derive(FONT_WARFRAME_ICON, Font.PLAIN, 120f);
+
+    // 表头、状态、图标与剩余时间各行的纵坐标
+    private static final int HEADER_Y = IMAGE_MARGIN + IMAGE_TITLE_HEIGHT + ALL_CYCLE_TABLE_HEADER_HEIGHT + FONT_SIZE;
+    private static final int STATE_Y = HEADER_Y + 80 + FONT_SIZE;
+    private static final int ICON_Y = STATE_Y + 40 + FONT_SIZE + 120;
+    private static final int TIME_Y = ICON_Y + 130;
 
     /**
      * 绘制所有循环图片
+     * <p>除剩余时间外的内容只依赖各循环的状态，作为模板缓存到最早结束的循环切换状态为止（见 {@link TemplateCache}），
+     * 每次请求只在模板副本上重新绘制剩余时间</p>
      *
      * @param allCycle 所有循环数据
-     * @return 生成的图片字节数组，格式为 PNG
+     * @return PNG格式的图像字节数组
      */
     public static byte[] drawAllCycleImage(AllCycle allCycle) {
-        // 创建画布
-        ImageCombiner combiner = new ImageCombiner(IMAGE_WIDTH, ALL_CYCLE_HEIGHT, ImageCombiner.OutputFormat.PNG);
+        try (ImageCombiner combiner = renderAllCycleImage(allCycle)) {
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制所有循环图片，不进行编码
+     *
+     * @param allCycle 所有循环数据
+     * @return 绘制完成但尚未编码的图像合成器，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderAllCycleImage(AllCycle allCycle) {
+        ImageCombiner combiner = TemplateCache.shared().open(templateKey(allCycle), expiryOf(allCycle),
+                IMAGE_WIDTH, ALL_CYCLE_HEIGHT, ImageCombiner.OutputFormat.PNG,
+                template -> drawStaticPart(template, allCycle));
+        try {
+            drawTimeLeft(combiner, allCycle);
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 模板键：静态部分用到的各循环状态
+     */
+    private static List<Object> templateKey(AllCycle allCycle) {
+        return Arrays.asList("allCycle",
+                allCycle.getEarthCycle().isDay(), allCycle.getEarthCycle().getState(),
+                allCycle.getCetusCycle().getIsDay(), allCycle.getCetusCycle().getState(),
+                allCycle.getVallisCycle().isWarm(), allCycle.getVallisCycle().getState(),
+                allCycle.getCambionCycle().getActive(),
+                allCycle.getZarimanCycle().isCorpus(), allCycle.getZarimanCycle().getState());
+    }
+
+    /**
+     * 模板失效时间：最早切换状态的循环的结束时间
+     */
+    private static Instant expiryOf(AllCycle allCycle) {
+        return Stream.of(allCycle.getEarthCycle().getExpiry(), allCycle.getCetusCycle().getExpiry(),
+                        allCycle.getVallisCycle().getExpiry(), allCycle.getCambionCycle().getExpiry(),
+                        allCycle.getZarimanCycle().getExpiry())
+                .filter(Objects::nonNull)
+                .min(Instant::compareTo)
+                .orElse(null);
+    }
+
+    /**
+     * 绘制静态部分：背景、标题、表头、状态图标与状态文字、底部署名
+     *
+     * @param combiner 图像合成器
+     * @param allCycle 所有循环数据
+     */
+    private static void drawStaticPart(ImageCombiner combiner, AllCycle allCycle) {
         // 填充背景色
         combiner.setFont(FONT)
                 .setColor(PAGE_BACKGROUND_COLOR)
@@ -44,10 +112,9 @@ final class DefaultDrawAllCycleImage {
                 .drawStandingDrawing();
 
         // 绘制表头
-        int tableY = IMAGE_MARGIN + IMAGE_TITLE_HEIGHT + ALL_CYCLE_TABLE_HEADER_HEIGHT;
         combiner.setFont(FONT)
                 .setColor(TEXT_COLOR);
-        int headerY = tableY + FONT_SIZE;
+        int headerY = HEADER_Y;
         combiner.addText("地球", 100, headerY);
         combiner.addText("夜灵平野", 250, headerY);
         combiner.addText("福尔图娜", 450, headerY);
@@ -55,26 +122,26 @@ final class DefaultDrawAllCycleImage {
         combiner.addText("扎里曼", 850, headerY);
 
         // 绘制状态行
-        int stateY = headerY + 80 + FONT_SIZE;
+        int stateY = STATE_Y;
         String earthState = allCycle.getEarthCycle().getState();
         String cetusState = allCycle.getCetusCycle().getState();
         String vallisState = allCycle.getVallisCycle().getState();
         String cambionState = allCycle.getCambionCycle().getActive();
         String zarimanState = allCycle.getZarimanCycle().getState();
 
-        int imageY = stateY + 40 + FONT_SIZE + 120;
+        int imageY = ICON_Y;
         int earthImageX = 70, cetusImageX = 250, vallisImageX = 450, cambionImageX = 650, zarimanImageX = 850;
 
         // 设置地球状态颜色
         if (allCycle.getEarthCycle().isDay()) {
             combiner.setColor(ALL_CYCLE_WARM_COLOR)
                     .setFont(FONT_STATE)
-                    .addText(IconEnum.SUN.getIcon(), earthImageX, imageY)
+                    .addIcon(ICON_ATLAS, IconEnum.SUN.getIcon(), earthImageX, imageY)
                     .setFont(FONT);
         } else {
             combiner.setColor(ALL_CYCLE_COLD_COLOR)
                     .setFont(FONT_STATE)
-                    .addText(IconEnum.NIGHT.getIcon(), earthImageX, imageY)
+                    .addIcon(ICON_ATLAS, IconEnum.NIGHT.getIcon(), earthImageX, imageY)
                     .setFont(FONT);
         }
         combiner.addText(earthState, 100, stateY);
@@ -82,12 +149,12 @@ final class DefaultDrawAllCycleImage {
         if (allCycle.getCetusCycle().getIsDay()) {
             combiner.setColor(ALL_CYCLE_WARM_COLOR)
                     .setFont(FONT_STATE)
-                    .addText(IconEnum.SUN.getIcon(), cetusImageX, imageY)
+                    .addIcon(ICON_ATLAS, IconEnum.SUN.getIcon(), cetusImageX, imageY)
                     .setFont(FONT);
         } else {
             combiner.setColor(ALL_CYCLE_COLD_COLOR)
                     .setFont(FONT_STATE)
-                    .addText(IconEnum.NIGHT.getIcon(), cetusImageX, imageY)
+                    .addIcon(ICON_ATLAS, IconEnum.NIGHT.getIcon(), cetusImageX, imageY)
                     .setFont(FONT);
         }
         combiner.addText(cetusState, 280, stateY);
@@ -96,12 +163,12 @@ final class DefaultDrawAllCycleImage {
         if (allCycle.getVallisCycle().isWarm()) {
             combiner.setColor(ALL_CYCLE_WARM_COLOR)
                     .setFont(FONT_STATE)
-                    .addText(IconEnum.SUN.getIcon(), vallisImageX, imageY)
+                    .addIcon(ICON_ATLAS, IconEnum.SUN.getIcon(), vallisImageX, imageY)
                     .setFont(FONT);
         } else {
             combiner.setColor(ALL_CYCLE_COLD_COLOR)
                     .setFont(FONT_STATE)
-                    .addText(IconEnum.COLD.getIcon(), vallisImageX, imageY)
+                    .addIcon(ICON_ATLAS, IconEnum.COLD.getIcon(), vallisImageX, imageY)
                     .setFont(FONT);
         }
         combiner.addText(vallisState, 480, stateY);
@@ -111,12 +178,12 @@ final class DefaultDrawAllCycleImage {
             combiner.setColor(ALL_CYCLE_WARM_COLOR);
             combiner.setColor(ALL_CYCLE_WARM_COLOR)
                     .setFont(FONT_STATE)
-                    .addText(IconEnum.SUN.getIcon(), cambionImageX, imageY)
+                    .addIcon(ICON_ATLAS, IconEnum.SUN.getIcon(), cambionImageX, imageY)
                     .setFont(FONT);
         } else {
             combiner.setColor(ALL_CYCLE_COLD_COLOR)
                     .setFont(FONT_STATE)
-                    .addText(IconEnum.NIGHT.getIcon(), cambionImageX, imageY)
+                    .addIcon(ICON_ATLAS, IconEnum.NIGHT.getIcon(), cambionImageX, imageY)
                     .setFont(FONT);
         }
         combiner.addText(cambionState, 660, stateY);
@@ -125,19 +192,34 @@ final class DefaultDrawAllCycleImage {
         if (allCycle.getZarimanCycle().isCorpus()) {
             combiner.setColor(ALL_CYCLE_WARM_COLOR)
                     .setFont(FONT_STATE)
-                    .addText(FactionEnum.FC_GRINEER.getIcon(), zarimanImageX, imageY)
+                    .addIcon(ICON_ATLAS, FactionEnum.FC_GRINEER.getIcon(), zarimanImageX, imageY)
                     .setFont(FONT);
         } else {
             combiner.setColor(ALL_CYCLE_COLD_COLOR)
                     .setFont(FONT_STATE)
-                    .addText(FactionEnum.FC_CORPUS.getIcon(), zarimanImageX, imageY)
+                    .addIcon(ICON_ATLAS, FactionEnum.FC_CORPUS.getIcon(), zarimanImageX, imageY)
                     .setFont(FONT)
             ;
         }
         combiner.addText(zarimanState, 850, stateY);
 
-        // 绘制时间行
-        int timeY = imageY + 130;
+        addFooter(combiner, ALL_CYCLE_HEIGHT - 40);
+    }
+
+    /**
+     * 绘制动态部分：各循环的剩余时间，居中对齐到对应的状态文字
+     *
+     * @param combiner 已绘制静态部分的图像合成器
+     * @param allCycle 所有循环数据
+     */
+    private static void drawTimeLeft(ImageCombiner combiner, AllCycle allCycle) {
+        combiner.setFont(FONT);
+        int timeY = TIME_Y;
+        String earthState = allCycle.getEarthCycle().getState();
+        String cetusState = allCycle.getCetusCycle().getState();
+        String vallisState = allCycle.getVallisCycle().getState();
+        String cambionState = allCycle.getCambionCycle().getActive();
+        String zarimanState = allCycle.getZarimanCycle().getState();
         String earthTime = allCycle.getEarthCycle().getTimeLeft();
         String cetusTime = allCycle.getCetusCycle().getTimeLeft();
         String vallisTime = allCycle.getVallisCycle().getTimeLeft();
@@ -187,14 +269,5 @@ final class DefaultDrawAllCycleImage {
         }
         int zarimanTimeX = 860 + (TextUtils.getFortWidth(zarimanState, FONT) - TextUtils.getFortWidth(zarimanTime, FONT)) / 2;
         combiner.addText(zarimanTime, zarimanTimeX, timeY);
-
-        addFooter(combiner, ALL_CYCLE_HEIGHT - 40);
-
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
-        }
     }
 }
@@ -1,10 +1,12 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.DisplayList;
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.RecordingImageCombiner;
 import io.github.kingprimes.model.*;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
 import java.util.List;
 
 import static io.github.kingprimes.defaultdraw.DrawConstants.*;
@@ -13,85 +15,76 @@ import static io.github.kingprimes.defaultdraw.DrawConstants.*;
  * 默认所有系统信息图片绘制工具类
  *
  * @author KingPrimes
- * @version 1.0.3
+ * @version 1.0.4
  */
 final class DefaultDrawAllInfoImage {
 
 
     /**
-     * 计算图像所需的高度
+     * 最小画布高度
+     */
+    private static final int MIN_IMAGE_HEIGHT = 800;
+
+    /**
+     * 绘制所有系统信息图片
+     * <p>先录制正文并测量实际高度，再按测量结果分配画布，无需预先估算各部分的高度</p>
      *
      * @param allInfo 所有系统信息数据
-     * @return 图像所需的高度
+     * @return PNG格式的图像字节数组
      */
-    private static int calculateImageHeight(AllInfo allInfo) {
-        int height = IMAGE_MARGIN_TOP + IMAGE_TITLE_HEIGHT + IMAGE_ROW_HEIGHT; // 顶部边距 + 标题高度 + 第一个部分间距
-
-        // CPU信息部分高度
-        if (allInfo.getCpuInfo() != null) {
-            height += IMAGE_ROW_HEIGHT + 10; // 部分标题行高 + 上边距
-            // CPU信息行数 (按新布局: 型号1行 + 核心数/线程数1行 + 频率/缓存1行 + 用户/系统使用率1行 + 等待/空闲率1行)
-            height += IMAGE_ROW_HEIGHT * 5; // 5行信息
-        }
-
-        // JVM信息部分高度
-        if (allInfo.getJvmInfo() != null) {
-            height += IMAGE_ROW_HEIGHT + 10; // 部分标题行高 + 上边距
-            // JVM信息行数 (按新布局: 版本1行 + 内存信息1行 + 使用率/空闲率1行)
-            height += IMAGE_ROW_HEIGHT * 3; // 3行信息
-        }
-
-        // 系统信息部分高度
-        if (allInfo.getSystemInfo() != null) {
-            height += IMAGE_ROW_HEIGHT + 10; // 部分标题行高 + 上边距
-            // 系统信息行数 (按新布局: 操作系统/架构1行 + 计算机名/IP1行)
-            height += IMAGE_ROW_HEIGHT * 2; // 2行信息
-        }
-
-        // 磁盘信息部分高度
-        if (allInfo.getSysFileInfos() != null && allInfo.getSysFileInfos().getSysFileInfos() != null) {
-            height += (IMAGE_ROW_HEIGHT * 2) + 10; // 部分标题行高 + 上边距
-            // 磁盘信息行数 (按新布局: 每个磁盘2行信息 + 10像素间距)
-            int diskCount = allInfo.getSysFileInfos().getSysFileInfos().size();
-            height += diskCount * (FONT_SIZE * 2 + IMAGE_ROW_HEIGHT); // 每个磁盘2行信息 + 10像素间距
-        }
-
-        if (allInfo.getPackageVersion() != null) {
-            height += (IMAGE_ROW_HEIGHT * 2) + 10; // 部分标题行高 + 上边距
-            // 包版本信息行数 (按新布局: 包名/版本1行)
-            height += IMAGE_ROW_HEIGHT; // 1行信息
+    public static byte[] drawAllInfoImage(AllInfo allInfo) {
+        try (ImageCombiner combiner = renderAllInfoImage(allInfo)) {
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
         }
-
-        // 底部边距
-        height += IMAGE_MARGIN + IMAGE_FOOTER_HEIGHT; // 底部边距 + 底部署名区域
-
-        return Math.max(height, 800); // 最小高度为800像素
     }
 
     /**
-     * 绘制所有系统信息图片
+     * 绘制所有系统信息图片，不进行编码
      *
      * @param allInfo 所有系统信息数据
-     * @return 生成的图片字节数组，格式为 PNG
+     * @return 绘制完成但尚未编码的图像合成器，使用完毕后需调用 {@link ImageCombiner#release()}
      */
-    public static byte[] drawAllInfoImage(AllInfo allInfo) {
-        // 计算图像高度
-        int height = calculateImageHeight(allInfo);
+    public static ImageCombiner renderAllInfoImage(AllInfo allInfo) {
+        DisplayList content = recordContent(allInfo);
+        int height = Math.max(content.getBottom() + IMAGE_MARGIN + IMAGE_FOOTER_HEIGHT, MIN_IMAGE_HEIGHT);
 
         // 创建画布
-        ImageCombiner combiner = new ImageCombiner(IMAGE_WIDTH, height, ImageCombiner.OutputFormat.PNG);
+        ImageCombiner combiner = ImageCombiner.leased(IMAGE_WIDTH, height, ImageCombiner.OutputFormat.PNG);
+        try {
+            // 填充背景色
+            combiner.setFont(FONT)
+                    .setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, IMAGE_WIDTH, height)
+                    // 绘制双层边框
+                    .drawTooRoundRect()
+                    .drawStandingDrawing();
+
+            content.replay(combiner);
+
+            addFooter(combiner, height - 40);
+
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
+        }
+    }
 
-        // 填充背景色
-        combiner.setFont(FONT)
-                .setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, IMAGE_WIDTH, height)
-                // 绘制双层边框
-                .drawTooRoundRect()
-                .drawStandingDrawing();
+    /**
+     * 录制标题与各部分信息
+     *
+     * @param allInfo 所有系统信息数据
+     * @return 正文的显示列表
+     */
+    private static DisplayList recordContent(AllInfo allInfo) {
+        RecordingImageCombiner combiner = new RecordingImageCombiner(IMAGE_WIDTH, ImageCombiner.OutputFormat.PNG);
+        // 分隔线沿用双层边框的线宽
+        combiner.setStroke(4);
 
         // 绘制标题
         combiner.setColor(TITLE_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 48))
+                .setFont(FontRegistry.derive(FONT, Font.BOLD, 48))
                 .addCenteredText("系统信息", IMAGE_MARGIN * 2);
 
         int startY = IMAGE_MARGIN + IMAGE_TITLE_HEIGHT + IMAGE_ROW_HEIGHT;
@@ -121,14 +114,7 @@ final class DefaultDrawAllInfoImage {
             drawDiskInfo(combiner, allInfo.getSysFileInfos(), startY);
         }
 
-        addFooter(combiner, height - 40);
-
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
-        }
+        return combiner.finish();
     }
 
     /**
@@ -171,13 +157,13 @@ final class DefaultDrawAllInfoImage {
         y += IMAGE_ROW_HEIGHT;
 
         // 用户、系统使用率为一行
-        combiner.addText("用户使用率: " + ALL_INFO_PERCENT_FORMAT.format(cpuInfo.getUserUsage()) + "%", IMAGE_MARGIN + 20, y);
-        combiner.addText("系统使用率: " + ALL_INFO_PERCENT_FORMAT.format(cpuInfo.getSysUsage()) + "%", IMAGE_MARGIN + 500, y);
+        combiner.addText("用户使用率: " + ALL_INFO_PERCENT_FORMAT.get().format(cpuInfo.getUserUsage()) + "%", IMAGE_MARGIN + 20, y);
+        combiner.addText("系统使用率: " + ALL_INFO_PERCENT_FORMAT.get().format(cpuInfo.getSysUsage()) + "%", IMAGE_MARGIN + 500, y);
         y += IMAGE_ROW_HEIGHT;
 
         // 等待、空闲率为一行
-        combiner.addText("等待率: " + ALL_INFO_PERCENT_FORMAT.format(cpuInfo.getWaitUsage()) + "%", IMAGE_MARGIN + 20, y);
-        combiner.addText("空闲率: " + ALL_INFO_PERCENT_FORMAT.format(cpuInfo.getIdleUsage()) + "%", IMAGE_MARGIN + 500, y);
+        combiner.addText("等待率: " + ALL_INFO_PERCENT_FORMAT.get().format(cpuInfo.getWaitUsage()) + "%", IMAGE_MARGIN + 20, y);
+        combiner.addText("空闲率: " + ALL_INFO_PERCENT_FORMAT.get().format(cpuInfo.getIdleUsage()) + "%", IMAGE_MARGIN + 500, y);
         y += IMAGE_ROW_HEIGHT;
 
         return y;
@@ -238,14 +224,14 @@ final class DefaultDrawAllInfoImage {
         long usedMemoryMB = jvmInfo.getUsedMemory() / (1024 * 1024);
         long freeMemoryMB = jvmInfo.getFreeMemory() / (1024 * 1024);
 
-        combiner.addText("最大内存: " + ALL_INFO_MEMORY_FORMAT.format(maxMemoryMB) + " MB", IMAGE_MARGIN + 20, y);
-        combiner.addText("已用内存: " + ALL_INFO_MEMORY_FORMAT.format(usedMemoryMB) + " MB", IMAGE_MARGIN + 380, y);
-        combiner.addText("空闲内存: " + ALL_INFO_MEMORY_FORMAT.format(freeMemoryMB) + " MB", IMAGE_MARGIN + 740, y);
+        combiner.addText("最大内存: " + ALL_INFO_MEMORY_FORMAT.get().format(maxMemoryMB) + " MB", IMAGE_MARGIN + 20, y);
+        combiner.addText("已用内存: " + ALL_INFO_MEMORY_FORMAT.get().format(usedMemoryMB) + " MB", IMAGE_MARGIN + 380, y);
+        combiner.addText("空闲内存: " + ALL_INFO_MEMORY_FORMAT.get().format(freeMemoryMB) + " MB", IMAGE_MARGIN + 740, y);
         y += IMAGE_ROW_HEIGHT;
 
         // 使用率空闲率为一行
-        combiner.addText("内存使用率: " + ALL_INFO_PERCENT_FORMAT.format(jvmInfo.getUsedMemoryRatio()) + "%", IMAGE_MARGIN + 20, y);
-        combiner.addText("内存空闲率: " + ALL_INFO_PERCENT_FORMAT.format(jvmInfo.getFreeMemoryRatio()) + "%", IMAGE_MARGIN + 380, y);
+        combiner.addText("内存使用率: " + ALL_INFO_PERCENT_FORMAT.get().format(jvmInfo.getUsedMemoryRatio()) + "%", IMAGE_MARGIN + 20, y);
+        combiner.addText("内存空闲率: " + ALL_INFO_PERCENT_FORMAT.get().format(jvmInfo.getFreeMemoryRatio()) + "%", IMAGE_MARGIN + 380, y);
         y += IMAGE_ROW_HEIGHT;
 
         return y;
@@ -337,17 +323,17 @@ final class DefaultDrawAllInfoImage {
             // 总大小、已使用、使用率为一行
             if (fileInfo.getTotal() != null) {
                 double totalGB = fileInfo.getTotal() / (1024.0 * 1024.0 * 1024.0);
-                combiner.addText("总大小: " + ALL_INFO_MEMORY_FORMAT.format(totalGB) + " GB", IMAGE_MARGIN + 20, y);
+                combiner.addText("总大小: " + ALL_INFO_MEMORY_FORMAT.get().format(totalGB) + " GB", IMAGE_MARGIN + 20, y);
             }
             if (fileInfo.getUsed() != null) {
                 double usedGB = fileInfo.getUsed() / (1024.0 * 1024.0 * 1024.0);
-                combiner.addText("已使用: " + ALL_INFO_MEMORY_FORMAT.format(usedGB) + " GB", IMAGE_MARGIN + 360, y);
+                combiner.addText("已使用: " + ALL_INFO_MEMORY_FORMAT.get().format(usedGB) + " GB", IMAGE_MARGIN + 360, y);
             }
             if (fileInfo.getTotal() != null && fileInfo.getUsed() != null) {
                 double total = fileInfo.getTotal();
                 double used = fileInfo.getUsed();
                 double usagePercent = (used / total) * 100;
-                combiner.addText("使用率: " + ALL_INFO_PERCENT_FORMAT.format(usagePercent) + "%", IMAGE_MARGIN + 720, y);
+                combiner.addText("使用率: " + ALL_INFO_PERCENT_FORMAT.get().format(usagePercent) + "%", IMAGE_MARGIN + 720, y);
             }
             y += IMAGE_ROW_HEIGHT + FONT_SIZE;
         }
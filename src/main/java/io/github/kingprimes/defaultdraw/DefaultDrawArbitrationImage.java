@@ -1,10 +1,12 @@
 package io.github.kingprimes.defaultdraw;
 
 import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.TemplateCache;
 import io.github.kingprimes.model.Arbitration;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
 
 import static io.github.kingprimes.defaultdraw.DrawConstants.*;
 
@@ -22,20 +24,72 @@ final class DefaultDrawArbitrationImage {
     private static final Color ARBITRATION_WORTH_COLOR = new Color(0x27ae60);
     private static final Color ARBITRATION_NOT_WORTH_COLOR = new Color(0xe74c3c);
 
+    // 剩余时间所在行：标题下方第5行
+    private static final int TIME_LEFT_Y = IMAGE_MARGIN + IMAGE_MARGIN_TOP + 5 * IMAGE_ROW_HEIGHT;
+
     /**
      * 绘制单个仲裁任务图像
+     * <p>除剩余时间外的内容在本轮仲裁结束前不变，作为模板缓存（见 {@link TemplateCache}），
+     * 每次请求只在模板副本上重新绘制剩余时间</p>
      *
      * @param arbitration 仲裁任务数据
-     * @return 生成的仲裁任务图像的 PNG 格式字节数组
+     * @return PNG格式的图像字节数组，arbitration为null时返回空数组
      */
     public static byte[] drawArbitrationImage(Arbitration arbitration) {
+        try (ImageCombiner combiner = renderArbitrationImage(arbitration)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制单个仲裁任务图像，不进行编码
+     *
+     * @param arbitration 仲裁任务数据
+     * @return 绘制完成但尚未编码的图像合成器，arbitration为null时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderArbitrationImage(Arbitration arbitration) {
         if (arbitration == null) {
-            return new byte[0];
+            return null;
         }
 
-        // 创建画布
-        ImageCombiner combiner = new ImageCombiner(ARBITRATION_IMAGE_WIDTH, ARBITRATION_IMAGE_HEIGHT, ImageCombiner.OutputFormat.PNG);
+        ImageCombiner combiner = TemplateCache.shared().open(templateKey(arbitration), arbitration.getExpiry(),
+                ARBITRATION_IMAGE_WIDTH, ARBITRATION_IMAGE_HEIGHT, ImageCombiner.OutputFormat.PNG,
+                template -> drawStaticPart(template, arbitration));
+        try {
+            // 剩余时间
+            if (arbitration.getExpiry() != null) {
+                combiner.setColor(TEXT_COLOR)
+                        .setFont(FONT)
+                        .addText("剩余时间: " + arbitration.getTimeLeft(), IMAGE_MARGIN, TIME_LEFT_Y);
+            }
+
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 模板键：静态部分用到的仲裁数据
+     */
+    private static List<Object> templateKey(Arbitration arbitration) {
+        return Arrays.asList("arbitration", arbitration.getNode(), arbitration.getEnemyName(), arbitration.getType(),
+                arbitration.getActivation(), arbitration.getExpiry() != null, arbitration.isWorth());
+    }
 
+    /**
+     * 绘制静态部分：除剩余时间外的所有内容
+     *
+     * @param combiner    图像合成器
+     * @param arbitration 仲裁任务数据
+     */
+    private static void drawStaticPart(ImageCombiner combiner, Arbitration arbitration) {
         // 设置背景
         combiner.setColor(Color.WHITE)
                 .fillRect(0, 0, ARBITRATION_IMAGE_WIDTH, ARBITRATION_IMAGE_HEIGHT)
@@ -76,11 +130,8 @@ final class DefaultDrawArbitrationImage {
                     .addText("开始时间: " + arbitration.getActivationFormat(), IMAGE_MARGIN, y);
         }
 
+        // 剩余时间由动态部分绘制
         y += IMAGE_ROW_HEIGHT;
-        if (arbitration.getExpiry() != null) {
-            combiner.setColor(TEXT_COLOR)
-                    .addText("剩余时间: " + arbitration.getTimeLeft(), IMAGE_MARGIN, y);
-        }
 
         // 价值判断
         y += IMAGE_ROW_HEIGHT + 10;
@@ -92,13 +143,5 @@ final class DefaultDrawArbitrationImage {
 
         // 添加底部署名
         addFooter(combiner, ARBITRATION_IMAGE_HEIGHT - IMAGE_FOOTER_HEIGHT);
-
-        // 合并图像
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
-        }
     }
 }
\ No newline at end of file
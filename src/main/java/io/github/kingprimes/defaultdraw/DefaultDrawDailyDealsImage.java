@@ -4,7 +4,6 @@ import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.worldstate.DailyDeals;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
 
 import static io.github.kingprimes.defaultdraw.DrawConstants.*;
 
@@ -36,86 +35,101 @@ final class DefaultDrawDailyDealsImage {
      * 绘制每日特惠图像
      *
      * @param dailyDeal 每日特惠数据
-     * @return 生成的每日特惠图像的 PNG 格式字节数组
+     * @return PNG格式的图像字节数组，dailyDeal为null时返回空数组
      */
     public static byte[] drawDailyDealsImage(DailyDeals dailyDeal) {
+        try (ImageCombiner combiner = renderDailyDealsImage(dailyDeal)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制每日特惠图像，不进行编码
+     *
+     * @param dailyDeal 每日特惠数据
+     * @return 绘制完成但尚未编码的图像合成器，dailyDeal为null时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderDailyDealsImage(DailyDeals dailyDeal) {
         if (dailyDeal == null) {
-            return new byte[0];
+            return null;
         }
 
         // 创建画布
-        ImageCombiner combiner = new ImageCombiner(DAILY_DEALS_IMAGE_WIDTH, DAILY_DEALS_IMAGE_HEIGHT, ImageCombiner.OutputFormat.PNG);
-
-        // 填充背景色
-        combiner.setFont(FONT).setColor(PAGE_BACKGROUND_COLOR).fillRect(0, 0, DAILY_DEALS_IMAGE_WIDTH, DAILY_DEALS_IMAGE_HEIGHT)
-                // 绘制双层边框
-                .drawTooRoundRect()
-                // 绘制看板娘
-                .drawStandingDrawing();
+        ImageCombiner combiner = ImageCombiner.leased(DAILY_DEALS_IMAGE_WIDTH, DAILY_DEALS_IMAGE_HEIGHT, ImageCombiner.OutputFormat.PNG);
+        try {
+            // 填充背景色
+            combiner.setFont(FONT).setColor(PAGE_BACKGROUND_COLOR).fillRect(0, 0, DAILY_DEALS_IMAGE_WIDTH, DAILY_DEALS_IMAGE_HEIGHT)
+                    // 绘制双层边框
+                    .drawTooRoundRect()
+                    // 绘制看板娘
+                    .drawStandingDrawing();
 
-        // 绘制标题
-        combiner.setColor(TITLE_COLOR).addCenteredText("每日特惠", 80);
+            // 绘制标题
+            combiner.setColor(TITLE_COLOR).addCenteredText("每日特惠", 80);
 
-        int startY = 120;
+            int startY = 120;
 
-        // 绘制物品名称
-        combiner.setColor(TEXT_COLOR).addText("物品名称:", IMAGE_MARGIN, startY);
+            // 绘制物品名称
+            combiner.setColor(TEXT_COLOR).addText("物品名称:", IMAGE_MARGIN, startY);
 
-        combiner.addText(dailyDeal.getItem(), 260, startY);
+            combiner.addText(dailyDeal.getItem(), 260, startY);
 
-        startY += IMAGE_ROW_HEIGHT;
+            startY += IMAGE_ROW_HEIGHT;
 
-        // 绘制价格信息
-        combiner.addText("原价/现价:", IMAGE_MARGIN, startY);
+            // 绘制价格信息
+            combiner.addText("原价/现价:", IMAGE_MARGIN, startY);
 
-        // 原价
-        combiner.setColor(ORIGINAL_PRICE_COLOR).addText(String.valueOf(dailyDeal.getOriginalPrice()), 260, startY);
+            // 原价
+            combiner.setColor(ORIGINAL_PRICE_COLOR).addText(String.valueOf(dailyDeal.getOriginalPrice()), 260, startY);
 
-        // 绘制删除线
-        int originalPriceWidth = combiner.getStringWidth(String.valueOf(dailyDeal.getOriginalPrice()));
-        combiner.drawLine(260, startY - 13, 260 + originalPriceWidth, startY - 13);
+            // 绘制删除线
+            int originalPriceWidth = combiner.getStringWidth(String.valueOf(dailyDeal.getOriginalPrice()));
+            combiner.drawLine(260, startY - 13, 260 + originalPriceWidth, startY - 13);
 
-        // 斜杠分隔符
-        combiner.setColor(TEXT_COLOR).addText(" / ", 260 + originalPriceWidth, startY);
+            // 斜杠分隔符
+            combiner.setColor(TEXT_COLOR).addText(" / ", 260 + originalPriceWidth, startY);
 
-        // 现价
-        combiner.setColor(SALE_PRICE_COLOR).addText(String.valueOf(dailyDeal.getSalePrice()), IMAGE_MARGIN + 260 + originalPriceWidth, startY);
+            // 现价
+            combiner.setColor(SALE_PRICE_COLOR).addText(String.valueOf(dailyDeal.getSalePrice()), IMAGE_MARGIN + 260 + originalPriceWidth, startY);
 
-        startY += IMAGE_ROW_HEIGHT;
+            startY += IMAGE_ROW_HEIGHT;
 
-        // 绘制折扣比
-        combiner.setColor(TEXT_COLOR).addText("折扣比:", IMAGE_MARGIN, startY);
+            // 绘制折扣比
+            combiner.setColor(TEXT_COLOR).addText("折扣比:", IMAGE_MARGIN, startY);
 
-        combiner.setColor(DISCOUNT_COLOR).addText(dailyDeal.getCount() + " %", 260, startY);
+            combiner.setColor(DISCOUNT_COLOR).addText(dailyDeal.getCount() + " %", 260, startY);
 
-        startY += IMAGE_ROW_HEIGHT;
+            startY += IMAGE_ROW_HEIGHT;
 
-        // 绘制总数/已售信息
-        combiner.setColor(TEXT_COLOR).addText("总/余:", IMAGE_MARGIN, startY);
+            // 绘制总数/已售信息
+            combiner.setColor(TEXT_COLOR).addText("总/余:", IMAGE_MARGIN, startY);
 
-        combiner.addText(String.valueOf(dailyDeal.getTotal()), 260, startY);
+            combiner.addText(String.valueOf(dailyDeal.getTotal()), 260, startY);
 
-        combiner.addText(" / ", 260 + combiner.getStringWidth(String.valueOf(dailyDeal.getTotal())), startY);
+            combiner.addText(" / ", 260 + combiner.getStringWidth(String.valueOf(dailyDeal.getTotal())), startY);
 
-        int remaining = dailyDeal.getTotal() - dailyDeal.getSold();
-        combiner.setColor(REMAINING_COLOR).addText(String.valueOf(remaining), IMAGE_MARGIN + 260 + combiner.getStringWidth(String.valueOf(dailyDeal.getTotal())), startY);
+            int remaining = dailyDeal.getTotal() - dailyDeal.getSold();
+            combiner.setColor(REMAINING_COLOR).addText(String.valueOf(remaining), IMAGE_MARGIN + 260 + combiner.getStringWidth(String.valueOf(dailyDeal.getTotal())), startY);
 
-        startY += IMAGE_ROW_HEIGHT;
+            startY += IMAGE_ROW_HEIGHT;
 
-        // 绘制剩余时间
-        combiner.setColor(TEXT_COLOR).addText("剩余时间:", IMAGE_MARGIN, startY);
+            // 绘制剩余时间
+            combiner.setColor(TEXT_COLOR).addText("剩余时间:", IMAGE_MARGIN, startY);
 
-        combiner.addText(dailyDeal.getTimeLeft(), 260, startY);
+            combiner.addText(dailyDeal.getTimeLeft(), 260, startY);
 
-        // 添加底部署名
-        addFooter(combiner, DAILY_DEALS_IMAGE_HEIGHT - IMAGE_FOOTER_HEIGHT);
+            // 添加底部署名
+            addFooter(combiner, DAILY_DEALS_IMAGE_HEIGHT - IMAGE_FOOTER_HEIGHT);
 
-        // 合并图像
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
     }
 }
\ No newline at end of file
@@ -1,11 +1,11 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.worldstate.DuvalierCycle;
 import io.github.kingprimes.model.worldstate.EndlessXpChoices;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
 import java.util.List;
 
 import static io.github.kingprimes.defaultdraw.DrawConstants.*;
@@ -32,81 +32,96 @@ final class DefaultDrawDuviriCycleImage {
      * 绘制双衍王境循环图像
      *
      * @param duvalierCycle 双衍王境循环数据
-     * @return 生成的双衍王境循环图像的 PNG 格式字节数组
+     * @return PNG格式的图像字节数组，duvalierCycle为null时返回空数组
      */
     public static byte[] drawDuviriCycleImage(DuvalierCycle duvalierCycle) {
+        try (ImageCombiner combiner = renderDuviriCycleImage(duvalierCycle)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制双衍王境循环图像，不进行编码
+     *
+     * @param duvalierCycle 双衍王境循环数据
+     * @return 绘制完成但尚未编码的图像合成器，duvalierCycle为null时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderDuviriCycleImage(DuvalierCycle duvalierCycle) {
         if (duvalierCycle == null) {
-            return new byte[0];
+            return null;
         }
 
         // 创建画布
-        ImageCombiner combiner = new ImageCombiner(
+        ImageCombiner combiner = ImageCombiner.leased(
                 DUVIRI_CYCLE_IMAGE_WIDTH,
                 DUVIRI_CYCLE_IMAGE_HEIGHT,
                 ImageCombiner.OutputFormat.PNG
         );
+        try {
+            // 填充背景色
+            combiner.setFont(FONT)
+                    .setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, DUVIRI_CYCLE_IMAGE_WIDTH, DUVIRI_CYCLE_IMAGE_HEIGHT)
+                    // 绘制双层边框
+                    .drawTooRoundRect()
+                    // 绘制看板娘
+                    .drawStandingDrawing();
+
+            // 绘制标题
+            combiner.setColor(TITLE_COLOR)
+                    .setFont(FontRegistry.derive(FONT, Font.BOLD, 32))
+                    .addCenteredText("双衍王境", 80);
+
+            // 绘制表格
+            int tableY = 120;
+            int tableWidth = DUVIRI_CYCLE_IMAGE_WIDTH - 2 * IMAGE_MARGIN;
+            int cellWidth = tableWidth / 2;
+            int headerHeight = 60;
+            int contentHeight = DUVIRI_CYCLE_IMAGE_HEIGHT - tableY - headerHeight - IMAGE_FOOTER_HEIGHT - 40;
+
+            // 绘制表头
+            // 普通表头
+            combiner.setColor(NORMAL_HEADER_COLOR)
+                    .fillRect(IMAGE_MARGIN, tableY, cellWidth, headerHeight);
 
-        // 填充背景色
-        combiner.setFont(FONT)
-                .setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, DUVIRI_CYCLE_IMAGE_WIDTH, DUVIRI_CYCLE_IMAGE_HEIGHT)
-                // 绘制双层边框
-                .drawTooRoundRect()
-                // 绘制看板娘
-                .drawStandingDrawing();
-
-        // 绘制标题
-        combiner.setColor(TITLE_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 32))
-                .addCenteredText("双衍王境", 80);
-
-        // 绘制表格
-        int tableY = 120;
-        int tableWidth = DUVIRI_CYCLE_IMAGE_WIDTH - 2 * IMAGE_MARGIN;
-        int cellWidth = tableWidth / 2;
-        int headerHeight = 60;
-        int contentHeight = DUVIRI_CYCLE_IMAGE_HEIGHT - tableY - headerHeight - IMAGE_FOOTER_HEIGHT - 40;
-
-        // 绘制表头
-        // 普通表头
-        combiner.setColor(NORMAL_HEADER_COLOR)
-                .fillRect(IMAGE_MARGIN, tableY, cellWidth, headerHeight);
-
-        combiner.setColor(TEXT_COLOR)
-                .addText("普通", IMAGE_MARGIN + cellWidth / 2, tableY + headerHeight / 2 + 8);
-
-        // 钢铁表头
-        combiner.setColor(HARD_HEADER_COLOR)
-                .fillRect(IMAGE_MARGIN + cellWidth, tableY, cellWidth, headerHeight);
-
-        combiner.setColor(TEXT_COLOR)
-                .addText("钢铁", IMAGE_MARGIN + cellWidth + cellWidth / 2, tableY + headerHeight / 2 + 8);
-
-        // 绘制表格边框
-        combiner.setColor(TEXT_COLOR)
-                .setStroke(2)
-                .drawLine(IMAGE_MARGIN, tableY, IMAGE_MARGIN + tableWidth, tableY) // 顶部线
-                .drawLine(IMAGE_MARGIN, tableY + headerHeight, IMAGE_MARGIN + tableWidth, tableY + headerHeight) // 表头底部线
-                .drawLine(IMAGE_MARGIN, tableY + headerHeight + contentHeight, IMAGE_MARGIN + tableWidth, tableY + headerHeight + contentHeight) // 底部线
-                .drawLine(IMAGE_MARGIN, tableY, IMAGE_MARGIN, tableY + headerHeight + contentHeight) // 左侧线
-                .drawLine(IMAGE_MARGIN + cellWidth, tableY, IMAGE_MARGIN + cellWidth, tableY + headerHeight + contentHeight) // 中间线
-                .drawLine(IMAGE_MARGIN + tableWidth, tableY, IMAGE_MARGIN + tableWidth, tableY + headerHeight + contentHeight); // 右侧线
-
-        // 绘制内容
-        if (duvalierCycle.getChoices() != null) {
-            drawChoices(combiner, duvalierCycle.getChoices(), tableY + headerHeight, cellWidth, contentHeight);
-        }
+            combiner.setColor(TEXT_COLOR)
+                    .addText("普通", IMAGE_MARGIN + cellWidth / 2, tableY + headerHeight / 2 + 8);
+
+            // 钢铁表头
+            combiner.setColor(HARD_HEADER_COLOR)
+                    .fillRect(IMAGE_MARGIN + cellWidth, tableY, cellWidth, headerHeight);
+
+            combiner.setColor(TEXT_COLOR)
+                    .addText("钢铁", IMAGE_MARGIN + cellWidth + cellWidth / 2, tableY + headerHeight / 2 + 8);
+
+            // 绘制表格边框
+            combiner.setColor(TEXT_COLOR)
+                    .setStroke(2)
+                    .drawLine(IMAGE_MARGIN, tableY, IMAGE_MARGIN + tableWidth, tableY) // 顶部线
+                    .drawLine(IMAGE_MARGIN, tableY + headerHeight, IMAGE_MARGIN + tableWidth, tableY + headerHeight) // 表头底部线
+                    .drawLine(IMAGE_MARGIN, tableY + headerHeight + contentHeight, IMAGE_MARGIN + tableWidth, tableY + headerHeight + contentHeight) // 底部线
+                    .drawLine(IMAGE_MARGIN, tableY, IMAGE_MARGIN, tableY + headerHeight + contentHeight) // 左侧线
+                    .drawLine(IMAGE_MARGIN + cellWidth, tableY, IMAGE_MARGIN + cellWidth, tableY + headerHeight + contentHeight) // 中间线
+                    .drawLine(IMAGE_MARGIN + tableWidth, tableY, IMAGE_MARGIN + tableWidth, tableY + headerHeight + contentHeight); // 右侧线
+
+            // 绘制内容
+            if (duvalierCycle.getChoices() != null) {
+                drawChoices(combiner, duvalierCycle.getChoices(), tableY + headerHeight, cellWidth, contentHeight);
+            }
 
 
-        // 添加底部署名
-        addFooter(combiner, DUVIRI_CYCLE_IMAGE_HEIGHT - IMAGE_FOOTER_HEIGHT);
+            // 添加底部署名
+            addFooter(combiner, DUVIRI_CYCLE_IMAGE_HEIGHT - IMAGE_FOOTER_HEIGHT);
 
-        // 合并图像
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
     }
 
@@ -4,7 +4,6 @@ import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.utils.Fonts;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -25,9 +24,22 @@ final class DefaultDrawHelpImage {
      * 根据提供的帮助信息列表生成一张帮助图片，并以字节数组形式返回。
      *
      * @param helpInfo 包含菜单指令条目的字符串列表
-     * @return 生成的帮助图片的 PNG 格式字节数组。
+     * @return PNG格式的图像字节数组
      */
     public static byte[] drawHelpImage(List<String> helpInfo) {
+        try (ImageCombiner combiner = renderHelpImage(helpInfo)) {
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 根据提供的帮助信息列表生成一张帮助图片，不进行编码
+     *
+     * @param helpInfo 包含菜单指令条目的字符串列表
+     * @return 绘制完成但尚未编码的图像合成器，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderHelpImage(List<String> helpInfo) {
 
         // 预计算布局参数
         int columnCount = (helpInfo.size() + HELP_IMAGE_ITEMS_PER_COLUMN - 1) / HELP_IMAGE_ITEMS_PER_COLUMN;
@@ -38,74 +50,75 @@ final class DefaultDrawHelpImage {
         int columnWidth = rounderWidth / 2;  // 预计算列宽
 
 
-        ImageCombiner combiner = new ImageCombiner(IMAGE_WIDTH, totalHeight, ImageCombiner.OutputFormat.PNG);
-        combiner.setFont(Fonts.FONT_TEXT)
-                .setColor(Color.WHITE)
-                .fillRect(0, 0, IMAGE_WIDTH, totalHeight).drawTooRoundRect();
-
-        // 标题绘制
-        String title = "帮助中心";
-        combiner.setColor(HELP_IMAGE_TITLE_COLOR)
-                .addCenteredText(title, IMAGE_MARGIN + IMAGE_TITLE_HEIGHT / 2);
-
-        // 表头绘制
-        int y = IMAGE_MARGIN + IMAGE_TITLE_HEIGHT;
-        ImageCombiner roundedCombiner = new ImageCombiner(rounderWidth, IMAGE_HEADER_HEIGHT, ImageCombiner.OutputFormat.PNG);
-        roundedCombiner.setColor(HELP_IMAGE_HEADER_BG_COLOR)
-                .fillRect(0, 0, rounderWidth, IMAGE_HEADER_HEIGHT)
-                .combine();
-        combiner.addRoundedImage(roundedCombiner.getCombinedImage(), centerX, y - 5, 25);
-        combiner.setColor(Color.WHITE)
-                .addCenteredText("指令", y += Fonts.FONT_TEXT.getSize() + 5)
-        ;
-
-        // 预计算所有行的坐标和背景信息
-        List<RowInfo> rowInfos = new ArrayList<>(helpInfo.size());
-        int currentColumn;
-        int currentRowInColumn;
-
-        for (int i = 0; i < helpInfo.size(); i++) {
-            // 计算当前行列位置
-            currentColumn = i / HELP_IMAGE_ITEMS_PER_COLUMN;
-            currentRowInColumn = i % HELP_IMAGE_ITEMS_PER_COLUMN;
-
-            // 预计算坐标
-            int rowX = centerX + (currentColumn * columnWidth);
-            int rowY = y + (currentRowInColumn * HELP_IMAGE_ROW_HEIGHT) + HELP_IMAGE_ROW_HEIGHT;  // +ROW_HEIGHT是因为初始y已包含表头高度
-
-            // 预解析数据
-            String line = helpInfo.get(i);
-            String[] parts = PIPE_PATTERN.split(line, 2);
-            String command = parts.length > 0 ? parts[0] : "";
-
-            RowInfo rowInfo = new RowInfo(rowX, rowY, currentRowInColumn % 2 == 0, command);
-            rowInfos.add(rowInfo);
-            if (rowInfo.isEvenRow) {
-                combiner.setColor(HELP_IMAGE_EVEN_ROW_COLOR);
-                combiner.fillRect(rowInfo.x, rowInfo.y + (HELP_IMAGE_ROW_HEIGHT / 2) - (FONT_SIZE / 2), columnWidth, HELP_IMAGE_ROW_HEIGHT);
+        ImageCombiner combiner = ImageCombiner.leased(IMAGE_WIDTH, totalHeight, ImageCombiner.OutputFormat.PNG);
+        try {
+            combiner.setFont(Fonts.FONT_TEXT)
+                    .setColor(Color.WHITE)
+                    .fillRect(0, 0, IMAGE_WIDTH, totalHeight).drawTooRoundRect();
+
+            // 标题绘制
+            String title = "帮助中心";
+            combiner.setColor(HELP_IMAGE_TITLE_COLOR)
+                    .addCenteredText(title, IMAGE_MARGIN + IMAGE_TITLE_HEIGHT / 2);
+
+            // 表头绘制
+            int y = IMAGE_MARGIN + IMAGE_TITLE_HEIGHT;
+            try (ImageCombiner roundedCombiner = ImageCombiner.leased(rounderWidth, IMAGE_HEADER_HEIGHT, ImageCombiner.OutputFormat.PNG)) {
+                roundedCombiner.setColor(HELP_IMAGE_HEADER_BG_COLOR)
+                        .fillRect(0, 0, rounderWidth, IMAGE_HEADER_HEIGHT)
+                        .combine();
+                combiner.addRoundedImage(roundedCombiner.getCombinedImage(), centerX, y - 5, 25);
+            }
+            combiner.setColor(Color.WHITE)
+                    .addCenteredText("指令", y += Fonts.FONT_TEXT.getSize() + 5)
+            ;
+
+            // 预计算所有行的坐标和背景信息
+            List<RowInfo> rowInfos = new ArrayList<>(helpInfo.size());
+            int currentColumn;
+            int currentRowInColumn;
+
+            for (int i = 0; i < helpInfo.size(); i++) {
+                // 计算当前行列位置
+                currentColumn = i / HELP_IMAGE_ITEMS_PER_COLUMN;
+                currentRowInColumn = i % HELP_IMAGE_ITEMS_PER_COLUMN;
+
+                // 预计算坐标
+                int rowX = centerX + (currentColumn * columnWidth);
+                int rowY = y + (currentRowInColumn * HELP_IMAGE_ROW_HEIGHT) + HELP_IMAGE_ROW_HEIGHT;  // +ROW_HEIGHT是因为初始y已包含表头高度
+
+                // 预解析数据
+                String line = helpInfo.get(i);
+                String[] parts = PIPE_PATTERN.split(line, 2);
+                String command = parts.length > 0 ? parts[0] : "";
+
+                RowInfo rowInfo = new RowInfo(rowX, rowY, currentRowInColumn % 2 == 0, command);
+                rowInfos.add(rowInfo);
+                if (rowInfo.isEvenRow) {
+                    combiner.setColor(HELP_IMAGE_EVEN_ROW_COLOR);
+                    combiner.fillRect(rowInfo.x, rowInfo.y + (HELP_IMAGE_ROW_HEIGHT / 2) - (FONT_SIZE / 2), columnWidth, HELP_IMAGE_ROW_HEIGHT);
+                }
             }
-        }
 
 
-        combiner
-                // 绘制立绘图
-                .drawStandingDrawing()
-                .setColor(HELP_IMAGE_TEXT_COLOR);
-        // 3. 绘制所有数据行文字（批量操作）
-        for (RowInfo info : rowInfos) {
-            if (!info.command.isEmpty()) {
-                combiner.addText(info.command, info.x, info.y);
+            combiner
+                    // 绘制立绘图
+                    .drawStandingDrawing()
+                    .setColor(HELP_IMAGE_TEXT_COLOR);
+            // 3. 绘制所有数据行文字（批量操作）
+            for (RowInfo info : rowInfos) {
+                if (!info.command.isEmpty()) {
+                    combiner.addText(info.command, info.x, info.y);
+                }
             }
-        }
 
-        // 底部署名
-        addFooter(combiner, totalHeight - IMAGE_FOOTER_HEIGHT);
+            // 底部署名
+            addFooter(combiner, totalHeight - IMAGE_FOOTER_HEIGHT);
 
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
     }
 
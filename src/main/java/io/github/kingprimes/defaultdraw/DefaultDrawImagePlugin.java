@@ -2,12 +2,16 @@ package io.github.kingprimes.defaultdraw;
 
 import com.sun.jna.Pointer;
 import io.github.kingprimes.DrawImagePlugin;
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.ImageCombiner.OutputFormat;
 import io.github.kingprimes.model.*;
 import io.github.kingprimes.model.market.MarketLichSister;
 import io.github.kingprimes.model.market.MarketRiven;
 import io.github.kingprimes.model.market.Orders;
 import io.github.kingprimes.model.worldstate.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -15,10 +19,80 @@ import java.util.Map;
  * 绘图 默认实现类
  *
  * @author KingPrimes
- * @version 1.0.3
+ * @version 1.0.4
  */
 public class DefaultDrawImagePlugin implements DrawImagePlugin {
 
+    /**
+     * 绘图方法返回的图像格式
+     */
+    private final OutputFormat outputFormat;
+
+    /**
+     * 构造输出PNG图像的默认插件
+     */
+    public DefaultDrawImagePlugin() {
+        this(OutputFormat.PNG);
+    }
+
+    /**
+     * 构造按指定格式输出图像的默认插件
+     *
+     * @param outputFormat 输出格式，不可为null
+     * @throws IllegalArgumentException 当outputFormat为null时抛出
+     */
+    public DefaultDrawImagePlugin(OutputFormat outputFormat) {
+        if (outputFormat == null) {
+            throw new IllegalArgumentException("输出格式不可为null");
+        }
+        this.outputFormat = outputFormat;
+    }
+
+    /**
+     * 按当前输出格式编码绘制结果
+     * <p>所有绘图方法都经由此方法输出，子类可覆盖以替换编码方式或获取未编码的合成器</p>
+     * <p>编码完成后合成器即被释放（见 {@link ImageCombiner#release()}），画布归还画布池</p>
+     *
+     * @param combiner 绘制完成的图像合成器，为null表示没有可绘制的数据
+     * @return 图像流，没有数据时返回空数组
+     */
+    protected byte[] encode(ImageCombiner combiner) {
+        if (combiner == null) {
+            return new byte[0];
+        }
+        try {
+            combiner.setOutputFormat(outputFormat).combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        } finally {
+            combiner.release();
+        }
+    }
+
+    /**
+     * 按当前输出格式把绘制结果直接编码到输出流
+     * <p>所有写入输出流的绘图方法都经由此方法输出，不生成完整图像的中间字节数组；
+     * 录制模式的合成器输出PNG时逐条带回放编码（见 {@link ImageCombiner#combine(OutputStream)}）</p>
+     *
+     * @param combiner 绘制完成的图像合成器，为null表示没有可绘制的数据，此时不写入
+     * @param out      输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     * @throws IllegalArgumentException 当out为null时抛出
+     */
+    protected void encode(ImageCombiner combiner, OutputStream out) throws IOException {
+        try {
+            if (out == null) {
+                throw new IllegalArgumentException("输出流不可为null");
+            }
+            if (combiner != null) {
+                combiner.setOutputFormat(outputFormat).combine(out);
+            }
+        } finally {
+            if (combiner != null) {
+                combiner.release();
+            }
+        }
+    }
+
     /**
      * 绘制帮助图像
      *
@@ -27,7 +101,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawHelpImage(List<String> helpInfo) {
-        return DefaultDrawHelpImage.drawHelpImage(helpInfo);
+        return encode(DefaultDrawHelpImage.renderHelpImage(helpInfo));
     }
 
     /**
@@ -38,7 +112,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawAllCycleImage(AllCycle allCycle) {
-        return DefaultDrawAllCycleImage.drawAllCycleImage(allCycle);
+        return encode(DefaultDrawAllCycleImage.renderAllCycleImage(allCycle));
     }
 
     /**
@@ -49,7 +123,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawAllInfoImage(AllInfo allInfo) {
-        return DefaultDrawAllInfoImage.drawAllInfoImage(allInfo);
+        return encode(DefaultDrawAllInfoImage.renderAllInfoImage(allInfo));
     }
 
     /**
@@ -60,7 +134,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawAlertsImage(List<Alert> alerts) {
-        return DefaultDrawAlertsImage.drawAlertsImage(alerts);
+        return encode(DefaultDrawAlertsImage.renderAlertsImage(alerts));
     }
 
     /**
@@ -71,7 +145,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawArbitrationImage(Arbitration arbitration) {
-        return DefaultDrawArbitrationImage.drawArbitrationImage(arbitration);
+        return encode(DefaultDrawArbitrationImage.renderArbitrationImage(arbitration));
     }
 
     /**
@@ -82,7 +156,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawArbitrationsImage(List<Arbitration> arbitrations) {
-        return DefaultDrawArbitrationsImage.drawArbitrationsImage(arbitrations);
+        return encode(DefaultDrawArbitrationsImage.renderArbitrationsImage(arbitrations));
     }
 
     /**
@@ -93,7 +167,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawDailyDealsImage(DailyDeals dailyDeal) {
-        return DefaultDrawDailyDealsImage.drawDailyDealsImage(dailyDeal);
+        return encode(DefaultDrawDailyDealsImage.renderDailyDealsImage(dailyDeal));
     }
 
     /**
@@ -104,7 +178,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawDuviriCycleImage(DuvalierCycle duvalierCycle) {
-        return DefaultDrawDuviriCycleImage.drawDuviriCycleImage(duvalierCycle);
+        return encode(DefaultDrawDuviriCycleImage.renderDuviriCycleImage(duvalierCycle));
     }
 
     /**
@@ -115,7 +189,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawActiveMissionImage(List<ActiveMission> activeMission) {
-        return DefaultDrawActiveMission.drawActiveMissionImage(activeMission);
+        return encode(DefaultDrawActiveMission.renderActiveMissionImage(activeMission));
     }
 
     /**
@@ -126,7 +200,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawInvasionImage(List<Invasion> invasions) {
-        return DefaultDrawInvasionImage.drawInvasionImage(invasions);
+        return encode(DefaultDrawInvasionImage.renderInvasionImage(invasions));
     }
 
     /**
@@ -137,7 +211,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawKnownCalendarSeasonsImage(List<KnownCalendarSeasons> knownCalendarSeasons) {
-        return DefaultDrawKnownCalendarSeasonsImage.drawKnownCalendarSeasonsImage(knownCalendarSeasons);
+        return encode(DefaultDrawKnownCalendarSeasonsImage.renderKnownCalendarSeasonsImage(knownCalendarSeasons));
     }
 
     /**
@@ -148,7 +222,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawLiteSoriteImage(LiteSorite liteSorite) {
-        return DefaultDrawLiteSoriteImage.drawLiteSoriteImage(liteSorite);
+        return encode(DefaultDrawLiteSoriteImage.renderLiteSoriteImage(liteSorite));
     }
 
     /**
@@ -159,7 +233,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketGodDumpImage(Map<Ducats.DumpType, List<Ducats.Ducat>> dump) {
-        return DefaultDrawMarketDucatsImage.drawMarketDucatsImage(dump, "Market 市场 金垃圾");
+        return encode(DefaultDrawMarketDucatsImage.renderMarketDucatsImage(dump, "Market 市场 金垃圾"));
     }
 
     /**
@@ -170,7 +244,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketSilverDumpImage(Map<Ducats.DumpType, List<Ducats.Ducat>> dump) {
-        return DefaultDrawMarketDucatsImage.drawMarketDucatsImage(dump, "Market 市场 银垃圾");
+        return encode(DefaultDrawMarketDucatsImage.renderMarketDucatsImage(dump, "Market 市场 银垃圾"));
     }
 
     /**
@@ -181,7 +255,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketLichesImage(MarketLichSister marketLichs) {
-        return DefaultDrawMarketLichSisterImage.drawMarketLichesImage(marketLichs);
+        return encode(DefaultDrawMarketLichSisterImage.renderMarketLichesImage(marketLichs));
     }
 
     /**
@@ -192,7 +266,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketSisterImage(MarketLichSister marketSister) {
-        return DefaultDrawMarketLichSisterImage.drawMarketLichesImage(marketSister);
+        return encode(DefaultDrawMarketLichSisterImage.renderMarketLichesImage(marketSister));
     }
 
     /**
@@ -203,7 +277,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketOrdersImage(Orders orders) {
-        return DefaultDrawMarketOrdersImage.drawMarketOrdersImage(orders);
+        return encode(DefaultDrawMarketOrdersImage.renderMarketOrdersImage(orders));
     }
 
     /**
@@ -214,7 +288,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketOrdersImage(List<String> possibleItems) {
-        return DefaultDrawMarketOrdersImage.drawMarketOrdersImage(possibleItems);
+        return encode(DefaultDrawMarketOrdersImage.renderMarketOrdersImage(possibleItems));
     }
 
     /**
@@ -225,7 +299,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawMarketRivenImage(MarketRiven marketRiven) {
-        return DefaultDrawMarketRivenImage.drawMarketRivenImage(marketRiven);
+        return encode(DefaultDrawMarketRivenImage.renderMarketRivenImage(marketRiven));
     }
 
     /**
@@ -236,7 +310,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawSeasonInfoImage(SeasonInfo seasonInfo) {
-        return DefaultDrawSeasonInfoImage.drawSeasonInfoImage(seasonInfo);
+        return encode(DefaultDrawSeasonInfoImage.renderSeasonInfoImage(seasonInfo));
     }
 
     /**
@@ -247,7 +321,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawRelicsImage(List<Relics> relics) {
-        return DefaultDrawRelicsImage.drawRelicsImage(relics);
+        return encode(DefaultDrawRelicsImage.renderRelicsImage(relics));
     }
 
     /**
@@ -258,7 +332,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawRivenAnalyseTrendImage(List<RivenAnalyseTrendModel> rivenAnalyseTrendModel) {
-        return DefaultDrawRivenAnalyseTrendImage.drawRivenAnalyseTrendImage(rivenAnalyseTrendModel);
+        return encode(DefaultDrawRivenAnalyseTrendImage.renderRivenAnalyseTrendImage(rivenAnalyseTrendModel));
     }
 
     /**
@@ -269,7 +343,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawSortiesImage(Sortie sorties) {
-        return DefaultDrawSortiesImage.drawSortiesImage(sorties);
+        return encode(DefaultDrawSortiesImage.renderSortiesImage(sorties));
     }
 
     /**
@@ -280,7 +354,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawSteelPath(SteelPathOffering steelPath) {
-        return DefaultDrawSteelPathImage.drawSteelPathImage(steelPath);
+        return encode(DefaultDrawSteelPathImage.renderSteelPathImage(steelPath));
     }
 
     /**
@@ -293,7 +367,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawSyndicateImage(SyndicateMission sm) {
-        return DefaultDrawSyndicateImage.drawSyndicateImage(sm);
+        return encode(DefaultDrawSyndicateImage.renderSyndicateImage(sm));
     }
 
     /**
@@ -304,7 +378,7 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawVoidTraderImage(List<VoidTrader> vt) {
-        return DefaultDrawVoidTraderImage.drawVoidTraderImage(vt);
+        return encode(DefaultDrawVoidTraderImage.renderVoidTraderImage(vt));
     }
 
     /**
@@ -316,7 +390,361 @@ public class DefaultDrawImagePlugin implements DrawImagePlugin {
      */
     @Override
     public byte[] drawWarframeSubscribeImage(Map<Integer, String> subscribe, Map<Integer, String> missionType) {
-        return DefaultDrawWarframeSubscribeImage.drawWarframeSubscribeImage(subscribe, missionType);
+        return encode(DefaultDrawWarframeSubscribeImage.renderWarframeSubscribeImage(subscribe, missionType));
+    }
+
+    /**
+     * 绘制帮助图像，直接写入输出流
+     *
+     * @param helpInfo 帮助信息
+     * @param out      输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawHelpImage(List<String> helpInfo, OutputStream out) throws IOException {
+        encode(DefaultDrawHelpImage.renderHelpImage(helpInfo), out);
+    }
+
+    /**
+     * 绘制所有平原图像，直接写入输出流
+     *
+     * @param allCycle 所有平原数据
+     * @param out      输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawAllCycleImage(AllCycle allCycle, OutputStream out) throws IOException {
+        encode(DefaultDrawAllCycleImage.renderAllCycleImage(allCycle), out);
+    }
+
+    /**
+     * 绘制所有系统信息图像，直接写入输出流
+     *
+     * @param allInfo 所有信息数据
+     * @param out     输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawAllInfoImage(AllInfo allInfo, OutputStream out) throws IOException {
+        encode(DefaultDrawAllInfoImage.renderAllInfoImage(allInfo), out);
+    }
+
+    /**
+     * 绘制所有警报图像，直接写入输出流
+     *
+     * @param alerts 所有警报数据
+     * @param out    输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawAlertsImage(List<Alert> alerts, OutputStream out) throws IOException {
+        encode(DefaultDrawAlertsImage.renderAlertsImage(alerts), out);
+    }
+
+    /**
+     * 绘制仲裁图像，直接写入输出流
+     *
+     * @param arbitration 仲裁数据
+     * @param out         输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawArbitrationImage(Arbitration arbitration, OutputStream out) throws IOException {
+        encode(DefaultDrawArbitrationImage.renderArbitrationImage(arbitration), out);
+    }
+
+    /**
+     * 绘制有价值的仲裁图像，直接写入输出流
+     *
+     * @param arbitrations 有价值的仲裁数据
+     * @param out          输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawArbitrationsImage(List<Arbitration> arbitrations, OutputStream out) throws IOException {
+        encode(DefaultDrawArbitrationsImage.renderArbitrationsImage(arbitrations), out);
+    }
+
+    /**
+     * 绘制每日交易图像，直接写入输出流
+     *
+     * @param dailyDeal 每日交易数据
+     * @param out       输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawDailyDealsImage(DailyDeals dailyDeal, OutputStream out) throws IOException {
+        encode(DefaultDrawDailyDealsImage.renderDailyDealsImage(dailyDeal), out);
+    }
+
+    /**
+     * 绘制双衍王境图像，直接写入输出流
+     *
+     * @param duvalierCycle 双衍王境循环数据
+     * @param out           输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawDuviriCycleImage(DuvalierCycle duvalierCycle, OutputStream out) throws IOException {
+        encode(DefaultDrawDuviriCycleImage.renderDuviriCycleImage(duvalierCycle), out);
+    }
+
+    /**
+     * 绘制裂隙图像，直接写入输出流
+     *
+     * @param activeMission 裂隙数据
+     * @param out           输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawActiveMissionImage(List<ActiveMission> activeMission, OutputStream out) throws IOException {
+        encode(DefaultDrawActiveMission.renderActiveMissionImage(activeMission), out);
+    }
+
+    /**
+     * 绘制入侵图像，直接写入输出流
+     *
+     * @param invasions 入侵数据
+     * @param out       输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawInvasionImage(List<Invasion> invasions, OutputStream out) throws IOException {
+        encode(DefaultDrawInvasionImage.renderInvasionImage(invasions), out);
+    }
+
+    /**
+     * 绘制1999日历季节图像，直接写入输出流
+     *
+     * @param knownCalendarSeasons 1999日历季节数据
+     * @param out                  输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawKnownCalendarSeasonsImage(List<KnownCalendarSeasons> knownCalendarSeasons, OutputStream out) throws IOException {
+        encode(DefaultDrawKnownCalendarSeasonsImage.renderKnownCalendarSeasonsImage(knownCalendarSeasons), out);
+    }
+
+    /**
+     * 绘制执刑官猎杀图像，直接写入输出流
+     *
+     * @param liteSorite 执刑官猎杀数据
+     * @param out        输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawLiteSoriteImage(LiteSorite liteSorite, OutputStream out) throws IOException {
+        encode(DefaultDrawLiteSoriteImage.renderLiteSoriteImage(liteSorite), out);
+    }
+
+    /**
+     * 绘制 Market 市场 金垃圾 杜卡币 图像，直接写入输出流
+     *
+     * @param dump 金垃圾数据
+     * @param out  输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketGodDumpImage(Map<Ducats.DumpType, List<Ducats.Ducat>> dump, OutputStream out) throws IOException {
+        encode(DefaultDrawMarketDucatsImage.renderMarketDucatsImage(dump, "Market 市场 金垃圾"), out);
+    }
+
+    /**
+     * 绘制 Market 市场 银垃圾 杜卡币 图像，直接写入输出流
+     *
+     * @param dump 银垃圾数据
+     * @param out  输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketSilverDumpImage(Map<Ducats.DumpType, List<Ducats.Ducat>> dump, OutputStream out) throws IOException {
+        encode(DefaultDrawMarketDucatsImage.renderMarketDucatsImage(dump, "Market 市场 银垃圾"), out);
+    }
+
+    /**
+     * 绘制 Market Liches 市场拍卖 图像，直接写入输出流
+     *
+     * @param marketLichs 市场拍卖数据
+     * @param out         输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketLichesImage(MarketLichSister marketLichs, OutputStream out) throws IOException {
+        encode(DefaultDrawMarketLichSisterImage.renderMarketLichesImage(marketLichs), out);
+    }
+
+    /**
+     * 绘制 Market Sister 市场拍卖 图像，直接写入输出流
+     *
+     * @param marketSister 市场拍卖数据
+     * @param out          输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketSisterImage(MarketLichSister marketSister, OutputStream out) throws IOException {
+        encode(DefaultDrawMarketLichSisterImage.renderMarketLichesImage(marketSister), out);
+    }
+
+    /**
+     * 绘制 Market Orders 订单 图像，直接写入输出流
+     *
+     * @param orders 订单数据
+     * @param out    输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketOrdersImage(Orders orders, OutputStream out) throws IOException {
+        encode(DefaultDrawMarketOrdersImage.renderMarketOrdersImage(orders), out);
+    }
+
+    /**
+     * 绘制 可能要查询的 Orders 订单 图像，直接写入输出流
+     *
+     * @param possibleItems 可能要查询的物品列表
+     * @param out           输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketOrdersImage(List<String> possibleItems, OutputStream out) throws IOException {
+        encode(DefaultDrawMarketOrdersImage.renderMarketOrdersImage(possibleItems), out);
+    }
+
+    /**
+     * 绘制 Market Riven 紫卡 图像，直接写入输出流
+     *
+     * @param marketRiven 紫卡数据
+     * @param out         输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawMarketRivenImage(MarketRiven marketRiven, OutputStream out) throws IOException {
+        encode(DefaultDrawMarketRivenImage.renderMarketRivenImage(marketRiven), out);
+    }
+
+    /**
+     * 绘制 电波 图像，直接写入输出流
+     *
+     * @param seasonInfo 电波数据
+     * @param out        输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawSeasonInfoImage(SeasonInfo seasonInfo, OutputStream out) throws IOException {
+        encode(DefaultDrawSeasonInfoImage.renderSeasonInfoImage(seasonInfo), out);
+    }
+
+    /**
+     * 绘制 遗物 图像，直接写入输出流
+     *
+     * @param relics 遗物数据
+     * @param out    输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawRelicsImage(List<Relics> relics, OutputStream out) throws IOException {
+        encode(DefaultDrawRelicsImage.renderRelicsImage(relics), out);
+    }
+
+    /**
+     * 绘制 紫卡分析 图像，直接写入输出流
+     *
+     * @param rivenAnalyseTrendModel 紫卡分析数据
+     * @param out                    输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawRivenAnalyseTrendImage(List<RivenAnalyseTrendModel> rivenAnalyseTrendModel, OutputStream out) throws IOException {
+        encode(DefaultDrawRivenAnalyseTrendImage.renderRivenAnalyseTrendImage(rivenAnalyseTrendModel), out);
+    }
+
+    /**
+     * 绘制 突击 图像，直接写入输出流
+     *
+     * @param sorties 突击数据
+     * @param out     输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawSortiesImage(Sortie sorties, OutputStream out) throws IOException {
+        encode(DefaultDrawSortiesImage.renderSortiesImage(sorties), out);
+    }
+
+    /**
+     * 绘制 钢铁奖励 图像，直接写入输出流
+     *
+     * @param steelPath 钢铁奖励数据
+     * @param out       输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawSteelPath(SteelPathOffering steelPath, OutputStream out) throws IOException {
+        encode(DefaultDrawSteelPathImage.renderSteelPathImage(steelPath), out);
+    }
+
+    /**
+     * 根据枚举绘制对应的 赏金/集团 图像，直接写入输出流
+     *
+     * @param sm  赏金/集团 数据
+     * @param out 输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawSyndicateImage(SyndicateMission sm, OutputStream out) throws IOException {
+        encode(DefaultDrawSyndicateImage.renderSyndicateImage(sm), out);
+    }
+
+    /**
+     * 绘制 虚空商人 图像，直接写入输出流
+     *
+     * @param vt  虚空商人数据
+     * @param out 输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawVoidTraderImage(List<VoidTrader> vt, OutputStream out) throws IOException {
+        encode(DefaultDrawVoidTraderImage.renderVoidTraderImage(vt), out);
+    }
+
+    /**
+     * 绘制 订阅 帮助 图像，直接写入输出流
+     *
+     * @param subscribe   订阅类型数据
+     * @param missionType 订阅任务类型数据
+     * @param out         输出流，写入后不关闭
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void drawWarframeSubscribeImage(Map<Integer, String> subscribe, Map<Integer, String> missionType, OutputStream out) throws IOException {
+        encode(DefaultDrawWarframeSubscribeImage.renderWarframeSubscribeImage(subscribe, missionType), out);
+    }
+
+    /**
+     * 获取绘图方法返回的图像格式
+     *
+     * @return 输出格式
+     */
+    @Override
+    public OutputFormat getOutputFormat() {
+        return outputFormat;
+    }
+
+    /**
+     * 获取按指定格式输出图像的插件，直接在绘制后按该格式编码，不经过转码
+     * <p>子类未覆盖此方法时无法构造同类实例，退回默认实现将子类的输出转码（见 {@link DrawImagePlugin#withOutputFormat(OutputFormat)}），
+     * 子类覆盖的绘图方法依然生效；需要直接编码的子类应覆盖此方法</p>
+     *
+     * @param format 输出格式，不可为null
+     * @return 格式相同时返回自身，否则返回按指定格式输出的插件
+     * @throws IllegalArgumentException 当format为null时抛出
+     */
+    @Override
+    public DrawImagePlugin withOutputFormat(OutputFormat format) {
+        if (format == outputFormat) {
+            return this;
+        }
+        return getClass() == DefaultDrawImagePlugin.class
+                ? new DefaultDrawImagePlugin(format)
+                : DrawImagePlugin.super.withOutputFormat(format);
     }
 
     /**
@@ -1,11 +1,12 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.RecordingImageCombiner;
 import io.github.kingprimes.model.worldstate.Invasion;
 import io.github.kingprimes.model.worldstate.Reward;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
 import java.util.List;
 
 import static io.github.kingprimes.defaultdraw.DrawConstants.*;
@@ -44,62 +45,77 @@ final class DefaultDrawInvasionImage {
      * 绘制入侵任务图像
      *
      * @param invasions 入侵任务数据列表
-     * @return 生成的入侵任务图像的 PNG 格式字节数组
+     * @return PNG格式的图像字节数组，invasions为null或空列表时返回空数组
      */
     public static byte[] drawInvasionImage(List<Invasion> invasions) {
+        try (ImageCombiner combiner = renderInvasionImage(invasions)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制入侵任务图像，不进行编码
+     *
+     * @param invasions 入侵任务数据列表
+     * @return 绘制完成但尚未编码的图像合成器，invasions为null或空列表时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderInvasionImage(List<Invasion> invasions) {
         // 如果没有入侵任务数据，则返回空字节数组
         if (invasions == null || invasions.isEmpty()) {
-            return new byte[0];
+            return null;
         }
 
         // 根据入侵任务数量计算图像高度
         int height = calculateImageHeight(invasions.size());
 
-        // 创建图像合成器实例
-        ImageCombiner combiner = new ImageCombiner(
+        // 创建图像合成器实例，绘制操作先录制，编码时再按条带并行光栅化
+        ImageCombiner combiner = new RecordingImageCombiner(
                 IMAGE_WIDTH,
                 height,
                 ImageCombiner.OutputFormat.PNG
         );
+        try {
+            // 填充背景色并绘制双层圆角矩形边框
+            combiner.setFont(FONT)
+                    .setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, IMAGE_WIDTH, height)
+                    .drawTooRoundRect()
+                    // 绘制看板娘
+                    .drawStandingDrawing();
+
+            // 绘制标题
+            combiner.setColor(TITLE_COLOR)
+                    .setFont(FontRegistry.derive(FONT, Font.BOLD, 36)) // 标题字体大小为36
+                    .addCenteredText("入侵任务", 80);
+
+            // 绘制入侵任务列表
+            int startY = 120;
+            for (int i = 0; i < invasions.size(); i++) {
+                Invasion invasion = invasions.get(i);
+                int rowY = startY + i * INVASION_ROW_HEIGHT;
+
+                // 绘制斑马纹背景效果，提高可读性
+                if (i % 2 == 0) {
+                    combiner.setColor(new Color(0xFFFFFF, true)) // 半透明白色
+                            .fillRect(IMAGE_MARGIN, rowY, IMAGE_WIDTH - 2 * IMAGE_MARGIN, INVASION_ROW_HEIGHT);
+                }
 
-        // 填充背景色并绘制双层圆角矩形边框
-        combiner.setFont(FONT)
-                .setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, IMAGE_WIDTH, height)
-                .drawTooRoundRect()
-                // 绘制看板娘
-                .drawStandingDrawing();
-
-        // 绘制标题
-        combiner.setColor(TITLE_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 36)) // 标题字体大小为36
-                .addCenteredText("入侵任务", 80);
-
-        // 绘制入侵任务列表
-        int startY = 120;
-        for (int i = 0; i < invasions.size(); i++) {
-            Invasion invasion = invasions.get(i);
-            int rowY = startY + i * INVASION_ROW_HEIGHT;
-
-            // 绘制斑马纹背景效果，提高可读性
-            if (i % 2 == 0) {
-                combiner.setColor(new Color(0xFFFFFF, true)) // 半透明白色
-                        .fillRect(IMAGE_MARGIN, rowY, IMAGE_WIDTH - 2 * IMAGE_MARGIN, INVASION_ROW_HEIGHT);
+                // 绘制单个入侵任务行
+                drawInvasionRow(combiner, invasion, rowY);
             }
 
-            // 绘制单个入侵任务行
-            drawInvasionRow(combiner, invasion, rowY);
-        }
-
-        // 添加底部署名
-        addFooter(combiner.setFont(FONT), height - IMAGE_FOOTER_HEIGHT);
+            // 添加底部署名
+            addFooter(combiner.setFont(FONT), height - IMAGE_FOOTER_HEIGHT);
 
-        // 合并图像并获取字节数组
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
     }
 
@@ -131,7 +147,7 @@ final class DefaultDrawInvasionImage {
     private static void drawInvasionRow(ImageCombiner combiner, Invasion invasion, int startY) {
         // 绘制节点名称，使用32号粗体字体
         combiner.setColor(TEXT_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 32))
+                .setFont(FontRegistry.derive(FONT, Font.BOLD, 32))
                 .addText(invasion.getNode() != null ? invasion.getNode() : "未知节点",
                         IMAGE_MARGIN + 20, startY + 40);
 
@@ -141,17 +157,17 @@ final class DefaultDrawInvasionImage {
 
         // 绘制进攻方阵营名称
         combiner.setColor(ATTACKER_COLOR)
-                .setFont(FONT.deriveFont(28f)) // 使用28号字体
+                .setFont(FontRegistry.derive(FONT, 28f)) // 使用28号字体
                 .addText(attackerFaction, IMAGE_MARGIN + 20, startY + 80);
 
         // 绘制对阵标识
         combiner.setColor(TEXT_COLOR)
-                .setFont(FONT.deriveFont(28f))
+                .setFont(FontRegistry.derive(FONT, 28f))
                 .addText(" vs ", IMAGE_MARGIN + 200, startY + 80);
 
         // 绘制防守方阵营名称
         combiner.setColor(DEFENDER_COLOR)
-                .setFont(FONT.deriveFont(28f))
+                .setFont(FontRegistry.derive(FONT, 28f))
                 .addText(defenderFaction, IMAGE_MARGIN + 300, startY + 80);
 
         // 绘制进度条背景
@@ -177,7 +193,7 @@ final class DefaultDrawInvasionImage {
             // 绘制进度百分比文本
             String progressText = String.format("%.1f%%", progress * 100);
             combiner.setColor(TEXT_COLOR)
-                    .setFont(FONT.deriveFont(24f)) // 使用24号字体
+                    .setFont(FontRegistry.derive(FONT, 24f)) // 使用24号字体
                     .addText(progressText, progressBarX + progressBarWidth / 2 - 40,
                             progressBarY + progressBarHeight / 2 + 8);
         }
@@ -192,7 +208,7 @@ final class DefaultDrawInvasionImage {
                 Reward.Item item = attackerReward.getCountedItems().getFirst();
                 if (item.getCount() != null && item.getName() != null) {
                     combiner.setColor(ATTACKER_COLOR)
-                            .setFont(FONT.deriveFont(24f)) // 使用24号字体
+                            .setFont(FontRegistry.derive(FONT, 24f)) // 使用24号字体
                             .addText("进攻方: " + item.getCount() + "x " + item.getName(),
                                     IMAGE_MARGIN + 20, rewardY);
                 }
@@ -206,7 +222,7 @@ final class DefaultDrawInvasionImage {
             Reward.Item item = invasion.getDefenderReward().getCountedItems().getFirst();
             if (item.getCount() != null && item.getName() != null) {
                 combiner.setColor(DEFENDER_COLOR)
-                        .setFont(FONT.deriveFont(24f)) // 使用24号字体
+                        .setFont(FontRegistry.derive(FONT, 24f)) // 使用24号字体
                         .addText("防守方: " + item.getCount() + "x " + item.getName(),
                                 IMAGE_MARGIN + 400, rewardY);
             }
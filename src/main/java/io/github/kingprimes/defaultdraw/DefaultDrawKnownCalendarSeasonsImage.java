@@ -1,12 +1,13 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.RecordingImageCombiner;
 import io.github.kingprimes.model.worldstate.KnownCalendarSeasons;
 import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.ObjectMapper;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -49,12 +50,28 @@ final class DefaultDrawKnownCalendarSeasonsImage {
      * 绘制1999日历季节图像
      *
      * @param knownCalendarSeasonsList 1999日历季节数据列表
-     * @return 生成的日历季节图像的 PNG 格式字节数组
+     * @return PNG格式的图像字节数组，knownCalendarSeasonsList为null或空列表时返回空数组
      */
     public static byte[] drawKnownCalendarSeasonsImage(List<KnownCalendarSeasons> knownCalendarSeasonsList) {
+        try (ImageCombiner combiner = renderKnownCalendarSeasonsImage(knownCalendarSeasonsList)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制1999日历季节图像，不进行编码
+     *
+     * @param knownCalendarSeasonsList 1999日历季节数据列表
+     * @return 绘制完成但尚未编码的图像合成器，knownCalendarSeasonsList为null或空列表时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderKnownCalendarSeasonsImage(List<KnownCalendarSeasons> knownCalendarSeasonsList) {
         // 如果没有日历季节数据，则返回空字节数组
         if (knownCalendarSeasonsList == null || knownCalendarSeasonsList.isEmpty()) {
-            return new byte[0];
+            return null;
         }
 
         // 获取第一个日历季节数据（通常只有一个）
@@ -63,84 +80,83 @@ final class DefaultDrawKnownCalendarSeasonsImage {
         // 根据事件数量计算图像高度
         int height = calculateImageHeight(calendar);
 
-        // 创建图像合成器实例
-        ImageCombiner combiner = new ImageCombiner(
+        // 创建录制模式的图像合成器，整季日历较高，可分块回放或逐条带流式输出
+        ImageCombiner combiner = new RecordingImageCombiner(
                 IMAGE_WIDTH,
                 height,
                 ImageCombiner.OutputFormat.PNG
         );
+        try {
+            // 填充背景色并绘制双层圆角矩形边框
+            combiner.setFont(FONT)
+                    .setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, IMAGE_WIDTH, height)
+                    .drawTooRoundRect()
+                    // 绘制看板娘
+                    .drawStandingDrawing();
+
+            // 绘制标题
+            combiner.setColor(TITLE_COLOR)
+                    .setFont(FontRegistry.derive(FONT, Font.BOLD, 36)) // 标题字体大小为36
+                    .addCenteredText("1999日历季节信息", 80);
+
+            // 绘制季节基本信息
+            int startY = 120;
+            drawCalendarInfo(combiner, calendar, startY);
+
+            // 更新起始Y坐标
+            startY += 100;
+
+            // 绘制每月事件列表
+            if (calendar.getMonthDays() != null && !calendar.getMonthDays().isEmpty()) {
+                // 按月份排序
+
+                // 将monthDays转换为正确的类型
+                ObjectMapper mapper = new ObjectMapper();
+                Map<String, List<KnownCalendarSeasons.Days>> monthDays = mapper.convertValue(
+                        calendar.getMonthDays(),
+                        new TypeReference<>() {
+                        }
+                );
+
+                Map<String, List<KnownCalendarSeasons.Days>> sortedMonthDays = new TreeMap<>(monthDays);
+
+                // 计算行数和列数
+                Object[] months = sortedMonthDays.keySet().toArray();
+                int rows = (int) Math.ceil((double) months.length / MONTHS_PER_ROW);
+
+                // 绘制月份区域
+                int currentY = startY;
+                for (int row = 0; row < rows; row++) {
+                    int rowHeight = getMaxMonthHeightForRow(sortedMonthDays, row);
+                    for (int col = 0; col < MONTHS_PER_ROW; col++) {
+                        int monthIndex = row * MONTHS_PER_ROW + col;
+                        if (monthIndex >= months.length) {
+                            break;
+                        }
 
-        // 填充背景色并绘制双层圆角矩形边框
-        combiner.setFont(FONT)
-                .setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, IMAGE_WIDTH, height)
-                .drawTooRoundRect()
-                // 绘制看板娘
-                .drawStandingDrawing();
-
-        // 绘制标题
-        combiner.setColor(TITLE_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 36)) // 标题字体大小为36
-                .addCenteredText("1999日历季节信息", 80);
-
-        // 绘制季节基本信息
-        int startY = 120;
-        drawCalendarInfo(combiner, calendar, startY);
-
-        // 更新起始Y坐标
-        startY += 100;
-
-        // 绘制每月事件列表
-        if (calendar.getMonthDays() != null && !calendar.getMonthDays().isEmpty()) {
-            // 按月份排序
-
-            // 将monthDays转换为正确的类型
-            ObjectMapper mapper = new ObjectMapper();
-            Map<String, List<KnownCalendarSeasons.Days>> monthDays = mapper.convertValue(
-                    calendar.getMonthDays(),
-                    new TypeReference<>() {
-                    }
-            );
-
-            Map<String, List<KnownCalendarSeasons.Days>> sortedMonthDays = new TreeMap<>(monthDays);
+                        String monthKey = (String) months[monthIndex];
+                        List<KnownCalendarSeasons.Days> days = sortedMonthDays.get(monthKey);
 
-            // 计算行数和列数
-            Object[] months = sortedMonthDays.keySet().toArray();
-            int rows = (int) Math.ceil((double) months.length / MONTHS_PER_ROW);
+                        // 计算月份区域的X坐标
+                        int monthX = IMAGE_MARGIN + col * (MONTH_WIDTH + 50);
 
-            // 绘制月份区域
-            int currentY = startY;
-            for (int row = 0; row < rows; row++) {
-                int rowHeight = getMaxMonthHeightForRow(sortedMonthDays, row);
-                for (int col = 0; col < MONTHS_PER_ROW; col++) {
-                    int monthIndex = row * MONTHS_PER_ROW + col;
-                    if (monthIndex >= months.length) {
-                        break;
+                        // 绘制月份区域
+                        drawMonthSection(combiner, Integer.parseInt(monthKey), days, monthX, currentY);
                     }
-
-                    String monthKey = (String) months[monthIndex];
-                    List<KnownCalendarSeasons.Days> days = sortedMonthDays.get(monthKey);
-
-                    // 计算月份区域的X坐标
-                    int monthX = IMAGE_MARGIN + col * (MONTH_WIDTH + 50);
-
-                    // 绘制月份区域
-                    drawMonthSection(combiner, Integer.parseInt(monthKey), days, monthX, currentY);
+                    // 更新下一行的Y坐标
+                    currentY += rowHeight + 30; // 30是行间距
                 }
-                // 更新下一行的Y坐标
-                currentY += rowHeight + 30; // 30是行间距
             }
-        }
 
-        // 添加底部署名
-        addFooter(combiner.setFont(FONT), height - IMAGE_FOOTER_HEIGHT);
+            // 添加底部署名
+            addFooter(combiner.setFont(FONT), height - IMAGE_FOOTER_HEIGHT);
 
-        // 合并图像并获取字节数组
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
     }
 
@@ -233,18 +249,18 @@ final class DefaultDrawKnownCalendarSeasonsImage {
         // 绘制季节信息
         String seasonText = "当前季节: " + (calendar.getSeason() != null ? calendar.getSeason().getName() : "未知");
         combiner.setColor(SEASON_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 28))
+                .setFont(FontRegistry.derive(FONT, Font.BOLD, 28))
                 .addText(seasonText, IMAGE_MARGIN + 300, startY + 30);
 
         // 绘制年份迭代次数
         String yearIterationText = "年份迭代: 第" + (calendar.getYearIteration() != null ? calendar.getYearIteration() : "未知") + "次";
         combiner
-                .setFont(FONT.deriveFont(28f))
+                .setFont(FontRegistry.derive(FONT, 28f))
                 .addText(yearIterationText, IMAGE_MARGIN + 600, startY + 30);
 
         // 绘制版本号
         String versionText = "版本: " + (calendar.getVersion() != null ? calendar.getVersion() : "未知");
-        combiner.setFont(FONT.deriveFont(28f))
+        combiner.setFont(FontRegistry.derive(FONT, 28f))
                 .addText(versionText, IMAGE_MARGIN + 900, startY + 30)
                 .setColor(TEXT_COLOR);
     }
@@ -280,7 +296,7 @@ final class DefaultDrawKnownCalendarSeasonsImage {
 
         // 绘制月份标题
         combiner.setColor(SEASON_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 28))
+                .setFont(FontRegistry.derive(FONT, Font.BOLD, 28))
                 .addText(String.format("%d月", month), startX + 20, startY + 40);
 
         // 绘制该月的所有天事件
@@ -310,7 +326,7 @@ final class DefaultDrawKnownCalendarSeasonsImage {
         // 绘制日期
         String dayText = String.format("%d月%d日", day.getMonth(), day.getDay());
         combiner.setColor(TEXT_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 24))
+                .setFont(FontRegistry.derive(FONT, Font.BOLD, 24))
                 .addText(dayText, startX, startY);
 
         // 绘制该日期的事件（在日期下方纵向排列）
@@ -350,7 +366,7 @@ final class DefaultDrawKnownCalendarSeasonsImage {
                 int y = combiner.calculateWrappedTextHeight(eventText.toString(), EVENT_MAX_WIDTH, 5);
 
                 combiner.setColor(eventColor)
-                        .setFont(FONT.deriveFont(24f))
+                        .setFont(FontRegistry.derive(FONT, 24f))
                         .addMultilineTextWithWrap(eventText.toString(), startX + 20, eventStartY, EVENT_MAX_WIDTH, 24, 5);
                 eventStartY = eventStartY + y;
                 startY += y;
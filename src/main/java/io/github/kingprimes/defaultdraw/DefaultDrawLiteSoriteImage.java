@@ -4,7 +4,6 @@ import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.worldstate.LiteSorite;
 import io.github.kingprimes.model.worldstate.Mission;
 
-import java.io.ByteArrayOutputStream;
 
 import static io.github.kingprimes.defaultdraw.DrawConstants.*;
 
@@ -23,11 +22,27 @@ final class DefaultDrawLiteSoriteImage {
      * 绘制执刑官猎杀任务图像
      *
      * @param liteSorite 执刑官猎杀任务数据
-     * @return 生成的执刑官猎杀任务图像的 PNG 格式字节数组
+     * @return PNG格式的图像字节数组，liteSorite为null时返回空数组
      */
     public static byte[] drawLiteSoriteImage(LiteSorite liteSorite) {
+        try (ImageCombiner combiner = renderLiteSoriteImage(liteSorite)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制执刑官猎杀任务图像，不进行编码
+     *
+     * @param liteSorite 执刑官猎杀任务数据
+     * @return 绘制完成但尚未编码的图像合成器，liteSorite为null时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderLiteSoriteImage(LiteSorite liteSorite) {
         if (liteSorite == null) {
-            return new byte[0];
+            return null;
         }
 
         // 计算图像高度基于任务数量
@@ -35,66 +50,65 @@ final class DefaultDrawLiteSoriteImage {
         int imageHeight = Math.max(LITE_SORITE_IMAGE_HEIGHT, 400 + missionCount * 60);
 
         // 创建画布
-        ImageCombiner combiner = new ImageCombiner(LITE_SORITE_IMAGE_WIDTH, imageHeight, ImageCombiner.OutputFormat.PNG);
+        ImageCombiner combiner = ImageCombiner.leased(LITE_SORITE_IMAGE_WIDTH, imageHeight, ImageCombiner.OutputFormat.PNG);
+        try {
+            // 设置背景
+            combiner.setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, LITE_SORITE_IMAGE_WIDTH, imageHeight)
+                    .drawTooRoundRect()
+                    .drawStandingDrawing();
 
-        // 设置背景
-        combiner.setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, LITE_SORITE_IMAGE_WIDTH, imageHeight)
-                .drawTooRoundRect()
-                .drawStandingDrawing();
+            int y = IMAGE_MARGIN;
 
-        int y = IMAGE_MARGIN;
+            // 标题
+            String title = "执刑官猎杀";
+            combiner.setColor(TITLE_COLOR)
+                    .setFont(FONT)
+                    .addCenteredText(title, y + IMAGE_MARGIN_TOP / 2);
 
-        // 标题
-        String title = "执刑官猎杀";
-        combiner.setColor(TITLE_COLOR)
-                .setFont(FONT)
-                .addCenteredText(title, y + IMAGE_MARGIN_TOP / 2);
+            y += IMAGE_MARGIN_TOP;
 
-        y += IMAGE_MARGIN_TOP;
+            // 执刑官信息
+            combiner.setFont(FONT);
 
-        // 执刑官信息
-        combiner.setFont(FONT);
-
-        // Boss信息
-        y += IMAGE_ROW_HEIGHT;
-        combiner.setColor(TEXT_COLOR)
-                .addText("Boss: " + liteSorite.getBoss(), IMAGE_MARGIN, y);
-
-        // 结束时间信息
-        if (liteSorite.getExpiry() != null) {
+            // Boss信息
+            y += IMAGE_ROW_HEIGHT;
             combiner.setColor(TEXT_COLOR)
-                    .addText("结束时间: " + liteSorite.getExpiry().getTime(), LITE_SORITE_IMAGE_WIDTH / 2 - 60, y);
-        }
+                    .addText("Boss: " + liteSorite.getBoss(), IMAGE_MARGIN, y);
 
-        // 任务列表标题
-        y += IMAGE_ROW_HEIGHT + 10;
-        combiner.setColor(TITLE_COLOR)
-                .addText("任务列表:", IMAGE_MARGIN, y);
+            // 结束时间信息
+            if (liteSorite.getExpiry() != null) {
+                combiner.setColor(TEXT_COLOR)
+                        .addText("结束时间: " + liteSorite.getExpiry().getTime(), LITE_SORITE_IMAGE_WIDTH / 2 - 60, y);
+            }
 
-        // 任务列表
-        if (liteSorite.getMissions() != null && !liteSorite.getMissions().isEmpty()) {
-            y += 10;
-            for (Mission mission : liteSorite.getMissions()) {
+            // 任务列表标题
+            y += IMAGE_ROW_HEIGHT + 10;
+            combiner.setColor(TITLE_COLOR)
+                    .addText("任务列表:", IMAGE_MARGIN, y);
+
+            // 任务列表
+            if (liteSorite.getMissions() != null && !liteSorite.getMissions().isEmpty()) {
+                y += 10;
+                for (Mission mission : liteSorite.getMissions()) {
+                    y += IMAGE_ROW_HEIGHT;
+                    combiner.setColor(mission.getMissionTypeColor())
+                            .addText("• " + mission.getMissionTypeName() + " - " + mission.getNode(), IMAGE_MARGIN + 20, y);
+                }
+            } else {
                 y += IMAGE_ROW_HEIGHT;
-                combiner.setColor(mission.getMissionTypeColor())
-                        .addText("• " + mission.getMissionTypeName() + " - " + mission.getNode(), IMAGE_MARGIN + 20, y);
+                combiner.setColor(TEXT_COLOR)
+                        .addText("暂无任务信息", IMAGE_MARGIN + 20, y);
             }
-        } else {
-            y += IMAGE_ROW_HEIGHT;
-            combiner.setColor(TEXT_COLOR)
-                    .addText("暂无任务信息", IMAGE_MARGIN + 20, y);
-        }
 
-        // 添加底部署名
-        addFooter(combiner, imageHeight - IMAGE_FOOTER_HEIGHT);
+            // 添加底部署名
+            addFooter(combiner, imageHeight - IMAGE_FOOTER_HEIGHT);
 
-        // 合并图像
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
     }
 }
\ No newline at end of file
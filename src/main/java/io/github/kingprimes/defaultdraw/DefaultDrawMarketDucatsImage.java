@@ -1,5 +1,7 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.CanvasPool;
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.Ducats;
 
@@ -26,18 +28,34 @@ final class DefaultDrawMarketDucatsImage {
     private static final int HEADER_HEIGHT = 50;
     private static final int TITLE_HEIGHT = 60;
     private static final int FOOTER_HEIGHT = 40;
-    private static final Font HEADER_FONT = FONT.deriveFont(Font.BOLD, 18f);
-    private static final Font ROW_FONT = FONT.deriveFont(16f);
+    private static final Font HEADER_FONT = FontRegistry.derive(FONT, Font.BOLD, 18f);
+    private static final Font ROW_FONT = FontRegistry.derive(FONT, 16f);
 
     /**
      * 绘制市场金垃圾杜卡币图像
      *
      * @param dump 金垃圾数据
-     * @return 图像流
+     * @return PNG格式的图像字节数组，dump为null或空时返回空数组
      */
     public static byte[] drawMarketDucatsImage(Map<Ducats.DumpType, java.util.List<Ducats.Ducat>> dump, String title) {
+        try (ImageCombiner combiner = renderMarketDucatsImage(dump, title)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制市场金垃圾杜卡币图像，不进行编码
+     *
+     * @param dump 金垃圾数据
+     * @return 绘制完成但尚未编码的图像合成器，dump为null或空时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderMarketDucatsImage(Map<Ducats.DumpType, java.util.List<Ducats.Ducat>> dump, String title) {
         if (dump == null || dump.isEmpty()) {
-            return new byte[0];
+            return null;
         }
 
         java.util.List<Ducats.Ducat> dayList = dump.get(Ducats.DumpType.DAY);
@@ -53,102 +71,105 @@ final class DefaultDrawMarketDucatsImage {
         int totalHeight = TITLE_HEIGHT + contentHeight + FOOTER_HEIGHT + 100; // 为看板娘预留空间
 
         // 创建图像合成器
-        BufferedImage image = new BufferedImage(IMAGE_WIDTH, totalHeight, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage image = CanvasPool.shared().lease(IMAGE_WIDTH, totalHeight);
         ImageCombiner combiner = new ImageCombiner(image, ImageCombiner.OutputFormat.PNG);
-
-        // 设置背景色
-        combiner.setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, IMAGE_WIDTH, totalHeight)
-                .drawTooRoundRect();
-
-        // 绘制标题
-        int currentY = TITLE_HEIGHT;
-        combiner.setColor(TITLE_COLOR)
-                .setFont(FONT)
-                .addCenteredText(title, currentY);
-
-        // 绘制表头
-        currentY += 30;
-
-        // 左右列的起始X坐标
-        int leftColumnX = IMAGE_MARGIN;
-        int rightColumnX = IMAGE_MARGIN + COLUMN_WIDTH + IMAGE_MARGIN;
-
-        // 绘制"当天"和"每小时"标题
-        combiner.setColor(CARD_BACKGROUND_COLOR)
-                .fillRect(leftColumnX, currentY, TABLE_WIDTH, HEADER_HEIGHT)
-                .fillRect(rightColumnX, currentY, TABLE_WIDTH, HEADER_HEIGHT);
-
-        combiner
-                .setColor(TEXT_COLOR)
-                .addText("当天", TABLE_WIDTH / 2, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("每小时", rightColumnX + TABLE_WIDTH / 2, currentY + HEADER_HEIGHT / 2 + 8);
-
-        currentY += HEADER_HEIGHT + 10;
-
-        // 绘制详细表头
-        combiner.setColor(CARD_BACKGROUND_COLOR)
-                .fillRect(leftColumnX, currentY, TABLE_WIDTH, HEADER_HEIGHT)
-                .fillRect(rightColumnX, currentY, TABLE_WIDTH, HEADER_HEIGHT);
-
-        combiner.setColor(TEXT_COLOR)
-                .setFont(HEADER_FONT)
-                .addText("名称", leftColumnX + 10, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("杜卡币", leftColumnX + 250, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("?杜卡币/白金", leftColumnX + 350, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("均价", leftColumnX + 500, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("库存", leftColumnX + 600, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("名称", rightColumnX + 10, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("杜卡币", rightColumnX + 250, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("?杜卡币/白金", rightColumnX + 350, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("均价", rightColumnX + 500, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("库存", rightColumnX + 600, currentY + HEADER_HEIGHT / 2 + 8);
-
-        currentY += HEADER_HEIGHT + 5;
-
-        // 绘制数据行
-        int maxRows = Math.max(
-                dayList != null ? dayList.size() : 0,
-                hourList != null ? hourList.size() : 0
-        );
-
-        for (int i = 0; i < maxRows; i++) {
-            // 绘制当天数据
-            if (dayList != null && i < dayList.size()) {
-                drawDucatRow(combiner, dayList.get(i), leftColumnX, currentY, i);
-            } else {
-                // 绘制空白行
-                if (i % 2 == 1) {
-                    combiner.setColor(new Color(0xE8F4FD))
-                            .fillRect(leftColumnX, currentY, TABLE_WIDTH, ROW_HEIGHT);
+        try {
+            // 设置背景色
+            combiner.setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, IMAGE_WIDTH, totalHeight)
+                    .drawTooRoundRect();
+
+            // 绘制标题
+            int currentY = TITLE_HEIGHT;
+            combiner.setColor(TITLE_COLOR)
+                    .setFont(FONT)
+                    .addCenteredText(title, currentY);
+
+            // 绘制表头
+            currentY += 30;
+
+            // 左右列的起始X坐标
+            int leftColumnX = IMAGE_MARGIN;
+            int rightColumnX = IMAGE_MARGIN + COLUMN_WIDTH + IMAGE_MARGIN;
+
+            // 绘制"当天"和"每小时"标题
+            combiner.setColor(CARD_BACKGROUND_COLOR)
+                    .fillRect(leftColumnX, currentY, TABLE_WIDTH, HEADER_HEIGHT)
+                    .fillRect(rightColumnX, currentY, TABLE_WIDTH, HEADER_HEIGHT);
+
+            combiner
+                    .setColor(TEXT_COLOR)
+                    .addText("当天", TABLE_WIDTH / 2, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("每小时", rightColumnX + TABLE_WIDTH / 2, currentY + HEADER_HEIGHT / 2 + 8);
+
+            currentY += HEADER_HEIGHT + 10;
+
+            // 绘制详细表头
+            combiner.setColor(CARD_BACKGROUND_COLOR)
+                    .fillRect(leftColumnX, currentY, TABLE_WIDTH, HEADER_HEIGHT)
+                    .fillRect(rightColumnX, currentY, TABLE_WIDTH, HEADER_HEIGHT);
+
+            combiner.setColor(TEXT_COLOR)
+                    .setFont(HEADER_FONT)
+                    .addText("名称", leftColumnX + 10, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("杜卡币", leftColumnX + 250, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("?杜卡币/白金", leftColumnX + 350, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("均价", leftColumnX + 500, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("库存", leftColumnX + 600, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("名称", rightColumnX + 10, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("杜卡币", rightColumnX + 250, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("?杜卡币/白金", rightColumnX + 350, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("均价", rightColumnX + 500, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("库存", rightColumnX + 600, currentY + HEADER_HEIGHT / 2 + 8);
+
+            currentY += HEADER_HEIGHT + 5;
+
+            // 绘制数据行
+            int maxRows = Math.max(
+                    dayList != null ? dayList.size() : 0,
+                    hourList != null ? hourList.size() : 0
+            );
+
+            for (int i = 0; i < maxRows; i++) {
+                // 绘制当天数据
+                if (dayList != null && i < dayList.size()) {
+                    drawDucatRow(combiner, dayList.get(i), leftColumnX, currentY, i);
                 } else {
-                    combiner.setColor(Color.WHITE)
-                            .fillRect(leftColumnX, currentY, TABLE_WIDTH, ROW_HEIGHT);
+                    // 绘制空白行
+                    if (i % 2 == 1) {
+                        combiner.setColor(new Color(0xE8F4FD))
+                                .fillRect(leftColumnX, currentY, TABLE_WIDTH, ROW_HEIGHT);
+                    } else {
+                        combiner.setColor(Color.WHITE)
+                                .fillRect(leftColumnX, currentY, TABLE_WIDTH, ROW_HEIGHT);
+                    }
                 }
-            }
 
-            // 绘制每小时数据
-            if (hourList != null && i < hourList.size()) {
-                drawDucatRow(combiner, hourList.get(i), rightColumnX, currentY, i);
-            } else {
-                // 绘制空白行
-                if (i % 2 == 1) {
-                    combiner.setColor(new Color(0xE8F4FD))
-                            .fillRect(rightColumnX, currentY, TABLE_WIDTH, ROW_HEIGHT);
+                // 绘制每小时数据
+                if (hourList != null && i < hourList.size()) {
+                    drawDucatRow(combiner, hourList.get(i), rightColumnX, currentY, i);
                 } else {
-                    combiner.setColor(Color.WHITE)
-                            .fillRect(rightColumnX, currentY, TABLE_WIDTH, ROW_HEIGHT);
+                    // 绘制空白行
+                    if (i % 2 == 1) {
+                        combiner.setColor(new Color(0xE8F4FD))
+                                .fillRect(rightColumnX, currentY, TABLE_WIDTH, ROW_HEIGHT);
+                    } else {
+                        combiner.setColor(Color.WHITE)
+                                .fillRect(rightColumnX, currentY, TABLE_WIDTH, ROW_HEIGHT);
+                    }
                 }
-            }
 
-            currentY += ROW_HEIGHT;
+                currentY += ROW_HEIGHT;
+            }
+            // 添加底部署名
+            addFooter(combiner, totalHeight - 40);
+
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
-        // 添加底部署名
-        addFooter(combiner, totalHeight - 40);
-
-        // 合成并返回图像
-        combiner.combine();
-        return combiner.getCombinedImageOutStream().toByteArray();
     }
 
     /**
@@ -1,5 +1,6 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.CanvasPool;
 import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.enums.ElementEnum;
 import io.github.kingprimes.model.market.MarketLichSister;
@@ -28,11 +29,27 @@ final class DefaultDrawMarketLichSisterImage {
      * 绘制市场Lich拍卖图像
      *
      * @param marketLichs 市场Lich拍卖数据
-     * @return 图像流
+     * @return PNG格式的图像字节数组，marketLichs、其载荷或拍卖列表为null时返回空数组
      */
     public static byte[] drawMarketLichesImage(MarketLichSister marketLichs) {
+        try (ImageCombiner combiner = renderMarketLichesImage(marketLichs)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制市场Lich拍卖图像，不进行编码
+     *
+     * @param marketLichs 市场Lich拍卖数据
+     * @return 绘制完成但尚未编码的图像合成器，marketLichs、其载荷或拍卖列表为null时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderMarketLichesImage(MarketLichSister marketLichs) {
         if (marketLichs == null || marketLichs.getPayload() == null || marketLichs.getPayload().getAuctions() == null) {
-            return new byte[0];
+            return null;
         }
 
         List<MarketLichSister.Auctions> auctions = marketLichs.getPayload().getAuctions();
@@ -42,76 +59,79 @@ final class DefaultDrawMarketLichSisterImage {
         int totalHeight = TITLE_HEIGHT + contentHeight + FOOTER_HEIGHT + 100; // 为看板娘预留空间
 
         // 创建图像合成器
-        BufferedImage image = new BufferedImage(IMAGE_WIDTH, totalHeight, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage image = CanvasPool.shared().lease(IMAGE_WIDTH, totalHeight);
         ImageCombiner combiner = new ImageCombiner(image, ImageCombiner.OutputFormat.PNG);
-
-        // 设置背景色
-        combiner.setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, IMAGE_WIDTH, totalHeight)
-                .drawTooRoundRect()
-                .drawStandingDrawing();
-        // 绘制标题
-        int currentY = TITLE_HEIGHT;
-        combiner.setColor(TITLE_COLOR)
-                .setFont(FONT)
-                .addCenteredText(marketLichs.getPayload().getItemName() + " 拍卖信息", currentY);
-
-        // 绘制表头
-        currentY += 30;
-
-        combiner.setColor(TEXT_COLOR)
-                .addText("元素", IMAGE_MARGIN + 10, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("伤害", IMAGE_MARGIN + 200, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("起拍价", IMAGE_MARGIN + 300, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("买断价", IMAGE_MARGIN + 400, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("卖家", IMAGE_MARGIN + 650, currentY + HEADER_HEIGHT / 2 + 8)
-                .addText("声望", IMAGE_MARGIN + 1000, currentY + HEADER_HEIGHT / 2 + 8);
-
-        currentY += HEADER_HEIGHT + 5;
-
-        // 绘制数据行
-        for (MarketLichSister.Auctions auction : auctions) {
-            // 获取物品信息
-            ElementEnum element = auction.getItem().getElement();
-            String damage = auction.getItem().getDamage() != null ?
-                    auction.getItem().getDamage().toString() : "未知";
-
-            // 获取价格信息
-            String startingPrice = auction.getStartingPrice() != null ?
-                    auction.getStartingPrice().toString() : "无";
-            String buyoutPrice = auction.getBuyoutPrice() != null ?
-                    auction.getBuyoutPrice().toString() : "无";
-
-            // 获取卖家信息
-            String sellerName = "未知";
-            String reputation = "未知";
-            if (auction.getOwner() != null) {
-                sellerName = auction.getOwner().getIngameName() != null ?
-                        auction.getOwner().getIngameName() : "未知";
-                reputation = auction.getOwner().getReputation() != null ?
-                        auction.getOwner().getReputation().toString() : "未知";
-            }
-
-            // 绘制行数据
-            combiner.setColor(element.getCOLOR())
-                    .setFont(FONT_WARFRAME_ICON)
-                    .addText(element.getICON(), IMAGE_MARGIN, currentY + ROW_HEIGHT / 2 + 8)
+        try {
+            // 设置背景色
+            combiner.setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, IMAGE_WIDTH, totalHeight)
+                    .drawTooRoundRect()
+                    .drawStandingDrawing();
+            // 绘制标题
+            int currentY = TITLE_HEIGHT;
+            combiner.setColor(TITLE_COLOR)
                     .setFont(FONT)
-                    .addText(element.getNAME(), IMAGE_MARGIN + 40, currentY + ROW_HEIGHT / 2 + 8)
-                    .addText(damage, IMAGE_MARGIN + 210, currentY + ROW_HEIGHT / 2 + 8)
-                    .addText(startingPrice, IMAGE_MARGIN + 320, currentY + ROW_HEIGHT / 2 + 8)
-                    .addText(buyoutPrice, IMAGE_MARGIN + 420, currentY + ROW_HEIGHT / 2 + 8)
-                    .addText(sellerName, IMAGE_MARGIN + 550, currentY + ROW_HEIGHT / 2 + 8)
-                    .addText(reputation, IMAGE_MARGIN + 1010, currentY + ROW_HEIGHT / 2 + 8);
-
-            currentY += ROW_HEIGHT;
-        }
+                    .addCenteredText(marketLichs.getPayload().getItemName() + " 拍卖信息", currentY);
+
+            // 绘制表头
+            currentY += 30;
+
+            combiner.setColor(TEXT_COLOR)
+                    .addText("元素", IMAGE_MARGIN + 10, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("伤害", IMAGE_MARGIN + 200, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("起拍价", IMAGE_MARGIN + 300, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("买断价", IMAGE_MARGIN + 400, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("卖家", IMAGE_MARGIN + 650, currentY + HEADER_HEIGHT / 2 + 8)
+                    .addText("声望", IMAGE_MARGIN + 1000, currentY + HEADER_HEIGHT / 2 + 8);
+
+            currentY += HEADER_HEIGHT + 5;
+
+            // 绘制数据行
+            for (MarketLichSister.Auctions auction : auctions) {
+                // 获取物品信息
+                ElementEnum element = auction.getItem().getElement();
+                String damage = auction.getItem().getDamage() != null ?
+                        auction.getItem().getDamage().toString() : "未知";
+
+                // 获取价格信息
+                String startingPrice = auction.getStartingPrice() != null ?
+                        auction.getStartingPrice().toString() : "无";
+                String buyoutPrice = auction.getBuyoutPrice() != null ?
+                        auction.getBuyoutPrice().toString() : "无";
+
+                // 获取卖家信息
+                String sellerName = "未知";
+                String reputation = "未知";
+                if (auction.getOwner() != null) {
+                    sellerName = auction.getOwner().getIngameName() != null ?
+                            auction.getOwner().getIngameName() : "未知";
+                    reputation = auction.getOwner().getReputation() != null ?
+                            auction.getOwner().getReputation().toString() : "未知";
+                }
+
+                // 绘制行数据
+                combiner.setColor(element.getCOLOR())
+                        .setFont(FONT_WARFRAME_ICON)
+                        .addIcon(ICON_ATLAS, element.getICON(), IMAGE_MARGIN, currentY + ROW_HEIGHT / 2 + 8)
+                        .setFont(FONT)
+                        .addText(element.getNAME(), IMAGE_MARGIN + 40, currentY + ROW_HEIGHT / 2 + 8)
+                        .addText(damage, IMAGE_MARGIN + 210, currentY + ROW_HEIGHT / 2 + 8)
+                        .addText(startingPrice, IMAGE_MARGIN + 320, currentY + ROW_HEIGHT / 2 + 8)
+                        .addText(buyoutPrice, IMAGE_MARGIN + 420, currentY + ROW_HEIGHT / 2 + 8)
+                        .addText(sellerName, IMAGE_MARGIN + 550, currentY + ROW_HEIGHT / 2 + 8)
+                        .addText(reputation, IMAGE_MARGIN + 1010, currentY + ROW_HEIGHT / 2 + 8);
+
+                currentY += ROW_HEIGHT;
+            }
 
-        // 添加底部署名
-        addFooter(combiner, totalHeight - 40);
+            // 添加底部署名
+            addFooter(combiner, totalHeight - 40);
 
-        // 合成并返回图像
-        combiner.combine();
-        return combiner.getCombinedImageOutStream().toByteArray();
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
+        }
     }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.CardGrid;
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.image.ImageIOUtils;
+import io.github.kingprimes.image.RecordingImageCombiner;
 import io.github.kingprimes.model.enums.FactionEnum;
 import io.github.kingprimes.model.enums.IconEnum;
 import io.github.kingprimes.model.market.MarketRiven;
@@ -35,16 +38,32 @@ final class DefaultDrawMarketRivenImage {
      * 绘制市场紫卡图像
      *
      * @param marketRiven 市场紫卡数据
-     * @return 图像流
+     * @return PNG格式的图像字节数组，marketRiven、其载荷或拍卖列表为null，或拍卖列表为空时返回空数组
      */
     public static byte[] drawMarketRivenImage(MarketRiven marketRiven) {
+        try (ImageCombiner combiner = renderMarketRivenImage(marketRiven)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制市场紫卡图像，不进行编码
+     *
+     * @param marketRiven 市场紫卡数据
+     * @return 绘制完成但尚未编码的图像合成器，marketRiven、其载荷或拍卖列表为null，或拍卖列表为空时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderMarketRivenImage(MarketRiven marketRiven) {
         if (marketRiven == null || marketRiven.getPayload() == null || marketRiven.getPayload().getAuctions() == null) {
-            return new byte[0];
+            return null;
         }
 
         List<MarketRiven.Auctions> auctions = marketRiven.getPayload().getAuctions();
         if (auctions.isEmpty()) {
-            return new byte[0];
+            return null;
         }
 
         // 计算图像尺寸
@@ -52,46 +71,40 @@ final class DefaultDrawMarketRivenImage {
         int rowsNeeded = (int) Math.ceil((double) auctions.size() / COLUMNS);
         int totalHeight = CARD_HEIGHT * rowsNeeded + CARD_MARGIN * (rowsNeeded + 1) + 200; // 为标题和看板娘预留空间
 
-        // 创建图像合成器
-        BufferedImage image = new BufferedImage(totalWidth, totalHeight, BufferedImage.TYPE_INT_ARGB);
-        ImageCombiner combiner = new ImageCombiner(image, ImageCombiner.OutputFormat.PNG);
-
-        // 设置背景色
-        combiner.setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, totalWidth, totalHeight)
-                .drawTooRoundRect()
-                .drawStandingDrawing();
-
-        // 绘制标题
-        int titleY = 100;
-        combiner.setColor(TITLE_COLOR)
-                .setFont(FONT.deriveFont(64f))
-                .addCenteredText("Warframe Market 紫卡市场", titleY);
-
-        // 绘制紫卡卡片
-        int currentY = titleY + 40;
-        for (int i = 0; i < auctions.size(); i++) {
-            MarketRiven.Auctions auction = auctions.get(i);
-            int row = i / COLUMNS;
-            int col = i % COLUMNS;
-
-            int cardX = CARD_MARGIN + col * (CARD_WIDTH + CARD_MARGIN);
-            int cardY = currentY + CARD_MARGIN + row * (CARD_HEIGHT + CARD_MARGIN);
-
-            combiner.drawImage(
-                    drawRivenCard(new ImageCombiner(ImageIOUtils.getRivenTemplate(), ImageCombiner.OutputFormat.PNG),
+        // 创建图像合成器，绘制操作先录制，编码时再按条带并行光栅化
+        ImageCombiner combiner = new RecordingImageCombiner(totalWidth, totalHeight, ImageCombiner.OutputFormat.PNG);
+        try {
+            // 设置背景色
+            combiner.setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, totalWidth, totalHeight)
+                    .drawTooRoundRect()
+                    .drawStandingDrawing();
+
+            // 绘制标题
+            int titleY = 100;
+            combiner.setColor(TITLE_COLOR)
+                    .setFont(FontRegistry.derive(FONT, 64f))
+                    .addCenteredText("Warframe Market 紫卡市场", titleY);
+
+            // 绘制紫卡卡片（卡片并发渲染，按顺序绘制到页面）
+            int currentY = titleY + 40;
+            CardGrid.drawCards(combiner, auctions,
+                    auction -> drawRivenCard(
+                            new ImageCombiner(ImageIOUtils.getRivenTemplate(), ImageCombiner.OutputFormat.PNG),
                             auction,
                             marketRiven.getItemName()),
-                    cardX, cardY
-            );
-        }
+                    CardGrid.grid(COLUMNS, CARD_MARGIN, currentY + CARD_MARGIN,
+                            CARD_WIDTH + CARD_MARGIN, CARD_HEIGHT + CARD_MARGIN));
 
-        // 添加底部署名
-        addFooter(combiner, totalHeight - 40);
+            // 添加底部署名
+            addFooter(combiner, totalHeight - 40);
 
-        // 合成并返回图像
-        combiner.combine();
-        return combiner.getCombinedImageOutStream().toByteArray();
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
+        }
     }
 
     /**
@@ -111,7 +124,7 @@ final class DefaultDrawMarketRivenImage {
 
         // 绘制物品名称 (在紫卡模板图片的正上方居中绘制)
         combiner.setColor(RIVEN_TEXT_COLOR)
-                .setFont(FONT.deriveFont(32f))
+                .setFont(FontRegistry.derive(FONT, 32f))
                 .addCenteredText(itemName, 430)
                 .addCenteredText(item.getName(), 465);
 
@@ -119,7 +132,7 @@ final class DefaultDrawMarketRivenImage {
         // 绘制MOD等级数据 (在紫卡模板图片的最下方居中绘制)
         if (item.getModRank() != null) {
             combiner.setColor(ALL_CYCLE_COLD_COLOR)
-                    .setFont(FONT.deriveFont(18f));
+                    .setFont(FontRegistry.derive(FONT, 18f));
             int x = 222;
             for (int i = 0; i < item.getModRank(); i++) {
                 combiner
@@ -131,31 +144,31 @@ final class DefaultDrawMarketRivenImage {
         // 绘制段位数据 (在紫卡模板图片的左下角)
         if (item.getMasteryLevel() != null) {
             combiner.setColor(RIVEN_TEXT_COLOR)
-                    .setFont(FONT.deriveFont(28f))
+                    .setFont(FontRegistry.derive(FONT, 28f))
                     .addText("段位: " + item.getMasteryLevel(), 140, height - 108);
         }
 
         // 绘制刷新次数图标 (在紫卡模板图片的右下角)
         if (item.getReRolls() != null) {
             combiner.setColor(RIVEN_TEXT_COLOR)
-                    .setFont(FONT_WARFRAME_ICON.deriveFont(28f))
-                    .addText(IconEnum.REFRESH.getIcon(), width - 185, height - 105)
-                    .setFont(FONT.deriveFont(28f))
+                    .setFont(FontRegistry.derive(FONT_WARFRAME_ICON, 28f))
+                    .addIcon(ICON_ATLAS, IconEnum.REFRESH.getIcon(), width - 185, height - 105)
+                    .setFont(FontRegistry.derive(FONT, 28f))
                     .addText(item.getReRolls().toString(), width - 150, height - 108);
         }
 
         // 绘制极性图标 (在紫卡模板图片的右上角)
         if (item.getPolarity() != null) {
             combiner.setColor(RIVEN_TEXT_COLOR)
-                    .setFont(FONT_WARFRAME_ICON.deriveFont(48f))
-                    .addText(item.getPolarity().getIcon(), width - 132, 120);
+                    .setFont(FontRegistry.derive(FONT_WARFRAME_ICON, 48f))
+                    .addIcon(ICON_ATLAS, item.getPolarity().getIcon(), width - 132, 120);
         }
 
 
         // 绘制紫卡词条数据 (在紫卡模板图片的正下方居中绘制)
         if (item.getAttributes() != null && !item.getAttributes().isEmpty()) {
             combiner.setColor(RIVEN_TEXT_COLOR)
-                    .setFont(FONT.deriveFont(32f));
+                    .setFont(FontRegistry.derive(FONT, 32f));
             int attrY = 515;
             for (MarketRiven.Attributes attribute : item.getAttributes()) {
                 String attrText =
@@ -169,17 +182,17 @@ final class DefaultDrawMarketRivenImage {
         // 绘制玩家昵称和买断价格 (在紫卡模板图片的右边)
         if (auction.getOwner() != null && auction.getOwner().getIngameName() != null) {
             combiner.setColor(TITLE_COLOR)
-                    .setFont(FONT_WARFRAME_ICON.deriveFont(48f))
-                    .addText(FactionEnum.FC_TENNO.getIcon(), 100, 320)
-                    .setFont(FONT.deriveFont(48f))
+                    .setFont(FontRegistry.derive(FONT_WARFRAME_ICON, 48f))
+                    .addIcon(ICON_ATLAS, FactionEnum.FC_TENNO.getIcon(), 100, 320)
+                    .setFont(FontRegistry.derive(FONT, 48f))
                     .addText(auction.getOwner().getIngameName(), 180, 320);
         }
 
         if (auction.getBuyoutPrice() != null) {
             combiner.setColor(TITLE_COLOR)
-                    .setFont(FONT_WARFRAME_ICON.deriveFont(48f))
-                    .addText(IconEnum.PLATINUM.getIcon(), 100, 380)
-                    .setFont(FONT.deriveFont(48f))
+                    .setFont(FontRegistry.derive(FONT_WARFRAME_ICON, 48f))
+                    .addIcon(ICON_ATLAS, IconEnum.PLATINUM.getIcon(), 100, 380)
+                    .setFont(FontRegistry.derive(FONT, 48f))
                     .addText(auction.getBuyoutPrice().toString(), 180, 380);
         }
 
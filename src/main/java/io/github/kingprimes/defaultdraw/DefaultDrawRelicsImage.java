@@ -1,6 +1,8 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.CardGrid;
 import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.RecordingImageCombiner;
 import io.github.kingprimes.model.Relics;
 import io.github.kingprimes.model.enums.RarityEnum;
 
@@ -31,50 +33,53 @@ final class DefaultDrawRelicsImage {
      * 绘制遗物图像
      *
      * @param relics 遗物数据列表
-     * @return 图像字节数组
+     * @return PNG格式的图像字节数组，relics为null或空列表时返回空数组
      */
     public static byte[] drawRelicsImage(List<Relics> relics) {
+        try (ImageCombiner combiner = renderRelicsImage(relics)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制遗物图像，不进行编码
+     *
+     * @param relics 遗物数据列表
+     * @return 绘制完成但尚未编码的图像合成器，relics为null或空列表时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderRelicsImage(List<Relics> relics) {
         if (relics == null || relics.isEmpty()) {
-            return new byte[0];
+            return null;
         }
 
         // 计算图像高度
         int totalHeight = calculateImageHeight(relics.size()) + TITLE_HEIGHT + FOOTER_HEIGHT + 100; // 为看板娘预留空间
 
-        // 创建图像合成器
-        BufferedImage image = new BufferedImage(IMAGE_WIDTH, totalHeight, BufferedImage.TYPE_INT_ARGB);
-        ImageCombiner combiner = new ImageCombiner(image, ImageCombiner.OutputFormat.PNG);
-
-        // 设置背景色
-        combiner.setColor(PAGE_BACKGROUND_COLOR).fillRect(0, 0, IMAGE_WIDTH, totalHeight).drawTooRoundRect().drawStandingDrawing();
-
-        // 绘制遗物卡片
-        int x = IMAGE_MARGIN;
-        int y = TITLE_HEIGHT + 25;
-        int cardIndex = 0;
-
-        for (Relics relic : relics) {
-            // 检查是否需要换行
-            if (cardIndex > 0 && cardIndex % CARDS_PER_ROW == 0) {
-                x = IMAGE_MARGIN;
-                y += CARD_HEIGHT + CARD_MARGIN_Y;
-            }
-
-            // 绘制遗物卡片
-            BufferedImage bufferedImage = drawRelicCard(new ImageCombiner(CARD_WIDTH, CARD_HEIGHT, ImageCombiner.OutputFormat.PNG), relic);
-            combiner.drawImage(bufferedImage, x, y);
-
-            // 更新坐标
-            x += CARD_WIDTH + CARD_MARGIN_X;
-            cardIndex++;
+        // 创建图像合成器，绘制操作先录制，编码时再按条带并行光栅化
+        ImageCombiner combiner = new RecordingImageCombiner(IMAGE_WIDTH, totalHeight, ImageCombiner.OutputFormat.PNG);
+        try {
+            // 设置背景色
+            combiner.setColor(PAGE_BACKGROUND_COLOR).fillRect(0, 0, IMAGE_WIDTH, totalHeight).drawTooRoundRect().drawStandingDrawing();
+
+            // 绘制遗物卡片（卡片并发渲染，按顺序绘制到页面）
+            CardGrid.drawCards(combiner, relics,
+                    relic -> drawRelicCard(ImageCombiner.leased(CARD_WIDTH, CARD_HEIGHT, ImageCombiner.OutputFormat.PNG), relic),
+                    CardGrid.grid(CARDS_PER_ROW, IMAGE_MARGIN, TITLE_HEIGHT + 25,
+                            CARD_WIDTH + CARD_MARGIN_X, CARD_HEIGHT + CARD_MARGIN_Y));
+
+            // 添加底部署名
+            addFooter(combiner, totalHeight - 40);
+
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
-
-        // 添加底部署名
-        addFooter(combiner, totalHeight - 40);
-
-        // 合成并返回图像
-        combiner.combine();
-        return combiner.getCombinedImageOutStream().toByteArray();
     }
 
     /**
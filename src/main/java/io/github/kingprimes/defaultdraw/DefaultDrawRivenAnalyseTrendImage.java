@@ -1,5 +1,8 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.CanvasPool;
+import io.github.kingprimes.image.CardGrid;
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.RivenAnalyseTrendModel;
 
@@ -29,11 +32,27 @@ final class DefaultDrawRivenAnalyseTrendImage {
      * 绘制紫卡分析趋势图像
      *
      * @param rivenAnalyseTrendModels 紫卡分析数据列表
-     * @return 图像字节数组
+     * @return PNG格式的图像字节数组，rivenAnalyseTrendModels为null或空列表时返回空数组
      */
     public static byte[] drawRivenAnalyseTrendImage(List<RivenAnalyseTrendModel> rivenAnalyseTrendModels) {
+        try (ImageCombiner combiner = renderRivenAnalyseTrendImage(rivenAnalyseTrendModels)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制紫卡分析趋势图像，不进行编码
+     *
+     * @param rivenAnalyseTrendModels 紫卡分析数据列表
+     * @return 绘制完成但尚未编码的图像合成器，rivenAnalyseTrendModels为null或空列表时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderRivenAnalyseTrendImage(List<RivenAnalyseTrendModel> rivenAnalyseTrendModels) {
         if (rivenAnalyseTrendModels == null || rivenAnalyseTrendModels.isEmpty()) {
-            return new byte[0];
+            return null;
         }
 
         // 计算图像尺寸
@@ -47,46 +66,41 @@ final class DefaultDrawRivenAnalyseTrendImage {
         int totalHeight = cardHeight * rows + cardMargin * (rows + 1) + 200; // 为标题和看板娘预留空间
 
         // 创建图像合成器
-        BufferedImage image = new BufferedImage(totalWidth, totalHeight, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage image = CanvasPool.shared().lease(totalWidth, totalHeight);
         ImageCombiner combiner = new ImageCombiner(image, ImageCombiner.OutputFormat.PNG);
-
-        // 设置背景色
-        combiner.setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, totalWidth, totalHeight)
-                .drawTooRoundRect();
-
-        // 绘制标题
-        int titleY = 100;
-        combiner.setColor(TITLE_COLOR)
-                .setFont(FONT.deriveFont(48f))
-                .addCenteredText("紫卡分析趋势", titleY);
-
-        // 绘制紫卡分析卡片
-        int currentY = titleY + 40;
-        for (int i = 0; i < rivenAnalyseTrendModels.size(); i++) {
-            RivenAnalyseTrendModel trend = rivenAnalyseTrendModels.get(i);
-            int row = i / columns;
-            int col = i % columns;
-
-            int cardX = cardMargin + col * (cardWidth + cardMargin);
-            int cardY = currentY + cardMargin + row * (cardHeight + cardMargin);
-
-            combiner.drawImage(
-                    drawRivenAnalyseTrendCard(
-                            new ImageCombiner(cardWidth, cardHeight, ImageCombiner.OutputFormat.PNG),
+        try {
+            // 设置背景色
+            combiner.setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, totalWidth, totalHeight)
+                    .drawTooRoundRect();
+
+            // 绘制标题
+            int titleY = 100;
+            combiner.setColor(TITLE_COLOR)
+                    .setFont(FontRegistry.derive(FONT, 48f))
+                    .addCenteredText("紫卡分析趋势", titleY);
+
+            // 绘制紫卡分析卡片（卡片并发渲染，按顺序绘制到页面）
+            int currentY = titleY + 40;
+            CardGrid.drawCards(combiner, rivenAnalyseTrendModels,
+                    trend -> drawRivenAnalyseTrendCard(
+                            ImageCombiner.leased(cardWidth, cardHeight, ImageCombiner.OutputFormat.PNG),
                             trend),
-                    cardX, cardY);
-        }
+                    CardGrid.grid(columns, cardMargin, currentY + cardMargin,
+                            cardWidth + cardMargin, cardHeight + cardMargin));
 
-        // 添加底部署名
-        addFooter(combiner, totalHeight - 40);
+            // 添加底部署名
+            addFooter(combiner, totalHeight - 40);
 
-        // 添加看板娘图片
-        combiner.drawStandingDrawing();
+            // 添加看板娘图片
+            combiner.drawStandingDrawing();
 
-        // 合成并返回图像
-        combiner.combine();
-        return combiner.getCombinedImageOutStream().toByteArray();
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
+        }
     }
 
     /**
@@ -111,7 +125,7 @@ final class DefaultDrawRivenAnalyseTrendImage {
 
         // 绘制武器名称和紫卡名称
         combiner.setColor(TEXT_COLOR)
-                .setFont(FONT.deriveFont(24f))
+                .setFont(FontRegistry.derive(FONT, 24f))
                 .addCenteredText("武器: " + trend.getWeaponName(), 50)
                 .addCenteredText("紫卡: " + trend.getRivenName(), 80);
 
@@ -1,10 +1,10 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.worldstate.SeasonInfo;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
 
 import static io.github.kingprimes.defaultdraw.DrawConstants.*;
 
@@ -39,50 +39,65 @@ public final class DefaultDrawSeasonInfoImage {
      * 绘制电波图像
      *
      * @param seasonInfo 电波数据
-     * @return 图像字节数组
+     * @return PNG格式的图像字节数组，seasonInfo为null时返回空数组
      */
     public static byte[] drawSeasonInfoImage(SeasonInfo seasonInfo) {
+        try (ImageCombiner combiner = renderSeasonInfoImage(seasonInfo)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制电波图像，不进行编码
+     *
+     * @param seasonInfo 电波数据
+     * @return 绘制完成但尚未编码的图像合成器，seasonInfo为null时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderSeasonInfoImage(SeasonInfo seasonInfo) {
         if (seasonInfo == null) {
-            return new byte[0];
+            return null;
         }
 
         // 计算图像高度
         int height = calculateImageHeight(seasonInfo);
 
         // 创建画布
-        ImageCombiner combiner = new ImageCombiner(
+        ImageCombiner combiner = ImageCombiner.leased(
                 SEASON_IMAGE_WIDTH,
                 height,
                 ImageCombiner.OutputFormat.PNG
         );
+        try {
+            // 填充背景色
+            combiner.setFont(FONT)
+                    .setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, SEASON_IMAGE_WIDTH, height)
+                    // 绘制双层边框
+                    .drawTooRoundRect();
 
-        // 填充背景色
-        combiner.setFont(FONT)
-                .setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, SEASON_IMAGE_WIDTH, height)
-                // 绘制双层边框
-                .drawTooRoundRect();
-
-        // 绘制标题
-        combiner.setColor(HEADER_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 40))
-                .addCenteredText("电波赛季信息", 80);
+            // 绘制标题
+            combiner.setColor(HEADER_COLOR)
+                    .setFont(FontRegistry.derive(FONT, Font.BOLD, 40))
+                    .addCenteredText("电波赛季信息", 80);
 
-        // 绘制任务卡片
-        if (seasonInfo.getActiveChallenges() != null && !seasonInfo.getActiveChallenges().isEmpty()) {
-            int startY = 140;
-            drawChallengeCards(combiner, seasonInfo.getActiveChallenges(), startY);
-        }
+            // 绘制任务卡片
+            if (seasonInfo.getActiveChallenges() != null && !seasonInfo.getActiveChallenges().isEmpty()) {
+                int startY = 140;
+                drawChallengeCards(combiner, seasonInfo.getActiveChallenges(), startY);
+            }
 
-        // 添加底部署名
-        addFooter(combiner, height - IMAGE_FOOTER_HEIGHT);
+            // 添加底部署名
+            addFooter(combiner, height - IMAGE_FOOTER_HEIGHT);
 
-        // 合并图像
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
     }
 
@@ -1,5 +1,7 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.CanvasPool;
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.worldstate.SteelPathOffering;
 
@@ -28,61 +30,80 @@ final class DefaultDrawSteelPathImage {
      * 绘制钢铁奖励图像
      *
      * @param steelPath 钢铁奖励数据
-     * @return 图像字节数组
+     * @return PNG格式的图像字节数组，steelPath为null时返回空数组
      */
     public static byte[] drawSteelPathImage(SteelPathOffering steelPath) {
+        try (ImageCombiner combiner = renderSteelPathImage(steelPath)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制钢铁奖励图像，不进行编码
+     *
+     * @param steelPath 钢铁奖励数据
+     * @return 绘制完成但尚未编码的图像合成器，steelPath为null时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderSteelPathImage(SteelPathOffering steelPath) {
         if (steelPath == null) {
-            return new byte[0];
+            return null;
         }
 
         // 计算图像高度
         int height = STEEL_PATH_IMAGE_MIN_HEIGHT;
 
         // 创建图像组合器
-        BufferedImage image = new BufferedImage(STEEL_PATH_IMAGE_WIDTH, height, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage image = CanvasPool.shared().lease(STEEL_PATH_IMAGE_WIDTH, height);
         ImageCombiner combiner = new ImageCombiner(image, ImageCombiner.OutputFormat.PNG);
-
-        // 填充背景色
-        combiner
-                .setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, STEEL_PATH_IMAGE_WIDTH, height)
-                // 绘制双层边框
-                .drawTooRoundRect();
-
-        // 绘制标题
-        combiner.setColor(HEADER_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 40))
-                .addCenteredText("钢铁奖励", 80)
-                .drawStandingDrawing();
-
-        // 绘制当前奖励信息
-        int currentY = 120;
-        if (steelPath.getCurrentReward() != null) {
+        try {
+            // 填充背景色
             combiner
-                    .setColor(TEXT_COLOR)
-                    .setFont(FONT)
-                    .addText("当前奖励: " + steelPath.getCurrentReward(), IMAGE_MARGIN, currentY + 25);
-            currentY += 40;
-        }
-
-        // 绘制下一个奖励信息
-        if (steelPath.getNextReward() != null) {
+                    .setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, STEEL_PATH_IMAGE_WIDTH, height)
+                    // 绘制双层边框
+                    .drawTooRoundRect();
+
+            // 绘制标题
+            combiner.setColor(HEADER_COLOR)
+                    .setFont(FontRegistry.derive(FONT, Font.BOLD, 40))
+                    .addCenteredText("钢铁奖励", 80)
+                    .drawStandingDrawing();
+
+            // 绘制当前奖励信息
+            int currentY = 120;
+            if (steelPath.getCurrentReward() != null) {
+                combiner
+                        .setColor(TEXT_COLOR)
+                        .setFont(FONT)
+                        .addText("当前奖励: " + steelPath.getCurrentReward(), IMAGE_MARGIN, currentY + 25);
+                currentY += 40;
+            }
+
+            // 绘制下一个奖励信息
+            if (steelPath.getNextReward() != null) {
+                combiner.setFont(FONT)
+                        .setColor(TEXT_COLOR)
+                        .addText("下一个奖励: " + steelPath.getNextReward(), IMAGE_MARGIN, currentY + 25);
+                currentY += 40;
+            }
+
+            // 绘制剩余时间
             combiner.setFont(FONT)
                     .setColor(TEXT_COLOR)
-                    .addText("下一个奖励: " + steelPath.getNextReward(), IMAGE_MARGIN, currentY + 25);
-            currentY += 40;
-        }
-
-        // 绘制剩余时间
-        combiner.setFont(FONT)
-                .setColor(TEXT_COLOR)
-                .addText("剩余时间: " + steelPath.getRemaining(), IMAGE_MARGIN, currentY + 25);
+                    .addText("剩余时间: " + steelPath.getRemaining(), IMAGE_MARGIN, currentY + 25);
 
-        // 添加底部署名
-        addFooter(combiner, height - IMAGE_FOOTER_HEIGHT);
+            // 添加底部署名
+            addFooter(combiner, height - IMAGE_FOOTER_HEIGHT);
 
-        // 合并图像
-        combiner.combine();
-        return combiner.getCombinedImageOutStream().toByteArray();
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
+        }
     }
 }
\ No newline at end of file
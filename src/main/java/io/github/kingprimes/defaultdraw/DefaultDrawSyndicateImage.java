@@ -1,5 +1,8 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.CanvasPool;
+import io.github.kingprimes.image.CardGrid;
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.RewardPool;
 import io.github.kingprimes.model.enums.RarityEnum;
@@ -10,6 +13,7 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static io.github.kingprimes.defaultdraw.DrawConstants.*;
 
@@ -35,11 +39,27 @@ final class DefaultDrawSyndicateImage {
      * 绘制集团任务图像
      *
      * @param sm 集团任务数据
-     * @return 图像字节数组
+     * @return PNG格式的图像字节数组，sm为null，或既没有节点也没有赏金任务时返回空数组
      */
     public static byte[] drawSyndicateImage(SyndicateMission sm) {
+        try (ImageCombiner combiner = renderSyndicateImage(sm)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制集团任务图像，不进行编码
+     *
+     * @param sm 集团任务数据
+     * @return 绘制完成但尚未编码的图像合成器，sm为null，或既没有节点也没有赏金任务时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderSyndicateImage(SyndicateMission sm) {
         if (sm == null) {
-            return new byte[0];
+            return null;
         }
 
         // 判断渲染模式
@@ -49,19 +69,19 @@ final class DefaultDrawSyndicateImage {
             return drawJobsView(sm);
         }
 
-        return new byte[0];
+        return null;
     }
 
     /**
      * 绘制Nodes视图
      *
      * @param sm 集团任务数据
-     * @return 图像字节数组
+     * @return 绘制完成但尚未编码的图像合成器，没有节点时返回null
      */
-    private static byte[] drawNodesView(SyndicateMission sm) {
+    private static ImageCombiner drawNodesView(SyndicateMission sm) {
         List<String> nodes = sm.getNodes();
         if (nodes == null || nodes.isEmpty()) {
-            return new byte[0];
+            return null;
         }
 
         // 计算图像高度
@@ -69,51 +89,54 @@ final class DefaultDrawSyndicateImage {
         int totalHeight = IMAGE_MARGIN_TOP + IMAGE_TITLE_HEIGHT + nodeHeight + IMAGE_FOOTER_HEIGHT + 100;
 
         // 创建图像合成器
-        BufferedImage image = new BufferedImage(IMAGE_WIDTH, totalHeight, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage image = CanvasPool.shared().lease(IMAGE_WIDTH, totalHeight);
         ImageCombiner combiner = new ImageCombiner(image, ImageCombiner.OutputFormat.PNG);
+        try {
+            // 设置背景色
+            combiner.setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, IMAGE_WIDTH, totalHeight)
+                    .drawTooRoundRect()
+                    .drawStandingDrawing();
+
+            // 绘制标题
+            String title = sm.getTag() != null ? sm.getTag().getName() + " - 节点" : "集团任务 - 节点";
+            combiner.setColor(TITLE_COLOR)
+                    .setFont(FontRegistry.derive(FONT, Font.BOLD, 32))
+                    .addCenteredText(title, IMAGE_MARGIN_TOP + 30);
 
-        // 设置背景色
-        combiner.setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, IMAGE_WIDTH, totalHeight)
-                .drawTooRoundRect()
-                .drawStandingDrawing();
+            // 绘制节点列表
+            int y = IMAGE_MARGIN_TOP + IMAGE_TITLE_HEIGHT + 50;
+            combiner.setFont(FontRegistry.derive(FONT, 24f))
+                    .setColor(TEXT_COLOR);
 
-        // 绘制标题
-        String title = sm.getTag() != null ? sm.getTag().getName() + " - 节点" : "集团任务 - 节点";
-        combiner.setColor(TITLE_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 32))
-                .addCenteredText(title, IMAGE_MARGIN_TOP + 30);
+            for (String node : nodes) {
+                combiner.addCenteredText("• " + node, y);
+                y += 50;
+            }
 
-        // 绘制节点列表
-        int y = IMAGE_MARGIN_TOP + IMAGE_TITLE_HEIGHT + 50;
-        combiner.setFont(FONT.deriveFont(24f))
-                .setColor(TEXT_COLOR);
+            // 添加底部署名
+            addFooter(combiner, totalHeight - IMAGE_FOOTER_HEIGHT);
 
-        for (String node : nodes) {
-            combiner.addCenteredText("• " + node, y);
-            y += 50;
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
-
-        // 添加底部署名
-        addFooter(combiner, totalHeight - IMAGE_FOOTER_HEIGHT);
-
-        // 合成并返回图像
-        combiner.combine();
-        return combiner.getCombinedImageOutStream().toByteArray();
     }
 
     /**
      * 绘制Jobs视图
      *
      * @param sm 集团任务数据
-     * @return 图像字节数组
+     * @return 绘制完成但尚未编码的图像合成器，没有赏金任务时返回null
      */
-    private static byte[] drawJobsView(SyndicateMission sm) {
+    private static ImageCombiner drawJobsView(SyndicateMission sm) {
         int IMAGE_WIDTH = 1600;
 
         List<Job> jobs = sm.getJobs();
         if (jobs == null || jobs.isEmpty()) {
-            return new byte[0];
+            return null;
         }
 
         // 第一步：计算每个Job卡片的高度
@@ -136,60 +159,58 @@ final class DefaultDrawSyndicateImage {
         totalHeight += IMAGE_FOOTER_HEIGHT + 100; // 为看板娘预留空间
 
         // 创建图像合成器
-        BufferedImage image = new BufferedImage(IMAGE_WIDTH, totalHeight, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage image = CanvasPool.shared().lease(IMAGE_WIDTH, totalHeight);
         ImageCombiner combiner = new ImageCombiner(image, ImageCombiner.OutputFormat.PNG);
-
-        // 设置背景色
-        combiner.setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, IMAGE_WIDTH, totalHeight)
-                .drawTooRoundRect()
-                .drawStandingDrawing();
-
-        // 绘制标题
-        String title = sm.getTag() != null ? sm.getTag().getName() + " - 赏金任务" : "集团任务";
-        combiner.setColor(TITLE_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 32))
-                .addCenteredText(title, IMAGE_MARGIN_TOP + 30);
-
-        // 绘制Job卡片
-        int x = IMAGE_MARGIN;
-        int y = IMAGE_MARGIN_TOP + IMAGE_TITLE_HEIGHT + 25;
-        int cardIndex = 0;
-
-        for (int i = 0; i < jobs.size(); i++) {
-            Job job = jobs.get(i);
-            int cardHeight = cardHeights.get(i);
-
-            // 检查是否需要换行
-            if (cardIndex > 0 && cardIndex % CARDS_PER_ROW == 0) {
-                x = IMAGE_MARGIN;
-                // 获取上一行的最大高度
-                int prevRowMaxHeight = cardHeights.get(i - 1);
-                if (i - 2 >= 0) {
-                    prevRowMaxHeight = Math.max(prevRowMaxHeight, cardHeights.get(i - 2));
+        try {
+            // 设置背景色
+            combiner.setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, IMAGE_WIDTH, totalHeight)
+                    .drawTooRoundRect()
+                    .drawStandingDrawing();
+
+            // 绘制标题
+            String title = sm.getTag() != null ? sm.getTag().getName() + " - 赏金任务" : "集团任务";
+            combiner.setColor(TITLE_COLOR)
+                    .setFont(FontRegistry.derive(FONT, Font.BOLD, 32))
+                    .addCenteredText(title, IMAGE_MARGIN_TOP + 30);
+
+            // 计算Job卡片位置
+            List<Point> positions = new ArrayList<>(jobs.size());
+            int x = IMAGE_MARGIN;
+            int y = IMAGE_MARGIN_TOP + IMAGE_TITLE_HEIGHT + 25;
+            for (int i = 0; i < jobs.size(); i++) {
+                // 检查是否需要换行
+                if (i > 0 && i % CARDS_PER_ROW == 0) {
+                    x = IMAGE_MARGIN;
+                    // 获取上一行的最大高度
+                    int prevRowMaxHeight = cardHeights.get(i - 1);
+                    if (i - 2 >= 0) {
+                        prevRowMaxHeight = Math.max(prevRowMaxHeight, cardHeights.get(i - 2));
+                    }
+                    y += prevRowMaxHeight + CARD_MARGIN_Y;
                 }
-                y += prevRowMaxHeight + CARD_MARGIN_Y;
+                positions.add(new Point(x, y));
+                x += CARD_WIDTH + CARD_MARGIN_X;
             }
 
-            // 绘制Job卡片
-            BufferedImage cardImage = drawJobCard(
-                    new ImageCombiner(CARD_WIDTH, cardHeight, ImageCombiner.OutputFormat.PNG),
-                    job,
-                    cardHeight
-            );
-            combiner.drawImage(cardImage, x, y);
-
-            // 更新坐标
-            x += CARD_WIDTH + CARD_MARGIN_X;
-            cardIndex++;
+            // 绘制Job卡片（卡片并发渲染，按顺序绘制到页面）
+            List<Integer> indexes = IntStream.range(0, jobs.size()).boxed().toList();
+            CardGrid.drawCards(combiner, indexes,
+                    i -> drawJobCard(
+                            ImageCombiner.leased(CARD_WIDTH, cardHeights.get(i), ImageCombiner.OutputFormat.PNG),
+                            jobs.get(i),
+                            cardHeights.get(i)),
+                    positions::get);
+
+            // 添加底部署名
+            addFooter(combiner, totalHeight - IMAGE_FOOTER_HEIGHT);
+
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
-
-        // 添加底部署名
-        addFooter(combiner, totalHeight - IMAGE_FOOTER_HEIGHT);
-
-        // 合成并返回图像
-        combiner.combine();
-        return combiner.getCombinedImageOutStream().toByteArray();
     }
 
     /**
@@ -223,7 +244,7 @@ final class DefaultDrawSyndicateImage {
             typeText += " [无尽]";
         }
         combiner.setColor(TITLE_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 20))
+                .setFont(FontRegistry.derive(FONT, Font.BOLD, 20))
                 .addCenteredText(typeText, y);
 
         y += 40;
@@ -232,7 +253,7 @@ final class DefaultDrawSyndicateImage {
         if (job.getMinLevel() != null && job.getMaxLevel() != null) {
             String levelText = "敌人等级: Lv." + job.getMinLevel() + " - Lv." + job.getMaxLevel();
             combiner.setColor(TEXT_COLOR)
-                    .setFont(FONT.deriveFont(18f))
+                    .setFont(FontRegistry.derive(FONT, 18f))
                     .addText(levelText, 20, y);
             y += 30;
         }
@@ -241,7 +262,7 @@ final class DefaultDrawSyndicateImage {
         if (job.getMasteryReq() != null && job.getMasteryReq() > 0) {
             String mrText = "段位要求: MR " + job.getMasteryReq();
             combiner.setColor(new Color(0xE67E22))
-                    .setFont(FONT.deriveFont(18f))
+                    .setFont(FontRegistry.derive(FONT, 18f))
                     .addText(mrText, 20, y);
             y += 30;
         }
@@ -250,7 +271,7 @@ final class DefaultDrawSyndicateImage {
         if (job.getDesc() != null && !job.getDesc().isEmpty()) {
             String[] descLines = wrapText(combiner, job.getDesc());
             combiner.setColor(TEXT_COLOR)
-                    .setFont(FONT.deriveFont(18f));
+                    .setFont(FontRegistry.derive(FONT, 18f));
             for (String line : descLines) {
                 combiner.addText(line, 20, y);
                 y += 25;
@@ -261,7 +282,7 @@ final class DefaultDrawSyndicateImage {
         // 5. 奖励列表（显示所有奖励）
         if (job.getRewardPool() != null && job.getRewardPool().getRewards() != null) {
             combiner.setColor(TITLE_COLOR)
-                    .setFont(FONT.deriveFont(Font.BOLD, 20f))
+                    .setFont(FontRegistry.derive(FONT, Font.BOLD, 20f))
                     .addText("奖励:", 20, y);
             y += 25;
 
@@ -273,7 +294,7 @@ final class DefaultDrawSyndicateImage {
                 String rewardText = "  • " + reward.getItem() + " x" + reward.getItemCount();
 
                 combiner.setColor(rarityColor)
-                        .setFont(FONT.deriveFont(18f))
+                        .setFont(FontRegistry.derive(FONT, 18f))
                         .addText(rewardText, 20, y);
                 y += 25;
             }
@@ -285,7 +306,7 @@ final class DefaultDrawSyndicateImage {
                     .mapToInt(Integer::intValue).sum();
             String xpText = "声望奖励: " + totalXP;
             combiner.setColor(new Color(0x27AE60))
-                    .setFont(FONT.deriveFont(Font.BOLD, 18f))
+                    .setFont(FontRegistry.derive(FONT, Font.BOLD, 18f))
                     .addText(xpText, 20, cardHeight - 30);
         }
 
@@ -343,11 +364,11 @@ final class DefaultDrawSyndicateImage {
             return 0;
         }
 
-        Font font = FONT.deriveFont((float) 18);
+        Font font = FontRegistry.derive(FONT, (float) 18);
         BufferedImage tempImage = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g2 = tempImage.createGraphics();
         g2.setFont(font);
-        FontMetrics metrics = g2.getFontMetrics();
+        FontMetrics metrics = FontRegistry.metrics(g2, font);
 
         String[] words = text.split(" ");
         int lines = 1;
@@ -1,11 +1,11 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.FontRegistry;
 import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.model.enums.IconEnum;
 import io.github.kingprimes.model.worldstate.VoidTrader;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
 import java.util.List;
 
 import static io.github.kingprimes.defaultdraw.DrawConstants.*;
@@ -44,12 +44,28 @@ final class DefaultDrawVoidTraderImage {
      * 绘制虚空商人图像
      *
      * @param voidTraders 虚空商人数据列表
-     * @return 生成的虚空商人图像的 PNG 格式字节数组
+     * @return PNG格式的图像字节数组，voidTraders为null或空列表时返回空数组
      */
     public static byte[] drawVoidTraderImage(List<VoidTrader> voidTraders) {
-        // 如果没有虚空商人数据，则返回空字节数组
+        try (ImageCombiner combiner = renderVoidTraderImage(voidTraders)) {
+            if (combiner == null) {
+                return new byte[0];
+            }
+            combiner.combine();
+            return combiner.getCombinedImageOutStream().toByteArray();
+        }
+    }
+
+    /**
+     * 绘制虚空商人图像，不进行编码
+     *
+     * @param voidTraders 虚空商人数据列表
+     * @return 绘制完成但尚未编码的图像合成器，voidTraders为null或空列表时返回null，使用完毕后需调用 {@link ImageCombiner#release()}
+     */
+    public static ImageCombiner renderVoidTraderImage(List<VoidTrader> voidTraders) {
+        // 没有虚空商人数据时不绘制
         if (voidTraders == null || voidTraders.isEmpty()) {
-            return new byte[0];
+            return null;
         }
 
         // 计算所有商品数量
@@ -61,40 +77,39 @@ final class DefaultDrawVoidTraderImage {
         int height = calculateImageHeight(voidTraders.size(), totalItems);
 
         // 创建图像合成器实例
-        ImageCombiner combiner = new ImageCombiner(
+        ImageCombiner combiner = ImageCombiner.leased(
                 VOID_TRADER_IMAGE_WIDTH,
                 height,
                 ImageCombiner.OutputFormat.PNG
         );
-
-        // 填充背景色并绘制双层圆角矩形边框
-        combiner.setFont(FONT)
-                .setColor(PAGE_BACKGROUND_COLOR)
-                .fillRect(0, 0, VOID_TRADER_IMAGE_WIDTH, height)
-                .drawTooRoundRect()
-                // 绘制看板娘
-                .drawStandingDrawing();
-
-        // 绘制标题
-        combiner.setColor(TITLE_COLOR)
-                .setFont(FONT.deriveFont(Font.BOLD, 40))
-                .addCenteredText("虚空商人 - Baro Ki'Teer", 80);
-
-        // 绘制虚空商人列表
-        int startY = 130;
-        for (VoidTrader voidTrader : voidTraders) {
-            startY = drawVoidTraderSection(combiner, voidTrader, startY);
-        }
-
-        // 添加底部署名
-        addFooter(combiner.setFont(FONT), height - IMAGE_FOOTER_HEIGHT);
-
-        // 合并图像并获取字节数组
-        combiner.combine();
-        try (ByteArrayOutputStream bos = combiner.getCombinedImageOutStream()) {
-            return bos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取图像输出流: %s".formatted(e.getMessage()), e);
+        try {
+            // 填充背景色并绘制双层圆角矩形边框
+            combiner.setFont(FONT)
+                    .setColor(PAGE_BACKGROUND_COLOR)
+                    .fillRect(0, 0, VOID_TRADER_IMAGE_WIDTH, height)
+                    .drawTooRoundRect()
+                    // 绘制看板娘
+                    .drawStandingDrawing();
+
+            // 绘制标题
+            combiner.setColor(TITLE_COLOR)
+                    .setFont(FontRegistry.derive(FONT, Font.BOLD, 40))
+                    .addCenteredText("虚空商人 - Baro Ki'Teer", 80);
+
+            // 绘制虚空商人列表
+            int startY = 130;
+            for (VoidTrader voidTrader : voidTraders) {
+                startY = drawVoidTraderSection(combiner, voidTrader, startY);
+            }
+
+            // 添加底部署名
+            addFooter(combiner.setFont(FONT), height - IMAGE_FOOTER_HEIGHT);
+
+            // 编码交由调用方按输出格式完成
+            return combiner;
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
         }
     }
 
@@ -187,7 +202,7 @@ final class DefaultDrawVoidTraderImage {
 
         // 绘制表头文字
         combiner.setColor(Color.WHITE)
-                .setFont(FONT.deriveFont(Font.BOLD, 24));
+                .setFont(FontRegistry.derive(FONT, Font.BOLD, 24));
 
         int headerX = tableX;
         for (int i = 0; i < headers.length; i++) {
@@ -219,7 +234,7 @@ final class DefaultDrawVoidTraderImage {
      */
     private static void drawManifestRow(ImageCombiner combiner, VoidTrader.Manifest item,
                                         int rowY, int startX, int[] columnWidths) {
-        combiner.setFont(FONT.deriveFont(24f));
+        combiner.setFont(FontRegistry.derive(FONT, 24f));
 
         // 物品名称
         String itemName = item.getItem() != null ? item.getItem() : "未知物品";
@@ -230,17 +245,17 @@ final class DefaultDrawVoidTraderImage {
         String ducatsPrice = item.getPrimePrice() != null ?
                 item.getPrimePrice().toString() : "0";
         combiner.setColor(new Color(0x9c8140))
-                .setFont(FONT_WARFRAME_ICON.deriveFont(24f))
-                .addText(IconEnum.DUCATS.getIcon(), startX + columnWidths[0] + 20, rowY + ROW_HEIGHT / 2 + 6)
-                .setFont(FONT.deriveFont(24f))
+                .setFont(FontRegistry.derive(FONT_WARFRAME_ICON, 24f))
+                .addIcon(ICON_ATLAS, IconEnum.DUCATS.getIcon(), startX + columnWidths[0] + 20, rowY + ROW_HEIGHT / 2 + 6)
+                .setFont(FontRegistry.derive(FONT, 24f))
                 .addText(ducatsPrice, startX + columnWidths[0] + 60, rowY + ROW_HEIGHT / 2 + 6);
 
         // 星币价格
         combiner.setColor(new Color(0x45778f))
-                .setFont(FONT_WARFRAME_ICON.deriveFont(24f))
-                .addText(IconEnum.CREDITS.getIcon(), startX + columnWidths[0] + columnWidths[1] + 20,
+                .setFont(FontRegistry.derive(FONT_WARFRAME_ICON, 24f))
+                .addIcon(ICON_ATLAS, IconEnum.CREDITS.getIcon(), startX + columnWidths[0] + columnWidths[1] + 20,
                         rowY + ROW_HEIGHT / 2 + 6)
-                .setFont(FONT.deriveFont(24f))
+                .setFont(FontRegistry.derive(FONT, 24f))
                 .addText(item.getRegularPrice() / 1000 + "K", startX + columnWidths[0] + columnWidths[1] + 60,
                         rowY + ROW_HEIGHT / 2 + 6);
     }
@@ -1,5 +1,6 @@
 package io.github.kingprimes.defaultdraw;
 
+import io.github.kingprimes.image.IconAtlas;
 import io.github.kingprimes.image.ImageCombiner;
 import io.github.kingprimes.utils.Fonts;
 
@@ -27,6 +28,11 @@ final class DrawConstants {
 
     public static final Font FONT_WARFRAME_ICON = Fonts.FONT_WARFRAME_ICON;
 
+    /**
+     * 图标字形图集，覆盖图标字体在各页面中使用的字号
+     */
+    public static final IconAtlas ICON_ATLAS = new IconAtlas(FONT_WARFRAME_ICON, 24f, 28f, 32f, 48f);
+
     public static final int FONT_SIZE = FONT.getSize();
     /**
      * 帮助图像每行高度
@@ -172,13 +178,13 @@ final class DrawConstants {
 
 
     /**
-     * 系统信息图像百分比格式
+     * 系统信息图像百分比格式（DecimalFormat非线程安全，每个线程持有独立实例）
      */
-    public static final DecimalFormat ALL_INFO_PERCENT_FORMAT = new DecimalFormat("0.00");
+    public static final ThreadLocal<DecimalFormat> ALL_INFO_PERCENT_FORMAT = ThreadLocal.withInitial(() -> new DecimalFormat("0.00"));
     /**
-     * 系统信息图像内存格式
+     * 系统信息图像内存格式（DecimalFormat非线程安全，每个线程持有独立实例）
      */
-    public static final DecimalFormat ALL_INFO_MEMORY_FORMAT = new DecimalFormat("0.00");
+    public static final ThreadLocal<DecimalFormat> ALL_INFO_MEMORY_FORMAT = ThreadLocal.withInitial(() -> new DecimalFormat("0.00"));
 
 
     /**
@@ -0,0 +1,275 @@
+package io.github.kingprimes.image;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * 图像直接合成工具类
+ * <p>把 {@code TYPE_INT_ARGB / TYPE_INT_RGB} 图像不缩放地绘制到 {@code TYPE_INT_ARGB} 画布上（拼接卡片、页面合成）时，
+ * 不经过 {@link Graphics2D#drawImage} 的通用管线，直接按行读写栅格：</p>
+ * <ul>
+ *     <li>整行不透明时整行复制，整行完全透明时跳过</li>
+ *     <li>其余行按SRC_OVER逐像素混合，舍入方式与Java2D的混合循环一致，结果与 {@code drawImage} 逐像素相同</li>
+ *     <li>通过 {@link Raster#getDataElements} / {@link WritableRaster#setDataElements} 按行读写，不直接取出像素数组，
+ *     图像仍由Java2D托管（managed），不会因此失去加速；源与目标都是 {@link CanvasPool} 的堆内画布时
+ *     （由数组创建，本就不受托管）直接读写像素数组，省去每行的两次复制</li>
+ *     <li>像素数不少于 {@link PixelOps#MIN_PARALLEL_PIXELS} 时按行区间并行（见 {@link PixelOps#forRows(int, int, PixelOps.RowRange)}）</li>
+ * </ul>
+ * <p>其他像素格式、缩放、非SRC_OVER合成或源与目标共用像素的绘制返回false，由调用方交给 {@link Graphics2D#drawImage} 处理</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class Blitter {
+
+    // 与Java2D混合循环相同的乘法/除法查找表：MUL[a][b]≈a*b/255，DIV[a][b]≈b*255/a
+    private static final byte[][] MUL = new byte[256][256];
+    private static final byte[][] DIV = new byte[256][256];
+
+    static {
+        for (int i = 1; i < 256; i++) {
+            long increment = i * 0x10101L;
+            long value = increment + (1 << 23);
+            for (int j = 1; j < 256; j++) {
+                MUL[i][j] = (byte) (value >>> 24);
+                value += increment;
+            }
+        }
+        for (int i = 1; i < 256; i++) {
+            long increment = ((0xFFL << 24) + i / 2) / i;
+            long value = 1 << 23;
+            int j = 0;
+            for (; j < i; j++) {
+                DIV[i][j] = (byte) (value >>> 24);
+                value += increment;
+            }
+            for (; j < 256; j++) {
+                DIV[i][j] = (byte) 0xFF;
+            }
+        }
+    }
+
+    private Blitter() {
+    }
+
+    /**
+     * 按当前绘图上下文的状态把图像不缩放地绘制到画布上，等价于 {@code g.drawImage(src, x, y, null)}
+     * <p>仅在绘图上下文作用于dst、变换为整数平移、合成方式为不透明度1的SRC_OVER、裁剪区域为空或矩形时走直接合成</p>
+     *
+     * @param g   作用于dst的绘图上下文
+     * @param dst 目标画布
+     * @param src 源图像
+     * @param x   绘制位置（用户坐标）
+     * @param y   绘制位置（用户坐标）
+     * @return 已直接合成时返回true；返回false时未做任何绘制，调用方需改用 {@link Graphics2D#drawImage}
+     */
+    public static boolean drawImage(Graphics2D g, BufferedImage dst, BufferedImage src, int x, int y) {
+        if (!AlphaComposite.SrcOver.equals(g.getComposite())) {
+            return false;
+        }
+        AffineTransform transform = g.getTransform();
+        if ((transform.getType() & ~AffineTransform.TYPE_TRANSLATION) != 0) {
+            return false;
+        }
+        double tx = transform.getTranslateX(), ty = transform.getTranslateY();
+        if (tx != (int) tx || ty != (int) ty) {
+            return false;
+        }
+        Shape clip = g.getClip();
+        Rectangle bounds = new Rectangle(0, 0, dst.getWidth(), dst.getHeight());
+        if (clip instanceof Rectangle rectangle) {
+            Rectangle device = new Rectangle(rectangle);
+            device.translate((int) tx, (int) ty);
+            bounds = bounds.intersection(device);
+        } else if (clip != null) {
+            return false;
+        }
+        return blit(src, dst, x + (int) tx, y + (int) ty, bounds);
+    }
+
+    /**
+     * 把图像按SRC_OVER不缩放地绘制到画布上，超出画布的部分被裁掉
+     *
+     * @param src 源图像，TYPE_INT_ARGB或TYPE_INT_RGB
+     * @param dst 目标画布，TYPE_INT_ARGB
+     * @param x   绘制位置
+     * @param y   绘制位置
+     * @return 已绘制时返回true；不支持时返回false，此时未做任何绘制
+     */
+    public static boolean blit(BufferedImage src, BufferedImage dst, int x, int y) {
+        return blit(src, dst, x, y, new Rectangle(0, 0, dst.getWidth(), dst.getHeight()));
+    }
+
+    /**
+     * 把图像按SRC_OVER不缩放地绘制到画布上，只写入裁剪矩形内的像素
+     *
+     * @param src  源图像，TYPE_INT_ARGB或TYPE_INT_RGB
+     * @param dst  目标画布，TYPE_INT_ARGB
+     * @param x    绘制位置
+     * @param y    绘制位置
+     * @param clip 裁剪矩形（画布坐标），不可为null
+     * @return 已绘制时返回true；不支持时返回false，此时未做任何绘制
+     * @throws IllegalArgumentException 当clip为null时抛出
+     */
+    public static boolean blit(BufferedImage src, BufferedImage dst, int x, int y, Rectangle clip) {
+        if (clip == null) {
+            throw new IllegalArgumentException("裁剪矩形不可为null");
+        }
+        int srcType = src.getType();
+        if (dst.getType() != BufferedImage.TYPE_INT_ARGB
+                || srcType != BufferedImage.TYPE_INT_ARGB && srcType != BufferedImage.TYPE_INT_RGB) {
+            return false;
+        }
+        Rectangle area = clip.intersection(new Rectangle(0, 0, dst.getWidth(), dst.getHeight()))
+                .intersection(new Rectangle(x, y, src.getWidth(), src.getHeight()));
+        if (area.isEmpty()) {
+            return true;
+        }
+        Raster source = src.getRaster();
+        WritableRaster target = dst.getRaster();
+        if (source.getDataBuffer() == target.getDataBuffer()) {
+            // 源与目标共用像素（如画布的子图），区域可能重叠，交给Java2D处理
+            return false;
+        }
+        boolean opaque = srcType == BufferedImage.TYPE_INT_RGB;
+        int width = area.width;
+        if (CanvasPool.isPooledArray(src) && CanvasPool.isPooledArray(dst)) {
+            blitArrays(Pixels.of(src), Pixels.of(dst), area, area.x - x, area.y - y, opaque);
+            return true;
+        }
+        PixelOps.forRows(width, area.height, (fromRow, toRow) -> {
+            int[] row = new int[width];
+            int[] under = opaque ? null : new int[width];
+            for (int r = fromRow; r < toRow; r++) {
+                int dy = area.y + r;
+                source.getDataElements(area.x - x, dy - y, width, 1, row);
+                if (opaque) {
+                    for (int i = 0; i < width; i++) {
+                        row[i] |= 0xFF000000;
+                    }
+                    target.setDataElements(area.x, dy, width, 1, row);
+                } else {
+                    blendRow(row, under, target, area.x, dy, width);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 直接在像素数组上合成，area为画布坐标，(sx, sy)为area左上角在源图像中的坐标
+     */
+    private static void blitArrays(Pixels src, Pixels dst, Rectangle area, int sx, int sy, boolean opaque) {
+        int width = area.width;
+        PixelOps.forRows(width, area.height, (fromRow, toRow) -> {
+            for (int r = fromRow; r < toRow; r++) {
+                int s = src.index(sx, sy + r), d = dst.index(area.x, area.y + r);
+                if (opaque) {
+                    for (int i = 0; i < width; i++) {
+                        dst.data[d + i] = src.data[s + i] | 0xFF000000;
+                    }
+                    continue;
+                }
+                int and = 0xFFFFFFFF;
+                for (int i = 0; i < width; i++) {
+                    and &= src.data[s + i];
+                }
+                if ((and >>> 24) == 0xFF) {
+                    System.arraycopy(src.data, s, dst.data, d, width);
+                    continue;
+                }
+                for (int i = 0; i < width; i++) {
+                    int pixel = src.data[s + i];
+                    int alpha = pixel >>> 24;
+                    if (alpha == 0xFF) {
+                        dst.data[d + i] = pixel;
+                    } else if (alpha != 0) {
+                        dst.data[d + i] = srcOver(pixel, dst.data[d + i]);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 将一行源像素按SRC_OVER混合到画布上
+     */
+    private static void blendRow(int[] row, int[] under, WritableRaster target, int x, int y, int width) {
+        int and = 0xFFFFFFFF, or = 0;
+        for (int i = 0; i < width; i++) {
+            and &= row[i];
+            or |= row[i];
+        }
+        if ((or >>> 24) == 0) {
+            return;
+        }
+        if ((and >>> 24) != 0xFF) {
+            target.getDataElements(x, y, width, 1, under);
+            for (int i = 0; i < width; i++) {
+                row[i] = srcOver(row[i], under[i]);
+            }
+        }
+        target.setDataElements(x, y, width, 1, row);
+    }
+
+    /**
+     * 非预乘ARGB像素的SRC_OVER混合
+     *
+     * @param src 源像素
+     * @param dst 目标像素
+     * @return 混合结果
+     */
+    static int srcOver(int src, int dst) {
+        int sa = src >>> 24;
+        if (sa == 0) {
+            return dst;
+        }
+        if (sa == 0xFF) {
+            return src;
+        }
+        int r = mul(sa, (src >> 16) & 0xFF);
+        int g = mul(sa, (src >> 8) & 0xFF);
+        int b = mul(sa, src & 0xFF);
+        int dstF = mul(0xFF - sa, dst >>> 24);
+        int a = sa + dstF;
+        if (dstF != 0) {
+            r += mul(dstF, (dst >> 16) & 0xFF);
+            g += mul(dstF, (dst >> 8) & 0xFF);
+            b += mul(dstF, dst & 0xFF);
+        }
+        if (a < 0xFF) {
+            r = DIV[a][r] & 0xFF;
+            g = DIV[a][g] & 0xFF;
+            b = DIV[a][b] & 0xFF;
+        }
+        return a << 24 | r << 16 | g << 8 | b;
+    }
+
+    private static int mul(int a, int b) {
+        return MUL[a][b] & 0xFF;
+    }
+
+    /**
+     * 像素数组视图，已处理子图的偏移与行跨度
+     */
+    private record Pixels(int[] data, int base, int stride) {
+
+        static Pixels of(BufferedImage image) {
+            Raster raster = image.getRaster();
+            DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+            int stride = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+            int base = buffer.getOffset() - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+            return new Pixels(buffer.getData(), base, stride);
+        }
+
+        int index(int x, int y) {
+            return base + y * stride + x;
+        }
+    }
+}
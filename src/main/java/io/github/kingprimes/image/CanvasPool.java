@@ -0,0 +1,313 @@
+package io.github.kingprimes.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.lang.ref.Cleaner;
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 画布池
+ * <p>每次绘制都会分配数MB到数十MB的 {@code TYPE_INT_ARGB} 画布（1600x6000的画布约38MB），
+ * 这些短命的大对象在并发绘制时容易直接进入老年代并引发长时间GC停顿。画布池复用画布的像素数组：</p>
+ * <ul>
+ *     <li>按像素数分桶：每个2的幂区间再等分为8个桶，任意宽高的画布都能复用同一桶中的数组，浪费不超过1/8</li>
+ *     <li>租用时清零：租到的画布与 {@code new BufferedImage(width, height, TYPE_INT_ARGB)} 一样完全透明</li>
+ *     <li>泄漏检测：租出后未归还就被回收的画布会被记录（见 {@link #getLeakCount()}），其数组不会再被复用</li>
+ *     <li>保留上限：池中闲置数组的总字节数不超过上限，超出时归还的数组直接丢弃</li>
+ *     <li>堆外画布：不少于堆外阈值像素的画布改用 {@link OffHeapDataBuffer} 存放像素，归还时立即释放本地内存</li>
+ * </ul>
+ * <p>小于 {@link #MIN_POOLED_PIXELS} 像素的画布直接分配，不经过池</p>
+ * <p>归还后画布的像素数组可能被其他绘制任务复用，调用方不能再访问已归还的画布</p>
+ * <p>线程安全，可在多个渲染线程中共享</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class CanvasPool {
+
+    /**
+     * 默认池中闲置数组的最大总字节数
+     */
+    public static final long DEFAULT_MAX_RETAINED_BYTES = Long.getLong("drawimage.canvas.maxRetainedBytes", 128L << 20);
+
+    /**
+     * 经过画布池的最小像素数，更小的画布直接分配
+     */
+    public static final int MIN_POOLED_PIXELS = 1 << 14;
+
+    /**
+     * 默认改用堆外画布的最小像素数，默认不启用
+     */
+    public static final int DEFAULT_OFF_HEAP_MIN_PIXELS = Integer.getInteger("drawimage.canvas.offHeapMinPixels", Integer.MAX_VALUE);
+
+    private static final Logger logger = Logger.getLogger(CanvasPool.class.getName());
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int[] ARGB_MASKS = {0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000};
+    // 租用记录保存在画布的属性中，池本身不持有租出的画布，画布未归还时仍可被回收
+    private static final String LEASE_PROPERTY = CanvasPool.class.getName() + ".lease";
+    private static final CanvasPool SHARED = new CanvasPool(DEFAULT_MAX_RETAINED_BYTES, DEFAULT_OFF_HEAP_MIN_PIXELS);
+
+    private final long maxRetainedBytes;
+    private final int offHeapMinPixels;
+    private final Map<Integer, Queue<int[]>> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger leased = new AtomicInteger();
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+
+    /**
+     * 创建一个不使用堆外画布的画布池
+     *
+     * @param maxRetainedBytes 池中闲置数组的最大总字节数，0表示不保留（只做泄漏检测）
+     * @throws IllegalArgumentException 当maxRetainedBytes小于0时抛出
+     */
+    public CanvasPool(long maxRetainedBytes) {
+        this(maxRetainedBytes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 创建一个画布池
+     *
+     * @param maxRetainedBytes 池中闲置数组的最大总字节数，0表示不保留（只做泄漏检测）
+     * @param offHeapMinPixels 改用堆外画布的最小像素数，{@link Integer#MAX_VALUE}表示不使用堆外画布
+     * @throws IllegalArgumentException 当maxRetainedBytes小于0或offHeapMinPixels小于等于0时抛出
+     */
+    public CanvasPool(long maxRetainedBytes, int offHeapMinPixels) {
+        if (maxRetainedBytes < 0 || offHeapMinPixels <= 0) {
+            throw new IllegalArgumentException("画布池保留上限需>=0，堆外阈值需>0");
+        }
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.offHeapMinPixels = offHeapMinPixels;
+    }
+
+    /**
+     * 获取全局共享的画布池
+     *
+     * @return 全局画布池
+     */
+    public static CanvasPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * 租用一块完全透明的 {@code TYPE_INT_ARGB} 画布，使用完毕后需调用 {@link #release(BufferedImage)} 归还
+     * <p>像素数不少于堆外阈值时租用堆外画布（见 {@link #leaseOffHeap(int, int)}）</p>
+     *
+     * @param width  画布宽度，必须大于0
+     * @param height 画布高度，必须大于0
+     * @return 画布
+     * @throws IllegalArgumentException 当宽高小于等于0或像素数超出数组上限时抛出
+     */
+    public BufferedImage lease(int width, int height) {
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("画布尺寸不合法: %dx%d".formatted(width, height));
+        }
+        int pixels = width * height;
+        if (pixels >= offHeapMinPixels) {
+            return leaseOffHeap(width, height);
+        }
+        if (pixels < MIN_POOLED_PIXELS) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        int capacity = capacity(pixels);
+        int[] data = buckets.computeIfAbsent(capacity, key -> new ConcurrentLinkedQueue<>()).poll();
+        if (data != null) {
+            retainedBytes.addAndGet(-4L * data.length);
+            hits.incrementAndGet();
+            Arrays.fill(data, 0, pixels, 0);
+        } else {
+            misses.incrementAndGet();
+            data = new int[capacity];
+        }
+        Lease lease = new Lease(this, data, null);
+        BufferedImage image = wrap(data, width, height, lease);
+        return track(image, lease);
+    }
+
+    /**
+     * 租用一块完全透明的堆外画布（见 {@link OffHeapDataBuffer#createImage(int, int)}），
+     * 调用 {@link #release(BufferedImage)} 时立即释放本地内存
+     * <p>未归还就被回收的堆外画布由JNA在回收时释放本地内存</p>
+     *
+     * @param width  画布宽度，必须大于0
+     * @param height 画布高度，必须大于0
+     * @return 画布，{@link BufferedImage#getType()}为TYPE_CUSTOM，像素布局与TYPE_INT_ARGB相同
+     * @throws IllegalArgumentException 当宽高小于等于0或像素数超出上限时抛出
+     */
+    public BufferedImage leaseOffHeap(int width, int height) {
+        BufferedImage canvas = OffHeapDataBuffer.createImage(width, height);
+        Hashtable<String, Object> properties = new Hashtable<>();
+        Lease lease = new Lease(this, null, OffHeapDataBuffer.of(canvas));
+        properties.put(LEASE_PROPERTY, lease);
+        BufferedImage image = new BufferedImage(canvas.getColorModel(), canvas.getRaster(), false, properties);
+        return track(image, lease);
+    }
+
+    private BufferedImage track(BufferedImage image, Lease lease) {
+        lease.cleanable = CLEANER.register(image, new LeakAction(lease, image.getWidth(), image.getHeight()));
+        leased.incrementAndGet();
+        return image;
+    }
+
+    /**
+     * 归还租用的画布，不是从本池租用的画布（或已归还的画布）直接忽略
+     *
+     * @param image 画布，可为null
+     * @return 画布被归还时返回true
+     */
+    public boolean release(BufferedImage image) {
+        if (image == null) {
+            return false;
+        }
+        if (!(image.getProperty(LEASE_PROPERTY) instanceof Lease lease) || lease.pool != this
+                || !lease.released.compareAndSet(false, true)) {
+            return false;
+        }
+        leased.decrementAndGet();
+        lease.cleanable.clean();
+        if (lease.offHeap != null) {
+            lease.offHeap.close();
+            return true;
+        }
+        int[] data = lease.data;
+        long bytes = 4L * data.length;
+        if (retainedBytes.addAndGet(bytes) > maxRetainedBytes) {
+            retainedBytes.addAndGet(-bytes);
+            return true;
+        }
+        buckets.computeIfAbsent(data.length, key -> new ConcurrentLinkedQueue<>()).offer(data);
+        return true;
+    }
+
+    /**
+     * 丢弃池中所有闲置数组（已租出的画布不受影响）
+     */
+    public void clear() {
+        for (Queue<int[]> bucket : buckets.values()) {
+            int[] data;
+            while ((data = bucket.poll()) != null) {
+                retainedBytes.addAndGet(-4L * data.length);
+            }
+        }
+    }
+
+    /**
+     * 获取复用闲置数组的租用次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * 获取新分配数组的租用次数（不包括直接分配的小画布）
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * 获取租出后未归还就被回收的画布数
+     *
+     * @return 泄漏的画布数
+     */
+    public long getLeakCount() {
+        return leaks.get();
+    }
+
+    /**
+     * 获取当前租出未归还的画布数
+     *
+     * @return 租出的画布数
+     */
+    public int getLeasedCount() {
+        return leased.get();
+    }
+
+    /**
+     * 获取池中闲置数组的总字节数
+     *
+     * @return 闲置字节数
+     */
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    /**
+     * 判断图像（或其子图）是否使用从画布池租用的堆内像素数组
+     * <p>池化画布由数组创建，本就不受Java2D托管，直接访问其像素数组不会带来额外损失</p>
+     */
+    static boolean isPooledArray(BufferedImage image) {
+        return image.getProperty(LEASE_PROPERTY) instanceof Lease lease && lease.data != null
+                && image.getRaster().getDataBuffer() instanceof DataBufferInt;
+    }
+
+    /**
+     * 计算像素数所属桶的数组容量：向上取整到所在2的幂区间的1/8
+     */
+    static int capacity(int pixels) {
+        int highest = Integer.highestOneBit(pixels - 1) << 1;
+        int step = Math.max(1, highest >>> 3);
+        long capacity = ((long) pixels + step - 1) / step * step;
+        return (int) Math.min(capacity, Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * 以数组的前width*height个元素作为像素创建标准的非预乘ARGB画布（{@link BufferedImage#getType()}为TYPE_INT_ARGB）
+     */
+    private static BufferedImage wrap(int[] data, int width, int height, Lease lease) {
+        DataBufferInt buffer = new DataBufferInt(data, width * height);
+        WritableRaster raster = Raster.createPackedRaster(buffer, width, height, width, ARGB_MASKS, null);
+        Hashtable<String, Object> properties = new Hashtable<>();
+        properties.put(LEASE_PROPERTY, lease);
+        return new BufferedImage(ColorModel.getRGBdefault(), raster, false, properties);
+    }
+
+    private static final class Lease {
+        private final CanvasPool pool;
+        private final int[] data;
+        private final OffHeapDataBuffer offHeap;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private Cleaner.Cleanable cleanable;
+
+        Lease(CanvasPool pool, int[] data, OffHeapDataBuffer offHeap) {
+            this.pool = pool;
+            this.data = data;
+            this.offHeap = offHeap;
+        }
+    }
+
+    /**
+     * 画布被回收时执行，不能引用画布本身
+     */
+    private record LeakAction(Lease lease, int width, int height) implements Runnable {
+        @Override
+        public void run() {
+            if (lease.released.compareAndSet(false, true)) {
+                // 画布的子图等对象可能仍在使用同一数组（或堆外内存），泄漏的数组不再放回池中，堆外内存留给JNA回收
+                lease.pool.leased.decrementAndGet();
+                long count = lease.pool.leaks.incrementAndGet();
+                logger.log(count == 1 ? Level.WARNING : Level.FINE,
+                        "画布未归还画布池即被回收: %dx%d（累计%d次）".formatted(width, height, count));
+            }
+        }
+    }
+}
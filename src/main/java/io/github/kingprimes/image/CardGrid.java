@@ -0,0 +1,136 @@
+package io.github.kingprimes.image;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * 卡片网格合成工具类
+ * <p>卡片类页面（紫卡市场、遗物、集团赏金等）的每张卡片都在独立的画布上绘制，彼此没有依赖，
+ * 因此卡片可以并发渲染，再按卡片顺序依次绘制到页面上，结果与逐张顺序绘制逐像素一致</p>
+ * <p>卡片按批渲染，每批最多为线程池并行度的2倍。普通页面绘制完一批后立即归还这批卡片的画布，同一时刻只保留一批卡片图像；
+ * 录制模式的页面（{@link RecordingImageCombiner}）在回放时才读取卡片图像，所有卡片图像都保留到页面 {@link ImageCombiner#release()}，
+ * 此时分批只限制同时渲染的卡片数，不限制内存</p>
+ * <p>卡片渲染函数会在多个线程中同时调用，不能修改共享状态</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class CardGrid {
+
+    private CardGrid() {
+    }
+
+    /**
+     * 计算等宽等高网格中卡片的左上角坐标
+     *
+     * @param columns 每行卡片数，必须大于0
+     * @param x       第一张卡片的X坐标
+     * @param y       第一张卡片的Y坐标
+     * @param strideX 相邻两列卡片的X坐标间距（卡片宽度+水平间距）
+     * @param strideY 相邻两行卡片的Y坐标间距（卡片高度+垂直间距）
+     * @return 由卡片序号计算坐标的函数
+     * @throws IllegalArgumentException 当columns小于等于0时抛出
+     */
+    public static IntFunction<Point> grid(int columns, int x, int y, int strideX, int strideY) {
+        if (columns <= 0) {
+            throw new IllegalArgumentException("每行卡片数需>0");
+        }
+        return index -> new Point(x + index % columns * strideX, y + index / columns * strideY);
+    }
+
+    /**
+     * 渲染所有卡片并按顺序绘制到页面上
+     * <p>启用并行（见 {@link RenderPool#isParallel()}）时在 {@link RenderPool} 上并发渲染，否则在调用线程中逐张渲染</p>
+     * <p>卡片图像绘制后交由页面归还画布池（见 {@link ImageCombiner#recycle(BufferedImage)}，录制模式的页面推迟到页面释放时归还），
+     * 渲染函数不能返回仍在他处使用的池化画布</p>
+     *
+     * @param page      页面合成器
+     * @param cards     卡片数据
+     * @param renderer  卡片渲染函数，返回卡片图像
+     * @param placement 由卡片序号计算卡片左上角坐标的函数
+     * @param <T>       卡片数据类型
+     * @return 页面合成器，支持链式调用
+     */
+    public static <T> ImageCombiner drawCards(ImageCombiner page, List<T> cards,
+                                              Function<? super T, BufferedImage> renderer, IntFunction<Point> placement) {
+        if (!RenderPool.isParallel()) {
+            for (int i = 0; i < cards.size(); i++) {
+                Point point = placement.apply(i);
+                BufferedImage card = renderer.apply(cards.get(i));
+                try {
+                    page.drawImage(card, point.x, point.y);
+                } finally {
+                    page.recycle(card);
+                }
+            }
+            return page;
+        }
+        return drawCards(page, cards, renderer, placement, RenderPool.get());
+    }
+
+    /**
+     * 在指定线程池上并发渲染所有卡片，并按顺序绘制到页面上，每批绘制后交由页面归还卡片画布
+     *
+     * @param page      页面合成器
+     * @param cards     卡片数据
+     * @param renderer  卡片渲染函数，返回卡片图像
+     * @param placement 由卡片序号计算卡片左上角坐标的函数
+     * @param pool      执行卡片渲染的线程池，不可为null
+     * @param <T>       卡片数据类型
+     * @return 页面合成器，支持链式调用
+     * @throws IllegalArgumentException 当pool为null时抛出
+     * @throws RuntimeException         渲染函数抛出的异常，抛出前已归还同一批中渲染成功的卡片画布
+     */
+    public static <T> ImageCombiner drawCards(ImageCombiner page, List<T> cards,
+                                              Function<? super T, BufferedImage> renderer, IntFunction<Point> placement,
+                                              ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("线程池不可为null");
+        }
+        int batch = Math.max(1, pool.getParallelism() * 2);
+        for (int start = 0; start < cards.size(); start += batch) {
+            int end = Math.min(start + batch, cards.size());
+            List<ForkJoinTask<BufferedImage>> tasks = new ArrayList<>(end - start);
+            for (T card : cards.subList(start, end)) {
+                tasks.add(pool.submit(() -> renderer.apply(card)));
+            }
+            // 先等待整批渲染完成，任何一张卡片失败时也要归还其余卡片的画布
+            BufferedImage[] images = new BufferedImage[tasks.size()];
+            RuntimeException failure = null;
+            for (int i = 0; i < images.length; i++) {
+                try {
+                    images[i] = tasks.get(i).join();
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            try {
+                if (failure != null) {
+                    throw failure;
+                }
+                for (int i = 0; i < images.length; i++) {
+                    Point point = placement.apply(start + i);
+                    page.drawImage(images[i], point.x, point.y);
+                }
+            } finally {
+                for (BufferedImage image : images) {
+                    if (image != null) {
+                        page.recycle(image);
+                    }
+                }
+            }
+        }
+        return page;
+    }
+}
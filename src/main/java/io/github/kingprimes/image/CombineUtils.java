@@ -22,7 +22,7 @@ public final class CombineUtils {
      *   <li>水平拼接：总宽度为所有图片宽度之和 + 间隙总和，高度为所有图片中的最大高度</li>
      *   <li>垂直拼接：总高度为所有图片高度之和 + 间隙总和，宽度为所有图片中的最大宽度</li>
      * </ul>
-     * <p>拼接背景为白色，使用高质量渲染模式保证图像清晰度</p>
+     * <p>拼接背景为白色，使用高质量渲染模式保证图像清晰度；TYPE_INT_ARGB/TYPE_INT_RGB图片直接按行合成（见 {@link Blitter}）</p>
      *
      * @param images 待拼接的图片列表（BufferedImage集合），若为null或空列表则返回null
      * @param gap 图片间的间隙大小（像素），间隙区域填充为白色
@@ -59,7 +59,9 @@ public final class CombineUtils {
         int currentY = 0;
 
         for (BufferedImage img : images) {
-            g2.drawImage(img, currentX, currentY, null);
+            if (!Blitter.blit(img, result, currentX, currentY)) {
+                g2.drawImage(img, currentX, currentY, null);
+            }
             if (horizontal) {
                 currentX += img.getWidth() + gap;
             } else {
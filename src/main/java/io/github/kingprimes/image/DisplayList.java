@@ -0,0 +1,344 @@
+package io.github.kingprimes.image;
+
+import io.github.kingprimes.image.encoder.PngEncoder;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 不可变的绘制指令列表（显示列表）
+ * <p>由 {@link RecordingImageCombiner} 录制得到，记录了全部绘制操作及其在画布坐标系中的精确外接矩形，
+ * 可按测量出的尺寸分配画布后一次性回放</p>
+ * <p>同一个显示列表可以重复回放，也可以在任意线程（包括多个线程同时）回放；
+ * 录制时引用的图像不会被复制，录制后不应再修改这些图像</p>
+ * <p>高度较大的画布可按水平条带分块并行光栅化：每个条带只回放与其相交的绘制指令，
+ * 各条带直接写入最终画布中互不重叠的区域，结果与顺序回放逐像素一致</p>
+ * <p>也可以逐条带回放并直接写出PNG（见 {@link #writePng(int, int, int, PngEncoder, OutputStream)}），
+ * 只占用一个条带大小的画布</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.1
+ */
+@SuppressWarnings("unused")
+public final class DisplayList {
+
+    /**
+     * 启用分块光栅化的最小画布高度
+     */
+    public static final int MIN_BANDED_HEIGHT = 1024;
+    /**
+     * 单个条带的最小高度，避免条带过窄时重复回放状态指令的开销超过并行收益
+     */
+    public static final int MIN_BAND_HEIGHT = 256;
+    /**
+     * 流式写出PNG时默认的条带高度
+     */
+    public static final int STREAM_STRIP_HEIGHT = Integer.getInteger("drawimage.stream.stripHeight", 256);
+
+    private final List<Op> ops;
+    private final int contexts;
+    private final Rectangle bounds;
+    private final boolean bandable;
+    private final boolean opaque;
+
+    DisplayList(List<Op> ops, int contexts, Rectangle bounds, boolean bandable, boolean opaque) {
+        this.ops = List.copyOf(ops);
+        this.contexts = contexts;
+        this.bounds = new Rectangle(bounds);
+        this.bandable = bandable;
+        this.opaque = opaque;
+    }
+
+    /**
+     * 获取所有绘制内容在画布坐标系中的外接矩形（已包含抗锯齿的1像素余量）
+     *
+     * @return 外接矩形副本，没有任何绘制内容时宽高为0
+     */
+    public Rectangle getBounds() {
+        return new Rectangle(bounds);
+    }
+
+    /**
+     * 获取绘制内容的最右侧坐标（不含）
+     *
+     * @return 最右侧坐标，没有绘制内容时为0
+     */
+    public int getRight() {
+        return bounds.isEmpty() ? 0 : bounds.x + bounds.width;
+    }
+
+    /**
+     * 获取绘制内容的最底部坐标（不含）
+     *
+     * @return 最底部坐标，没有绘制内容时为0
+     */
+    public int getBottom() {
+        return bounds.isEmpty() ? 0 : bounds.y + bounds.height;
+    }
+
+    /**
+     * 获取指令数
+     *
+     * @return 指令数
+     */
+    public int size() {
+        return ops.size();
+    }
+
+    /**
+     * 是否没有任何指令
+     *
+     * @return 没有指令时返回true
+     */
+    public boolean isEmpty() {
+        return ops.isEmpty();
+    }
+
+    /**
+     * 是否可以分块光栅化
+     * <p>录制了 {@link Graphics#copyArea(int, int, int, int, int, int)} 等读取画布已有像素的操作时，
+     * 单个条带无法得到其他条带的像素，只能整体回放</p>
+     *
+     * @return 可以分块时返回true
+     */
+    public boolean isBandable() {
+        return bandable;
+    }
+
+    /**
+     * 回放到初始画布（见 {@link #rasterize(int, int, ImageCombiner.OutputFormat)}，以不透明白色铺底）后，
+     * 整张画布是否必然完全不透明
+     * <p>只录制了SRC_OVER合成的绘制时为true；录制了其他合成方式、XOR模式或以非不透明背景色清除区域时为false</p>
+     *
+     * @return 必然完全不透明时返回true
+     */
+    public boolean isOpaque() {
+        return opaque;
+    }
+
+    /**
+     * 将所有指令回放到指定的绘图上下文
+     * <p>回放在 {@code g} 的副本上进行，不会改变 {@code g} 自身的颜色、字体等状态</p>
+     *
+     * @param g 目标绘图上下文
+     */
+    public void replay(Graphics2D g) {
+        replay(g, null);
+    }
+
+    /**
+     * 回放所有指令，跳过外接矩形与可见区域不相交的绘制指令
+     *
+     * @param g       目标绘图上下文
+     * @param visible 画布坐标系中的可见区域，为null时回放全部指令
+     */
+    private void replay(Graphics2D g, Rectangle visible) {
+        Graphics2D[] graphics = new Graphics2D[contexts];
+        graphics[0] = (Graphics2D) g.create();
+        // 录制时的绝对变换相对于根上下文的初始变换回放，条带平移后依然正确
+        AffineTransform base = graphics[0].getTransform();
+        try {
+            for (Op op : ops) {
+                if (visible == null || op.bounds() == null || op.bounds().intersects(visible)) {
+                    op.action().apply(graphics, base);
+                }
+            }
+        } finally {
+            for (Graphics2D context : graphics) {
+                if (context != null) {
+                    context.dispose();
+                }
+            }
+        }
+    }
+
+    /**
+     * 将所有指令回放到指定的图像合成器
+     *
+     * @param combiner 目标图像合成器
+     * @return 目标图像合成器，支持链式调用
+     */
+    public ImageCombiner replay(ImageCombiner combiner) {
+        replay(combiner.getGraphics());
+        return combiner;
+    }
+
+    /**
+     * 分配指定尺寸的画布并回放
+     * <p>画布初始状态与 {@link ImageCombiner#leased(int, int, ImageCombiner.OutputFormat)} 一致，画布从 {@link CanvasPool#shared()} 租用；
+     * 启用并行（见 {@link RenderPool#isParallel()}）且画布高度不小于 {@link #MIN_BANDED_HEIGHT} 时，
+     * 自动在 {@link RenderPool} 上分块光栅化</p>
+     *
+     * @param width  画布宽度，必须大于0
+     * @param height 画布高度，必须大于0
+     * @param format 输出格式
+     * @return 回放完成的图像合成器
+     */
+    public ImageCombiner rasterize(int width, int height, ImageCombiner.OutputFormat format) {
+        if (!RenderPool.isParallel() || height < MIN_BANDED_HEIGHT) {
+            return replayLeased(width, height, format);
+        }
+        int bands = Math.min(RenderPool.PARALLELISM * 2, height / MIN_BAND_HEIGHT);
+        return rasterize(width, height, format, bands, RenderPool.get());
+    }
+
+    /**
+     * 分配指定尺寸的画布，按水平条带在指定线程池上并行回放
+     * <p>每个条带在最终画布的子图上绘制，只回放与条带相交的绘制指令，条带之间互不重叠，无需额外拼接；
+     * 条带数为1或显示列表不可分块（见 {@link #isBandable()}）时在调用线程中整体回放</p>
+     *
+     * @param width  画布宽度，必须大于0
+     * @param height 画布高度，必须大于0
+     * @param format 输出格式
+     * @param bands  条带数，必须大于0，超过画布高度时按画布高度计
+     * @param pool   执行条带回放的线程池，不可为null
+     * @return 回放完成的图像合成器
+     * @throws IllegalArgumentException 当参数不合法时抛出
+     */
+    public ImageCombiner rasterize(int width, int height, ImageCombiner.OutputFormat format, int bands, ForkJoinPool pool) {
+        if (width <= 0 || height <= 0 || format == null) {
+            throw new IllegalArgumentException("宽高需>0，输出格式不可为null");
+        }
+        if (bands <= 0 || pool == null) {
+            throw new IllegalArgumentException("条带数需>0，线程池不可为null");
+        }
+        bands = Math.min(bands, height);
+        if (bands == 1 || !bandable) {
+            return replayLeased(width, height, format);
+        }
+        BufferedImage image = CanvasPool.shared().lease(width, height);
+        int bandHeight = (height + bands - 1) / bands;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(bands);
+        try {
+            for (int y = 0; y < height; y += bandHeight) {
+                int top = y, h = Math.min(bandHeight, height - y);
+                tasks.add(pool.submit(() -> rasterizeBand(image.getSubimage(0, top, width, h), top)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } catch (RuntimeException | Error e) {
+            // 其余条带可能仍在写画布，全部结束后才能归还
+            for (ForkJoinTask<?> task : tasks) {
+                task.quietlyJoin();
+            }
+            CanvasPool.shared().release(image);
+            throw e;
+        }
+        return new ImageCombiner(image, format);
+    }
+
+    /**
+     * 租用画布并整体回放，回放失败时归还画布
+     */
+    private ImageCombiner replayLeased(int width, int height, ImageCombiner.OutputFormat format) {
+        ImageCombiner combiner = ImageCombiner.leased(width, height, format);
+        try {
+            return replay(combiner);
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 把画布中从top开始、与band等高的条带回放到band上
+     */
+    private void rasterizeBand(BufferedImage band, int top) {
+        int width = band.getWidth(), height = band.getHeight();
+        Graphics2D g = band.createGraphics();
+        try {
+            // 与整块画布的初始化顺序保持一致：先以默认颜色铺底，再设置渲染参数
+            g.fillRect(0, 0, width, height);
+            GraphicsUtils.setQualityRenderingHints(g);
+            g.translate(0, -top);
+            replay(g, new Rectangle(0, top, width, height));
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * 按水平条带逐条回放，并把每个条带的像素行直接写入PNG流
+     * <p>整个过程只租用一个 {@code width x stripHeight} 的条带画布，在各条带间重复使用；
+     * 新分配的内存由条带大小决定，与画布高度无关，编码结果也不经过 {@link java.io.ByteArrayOutputStream}。
+     * 录制的图像绘制（如卡片）直接引用源图像，这些图像不计入上述内存，在回放期间必须保持可用，其占用由录制方决定</p>
+     * <p>回放结果与 {@link #rasterize(int, int, ImageCombiner.OutputFormat)} 逐像素一致。
+     * 写出IHDR时尚未回放任何条带，是否写出alpha通道由录制时的合成方式判断（见 {@link #isOpaque()}）；
+     * 显示列表不可分块（见 {@link #isBandable()}）时退回整体回放后编码</p>
+     *
+     * @param width       画布宽度，必须大于0
+     * @param height      画布高度，必须大于0
+     * @param stripHeight 条带高度，必须大于0，超过画布高度时按画布高度计
+     * @param encoder     PNG编码器，提供压缩级别与行过滤策略，不可为null
+     * @param out         输出流，写完后不会被关闭
+     * @throws IOException              写入失败时抛出
+     * @throws IllegalArgumentException 当参数不合法时抛出
+     */
+    public void writePng(int width, int height, int stripHeight, PngEncoder encoder, OutputStream out) throws IOException {
+        if (width <= 0 || height <= 0 || stripHeight <= 0 || encoder == null || out == null) {
+            throw new IllegalArgumentException("宽高与条带高度需>0，编码器与输出流不可为null");
+        }
+        if (!bandable) {
+            ImageCombiner combiner = replayLeased(width, height, ImageCombiner.OutputFormat.PNG);
+            try {
+                encoder.encode(combiner.getCombinedImage(), out);
+            } finally {
+                combiner.release();
+            }
+            return;
+        }
+        stripHeight = Math.min(stripHeight, height);
+        BufferedImage strip = CanvasPool.shared().lease(width, stripHeight);
+        try (PngEncoder.RowWriter writer = encoder.openRows(out, width, height, !opaque)) {
+            for (int top = 0; top < height; top += stripHeight) {
+                int h = Math.min(stripHeight, height - top);
+                BufferedImage band = h == stripHeight ? strip : strip.getSubimage(0, 0, width, h);
+                rasterizeBand(band, top);
+                writer.writeRows(band);
+            }
+        } finally {
+            CanvasPool.shared().release(strip);
+        }
+    }
+
+    /**
+     * 按测量出的尺寸分配画布（从原点到绘制内容的右下角）并回放
+     *
+     * @param format 输出格式
+     * @return 回放完成的图像合成器
+     */
+    public ImageCombiner rasterize(ImageCombiner.OutputFormat format) {
+        return rasterize(Math.max(1, getRight()), Math.max(1, getBottom()), format);
+    }
+
+    /**
+     * 单条指令
+     *
+     * @param bounds 绘制内容在画布坐标系中的外接矩形（含抗锯齿余量），状态与上下文指令为null，表示总是回放
+     * @param action 指令的执行逻辑
+     */
+    record Op(Rectangle bounds, Action action) {
+    }
+
+    /**
+     * 指令的执行逻辑，作用于编号对应的绘图上下文（0为根上下文，其余为录制时 {@link Graphics#create()} 产生的子上下文）
+     */
+    @FunctionalInterface
+    interface Action {
+        /**
+         * 执行指令
+         *
+         * @param graphics 所有绘图上下文
+         * @param base     根上下文回放开始时的变换，录制时的绝对变换需相对于它设置
+         */
+        void apply(Graphics2D[] graphics, AffineTransform base);
+    }
+}
@@ -0,0 +1,302 @@
+package io.github.kingprimes.image;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * 图像卷积与模糊引擎
+ * <p>直接在 {@code TYPE_INT_ARGB} 图像的 {@link DataBufferInt} 数组上计算，为 {@link FilterUtils} 提供模糊实现：</p>
+ * <ul>
+ *     <li>可分离卷积：ARGB像素先拆分为4个通道平面，边界像素按行/列复制到填充区或在行循环外钳制，
+ *     内层循环只有连续数组上的乘加，没有分支与钳制，可被JIT自动向量化</li>
+ *     <li>盒式模糊：以3次滑动窗口盒式模糊近似高斯模糊，每个像素的开销与半径无关</li>
+ * </ul>
+ * <p>可分离卷积对每个像素按与逐像素卷积相同的顺序以float累加，结果与之逐位一致；
+ * 两个方向的卷积都按行区间拆分（见 {@link PixelOps#forRows(int, int, PixelOps.RowRange)}），大图像可并行计算</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class FilterEngine {
+
+    /**
+     * 盒式模糊近似高斯模糊时使用的盒式模糊次数
+     */
+    public static final int BOX_PASSES = 3;
+
+    private FilterEngine() {
+    }
+
+    /**
+     * 将图像复制为新的 {@code TYPE_INT_ARGB} 图像，可直接访问其像素数组
+     *
+     * @param image 原始图像
+     * @return 新的ARGB图像
+     */
+    public static BufferedImage copyArgb(BufferedImage image) {
+        BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = result.createGraphics();
+        g2.drawImage(image, 0, 0, null);
+        g2.dispose();
+        return result;
+    }
+
+    /**
+     * 获取 {@code TYPE_INT_ARGB} 图像的像素数组，修改数组即修改图像
+     *
+     * @param image ARGB图像
+     * @return 像素数组，按行存储，每行宽度等于图像宽度
+     * @throws IllegalArgumentException 当图像不是TYPE_INT_ARGB时抛出
+     */
+    public static int[] pixels(BufferedImage image) {
+        if (image.getType() != BufferedImage.TYPE_INT_ARGB) {
+            throw new IllegalArgumentException("仅支持TYPE_INT_ARGB图像: %s".formatted(image.getType()));
+        }
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * 生成归一化的一维高斯卷积核，sigma为半径的1/3
+     *
+     * @param radius 半径，必须大于0
+     * @return 长度为 {@code 2*radius+1} 的卷积核
+     */
+    public static float[] gaussianKernel(int radius) {
+        int size = radius * 2 + 1;
+        float[] kernel = new float[size];
+        float sigma = radius / 3.0f;
+        float twoSigmaSquare = 2.0f * sigma * sigma;
+        float sigmaRoot = (float) Math.sqrt(twoSigmaSquare * Math.PI);
+        float total = 0.0f;
+
+        for (int i = -radius; i <= radius; i++) {
+            float distance = i * i;
+            kernel[i + radius] = (float) Math.exp(-distance / twoSigmaSquare) / sigmaRoot;
+            total += kernel[i + radius];
+        }
+
+        for (int i = 0; i < size; i++) {
+            kernel[i] /= total;
+        }
+        return kernel;
+    }
+
+    /**
+     * 对像素数组依次进行横向与纵向一维卷积，边界外的像素取最近的边界像素
+     * <p>每个通道独立卷积，横向结果截断为整数后再纵向卷积</p>
+     *
+     * @param pixels 非预乘ARGB像素数组，结果写回该数组
+     * @param width  图像宽度
+     * @param height 图像高度
+     * @param kernel 奇数长度的一维卷积核
+     * @throws IllegalArgumentException 当卷积核长度为偶数或数组长度与尺寸不符时抛出
+     */
+    public static void convolveSeparable(int[] pixels, int width, int height, float[] kernel) {
+        if (kernel.length % 2 == 0) {
+            throw new IllegalArgumentException("卷积核长度需为奇数: %s".formatted(kernel.length));
+        }
+        checkSize(pixels, width, height);
+        if (width == 0 || height == 0) {
+            return;
+        }
+        convolveRows(pixels, width, height, kernel);
+        convolveColumns(pixels, width, height, kernel);
+    }
+
+    /**
+     * 以多次滑动窗口盒式模糊近似高斯模糊，边界外的像素取最近的边界像素
+     * <p>盒宽度按 sigma = radius / 3 选取，使 {@link #BOX_PASSES} 次盒式模糊的方差与高斯核一致</p>
+     *
+     * @param pixels 非预乘ARGB像素数组，结果写回该数组
+     * @param width  图像宽度
+     * @param height 图像高度
+     * @param radius 高斯模糊半径，小于1时不处理
+     * @throws IllegalArgumentException 当数组长度与尺寸不符时抛出
+     */
+    public static void boxBlur(int[] pixels, int width, int height, int radius) {
+        checkSize(pixels, width, height);
+        if (radius < 1 || width == 0 || height == 0) {
+            return;
+        }
+        int n = width * height;
+        int[][] planes = new int[4][n];
+        int[][] scratch = new int[4][n];
+        unpack(pixels, planes);
+        for (int boxRadius : boxRadii(radius / 3.0, BOX_PASSES)) {
+            if (boxRadius == 0) {
+                continue;
+            }
+            for (int c = 0; c < 4; c++) {
+                boxRows(planes[c], scratch[c], width, height, boxRadius);
+                boxColumns(scratch[c], planes[c], width, height, boxRadius);
+            }
+        }
+        int[] a = planes[0], r = planes[1], g = planes[2], b = planes[3];
+        for (int i = 0; i < n; i++) {
+            pixels[i] = a[i] << 24 | r[i] << 16 | g[i] << 8 | b[i];
+        }
+    }
+
+    /**
+     * 计算近似指定sigma高斯模糊的各次盒式模糊半径
+     */
+    static int[] boxRadii(double sigma, int passes) {
+        double ideal = Math.sqrt(12 * sigma * sigma / passes + 1);
+        int lower = (int) Math.floor(ideal);
+        if (lower % 2 == 0) {
+            lower--;
+        }
+        int upper = lower + 2;
+        long lowerCount = Math.round((12 * sigma * sigma - passes * lower * lower - 4.0 * passes * lower - 3.0 * passes)
+                / (-4.0 * lower - 4));
+        int[] radii = new int[passes];
+        for (int i = 0; i < passes; i++) {
+            radii[i] = ((i < lowerCount ? lower : upper) - 1) / 2;
+        }
+        return radii;
+    }
+
+    private static void checkSize(int[] pixels, int width, int height) {
+        if (width < 0 || height < 0 || pixels.length < (long) width * height) {
+            throw new IllegalArgumentException("像素数组长度与图像尺寸不符: %dx%d".formatted(width, height));
+        }
+    }
+
+    private static void unpack(int[] pixels, int[][] planes) {
+        int[] a = planes[0], r = planes[1], g = planes[2], b = planes[3];
+        for (int i = 0; i < a.length; i++) {
+            int p = pixels[i];
+            a[i] = p >>> 24;
+            r[i] = (p >> 16) & 0xFF;
+            g[i] = (p >> 8) & 0xFF;
+            b[i] = p & 0xFF;
+        }
+    }
+
+    private static int pack(float a, float r, float g, float b) {
+        return ((int) a & 0xFF) << 24 | ((int) r & 0xFF) << 16 | ((int) g & 0xFF) << 8 | ((int) b & 0xFF);
+    }
+
+    private static void convolveRows(int[] pixels, int width, int height, float[] kernel) {
+        int half = kernel.length / 2;
+        int padded = width + 2 * half;
+        PixelOps.forRows(width, height, (fromRow, toRow) -> {
+            float[][] row = new float[4][padded];
+            float[][] acc = new float[4][width];
+            for (int y = fromRow; y < toRow; y++) {
+                int offset = y * width;
+                for (int x = 0; x < width; x++) {
+                    int p = pixels[offset + x];
+                    row[0][half + x] = p >>> 24;
+                    row[1][half + x] = (p >> 16) & 0xFF;
+                    row[2][half + x] = (p >> 8) & 0xFF;
+                    row[3][half + x] = p & 0xFF;
+                }
+                // 行首尾复制边界像素到填充区
+                for (float[] channel : row) {
+                    Arrays.fill(channel, 0, half, channel[half]);
+                    Arrays.fill(channel, half + width, padded, channel[half + width - 1]);
+                }
+                for (int c = 0; c < 4; c++) {
+                    float[] src = row[c], dst = acc[c];
+                    Arrays.fill(dst, 0f);
+                    for (int k = 0; k < kernel.length; k++) {
+                        float weight = kernel[k];
+                        for (int x = 0; x < width; x++) {
+                            dst[x] += weight * src[x + k];
+                        }
+                    }
+                }
+                float[] a = acc[0], r = acc[1], g = acc[2], b = acc[3];
+                for (int x = 0; x < width; x++) {
+                    pixels[offset + x] = pack(a[x], r[x], g[x], b[x]);
+                }
+            }
+        });
+    }
+
+    private static void convolveColumns(int[] pixels, int width, int height, float[] kernel) {
+        int half = kernel.length / 2;
+        int n = width * height;
+        float[][] planes = new float[4][n];
+        PixelOps.forRows(width, height, (fromRow, toRow) -> {
+            for (int i = fromRow * width, end = toRow * width; i < end; i++) {
+                int p = pixels[i];
+                planes[0][i] = p >>> 24;
+                planes[1][i] = (p >> 16) & 0xFF;
+                planes[2][i] = (p >> 8) & 0xFF;
+                planes[3][i] = p & 0xFF;
+            }
+        });
+        PixelOps.forRows(width, height, (fromRow, toRow) -> {
+            float[][] acc = new float[4][width];
+            for (int y = fromRow; y < toRow; y++) {
+                for (int c = 0; c < 4; c++) {
+                    float[] src = planes[c], dst = acc[c];
+                    Arrays.fill(dst, 0f);
+                    for (int k = 0; k < kernel.length; k++) {
+                        float weight = kernel[k];
+                        // 超出上下边界的行取最近的边界行，钳制在内层循环之外
+                        int offset = Math.min(height - 1, Math.max(0, y + k - half)) * width;
+                        for (int x = 0; x < width; x++) {
+                            dst[x] += weight * src[offset + x];
+                        }
+                    }
+                }
+                float[] a = acc[0], r = acc[1], g = acc[2], b = acc[3];
+                int offset = y * width;
+                for (int x = 0; x < width; x++) {
+                    pixels[offset + x] = pack(a[x], r[x], g[x], b[x]);
+                }
+            }
+        });
+    }
+
+    private static void boxRows(int[] src, int[] dst, int width, int height, int radius) {
+        int size = 2 * radius + 1;
+        int half = size / 2;
+        int[] row = new int[width + 2 * radius + 1];
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            // 行首尾复制边界像素到填充区，多留一个位置供窗口滑出
+            System.arraycopy(src, offset, row, radius, width);
+            Arrays.fill(row, 0, radius, row[radius]);
+            Arrays.fill(row, radius + width, row.length, row[radius + width - 1]);
+            int sum = 0;
+            for (int x = 0; x < size; x++) {
+                sum += row[x];
+            }
+            for (int x = 0; x < width; x++) {
+                dst[offset + x] = (sum + half) / size;
+                sum += row[x + size] - row[x];
+            }
+        }
+    }
+
+    private static void boxColumns(int[] src, int[] dst, int width, int height, int radius) {
+        int size = 2 * radius + 1;
+        int half = size / 2;
+        int[] sum = new int[width];
+        for (int k = -radius; k <= radius; k++) {
+            int offset = Math.min(height - 1, Math.max(0, k)) * width;
+            for (int x = 0; x < width; x++) {
+                sum[x] += src[offset + x];
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                dst[offset + x] = (sum[x] + half) / size;
+            }
+            // 窗口下移一行，进出窗口的行在内层循环之外钳制
+            int in = Math.min(height - 1, y + radius + 1) * width;
+            int out = Math.max(0, y - radius) * width;
+            for (int x = 0; x < width; x++) {
+                sum[x] += src[in + x] - src[out + x];
+            }
+        }
+    }
+}
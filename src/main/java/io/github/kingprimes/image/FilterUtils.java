@@ -10,12 +10,14 @@ import java.awt.image.Kernel;
  * <p>提供图片滤镜处理工具，包括：</p>
  * <ul>
  *     <li>grayScale：将彩色图片转换为灰度图像</li>
+ *     <li>brightnessContrast、tint：调整亮度/对比度与着色</li>
  *     <li>sharpen：对图片应用锐化滤镜效果</li>
  *     <li>gaussianBlur：对图片应用高斯模糊滤镜效果</li>
+ *     <li>fastGaussianBlur：以盒式模糊近似的快速高斯模糊</li>
  * </ul>
  *
  * @author KingPrimes
- * @version 1.0.0
+ * @version 1.0.1
  */
 @SuppressWarnings("unused")
 public final class FilterUtils {
@@ -30,19 +32,32 @@ public final class FilterUtils {
      * @return 转换后的灰度图像BufferedImage对象，尺寸与原始图片一致，格式为TYPE_INT_ARGB，透明度通道保持不变
      */
     public static BufferedImage grayScale(BufferedImage image) {
-        BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        for (int y = 0; y < image.getHeight(); y++) {
-            for (int x = 0; x < image.getWidth(); x++) {
-                int rgb = image.getRGB(x, y);
-                int a = (rgb >> 24) & 0xFF;
-                int r = (rgb >> 16) & 0xFF;
-                int g = (rgb >> 8) & 0xFF;
-                int b = rgb & 0xFF;
-                int gray = (int) (0.299 * r + 0.587 * g + 0.114 * b);
-                result.setRGB(x, y, (a << 24) | (gray << 16) | (gray << 8) | gray);
-            }
-        }
-        return result;
+        return PixelOps.apply(image, PixelOps.grayScale());
+    }
+
+    /**
+     * 调整图片的亮度与对比度，保留原始图片的透明度通道
+     * <p>每个颜色分量按 <code>(c - 128) * contrast + 128 + brightness * 255</code> 计算（见{@link PixelOps#brightnessContrast(float, float)}）</p>
+     *
+     * @param image      原始图片对象
+     * @param brightness 亮度偏移（-1~1），0为不变
+     * @param contrast   对比度系数（不小于0），1为不变
+     * @return 调整后的新BufferedImage对象，尺寸与原始图片一致，格式为TYPE_INT_ARGB
+     */
+    public static BufferedImage brightnessContrast(BufferedImage image, float brightness, float contrast) {
+        return PixelOps.apply(image, PixelOps.brightnessContrast(brightness, contrast));
+    }
+
+    /**
+     * 对图片着色，颜色分量按比例向指定颜色插值，保留原始图片的透明度通道
+     *
+     * @param image  原始图片对象
+     * @param color  着色颜色
+     * @param amount 着色比例（0~1），0为原色，1为纯着色颜色
+     * @return 着色后的新BufferedImage对象，尺寸与原始图片一致，格式为TYPE_INT_ARGB
+     */
+    public static BufferedImage tint(BufferedImage image, Color color, float amount) {
+        return PixelOps.apply(image, PixelOps.tint(color, amount));
     }
 
     /**
@@ -77,7 +92,8 @@ public final class FilterUtils {
      * <ul>
      *   <li>若模糊半径{@code radius}小于1，直接返回原始图片以避免无效计算</li>
      *   <li>卷积核尺寸为{@code 2*radius + 1}，半径越大模糊效果越强（计算量也随之增加）</li>
-     *   <li>通过{@link #createGaussianKernel(int, int)}生成符合高斯分布的权重核</li>
+     *   <li>通过{@link FilterEngine#gaussianKernel(int)}生成符合高斯分布的权重核，
+     *   在像素数组上计算（见{@link FilterEngine#convolveSeparable(int[], int, int, float[])}），边界像素取最近的边缘像素</li>
      * </ul>
      *
      * @param image  原始图片对象（待模糊的BufferedImage）
@@ -86,80 +102,25 @@ public final class FilterUtils {
      */
     public static BufferedImage gaussianBlur(BufferedImage image, int radius) {
         if (radius < 1) return image;
-        int size = radius * 2 + 1;
-        float[] kernel = createGaussianKernel(size, radius);
-
-        BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = result.createGraphics();
-        g2.drawImage(image, 0, 0, null);
-        g2.dispose();
-
-        // 横向模糊
-        result = convolve(result, kernel, size, 1);
-        // 纵向模糊
-        result = convolve(result, kernel, 1, size);
-
+        BufferedImage result = FilterEngine.copyArgb(image);
+        FilterEngine.convolveSeparable(FilterEngine.pixels(result), result.getWidth(), result.getHeight(),
+                FilterEngine.gaussianKernel(radius));
         return result;
     }
 
-    private static float[] createGaussianKernel(int size, int radius) {
-        float[] kernel = new float[size];
-        float sigma = radius / 3.0f;
-        float twoSigmaSquare = 2.0f * sigma * sigma;
-        float sigmaRoot = (float) Math.sqrt(twoSigmaSquare * Math.PI);
-        float total = 0.0f;
-
-        for (int i = -radius; i <= radius; i++) {
-            float distance = i * i;
-            kernel[i + radius] = (float) Math.exp(-distance / twoSigmaSquare) / sigmaRoot;
-            total += kernel[i + radius];
-        }
-
-        for (int i = 0; i < size; i++) {
-            kernel[i] /= total;
-        }
-        return kernel;
-    }
-
-    private static BufferedImage convolve(BufferedImage image, float[] kernel, int kernelWidth, int kernelHeight) {
-        int width = image.getWidth();
-        int height = image.getHeight();
-        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-
-        int kernelSizeX = kernelWidth;
-        int kernelSizeY = kernelHeight;
-        int halfKernelX = kernelSizeX / 2;
-        int halfKernelY = kernelSizeY / 2;
-
-        int[] pixels = new int[width * height];
-        image.getRGB(0, 0, width, height, pixels, 0, width);
-        int[] output = new int[width * height];
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                float r = 0, g = 0, b = 0, a = 0;
-                for (int ky = 0; ky < kernelSizeY; ky++) {
-                    for (int kx = 0; kx < kernelSizeX; kx++) {
-                        int pixelX = Math.min(width - 1, Math.max(0, x + kx - halfKernelX));
-                        int pixelY = Math.min(height - 1, Math.max(0, y + ky - halfKernelY));
-                        int pixel = pixels[pixelY * width + pixelX];
-                        float weight = kernel[ky * kernelSizeX + kx];
-
-                        a += weight * ((pixel >> 24) & 0xFF);
-                        r += weight * ((pixel >> 16) & 0xFF);
-                        g += weight * ((pixel >> 8) & 0xFF);
-                        b += weight * (pixel & 0xFF);
-                    }
-                }
-                output[y * width + x] =
-                        (((int) a & 0xFF) << 24) |
-                                (((int) r & 0xFF) << 16) |
-                                (((int) g & 0xFF) << 8) |
-                                ((int) b & 0xFF);
-            }
-        }
-
-        result.setRGB(0, 0, width, height, output, 0, width);
+    /**
+     * 对图片应用近似高斯模糊效果，通过3次滑动窗口盒式模糊实现
+     * <p>实现原理：按与{@link #gaussianBlur(BufferedImage, int)}相同的sigma选取盒宽度，每个像素的计算量与半径无关，
+     * 适合大半径模糊（如背景虚化）；结果与精确高斯模糊存在细微差异</p>
+     *
+     * @param image  原始图片对象（待模糊的BufferedImage）
+     * @param radius 模糊半径（像素），控制模糊强度，需为非负整数
+     * @return 模糊处理后的新BufferedImage对象，尺寸与原始图片一致，格式为TYPE_INT_ARGB；若输入半径无效则返回原始图片
+     */
+    public static BufferedImage fastGaussianBlur(BufferedImage image, int radius) {
+        if (radius < 1) return image;
+        BufferedImage result = FilterEngine.copyArgb(image);
+        FilterEngine.boxBlur(FilterEngine.pixels(result), result.getWidth(), result.getHeight(), radius);
         return result;
     }
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+package io.github.kingprimes.image;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.awt.geom.AffineTransform;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 字体注册表
+ * <p>渲染器每次绘制都会按字号、样式派生字体，居中、换行等计算也会反复获取同一字体的度量信息，
+ * 本类以并发缓存复用这些对象，可在多个渲染线程中共享：</p>
+ * <ul>
+ *     <li>派生字体：以（基础字体、样式、字号、变换）为键缓存 {@link Font#deriveFont(int, float)} 的结果</li>
+ *     <li>字体度量：以（字体、渲染上下文）为键缓存 {@link FontMetrics} 与 {@link LineMetrics}</li>
+ * </ul>
+ * <p>派生字体与渲染上下文的组合由代码中的字号决定，数量有限，缓存不做淘汰</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class FontRegistry {
+
+    private static final Map<DeriveKey, Font> FONTS = new ConcurrentHashMap<>();
+    private static final Map<MetricsKey, FontMetrics> METRICS = new ConcurrentHashMap<>();
+    private static final Map<MetricsKey, LineMetrics> LINE_METRICS = new ConcurrentHashMap<>();
+    private static final AtomicLong FONT_HITS = new AtomicLong();
+    private static final AtomicLong FONT_MISSES = new AtomicLong();
+    private static final AtomicLong METRICS_HITS = new AtomicLong();
+    private static final AtomicLong METRICS_MISSES = new AtomicLong();
+
+    private FontRegistry() {
+    }
+
+    /**
+     * 获取保持基础字体样式、指定字号的派生字体
+     *
+     * @param base 基础字体，不可为null
+     * @param size 字号
+     * @return 派生字体
+     */
+    public static Font derive(Font base, float size) {
+        return derive(base, base.getStyle(), size, null);
+    }
+
+    /**
+     * 获取指定样式与字号的派生字体
+     *
+     * @param base  基础字体，不可为null
+     * @param style 字体样式，如 {@link Font#BOLD}
+     * @param size  字号
+     * @return 派生字体
+     */
+    public static Font derive(Font base, int style, float size) {
+        return derive(base, style, size, null);
+    }
+
+    /**
+     * 获取指定样式、字号与变换的派生字体
+     *
+     * @param base      基础字体，不可为null
+     * @param style     字体样式，如 {@link Font#BOLD}
+     * @param size      字号
+     * @param transform 字体变换，为null时不变换；调用后修改该对象不影响已缓存的字体
+     * @return 派生字体
+     */
+    public static Font derive(Font base, int style, float size, AffineTransform transform) {
+        DeriveKey key = new DeriveKey(base, style, size, transform == null ? null : new AffineTransform(transform));
+        Font font = FONTS.get(key);
+        if (font != null) {
+            FONT_HITS.incrementAndGet();
+            return font;
+        }
+        FONT_MISSES.incrementAndGet();
+        Font derived = base.deriveFont(style, size);
+        if (key.transform() != null) {
+            derived = derived.deriveFont(key.transform());
+        }
+        // 并发派生同一字体时保留先放入缓存的实例
+        Font existing = FONTS.putIfAbsent(key, derived);
+        return existing != null ? existing : derived;
+    }
+
+    /**
+     * 获取字体在指定图形上下文中的度量信息
+     *
+     * @param g    图形上下文，提供渲染上下文，不可为null
+     * @param font 字体，不可为null
+     * @return 字体度量信息
+     */
+    public static FontMetrics metrics(Graphics2D g, Font font) {
+        MetricsKey key = new MetricsKey(font, g.getFontRenderContext());
+        FontMetrics metrics = METRICS.get(key);
+        if (metrics != null) {
+            METRICS_HITS.incrementAndGet();
+            return metrics;
+        }
+        METRICS_MISSES.incrementAndGet();
+        FontMetrics created = g.getFontMetrics(font);
+        FontMetrics existing = METRICS.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * 获取字体在指定渲染上下文中的行度量信息（上升、下降、行距等）
+     * <p>行度量只与字体和渲染上下文有关，按空字符串测量</p>
+     *
+     * @param font 字体，不可为null
+     * @param frc  渲染上下文，不可为null
+     * @return 行度量信息
+     */
+    public static LineMetrics lineMetrics(Font font, FontRenderContext frc) {
+        MetricsKey key = new MetricsKey(font, frc);
+        LineMetrics metrics = LINE_METRICS.get(key);
+        if (metrics != null) {
+            METRICS_HITS.incrementAndGet();
+            return metrics;
+        }
+        METRICS_MISSES.incrementAndGet();
+        LineMetrics created = font.getLineMetrics("", frc);
+        LineMetrics existing = LINE_METRICS.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * 获取派生字体缓存命中次数
+     *
+     * @return 命中次数
+     */
+    public static long getFontHitCount() {
+        return FONT_HITS.get();
+    }
+
+    /**
+     * 获取派生字体缓存未命中（实际派生）次数
+     *
+     * @return 未命中次数
+     */
+    public static long getFontMissCount() {
+        return FONT_MISSES.get();
+    }
+
+    /**
+     * 获取字体度量缓存命中次数（包括 {@link #metrics(Graphics2D, Font)} 与 {@link #lineMetrics(Font, FontRenderContext)}）
+     *
+     * @return 命中次数
+     */
+    public static long getMetricsHitCount() {
+        return METRICS_HITS.get();
+    }
+
+    /**
+     * 获取字体度量缓存未命中次数
+     *
+     * @return 未命中次数
+     */
+    public static long getMetricsMissCount() {
+        return METRICS_MISSES.get();
+    }
+
+    /**
+     * 获取派生字体与字体度量缓存的总体命中率
+     *
+     * @return 命中率（0~1），尚无查询时返回0
+     */
+    public static double getHitRate() {
+        long hits = FONT_HITS.get() + METRICS_HITS.get();
+        long total = hits + FONT_MISSES.get() + METRICS_MISSES.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * 获取缓存的派生字体数量
+     *
+     * @return 派生字体数量
+     */
+    public static int getCachedFontCount() {
+        return FONTS.size();
+    }
+
+    /**
+     * 获取缓存的字体度量数量
+     *
+     * @return 字体度量数量
+     */
+    public static int getCachedMetricsCount() {
+        return METRICS.size() + LINE_METRICS.size();
+    }
+
+    /**
+     * 清空缓存并重置命中统计
+     */
+    public static void clear() {
+        FONTS.clear();
+        METRICS.clear();
+        LINE_METRICS.clear();
+        FONT_HITS.set(0);
+        FONT_MISSES.set(0);
+        METRICS_HITS.set(0);
+        METRICS_MISSES.set(0);
+    }
+
+    private record DeriveKey(Font base, int style, float size, AffineTransform transform) {
+    }
+
+    private record MetricsKey(Font font, FontRenderContext frc) {
+    }
+}
@@ -71,6 +71,20 @@ public final class GraphicsUtils {
      */
     public static void drawShape(BufferedImage target, Shape shape, Color fillColor, Color strokeColor, int strokeWidth) {
         Graphics2D g2 = target.createGraphics();
+        drawShape(g2, shape, fillColor, strokeColor, strokeWidth);
+        g2.dispose();
+    }
+
+    /**
+     * 在指定绘图上下文中绘制形状，会修改该上下文的渲染参数、颜色与描边
+     *
+     * @param g2          绘图上下文
+     * @param shape       要绘制的形状对象
+     * @param fillColor   填充颜色，如果为null则不填充
+     * @param strokeColor 描边颜色，如果为null或 strokeWidth &lt;= 0 则不描边
+     * @param strokeWidth 描边宽度，必须大于0才生效
+     */
+    public static void drawShape(Graphics2D g2, Shape shape, Color fillColor, Color strokeColor, int strokeWidth) {
         setQualityRenderingHints(g2);
         if (fillColor != null) {
             g2.setColor(fillColor);
@@ -81,7 +95,6 @@ public final class GraphicsUtils {
             g2.setStroke(new BasicStroke(strokeWidth));
             g2.draw(shape);
         }
-        g2.dispose();
     }
 
     /**
@@ -0,0 +1,220 @@
+package io.github.kingprimes.image;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 图标字体字形图集
+ * <p>图标字体（如 Warframe_Font_Icon）中的同几个字形会在每一行订单、每一张卡片上重复绘制，
+ * 每次都要经过完整的字体光栅化；图集将字形按（字体、字形、颜色、渲染上下文）预先光栅化为透明位图，之后直接贴图</p>
+ * <p>只处理构造时登记的字号，其余字号、非纯色画笔、非SrcOver合成、带缩放旋转的变换以及不透明画布
+ * （不透明画布上会启用LCD次像素抗锯齿，无法用位图复现）均返回false，由调用方回退到文本绘制。
+ * 在透明画布上灰度抗锯齿文本的混合与位图SrcOver贴图一致，贴图结果与直接绘制文本逐像素相同</p>
+ * <p>线程安全，位图在多个渲染线程中只读共享</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class IconAtlas {
+
+    /**
+     * 默认最多缓存的字形位图数，超出后不再缓存，直接回退到文本绘制
+     */
+    public static final int DEFAULT_MAX_SPRITES = Integer.getInteger("drawimage.icon.maxSprites", 1024);
+
+    private final Set<Font> fonts;
+    private final int maxSprites;
+    private final Map<SpriteKey, Sprite> sprites = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 创建图标图集
+     *
+     * @param base  图标字体，不可为null
+     * @param sizes 需要贴图的字号（保持图标字体的样式），至少一个
+     * @throws IllegalArgumentException 当未指定字号时抛出
+     */
+    public IconAtlas(Font base, float... sizes) {
+        this(base, DEFAULT_MAX_SPRITES, sizes);
+    }
+
+    /**
+     * 创建图标图集
+     *
+     * @param base       图标字体，不可为null
+     * @param maxSprites 最多缓存的字形位图数，必须大于0
+     * @param sizes      需要贴图的字号（保持图标字体的样式），至少一个
+     * @throws IllegalArgumentException 当maxSprites小于等于0或未指定字号时抛出
+     */
+    public IconAtlas(Font base, int maxSprites, float... sizes) {
+        if (maxSprites <= 0) {
+            throw new IllegalArgumentException("字形位图缓存上限需>0");
+        }
+        if (sizes == null || sizes.length == 0) {
+            throw new IllegalArgumentException("至少需要指定一个字号");
+        }
+        Set<Font> derived = new HashSet<>();
+        for (float size : sizes) {
+            derived.add(FontRegistry.derive(base, size));
+        }
+        this.fonts = Set.copyOf(derived);
+        this.maxSprites = maxSprites;
+    }
+
+    /**
+     * 判断字体是否为图集登记的字号
+     *
+     * @param font 字体
+     * @return 可以贴图时返回true
+     */
+    public boolean supports(Font font) {
+        return font != null && fonts.contains(font);
+    }
+
+    /**
+     * 以图形上下文当前的字体与颜色贴图绘制字形，基线位置与 {@link Graphics2D#drawString(String, int, int)} 相同
+     *
+     * @param g     图形上下文，不可为null
+     * @param glyph 字形文本，不可为null
+     * @param x     基线起点X坐标
+     * @param y     基线Y坐标
+     * @return 已贴图绘制时返回true；无法用位图复现时返回false，调用方需回退到文本绘制
+     */
+    public boolean draw(Graphics2D g, String glyph, int x, int y) {
+        Font font = g.getFont();
+        if (!supports(font)
+                || !(g.getPaint() instanceof Color color)
+                || !AlphaComposite.SrcOver.equals(g.getComposite())
+                || !isIntegerTranslation(g.getTransform())
+                || g.getDeviceConfiguration().getColorModel().getTransparency() == Transparency.OPAQUE) {
+            return false;
+        }
+        SpriteKey key = new SpriteKey(font, glyph, color.getRGB(), g.getFontRenderContext());
+        Sprite sprite = sprites.get(key);
+        if (sprite != null) {
+            hits.incrementAndGet();
+        } else {
+            if (sprites.size() >= maxSprites) {
+                return false;
+            }
+            misses.incrementAndGet();
+            Sprite created = rasterize(key, g.getRenderingHints());
+            sprite = sprites.putIfAbsent(key, created);
+            if (sprite == null) {
+                sprite = created;
+            }
+        }
+        if (sprite.image() != null) {
+            g.drawImage(sprite.image(), x + sprite.x(), y + sprite.y(), null);
+        }
+        return true;
+    }
+
+    /**
+     * 预先光栅化字形，避免首次绘制时的光栅化开销
+     * <p>按 {@link GraphicsUtils#setQualityRenderingHints(Graphics2D)} 的渲染参数光栅化，与默认画布一致</p>
+     *
+     * @param glyphs 字形文本
+     * @param colors 颜色
+     */
+    public void preload(Collection<String> glyphs, Color... colors) {
+        Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        try {
+            GraphicsUtils.setQualityRenderingHints(g);
+            for (Font font : fonts) {
+                g.setFont(font);
+                for (Color color : colors) {
+                    g.setColor(color);
+                    for (String glyph : glyphs) {
+                        draw(g, glyph, -10000, -10000);
+                    }
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * 清空字形位图缓存（命中统计保留）
+     */
+    public void clear() {
+        sprites.clear();
+    }
+
+    /**
+     * 获取字形位图缓存命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * 获取字形位图缓存未命中（实际光栅化）次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * 获取当前缓存的字形位图数
+     *
+     * @return 字形位图数
+     */
+    public int size() {
+        return sprites.size();
+    }
+
+    private static boolean isIntegerTranslation(AffineTransform transform) {
+        int type = transform.getType();
+        if (type == AffineTransform.TYPE_IDENTITY) {
+            return true;
+        }
+        return type == AffineTransform.TYPE_TRANSLATION
+                && transform.getTranslateX() == Math.rint(transform.getTranslateX())
+                && transform.getTranslateY() == Math.rint(transform.getTranslateY());
+    }
+
+    private static Sprite rasterize(SpriteKey key, RenderingHints hints) {
+        Rectangle bounds = key.font().createGlyphVector(key.frc(), key.glyph()).getPixelBounds(key.frc(), 0, 0);
+        if (bounds.isEmpty()) {
+            return new Sprite(null, 0, 0);
+        }
+        // 抗锯齿可能超出像素边界，预留余量
+        bounds.grow(2, 2);
+        BufferedImage image = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHints(hints);
+            g.setFont(key.font());
+            g.setColor(new Color(key.rgb(), true));
+            g.drawString(key.glyph(), -bounds.x, -bounds.y);
+        } finally {
+            g.dispose();
+        }
+        return new Sprite(image, bounds.x, bounds.y);
+    }
+
+    private record SpriteKey(Font font, String glyph, int rgb, FontRenderContext frc) {
+    }
+
+    /**
+     * 字形位图及其相对基线起点的偏移
+     */
+    private record Sprite(BufferedImage image, int x, int y) {
+    }
+}
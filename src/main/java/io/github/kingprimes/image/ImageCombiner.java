@@ -1,20 +1,25 @@
 package io.github.kingprimes.image;
 
-import javax.imageio.ImageIO;
+import io.github.kingprimes.image.encoder.ImageEncoder;
+import io.github.kingprimes.image.encoder.ImageEncoders;
+
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * 图片绘制组合器（建造者模式实现）
  * <p>核心职责：提供一站式图像构建能力，整合画布管理、基础图形绘制、文本处理（委托给{@link TextUtils}）、样式预设及最终图像输出流程</p>
+ * <p>公开构造方法直接分配画布；通过 {@link #leased(int, int, OutputFormat)} 创建的合成器画布从 {@link CanvasPool#shared()} 租用，
+ * 使用完毕后需调用 {@link #release()} 归还</p>
  *
  * @author KingPrimes
  * @version 1.0.0
  */
 @SuppressWarnings("unused")
-public class ImageCombiner {
+public class ImageCombiner implements AutoCloseable {
 
     /**
      * 目标画布图像，所有绘制操作的最终载体（尺寸不可变）
@@ -25,13 +30,17 @@ public class ImageCombiner {
      */
     protected final Graphics2D g2;
     /**
-     * 图像输出格式，决定最终生成图像类型（PNG/JPG）及透明度支持（PNG支持透明，JPG不支持）
+     * 图像输出格式，决定最终生成图像类型（PNG/JPG/WEBP）及透明度支持（PNG、WEBP支持透明，JPG不支持），可在{@link #combine()}前修改
      */
-    protected final OutputFormat format;
+    protected OutputFormat format;
     /**
      * 合并后图像的字节流缓存，需调用{@link #combine()}后才能通过{@link #getCombinedImageOutStream()}获取
      */
     protected ByteArrayOutputStream out;
+    /**
+     * 当前画布使用的编码器（null时使用{@link ImageEncoders}中为输出格式注册的编码器）
+     */
+    protected ImageEncoder encoder;
 
     /**
      * 当前激活字体，用于文本绘制（null时使用g2默认字体）
@@ -59,8 +68,27 @@ public class ImageCombiner {
         setQualityRenderingHints(g2); // 初始化高质量渲染
     }
 
+    /**
+     * 构造一个使用指定绘图上下文的图像合成器实例（供录制等子类使用）
+     *
+     * @param image  画布图像，提供画布尺寸，不可为null
+     * @param g2     绘图上下文，所有绘制操作都作用于此上下文，不可为null
+     * @param format 输出格式，不可为null
+     * @throws IllegalArgumentException 当任一参数为null时抛出
+     */
+    protected ImageCombiner(BufferedImage image, Graphics2D g2, OutputFormat format) {
+        if (image == null || g2 == null || format == null) {
+            throw new IllegalArgumentException("画布、绘图上下文和输出格式不可为null");
+        }
+        this.target = image;
+        this.g2 = g2;
+        this.format = format;
+        setQualityRenderingHints(g2); // 初始化高质量渲染
+    }
+
     /**
      * 构造一个图像合成器实例
+     * <p>画布直接分配，不经过画布池；需要从 {@link CanvasPool#shared()} 租用画布时使用 {@link #leased(int, int, OutputFormat)}</p>
      *
      * @param width  目标图像的宽度，必须大于0
      * @param height 目标图像的高度，必须大于0
@@ -68,14 +96,35 @@ public class ImageCombiner {
      * @throws IllegalArgumentException 当width或height小于等于0，或者format为null时抛出
      */
     public ImageCombiner(int width, int height, OutputFormat format) {
+        this(blank(width, height, format, false), format);
+    }
+
+    /**
+     * 构造一个画布从 {@link CanvasPool#shared()} 租用的图像合成器实例
+     * <p>使用完毕后必须调用 {@link #release()}（或在try-with-resources中使用）归还画布，
+     * 未归还的画布在回收时计入 {@link CanvasPool#getLeakCount()}</p>
+     *
+     * @param width  目标图像的宽度，必须大于0
+     * @param height 目标图像的高度，必须大于0
+     * @param format 输出图像的格式，不能为null
+     * @return 图像合成器
+     * @throws IllegalArgumentException 当width或height小于等于0，或者format为null时抛出
+     */
+    public static ImageCombiner leased(int width, int height, OutputFormat format) {
+        return new ImageCombiner(blank(width, height, format, true), format);
+    }
+
+    private static BufferedImage blank(int width, int height, OutputFormat format, boolean pooled) {
         if (width <= 0 || height <= 0 || format == null) {
             throw new IllegalArgumentException("宽高需>0，输出格式不可为null");
         }
-        this.target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        this.g2 = target.createGraphics();
-        this.format = format;
-        g2.fillRect(0, 0, width, height);
-        setQualityRenderingHints(g2); // 初始化高质量渲染
+        BufferedImage image = pooled
+                ? CanvasPool.shared().lease(width, height)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return image;
     }
 
     protected void setQualityRenderingHints(Graphics2D g2) {
@@ -294,10 +343,29 @@ public class ImageCombiner {
         return this;
     }
 
+    /**
+     * 使用当前字体与颜色绘制图标字形，优先从图标图集贴图，支持方法链式调用
+     * <p>图集未登记当前字号或无法用位图复现时回退到{@link #addText(String, int, int)}，两者的绘制结果一致</p>
+     *
+     * @param atlas 图标图集（为null时直接绘制文本）
+     * @param glyph 图标字形（null时不绘制并直接返回）
+     * @param x     字形绘制的X坐标（水平方向起点，基于Graphics2D坐标系）
+     * @param y     字形绘制的Y坐标（垂直方向基线位置，基于Graphics2D坐标系）
+     * @return 当前ImageCombiner实例，支持后续方法链式调用
+     */
+    public ImageCombiner addIcon(IconAtlas atlas, String glyph, int x, int y) {
+        if (glyph == null)
+            return this;
+        if (atlas == null || !atlas.draw(g2, glyph, x, y)) {
+            g2.drawString(glyph, x, y);
+        }
+        return this;
+    }
+
     /**
      * 向图像添加指定形状，并设置填充颜色、边框颜色和边框宽度，支持方法链式调用
      * <p>
-     * 实现逻辑：若形状为null则不执行绘制；否则通过{@link GraphicsUtils#drawShape(BufferedImage, Shape, Color, Color, int)}绘制形状，
+     * 实现逻辑：若形状为null则不执行绘制；否则在当前绘图上下文的副本上通过{@link GraphicsUtils#drawShape(Graphics2D, Shape, Color, Color, int)}绘制形状，
      * 绘制完成后若当前颜色（{@code currentColor}）不为null，则恢复Graphics2D上下文的颜色为当前颜色，避免影响后续绘制操作
      * </p>
      *
@@ -310,7 +378,12 @@ public class ImageCombiner {
     public ImageCombiner addShape(Shape shape, Color fillColor, Color strokeColor, int strokeWidth) {
         if (shape == null)
             return this;
-        GraphicsUtils.drawShape(target, shape, fillColor, strokeColor, strokeWidth);
+        Graphics2D g = (Graphics2D) g2.create();
+        try {
+            GraphicsUtils.drawShape(g, shape, fillColor, strokeColor, strokeWidth);
+        } finally {
+            g.dispose();
+        }
         if (currentColor != null) {
             g2.setColor(currentColor);
         }
@@ -376,8 +449,8 @@ public class ImageCombiner {
      * @return 文本水平居中时的左边缘X坐标（像素）；若输入参数无效（metrics或text为null）则返回0
      */
     protected int calculateCenterX(String text) {
-        FontMetrics metrics = g2.getFontMetrics(currentFont != null ? currentFont : g2.getFont());
-        return TextUtils.calculateCenterX(metrics, text, target.getWidth());
+        FontMetrics metrics = FontRegistry.metrics(g2, currentFont != null ? currentFont : g2.getFont());
+        return TextUtils.calculateCenterX(metrics, text, getCanvasWidth());
     }
 
     /**
@@ -395,8 +468,8 @@ public class ImageCombiner {
      * @return 水平居中且应用偏移后的文本绘制X坐标（基于Graphics2D坐标系）
      */
     protected int calculateCenterX(String text, int xOffset) {
-        FontMetrics metrics = g2.getFontMetrics(currentFont != null ? currentFont : g2.getFont());
-        return TextUtils.calculateCenterX(metrics, text, target.getWidth(), xOffset);
+        FontMetrics metrics = FontRegistry.metrics(g2, currentFont != null ? currentFont : g2.getFont());
+        return TextUtils.calculateCenterX(metrics, text, getCanvasWidth(), xOffset);
     }
 
     /**
@@ -412,8 +485,8 @@ public class ImageCombiner {
      * @return 当前ImageCombiner实例，支持后续方法链式调用（如继续添加其他元素）
      */
     protected Point calculateCenterXY(String text) {
-        FontMetrics metrics = g2.getFontMetrics(currentFont != null ? currentFont : g2.getFont());
-        return TextUtils.calculateCenterXY(metrics, text, target.getWidth(), target.getHeight());
+        FontMetrics metrics = FontRegistry.metrics(g2, currentFont != null ? currentFont : g2.getFont());
+        return TextUtils.calculateCenterXY(metrics, text, getCanvasWidth(), getCanvasHeight());
     }
 
     /**
@@ -428,8 +501,8 @@ public class ImageCombiner {
      * @return 文本水平和垂直居中且应用偏移后的坐标点；若输入参数无效则返回默认坐标
      */
     protected Point calculateCenterXY(String text, int xOffset, int yOffset) {
-        FontMetrics metrics = g2.getFontMetrics(currentFont != null ? currentFont : g2.getFont());
-        return TextUtils.calculateCenterXY(metrics, text, target.getWidth(), target.getHeight(), xOffset, yOffset);
+        FontMetrics metrics = FontRegistry.metrics(g2, currentFont != null ? currentFont : g2.getFont());
+        return TextUtils.calculateCenterXY(metrics, text, getCanvasWidth(), getCanvasHeight(), xOffset, yOffset);
     }
 
     /**
@@ -560,11 +633,11 @@ public class ImageCombiner {
         if (text == null)
             return this;
         String[] lines = text.split("\n");
-        FontMetrics metrics = g2.getFontMetrics(currentFont != null ? currentFont : g2.getFont());
+        FontMetrics metrics = FontRegistry.metrics(g2, currentFont != null ? currentFont : g2.getFont());
         // 计算总高度（用TextUtils工具方法）
         int totalHeight = TextUtils.calculateMultilineHeight(metrics, lines, spacing);
         // 垍直居中起始Y
-        int startY = (target.getHeight() - totalHeight) / 2 + lineHeight;
+        int startY = (getCanvasHeight() - totalHeight) / 2 + lineHeight;
         return addMultilineCenteredText(text, startY, lineHeight, spacing);
     }
 
@@ -577,7 +650,7 @@ public class ImageCombiner {
      * @return 当前ImageCombiner实例，支持后续方法链式调用
      */
     public ImageCombiner addMultilineCenteredText(String text) {
-        FontMetrics metrics = g2.getFontMetrics(currentFont != null ? currentFont : g2.getFont());
+        FontMetrics metrics = FontRegistry.metrics(g2, currentFont != null ? currentFont : g2.getFont());
         return addMultilineCenteredText(text, metrics.getHeight(), 5); // 默认行高=字体高，间距=5
     }
 
@@ -623,10 +696,10 @@ public class ImageCombiner {
                                                        int cornerRadius, int padding) {
         if (text == null)
             return this;
-        FontMetrics metrics = g2.getFontMetrics(currentFont != null ? currentFont : g2.getFont());
+        FontMetrics metrics = FontRegistry.metrics(g2, currentFont != null ? currentFont : g2.getFont());
         // 计算居中坐标
-        int centerX = TextUtils.calculateCenterX(metrics, text, target.getWidth());
-        int centerY = (target.getHeight() + metrics.getAscent() - metrics.getDescent()) / 2;
+        int centerX = TextUtils.calculateCenterX(metrics, text, getCanvasWidth());
+        int centerY = (getCanvasHeight() + metrics.getAscent() - metrics.getDescent()) / 2;
 
         // 调用TextUtils绘制
         TextUtils.drawTextWithBackground(
@@ -720,7 +793,7 @@ public class ImageCombiner {
     public String[] wrapText(String text, int maxWidth) {
         if (text == null || maxWidth <= 0)
             return new String[]{text == null ? "" : text};
-        FontMetrics metrics = g2.getFontMetrics(currentFont != null ? currentFont : g2.getFont());
+        FontMetrics metrics = FontRegistry.metrics(g2, currentFont != null ? currentFont : g2.getFont());
         return TextUtils.wrapText(metrics, text, maxWidth);
     }
 
@@ -746,7 +819,7 @@ public class ImageCombiner {
                                           Color shadowColor, int shadowOffsetX, int shadowOffsetY) {
         TextUtils.drawAdvancedText(
                 g2, currentFont, currentColor,
-                text, maxWidth, target.getWidth(), target.getHeight(),
+                text, maxWidth, getCanvasWidth(), getCanvasHeight(),
                 align, vCenter,
                 bgColor, gradientStart, gradientEnd, gradientVertical,
                 borderColor, cornerRadius, padding,
@@ -779,8 +852,8 @@ public class ImageCombiner {
      */
     public ImageCombiner drawTooRoundRect() {
         int borderPadding = 20;
-        int innerWidth = this.getCombinedImage().getWidth() - borderPadding * 2;
-        int innerHeight = this.getCombinedImage().getHeight() - borderPadding * 2;
+        int innerWidth = getCanvasWidth() - borderPadding * 2;
+        int innerHeight = getCanvasHeight() - borderPadding * 2;
         this.drawTooRoundRect(new RoundRect(
                 borderPadding - 8,
                 borderPadding,
@@ -807,7 +880,7 @@ public class ImageCombiner {
     public ImageCombiner drawTitle(String text) {
         return drawAdvancedText(
                 text,
-                target.getWidth() - 40, // 左右留边20，最大宽度=画布宽-40
+                getCanvasWidth() - 40, // 左右留边20，最大宽度=画布宽-40
                 Align.CENTER, true, // 水平居中+垂直居中
                 null, // 不使用纯色背景
                 new Color(70, 130, 180), // 渐变起始色（SteelBlue）
@@ -830,7 +903,7 @@ public class ImageCombiner {
     public ImageCombiner drawContent(String text) {
         return drawAdvancedText(
                 text,
-                target.getWidth() - 40, // 左右留边20
+                getCanvasWidth() - 40, // 左右留边20
                 Align.LEFT, false, // 左对齐+不垂直居中
                 Color.WHITE, // 白底
                 null, null, false, // 无渐变
@@ -851,7 +924,7 @@ public class ImageCombiner {
         // 1. 绘制提示框文本（调用高级绘制）
         drawAdvancedText(
                 text,
-                target.getWidth() - 80, // 左右留边40
+                getCanvasWidth() - 80, // 左右留边40
                 Align.LEFT, false, // 左对齐+不垂直居中
                 new Color(255, 255, 204), // 背景色（浅黄）
                 null, null, false, // 无渐变
@@ -878,7 +951,7 @@ public class ImageCombiner {
 
     /**
      * 合并所有绘制操作（生成最终图片）
-     * <p>实现逻辑：根据指定格式（PNG/JPG）将当前画布内容写入输出流</p>
+     * <p>实现逻辑：使用当前编码器（未指定时为输出格式注册的编码器）将当前画布内容写入输出流</p>
      * <p>参数校验：无</p>
      *
      * @throws RuntimeException 若图片合并过程中发生I/O错误
@@ -886,9 +959,7 @@ public class ImageCombiner {
     public void combine() {
         try {
             out = new ByteArrayOutputStream();
-            // 根据格式写入输出流（PNG支持透明，JPG不支持）
-            String formatStr = format == OutputFormat.PNG ? "png" : "jpg";
-            ImageIO.write(target, formatStr, out);
+            getEncoder().encode(target, out);
         } catch (IOException e) {
             throw new RuntimeException("图片合并失败: " + e.getMessage(), e);
         } finally {
@@ -896,10 +967,97 @@ public class ImageCombiner {
         }
     }
 
+    /**
+     * 合并所有绘制操作，并将编码结果直接写入输出流
+     * <p>与 {@link #combine()} 相同，但不经过内部的字节数组缓存，
+     * 调用后 {@link #getCombinedImageOutStream()} 不可用</p>
+     *
+     * @param out 输出流，写完后不会被关闭
+     * @throws IOException 编码或写入失败时抛出
+     */
+    public void combine(OutputStream out) throws IOException {
+        try {
+            getEncoder().encode(target, out);
+        } finally {
+            g2.dispose(); // 释放画笔资源
+        }
+    }
+
+    /**
+     * 为当前画布指定编码器，覆盖全局注册的编码器
+     *
+     * @param encoder 编码器，为null时恢复使用全局注册的编码器
+     * @return 返回当前ImageCombiner实例，支持链式调用
+     */
+    public ImageCombiner setEncoder(ImageEncoder encoder) {
+        this.encoder = encoder;
+        return this;
+    }
+
+    /**
+     * 设置输出格式，需在{@link #combine()}之前调用
+     *
+     * @param format 输出格式，不可为null
+     * @return 返回当前ImageCombiner实例，支持链式调用
+     * @throws IllegalArgumentException 当format为null时抛出
+     */
+    public ImageCombiner setOutputFormat(OutputFormat format) {
+        if (format == null) {
+            throw new IllegalArgumentException("输出格式不可为null");
+        }
+        this.format = format;
+        return this;
+    }
+
+    /**
+     * 获取当前输出格式
+     *
+     * @return 输出格式
+     */
+    public OutputFormat getOutputFormat() {
+        return format;
+    }
+
+    /**
+     * 获取当前画布实际使用的编码器
+     *
+     * @return 编码器
+     */
+    public ImageEncoder getEncoder() {
+        return encoder != null ? encoder : ImageEncoders.get(format);
+    }
+
     public BufferedImage getCombinedImage() {
         return target;
     }
 
+    /**
+     * 释放绘图上下文，画布是从 {@link CanvasPool#shared()} 租用的则归还画布池（堆外画布立即释放本地内存）
+     * <p>调用后不能再使用本合成器及 {@link #getCombinedImage()} 返回的图像，已生成的字节流不受影响；重复调用无副作用</p>
+     */
+    public void release() {
+        g2.dispose();
+        CanvasPool.shared().release(target);
+    }
+
+    /**
+     * 同 {@link #release()}，便于在try-with-resources中使用
+     */
+    @Override
+    public void close() {
+        release();
+    }
+
+    /**
+     * 归还已绘制到本画布、之后不再使用的池化图像
+     * <p>绘制操作直接作用于画布，图像可立即归还 {@link CanvasPool#shared()}；不是从画布池租用的图像直接忽略</p>
+     *
+     * @param image 已绘制的图像，可为null
+     */
+    public void recycle(BufferedImage image) {
+        CanvasPool.shared().release(image);
+    }
+
     /**
      * 获取合并后的图片字节流（需先调用combine()）
      * <p>实现逻辑：返回包含合并后图片数据的字节数组输出流</p>
@@ -1006,7 +1164,10 @@ public class ImageCombiner {
      * @return 返回当前ImageCombiner实例，支持链式调用
      */
     public ImageCombiner drawImage(BufferedImage back, int x, int y) {
-        g2.drawImage(back, x, y, null);
+        // 不缩放的ARGB/RGB图像直接按行合成到画布，结果与drawImage相同
+        if (!Blitter.drawImage(g2, target, back, x, y)) {
+            g2.drawImage(back, x, y, null);
+        }
         return this;
     }
 
@@ -1079,18 +1240,14 @@ public class ImageCombiner {
      * @return 返回当前ImageCombiner实例，支持链式调用
      */
     public ImageCombiner drawStandingDrawing() {
-        int width = this.target.getWidth();
-        int height = this.target.getHeight();
-        int imageWidth = 413, imageHeight = 625;
+        int width = getCanvasWidth();
+        int height = getCanvasHeight();
+        int imageWidth = StandingDrawingAtlas.TWO_INCH.width, imageHeight = StandingDrawingAtlas.TWO_INCH.height;
         if (height <= imageHeight) {
             return drawOneInchStandingDrawing();
         }
 
-        return drawImageWithAspectRatio(ImageIOUtils.getRandomXiaoMeiWangImage(),
-                width - 433,
-                height - 645,
-                imageWidth,
-                imageHeight);
+        return drawStandingSprite(width - 433, height - 645, imageWidth, imageHeight);
     }
 
     /**
@@ -1101,14 +1258,34 @@ public class ImageCombiner {
      * @return 返回当前ImageCombiner实例，支持链式调用
      */
     public ImageCombiner drawOneInchStandingDrawing() {
-        int width = this.target.getWidth();
-        int height = this.target.getHeight();
-        int imageWidth = 240, imageHeight = 360;
-        return drawImageWithAspectRatio(ImageIOUtils.getRandomXiaoMeiWangImage(),
-                width - 265,
-                height - 382,
-                imageWidth,
-                imageHeight);
+        int width = getCanvasWidth();
+        int height = getCanvasHeight();
+        int imageWidth = StandingDrawingAtlas.ONE_INCH.width, imageHeight = StandingDrawingAtlas.ONE_INCH.height;
+        return drawStandingSprite(width - 265, height - 382, imageWidth, imageHeight);
+    }
+
+    /**
+     * 从默认立绘图集中随机取出预缩放的精灵图并居中绘制到指定区域
+     * <br/>
+     * 若图集未配置该尺寸，则退回到实时缩放原图
+     *
+     * @param x         区域x坐标
+     * @param y         区域y坐标
+     * @param boxWidth  区域宽度
+     * @param boxHeight 区域高度
+     * @return 返回当前ImageCombiner实例，支持链式调用
+     */
+    private ImageCombiner drawStandingSprite(int x, int y, int boxWidth, int boxHeight) {
+        BufferedImage sprite = StandingDrawingAtlas.getDefault().getRandomSprite(boxWidth, boxHeight);
+        if (sprite == null) {
+            return drawImageWithAspectRatio(ImageIOUtils.getRandomXiaoMeiWangImage(), x, y, boxWidth, boxHeight);
+        }
+        // 精灵图已是目标尺寸，直接1:1拷贝像素，无需插值
+        g2.drawImage(sprite,
+                x + (boxWidth - sprite.getWidth()) / 2,
+                y + (boxHeight - sprite.getHeight()) / 2,
+                null);
+        return this;
     }
 
     /**
@@ -1159,7 +1336,7 @@ public class ImageCombiner {
         // 使用TextUtils工具类根据最大宽度对文本进行自动换行处理
         String[] lines = wrapText(text, maxWidth);
         int currentY = startY;
-        FontMetrics metrics = g2.getFontMetrics(currentFont != null ? currentFont : g2.getFont());
+        FontMetrics metrics = FontRegistry.metrics(g2, currentFont != null ? currentFont : g2.getFont());
         int y = TextUtils.calculateMultilineHeight(metrics, lines, spacing);
         // 逐行绘制文本
         for (String line : lines) {
@@ -1181,7 +1358,7 @@ public class ImageCombiner {
      */
     public int calculateWrappedTextHeight(String text, int maxWidth, int spacing) {
         if (text == null) return 0;
-        FontMetrics metrics = g2.getFontMetrics(currentFont != null ? currentFont : g2.getFont());
+        FontMetrics metrics = FontRegistry.metrics(g2, currentFont != null ? currentFont : g2.getFont());
         return TextUtils.calculateWrappedTextHeight(metrics, text, maxWidth, spacing);
     }
 
@@ -1211,10 +1388,18 @@ public class ImageCombiner {
          * PNG格式
          */
         PNG,
+        /**
+         * 索引色PNG格式（量化为不超过256色的调色板后输出，体积更小，颜色可能有轻微损失）
+         */
+        PNG_INDEXED,
         /**
          * JPG格式
          */
-        JPG
+        JPG,
+        /**
+         * 无损WebP格式（VP8L），通常比PNG小三成左右，编码耗时更长
+         */
+        WEBP
     }
 
     /**
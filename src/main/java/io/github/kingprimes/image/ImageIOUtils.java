@@ -5,8 +5,10 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * 图片IO工具类，提供了一些常用的图片操作方法
@@ -16,9 +18,45 @@ import java.util.Random;
  */
 @SuppressWarnings("unused")
 public final class ImageIOUtils {
+    /**
+     * 紫卡模板图片路径
+     */
+    public static final String RIVEN_TEMPLATE_PATH = "/image/riven/RivenTemplate.png";
+    /**
+     * 看板娘插画图片路径模板
+     */
+    public static final String XIAO_MEI_WANG_PATH = "/image/%d.png";
+    /**
+     * 看板娘插画图片数量（编号从1开始）
+     */
+    public static final int XIAO_MEI_WANG_COUNT = 11;
+
+    // 随机选择插画使用的随机数生成器，null时使用当前线程的ThreadLocalRandom
+    private static volatile RandomGenerator random;
+
     private ImageIOUtils() {
     }
 
+    /**
+     * 获取随机选择插画使用的随机数生成器
+     *
+     * @return 随机数生成器，未设置时返回当前线程的 {@link ThreadLocalRandom}
+     */
+    public static RandomGenerator getRandom() {
+        RandomGenerator generator = random;
+        return generator != null ? generator : ThreadLocalRandom.current();
+    }
+
+    /**
+     * 设置随机选择插画使用的随机数生成器
+     * <p>设置的生成器会被所有绘图线程共享，必须是线程安全的；测试中可设置固定返回值的生成器以得到确定的输出</p>
+     *
+     * @param generator 随机数生成器，为null时恢复使用ThreadLocalRandom
+     */
+    public static void setRandom(RandomGenerator generator) {
+        random = generator;
+    }
+
     /**
      * 读取指定路径的图片文件并返回BufferedImage对象
      *
@@ -66,9 +104,8 @@ public final class ImageIOUtils {
      * @return 返回随机的看板娘插画图片
      */
     public static BufferedImage getRandomXiaoMeiWangImage() {
-        Random random = new Random();
-        int i = random.nextInt(1, 12);
-        return getResourcesImage("/image/%d.png".formatted(i));
+        int i = getRandom().nextInt(1, XIAO_MEI_WANG_COUNT + 1);
+        return getResourcesImage(XIAO_MEI_WANG_PATH.formatted(i));
     }
 
     /**
@@ -77,27 +114,44 @@ public final class ImageIOUtils {
      * @return 返回紫卡模板图片
      */
     public static BufferedImage getRivenTemplate() {
-        return getResourcesImage("/image/riven/RivenTemplate.png");
+        return getResourcesImage(RIVEN_TEMPLATE_PATH);
     }
 
     /**
      * 从resources目录加载图片资源
+     * <p>图片只在首次访问时解码，之后从 {@link ResourceImageCache#shared()} 中复制返回，调用方可以自由修改返回的图片</p>
      *
      * @param path 图片文件的路径
      * @return 加载成功的BufferedImage对象
      * @throws RuntimeException 当图片加载失败或文件未找到时抛出运行时异常
      */
     public static BufferedImage getResourcesImage(String path) {
-        try {
-            // 使用 Classloader 从 resources/image 目录加载图片
-            InputStream inputStream = ImageIOUtils.class.getResourceAsStream(path);
-            if (inputStream == null) {
-                throw new IOException("图片文件未找到: %s".formatted(path));
-            }
-            // 使用 ImageIO 读取图片
-            return ImageIO.read(inputStream);
-        } catch (IOException e) {
-            throw new RuntimeException("无法加载图片: %s".formatted(e.getMessage()), e);
+        return ResourceImageCache.shared().getCopy(path);
+    }
+
+    /**
+     * 从resources目录加载图片资源（共享只读实例）
+     * <p>与 {@link #getResourcesImage(String)} 不同，返回的是缓存中的共享实例，不会复制像素数据，
+     * 只能用作绘制源图，不可在其上绘制或修改像素</p>
+     *
+     * @param path 图片文件的路径
+     * @return 共享的BufferedImage对象
+     * @throws RuntimeException 当图片加载失败或文件未找到时抛出运行时异常
+     */
+    public static BufferedImage getSharedResourcesImage(String path) {
+        return ResourceImageCache.shared().get(path);
+    }
+
+    /**
+     * 预热内置图片资源（看板娘插画与紫卡模板）
+     * <p>建议在应用启动时调用，避免首次绘制时的解码耗时</p>
+     */
+    public static void warmUpResourceImages() {
+        List<String> paths = new ArrayList<>(XIAO_MEI_WANG_COUNT + 1);
+        for (int i = 1; i <= XIAO_MEI_WANG_COUNT; i++) {
+            paths.add(XIAO_MEI_WANG_PATH.formatted(i));
         }
+        paths.add(RIVEN_TEMPLATE_PATH);
+        ResourceImageCache.shared().warmUp(paths);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,379 @@
+package io.github.kingprimes.image;
+
+import io.github.kingprimes.image.LayerUtils.Layer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 图层栈，按固定画布尺寸管理一组图层，并把合成结果保留在同一张输出画布上
+ * <p>与 {@link LayerUtils} 的区别：</p>
+ * <ul>
+ *     <li>图层归属于实例而不是线程，可在多次渲染之间保留，也可同时存在多个图层栈</li>
+ *     <li>添加、移除、移动图层或修改图层位置时记录受影响的矩形（脏区域），
+ *     {@link #render()} 只重新合成脏区域，其余像素保留上一次的结果</li>
+ *     <li>合成时使用每个图层的 {@link Layer#composite()}，透明度 {@link Layer#alpha()} 与混合模式自带的透明度相乘，
+ *     可配合 {@link BlendComposite} 使用正片叠底、滤色等混合模式</li>
+ * </ul>
+ * <p>脏区域内先填充背景色，再按图层顺序把与该区域相交的图层依次合成上去，结果与整张画布重新合成逐像素相同；
+ * 不缩放的SRC_OVER图层交给 {@link Blitter} 直接合成</p>
+ * <p>图层图像的内容在外部被修改后，需调用 {@link #invalidate(int)} 标记该图层区域</p>
+ * <p>本类不是线程安全的，同一实例只能由一个线程使用</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class LayerStack {
+
+    /**
+     * 脏区域数量上限，超出后合并为一个外接矩形
+     */
+    private static final int MAX_DIRTY_REGIONS = 16;
+    private static final Color TRANSPARENT = new Color(0, true);
+
+    private final int width;
+    private final int height;
+    private final Color background;
+    private final List<Layer> layers = new ArrayList<>();
+    private final List<Rectangle> dirtyRegions = new ArrayList<>();
+    private BufferedImage output;
+    private long recompositedPixels;
+
+    /**
+     * 创建图层栈
+     *
+     * @param width      画布宽度，必须大于0
+     * @param height     画布高度，必须大于0
+     * @param background 背景颜色，为null时背景完全透明
+     * @throws IllegalArgumentException 当宽高小于等于0时抛出
+     */
+    public LayerStack(int width, int height, Color background) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("画布尺寸不合法: %dx%d".formatted(width, height));
+        }
+        this.width = width;
+        this.height = height;
+        this.background = background;
+        markDirty(new Rectangle(0, 0, width, height));
+    }
+
+    /**
+     * 计算图层合成时使用的合成方式
+     * <ul>
+     *     <li>未指定合成方式时为SRC_OVER</li>
+     *     <li>{@link AlphaComposite} 与 {@link BlendComposite} 的透明度与图层透明度相乘</li>
+     *     <li>其他合成方式原样使用，图层透明度不生效</li>
+     * </ul>
+     *
+     * @param layer 图层
+     * @return 合成方式
+     */
+    static Composite compositeOf(Layer layer) {
+        Composite composite = layer.composite();
+        if (composite == null) {
+            return AlphaComposite.getInstance(AlphaComposite.SRC_OVER, layer.alpha());
+        }
+        if (composite instanceof AlphaComposite alphaComposite) {
+            return alphaComposite.derive(alphaComposite.getAlpha() * layer.alpha());
+        }
+        if (composite instanceof BlendComposite blendComposite) {
+            return blendComposite.derive(blendComposite.getAlpha() * layer.alpha());
+        }
+        return composite;
+    }
+
+    private static Rectangle boundsOf(Layer layer) {
+        return new Rectangle(layer.x(), layer.y(), layer.image().getWidth(), layer.image().getHeight());
+    }
+
+    private static Layer check(Layer layer) {
+        if (layer == null || layer.image() == null) {
+            throw new IllegalArgumentException("图层图像不可为null");
+        }
+        if (!(layer.alpha() >= 0f && layer.alpha() <= 1f)) {
+            throw new IllegalArgumentException("图层透明度需在0~1之间: %s".formatted(layer.alpha()));
+        }
+        return layer;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= layers.size()) {
+            throw new IllegalArgumentException("图层索引超出范围: %d".formatted(index));
+        }
+    }
+
+    /**
+     * 在最上层添加一个不透明度为1、SRC_OVER合成的图层
+     *
+     * @param image 图层图像
+     * @param x     图层在画布上的x坐标
+     * @param y     图层在画布上的y坐标
+     * @return 新图层的索引
+     * @throws IllegalArgumentException 当image为null时抛出
+     */
+    public int addLayer(BufferedImage image, int x, int y) {
+        return addLayer(new Layer(image, x, y, 1f, null));
+    }
+
+    /**
+     * 在最上层添加一个图层
+     *
+     * @param image     图层图像
+     * @param x         图层在画布上的x坐标
+     * @param y         图层在画布上的y坐标
+     * @param alpha     图层透明度，取值范围为0.0-1.0
+     * @param composite 图层的合成方式，为null时使用SRC_OVER
+     * @return 新图层的索引
+     * @throws IllegalArgumentException 当image为null或alpha超出范围时抛出
+     */
+    public int addLayer(BufferedImage image, int x, int y, float alpha, Composite composite) {
+        return addLayer(new Layer(image, x, y, alpha, composite));
+    }
+
+    /**
+     * 在最上层添加一个图层
+     *
+     * @param layer 图层
+     * @return 新图层的索引
+     * @throws IllegalArgumentException 当图层图像为null或透明度超出范围时抛出
+     */
+    public int addLayer(Layer layer) {
+        layers.add(check(layer));
+        markDirty(boundsOf(layer));
+        return layers.size() - 1;
+    }
+
+    /**
+     * 替换指定索引位置的图层
+     *
+     * @param index 图层索引
+     * @param layer 新图层
+     * @return 被替换的图层
+     * @throws IllegalArgumentException 当索引超出范围、图层图像为null或透明度超出范围时抛出
+     */
+    public Layer setLayer(int index, Layer layer) {
+        checkIndex(index);
+        Layer old = layers.set(index, check(layer));
+        markDirty(boundsOf(old));
+        markDirty(boundsOf(layer));
+        return old;
+    }
+
+    /**
+     * 修改指定图层在画布上的位置
+     *
+     * @param index 图层索引
+     * @param x     新的x坐标
+     * @param y     新的y坐标
+     * @throws IllegalArgumentException 当索引超出范围时抛出
+     */
+    public void setLayerPosition(int index, int x, int y) {
+        checkIndex(index);
+        Layer old = layers.get(index);
+        if (old.x() != x || old.y() != y) {
+            setLayer(index, new Layer(old.image(), x, y, old.alpha(), old.composite()));
+        }
+    }
+
+    /**
+     * 移除指定索引位置的图层
+     *
+     * @param index 图层索引
+     * @return 被移除的图层
+     * @throws IllegalArgumentException 当索引超出范围时抛出
+     */
+    public Layer removeLayer(int index) {
+        checkIndex(index);
+        Layer layer = layers.remove(index);
+        markDirty(boundsOf(layer));
+        return layer;
+    }
+
+    /**
+     * 将图层从一个位置移动到另一个位置
+     * <p>只有被移动的图层与其越过的图层重叠的部分需要重新合成</p>
+     *
+     * @param fromIndex 源位置索引
+     * @param toIndex   目标位置索引
+     * @throws IllegalArgumentException 当索引超出范围时抛出
+     */
+    public void moveLayerTo(int fromIndex, int toIndex) {
+        checkIndex(fromIndex);
+        checkIndex(toIndex);
+        if (fromIndex == toIndex) {
+            return;
+        }
+        Layer layer = layers.remove(fromIndex);
+        layers.add(toIndex, layer);
+        Rectangle bounds = boundsOf(layer);
+        for (int i = Math.min(fromIndex, toIndex); i <= Math.max(fromIndex, toIndex); i++) {
+            if (i != toIndex) {
+                markDirty(bounds.intersection(boundsOf(layers.get(i))));
+            }
+        }
+    }
+
+    /**
+     * 标记指定图层所在的区域需要重新合成，用于图层图像内容在外部被修改后
+     *
+     * @param index 图层索引
+     * @throws IllegalArgumentException 当索引超出范围时抛出
+     */
+    public void invalidate(int index) {
+        checkIndex(index);
+        markDirty(boundsOf(layers.get(index)));
+    }
+
+    /**
+     * 标记画布上的指定区域需要重新合成
+     *
+     * @param region 区域（画布坐标），为null时标记整张画布
+     */
+    public void invalidate(Rectangle region) {
+        markDirty(region == null ? new Rectangle(0, 0, width, height) : new Rectangle(region));
+    }
+
+    /**
+     * 移除所有图层
+     */
+    public void clear() {
+        for (Layer layer : layers) {
+            markDirty(boundsOf(layer));
+        }
+        layers.clear();
+    }
+
+    /**
+     * 获取图层数量
+     *
+     * @return 图层数量
+     */
+    public int size() {
+        return layers.size();
+    }
+
+    /**
+     * 获取指定索引位置的图层
+     *
+     * @param index 图层索引
+     * @return 图层
+     * @throws IllegalArgumentException 当索引超出范围时抛出
+     */
+    public Layer getLayer(int index) {
+        checkIndex(index);
+        return layers.get(index);
+    }
+
+    /**
+     * 获取所有图层，索引越大越靠上
+     *
+     * @return 图层列表的不可修改副本
+     */
+    public List<Layer> getLayers() {
+        return List.copyOf(layers);
+    }
+
+    /**
+     * 获取尚未重新合成的脏区域
+     *
+     * @return 脏区域列表的副本，互不相交
+     */
+    public List<Rectangle> getDirtyRegions() {
+        List<Rectangle> copy = new ArrayList<>(dirtyRegions.size());
+        for (Rectangle region : dirtyRegions) {
+            copy.add(new Rectangle(region));
+        }
+        return copy;
+    }
+
+    /**
+     * 获取累计重新合成的像素数
+     *
+     * @return 像素数
+     */
+    public long getRecompositedPixels() {
+        return recompositedPixels;
+    }
+
+    /**
+     * 重新合成脏区域，返回保留的输出画布
+     * <p>每次调用返回同一张 {@code TYPE_INT_ARGB} 画布，调用方不应修改它；
+     * 没有脏区域时直接返回上一次的结果</p>
+     *
+     * @return 合成后的画布
+     */
+    public BufferedImage render() {
+        if (output == null) {
+            output = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        if (dirtyRegions.isEmpty()) {
+            return output;
+        }
+        Graphics2D g2 = output.createGraphics();
+        GraphicsUtils.setQualityRenderingHints(g2);
+        try {
+            for (Rectangle region : dirtyRegions) {
+                composite(g2, region);
+                recompositedPixels += (long) region.width * region.height;
+            }
+        } finally {
+            g2.dispose();
+        }
+        dirtyRegions.clear();
+        return output;
+    }
+
+    private void composite(Graphics2D g2, Rectangle region) {
+        g2.setClip(region);
+        g2.setComposite(AlphaComposite.Src);
+        g2.setColor(background == null ? TRANSPARENT : background);
+        g2.fill(region);
+        for (Layer layer : layers) {
+            if (!boundsOf(layer).intersects(region)) {
+                continue;
+            }
+            g2.setComposite(compositeOf(layer));
+            if (!Blitter.drawImage(g2, output, layer.image(), layer.x(), layer.y())) {
+                g2.drawImage(layer.image(), layer.x(), layer.y(), null);
+            }
+        }
+    }
+
+    /**
+     * 记录脏区域：与已有区域相交时合并为外接矩形，数量超出上限时全部合并
+     */
+    private void markDirty(Rectangle region) {
+        Rectangle rect = region.intersection(new Rectangle(0, 0, width, height));
+        if (rect.isEmpty()) {
+            return;
+        }
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < dirtyRegions.size(); i++) {
+                Rectangle existing = dirtyRegions.get(i);
+                if (existing.contains(rect)) {
+                    return;
+                }
+                if (existing.intersects(rect)) {
+                    rect = rect.union(existing);
+                    dirtyRegions.remove(i);
+                    merged = true;
+                    break;
+                }
+            }
+        }
+        dirtyRegions.add(rect);
+        if (dirtyRegions.size() > MAX_DIRTY_REGIONS) {
+            Rectangle union = dirtyRegions.getFirst();
+            for (Rectangle r : dirtyRegions) {
+                union = union.union(r);
+            }
+            dirtyRegions.clear();
+            dirtyRegions.add(union);
+        }
+    }
+}
@@ -7,13 +7,15 @@ import java.util.List;
 
 /**
  * 图层工具类，用于管理多个图片图层，并组合成最终的图片
+ * <p>图层列表按线程隔离，多个线程可以同时各自组合图层；同一线程用完后应调用 {@link #clearLayers()} 释放图层</p>
+ * <p>需要在多次渲染之间保留图层、只重新合成变化区域时，使用 {@link LayerStack}</p>
  *
  * @author KingPrimes
  * @version 1.0.0
  */
 @SuppressWarnings("unused")
 public final class LayerUtils {
-    private static final List<Layer> layers = new ArrayList<>();
+    private static final ThreadLocal<List<Layer>> LAYERS = ThreadLocal.withInitial(ArrayList::new);
 
     private LayerUtils() {
     }
@@ -25,10 +27,10 @@ public final class LayerUtils {
      * @param x         图层在画布上的x坐标
      * @param y         图层在画布上的y坐标
      * @param alpha     图层的透明度，取值范围为0.0-1.0
-     * @param composite 图层的混合模式
+     * @param composite 图层的混合模式，为null时使用SRC_OVER，可使用 {@link BlendComposite}
      */
     public static void addLayer(BufferedImage image, int x, int y, float alpha, Composite composite) {
-        layers.add(new Layer(image, x, y, alpha, composite));
+        LAYERS.get().add(new Layer(image, x, y, alpha, composite));
     }
 
     /**
@@ -37,6 +39,7 @@ public final class LayerUtils {
      * @param index 要移除的图层索引，从0开始计数
      */
     public static void removeLayer(int index) {
+        List<Layer> layers = LAYERS.get();
         // 检查索引是否在有效范围内
         if (index >= 0 && index < layers.size()) {
             layers.remove(index);
@@ -50,6 +53,7 @@ public final class LayerUtils {
      * @param toIndex   目标位置索引
      */
     public static void moveLayerTo(int fromIndex, int toIndex) {
+        List<Layer> layers = LAYERS.get();
         if (fromIndex >= 0 && fromIndex < layers.size() && toIndex >= 0 && toIndex < layers.size()) {
             // 移除源位置的图层并将其添加到目标位置
             Layer layer = layers.remove(fromIndex);
@@ -59,6 +63,7 @@ public final class LayerUtils {
 
     /**
      * 渲染所有图层到一个合成的BufferedImage中
+     * <p>每个图层按自身的混合模式合成，透明度的处理方式见 {@link LayerStack}</p>
      *
      * @param width   图像宽度
      * @param height  图像高度
@@ -66,27 +71,19 @@ public final class LayerUtils {
      * @return 合成后的BufferedImage对象
      */
     public static BufferedImage renderLayers(int width, int height, Color bgColor) {
-        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = result.createGraphics();
-        GraphicsUtils.setQualityRenderingHints(g2);
-        if (bgColor != null) {
-            g2.setColor(bgColor);
-            g2.fillRect(0, 0, width, height);
+        LayerStack stack = new LayerStack(width, height, bgColor);
+        for (Layer layer : LAYERS.get()) {
+            stack.addLayer(layer);
         }
-        for (Layer layer : layers) {
-            g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, layer.alpha));
-            g2.drawImage(layer.image, layer.x, layer.y, null);
-        }
-        g2.dispose();
-        return result;
+        return stack.render();
     }
 
     /**
-     * 清空所有图层数据
-     * 该方法用于清除layers集合中的所有元素，将集合重置为空状态
+     * 清空当前线程的所有图层数据
+     * 该方法用于清除当前线程的图层集合，将集合重置为空状态
      */
     public static void clearLayers() {
-        layers.clear();
+        LAYERS.remove();
     }
 
     /**
@@ -0,0 +1,193 @@
+package io.github.kingprimes.image;
+
+import com.sun.jna.Memory;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 堆外像素缓冲区
+ * <p>像素以非预乘ARGB整数存放在本地内存中，不占用Java堆；超大画布（整季日历、数百条订单等）
+ * 改用堆外缓冲区后，堆大小无需再为单次绘制的峰值预留空间</p>
+ * <p>通过 {@link #createImage(int, int)} 创建的画布可直接交给 {@link ImageCombiner} 绘制，
+ * PNG编码器按行批量读取本地内存，不再复制整张画布</p>
+ * <p>代价：Java2D对自定义缓冲区使用通用的绘制循环，绘制速度低于堆内的 {@code TYPE_INT_ARGB} 画布</p>
+ * <p>使用完毕后必须调用 {@link #close()} 释放本地内存，关闭后再访问像素会抛出 {@link IllegalStateException}；
+ * 像素可被多个线程同时读写（各线程写入的区域互不重叠），但关闭不能与读写同时进行</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class OffHeapDataBuffer extends DataBuffer implements AutoCloseable {
+
+    private static final int[] ARGB_MASKS = {0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000};
+    private static final AtomicLong ALLOCATED = new AtomicLong();
+
+    private final Memory memory;
+    private final long bytes;
+    private IntBuffer pixels;
+
+    /**
+     * 分配指定像素数的堆外缓冲区，所有像素初始为0（完全透明）
+     *
+     * @param size 像素数，必须大于0
+     * @throws IllegalArgumentException 当size小于等于0时抛出
+     */
+    public OffHeapDataBuffer(int size) {
+        super(DataBuffer.TYPE_INT, checkSize(size));
+        this.bytes = 4L * size;
+        this.memory = new Memory(bytes);
+        memory.clear();
+        this.pixels = memory.getByteBuffer(0, bytes).order(ByteOrder.nativeOrder()).asIntBuffer();
+        ALLOCATED.addAndGet(bytes);
+    }
+
+    private static int checkSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("像素数需>0");
+        }
+        return size;
+    }
+
+    /**
+     * 创建以堆外缓冲区存放像素的非预乘ARGB画布，所有像素初始为完全透明
+     * <p>画布的 {@link BufferedImage#getType()} 为 TYPE_CUSTOM，像素布局与 TYPE_INT_ARGB 相同</p>
+     *
+     * @param width  画布宽度，必须大于0
+     * @param height 画布高度，必须大于0
+     * @return 画布，使用完毕后需对 {@link #of(BufferedImage)} 的结果调用 {@link #close()}
+     * @throws IllegalArgumentException 当宽高小于等于0或像素数超出上限时抛出
+     */
+    public static BufferedImage createImage(int width, int height) {
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("画布尺寸不合法: %dx%d".formatted(width, height));
+        }
+        OffHeapDataBuffer buffer = new OffHeapDataBuffer(width * height);
+        WritableRaster raster = Raster.createPackedRaster(buffer, width, height, width, ARGB_MASKS, null);
+        return new BufferedImage(ColorModel.getRGBdefault(), raster, false, null);
+    }
+
+    /**
+     * 获取图像使用的堆外缓冲区
+     *
+     * @param image 图像，可为子图
+     * @return 堆外缓冲区，图像不是堆外画布时返回null
+     */
+    public static OffHeapDataBuffer of(BufferedImage image) {
+        return image != null && image.getRaster().getDataBuffer() instanceof OffHeapDataBuffer buffer ? buffer : null;
+    }
+
+    /**
+     * 获取由 {@link #createImage(int, int)} 创建的整张画布（不是子图）的堆外缓冲区
+     * <p>此时坐标(x, y)的像素位于下标 {@code y * width + x}，可按行批量读取</p>
+     *
+     * @param image 图像
+     * @return 堆外缓冲区，图像不是整张堆外画布时返回null
+     */
+    public static OffHeapDataBuffer ofCanvas(BufferedImage image) {
+        OffHeapDataBuffer buffer = of(image);
+        if (buffer == null) {
+            return null;
+        }
+        WritableRaster raster = image.getRaster();
+        boolean packed = raster.getParent() == null
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel
+                && sampleModel.getScanlineStride() == image.getWidth()
+                && Arrays.equals(sampleModel.getBitMasks(), ARGB_MASKS)
+                && ColorModel.getRGBdefault().equals(image.getColorModel());
+        return packed ? buffer : null;
+    }
+
+    /**
+     * 获取当前已分配且未释放的堆外内存字节数
+     *
+     * @return 字节数
+     */
+    public static long getAllocatedBytes() {
+        return ALLOCATED.get();
+    }
+
+    @Override
+    public int getElem(int bank, int i) {
+        return pixels().get(i + offset);
+    }
+
+    @Override
+    public void setElem(int bank, int i, int val) {
+        pixels().put(i + offset, val);
+    }
+
+    /**
+     * 批量读取连续的像素
+     *
+     * @param index  起始像素下标
+     * @param dst    目标数组
+     * @param offset 目标数组中的起始位置
+     * @param length 像素数
+     * @throws IllegalStateException 缓冲区已关闭时抛出
+     */
+    public void getElems(int index, int[] dst, int offset, int length) {
+        pixels().get(index + this.offset, dst, offset, length);
+    }
+
+    /**
+     * 批量写入连续的像素
+     *
+     * @param index  起始像素下标
+     * @param src    源数组
+     * @param offset 源数组中的起始位置
+     * @param length 像素数
+     * @throws IllegalStateException 缓冲区已关闭时抛出
+     */
+    public void setElems(int index, int[] src, int offset, int length) {
+        pixels().put(index + this.offset, src, offset, length);
+    }
+
+    /**
+     * 获取缓冲区占用的堆外内存字节数
+     *
+     * @return 字节数
+     */
+    public long getByteSize() {
+        return bytes;
+    }
+
+    /**
+     * 缓冲区是否已关闭
+     *
+     * @return 已关闭时返回true
+     */
+    public boolean isClosed() {
+        return pixels == null;
+    }
+
+    /**
+     * 释放本地内存，重复调用无副作用
+     */
+    @Override
+    public void close() {
+        if (pixels == null) {
+            return;
+        }
+        pixels = null;
+        memory.close();
+        ALLOCATED.addAndGet(-bytes);
+    }
+
+    private IntBuffer pixels() {
+        IntBuffer buffer = pixels;
+        if (buffer == null) {
+            throw new IllegalStateException("堆外缓冲区已关闭");
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,302 @@
+package io.github.kingprimes.image;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.Serial;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 逐像素运算工具类
+ * <p>灰度、颜色矩阵、透明度预乘/反预乘、着色、亮度/对比度等点运算只依赖单个像素，
+ * 直接在 {@code TYPE_INT_ARGB} 图像的 {@link DataBufferInt} 数组上计算，不经过 {@code getRGB/setRGB} 的颜色模型转换</p>
+ * <p>像素数不少于 {@link #MIN_PARALLEL_PIXELS} 且启用并行（见 {@link RenderPool#isParallel()}）时，
+ * 按行区间拆分到 {@link RenderPool} 上执行；各行区间互不重叠，结果与顺序执行一致</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class PixelOps {
+
+    /**
+     * 并行执行的最少像素数，小图像在调用线程中直接计算
+     */
+    public static final int MIN_PARALLEL_PIXELS = 1 << 16;
+
+    private PixelOps() {
+    }
+
+    /**
+     * 单个像素的运算，输入输出均为非预乘（预乘运算除外）的ARGB值
+     * <p>会在多个线程中同时调用，不能修改共享状态</p>
+     */
+    @FunctionalInterface
+    public interface PixelOp {
+        /**
+         * 计算单个像素
+         *
+         * @param argb 原像素
+         * @return 新像素
+         */
+        int apply(int argb);
+
+        /**
+         * 组合两个运算，先执行当前运算再执行next
+         *
+         * @param next 后续运算
+         * @return 组合后的运算
+         */
+        default PixelOp andThen(PixelOp next) {
+            return argb -> next.apply(apply(argb));
+        }
+    }
+
+    /**
+     * 行区间上的运算
+     */
+    @FunctionalInterface
+    public interface RowRange {
+        /**
+         * 处理[fromRow, toRow)内的所有行
+         *
+         * @param fromRow 起始行（包含）
+         * @param toRow   结束行（不包含）
+         */
+        void apply(int fromRow, int toRow);
+    }
+
+    /**
+     * 对图像的每个像素执行运算，返回新的图像，原图像不变
+     *
+     * @param image 原始图像
+     * @param op    像素运算
+     * @return 运算后的新BufferedImage对象，尺寸与原始图片一致，格式为TYPE_INT_ARGB
+     */
+    public static BufferedImage apply(BufferedImage image, PixelOp op) {
+        BufferedImage result = copy(image);
+        applyInPlace(FilterEngine.pixels(result), result.getWidth(), result.getHeight(), op);
+        return result;
+    }
+
+    /**
+     * 对像素数组的每个像素执行运算，结果写回该数组
+     *
+     * @param pixels ARGB像素数组，按行存储，每行宽度为width
+     * @param width  图像宽度
+     * @param height 图像高度
+     * @param op     像素运算
+     */
+    public static void applyInPlace(int[] pixels, int width, int height, PixelOp op) {
+        forRows(width, height, (fromRow, toRow) -> {
+            for (int i = fromRow * width, end = toRow * width; i < end; i++) {
+                pixels[i] = op.apply(pixels[i]);
+            }
+        });
+    }
+
+    /**
+     * 按行区间执行运算，图像较大且启用并行时在 {@link RenderPool} 上拆分执行，否则在调用线程中一次处理所有行
+     *
+     * @param width  图像宽度，用于估算工作量
+     * @param height 图像高度
+     * @param action 行区间运算，各区间互不重叠
+     */
+    public static void forRows(int width, int height, RowRange action) {
+        if (!RenderPool.isParallel() || (long) width * height < MIN_PARALLEL_PIXELS) {
+            action.apply(0, height);
+            return;
+        }
+        forRows(width, height, action, RenderPool.get());
+    }
+
+    /**
+     * 在指定线程池上按行区间拆分执行运算
+     *
+     * @param width  图像宽度，用于估算工作量
+     * @param height 图像高度
+     * @param action 行区间运算，各区间互不重叠
+     * @param pool   执行运算的线程池，不可为null
+     * @throws IllegalArgumentException 当pool为null时抛出
+     */
+    public static void forRows(int width, int height, RowRange action, ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("线程池不可为null");
+        }
+        if (height <= 0) {
+            return;
+        }
+        // 每个线程约4个区间以平衡负载，每个区间至少包含MIN_PARALLEL_PIXELS/4个像素
+        int minRows = Math.max(1, MIN_PARALLEL_PIXELS / 4 / Math.max(1, width));
+        int grain = Math.max(minRows, height / (pool.getParallelism() * 4));
+        pool.invoke(new RowTask(action, 0, height, grain));
+    }
+
+    /**
+     * 灰度运算，按 <code>gray = 0.299*R + 0.587*G + 0.114*B</code> 计算，透明度不变
+     *
+     * @return 像素运算
+     */
+    public static PixelOp grayScale() {
+        return argb -> {
+            int r = (argb >> 16) & 0xFF;
+            int g = (argb >> 8) & 0xFF;
+            int b = argb & 0xFF;
+            int gray = (int) (0.299 * r + 0.587 * g + 0.114 * b);
+            return (argb & 0xFF000000) | (gray << 16) | (gray << 8) | gray;
+        };
+    }
+
+    /**
+     * 颜色矩阵运算
+     * <p>矩阵为4行5列，按行存储，依次计算输出的R、G、B、A；每行为输入R、G、B、A的系数及偏移量（0~255），
+     * 结果四舍五入并限制在0~255之间</p>
+     *
+     * @param matrix 长度为20的颜色矩阵
+     * @return 像素运算
+     * @throws IllegalArgumentException 当矩阵长度不为20时抛出
+     */
+    public static PixelOp colorMatrix(float[] matrix) {
+        if (matrix == null || matrix.length != 20) {
+            throw new IllegalArgumentException("颜色矩阵长度需为20");
+        }
+        float[] m = matrix.clone();
+        return argb -> {
+            float a = argb >>> 24;
+            float r = (argb >> 16) & 0xFF;
+            float g = (argb >> 8) & 0xFF;
+            float b = argb & 0xFF;
+            int nr = clamp(m[0] * r + m[1] * g + m[2] * b + m[3] * a + m[4]);
+            int ng = clamp(m[5] * r + m[6] * g + m[7] * b + m[8] * a + m[9]);
+            int nb = clamp(m[10] * r + m[11] * g + m[12] * b + m[13] * a + m[14]);
+            int na = clamp(m[15] * r + m[16] * g + m[17] * b + m[18] * a + m[19]);
+            return na << 24 | nr << 16 | ng << 8 | nb;
+        };
+    }
+
+    /**
+     * 透明度预乘运算，颜色分量乘以透明度
+     *
+     * @return 像素运算
+     */
+    public static PixelOp premultiply() {
+        return argb -> {
+            int a = argb >>> 24;
+            if (a == 0xFF) {
+                return argb;
+            }
+            int r = (((argb >> 16) & 0xFF) * a + 127) / 255;
+            int g = (((argb >> 8) & 0xFF) * a + 127) / 255;
+            int b = ((argb & 0xFF) * a + 127) / 255;
+            return a << 24 | r << 16 | g << 8 | b;
+        };
+    }
+
+    /**
+     * 透明度反预乘运算，颜色分量除以透明度，完全透明的像素变为0
+     *
+     * @return 像素运算
+     */
+    public static PixelOp unpremultiply() {
+        return argb -> {
+            int a = argb >>> 24;
+            if (a == 0xFF) {
+                return argb;
+            }
+            if (a == 0) {
+                return 0;
+            }
+            int half = a / 2;
+            int r = Math.min(0xFF, (((argb >> 16) & 0xFF) * 255 + half) / a);
+            int g = Math.min(0xFF, (((argb >> 8) & 0xFF) * 255 + half) / a);
+            int b = Math.min(0xFF, ((argb & 0xFF) * 255 + half) / a);
+            return a << 24 | r << 16 | g << 8 | b;
+        };
+    }
+
+    /**
+     * 着色运算，颜色分量按比例向指定颜色插值，透明度不变
+     *
+     * @param color  着色颜色
+     * @param amount 着色比例（0~1），0为原色，1为纯着色颜色
+     * @return 像素运算
+     */
+    public static PixelOp tint(Color color, float amount) {
+        float t = Math.max(0f, Math.min(1f, amount));
+        int[] red = lerpTable(color.getRed(), t);
+        int[] green = lerpTable(color.getGreen(), t);
+        int[] blue = lerpTable(color.getBlue(), t);
+        return argb -> (argb & 0xFF000000) | red[(argb >> 16) & 0xFF] << 16 | green[(argb >> 8) & 0xFF] << 8 | blue[argb & 0xFF];
+    }
+
+    /**
+     * 亮度/对比度运算，透明度不变
+     * <p>每个颜色分量按 <code>(c - 128) * contrast + 128 + brightness * 255</code> 计算</p>
+     *
+     * @param brightness 亮度偏移（-1~1），0为不变
+     * @param contrast   对比度系数（不小于0），1为不变
+     * @return 像素运算
+     */
+    public static PixelOp brightnessContrast(float brightness, float contrast) {
+        int[] table = new int[256];
+        for (int c = 0; c < 256; c++) {
+            table[c] = clamp((c - 128) * contrast + 128 + brightness * 255);
+        }
+        return argb -> (argb & 0xFF000000) | table[(argb >> 16) & 0xFF] << 16 | table[(argb >> 8) & 0xFF] << 8 | table[argb & 0xFF];
+    }
+
+    /**
+     * 复制为 {@code TYPE_INT_ARGB} 图像，像素值与 {@link BufferedImage#getRGB(int, int)} 一致
+     */
+    private static BufferedImage copy(BufferedImage image) {
+        int width = image.getWidth(), height = image.getHeight();
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = FilterEngine.pixels(result);
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB && image.getRaster().getParent() == null
+                && FilterEngine.pixels(image).length == pixels.length) {
+            System.arraycopy(FilterEngine.pixels(image), 0, pixels, 0, pixels.length);
+        } else {
+            image.getRGB(0, 0, width, height, pixels, 0, width);
+        }
+        return result;
+    }
+
+    private static int[] lerpTable(int target, float t) {
+        int[] table = new int[256];
+        for (int c = 0; c < 256; c++) {
+            table[c] = clamp(c + (target - c) * t);
+        }
+        return table;
+    }
+
+    private static int clamp(float value) {
+        return Math.max(0, Math.min(0xFF, (int) (value + 0.5f)));
+    }
+
+    private static final class RowTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        private final transient RowRange action;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        RowTask(RowRange action, int from, int to, int grain) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                action.apply(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RowTask(action, from, middle, grain), new RowTask(action, middle, to, grain));
+        }
+    }
+}
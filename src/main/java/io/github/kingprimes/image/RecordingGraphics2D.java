@@ -0,0 +1,688 @@
+package io.github.kingprimes.image;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.TextLayout;
+import java.awt.geom.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 录制绘制操作的 {@link Graphics2D}
+ * <p>状态（颜色、字体、变换、裁剪等）同步作用于一个1x1的测量画布，因此字体度量、变换、裁剪的查询结果与真实画布一致；
+ * 每个绘制操作都会连同其按当前变换、描边与裁剪计算出的外接矩形记录为 {@link DisplayList.Op}，并累计到整体外接矩形</p>
+ * <p>录制的参数都会在录制时复制（图像除外），保证显示列表不可变</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.1
+ */
+final class RecordingGraphics2D extends Graphics2D {
+
+    private final Recorder recorder;
+    private final Graphics2D scratch;
+    private final int context;
+    private boolean disposed;
+
+    RecordingGraphics2D() {
+        this(new Recorder(), new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics(), 0);
+    }
+
+    private RecordingGraphics2D(Recorder recorder, Graphics2D scratch, int context) {
+        this.recorder = recorder;
+        this.scratch = scratch;
+        this.context = context;
+    }
+
+    /**
+     * 结束录制并生成显示列表，之后任何绘制操作都会抛出 {@link IllegalStateException}
+     *
+     * @return 显示列表
+     */
+    DisplayList finish() {
+        return recorder.finish();
+    }
+
+    // ---------------- 录制 ----------------
+
+    private void state(Consumer<Graphics2D> action) {
+        recorder.check();
+        action.accept(scratch);
+        int c = context;
+        recorder.ops.add(new DisplayList.Op(null, (graphics, base) -> action.accept(graphics[c])));
+    }
+
+    private void paint(Shape userShape, boolean stroked, Consumer<Graphics2D> action) {
+        recorder.check();
+        Rectangle bounds = null;
+        if (userShape != null) {
+            Shape shape = stroked ? scratch.getStroke().createStrokedShape(userShape) : userShape;
+            bounds = include(scratch.getTransform().createTransformedShape(shape).getBounds2D());
+        }
+        record(bounds, action);
+    }
+
+    private void record(Rectangle bounds, Consumer<Graphics2D> action) {
+        int c = context;
+        recorder.ops.add(new DisplayList.Op(bounds, (graphics, base) -> action.accept(graphics[c])));
+    }
+
+    /**
+     * 按当前裁剪累计外接矩形
+     *
+     * @param deviceBounds 画布坐标系中的外接矩形
+     * @return 裁剪后向外扩展1像素抗锯齿余量的外接矩形，被完全裁剪时为空矩形
+     */
+    private Rectangle include(Rectangle2D deviceBounds) {
+        Shape clip = scratch.getClip();
+        if (clip != null) {
+            Rectangle2D deviceClip = scratch.getTransform().createTransformedShape(clip).getBounds2D();
+            Rectangle2D.intersect(deviceBounds, deviceClip, deviceBounds);
+            if (deviceBounds.getWidth() <= 0 || deviceBounds.getHeight() <= 0) {
+                return new Rectangle();
+            }
+        }
+        recorder.include(deviceBounds);
+        Rectangle bounds = deviceBounds.getBounds();
+        bounds.grow(1, 1);
+        return bounds;
+    }
+
+    private Rectangle includeText(String text, float x, float y) {
+        recorder.check();
+        if (text == null) {
+            return null;
+        }
+        if (text.isEmpty()) {
+            return new Rectangle();
+        }
+        Font font = scratch.getFont();
+        FontRenderContext frc = scratch.getFontRenderContext();
+        // 逻辑边界（行高、步进）与字形实际边界取并集，覆盖斜体等超出步进的字形
+        Rectangle2D bounds = font.getStringBounds(text, frc);
+        bounds.add(font.createGlyphVector(frc, text).getVisualBounds());
+        bounds.setRect(bounds.getX() + x, bounds.getY() + y, bounds.getWidth(), bounds.getHeight());
+        return include(scratch.getTransform().createTransformedShape(bounds).getBounds2D());
+    }
+
+    private static Rectangle2D imageBounds(Image img, double x, double y) {
+        return new Rectangle2D.Double(x, y, Math.max(0, img.getWidth(null)), Math.max(0, img.getHeight(null)));
+    }
+
+    private static Shape copy(Shape shape) {
+        if (shape == null) {
+            return null;
+        }
+        if (shape instanceof RectangularShape rectangular) {
+            return (Shape) rectangular.clone();
+        }
+        if (shape instanceof Path2D path) {
+            return (Shape) path.clone();
+        }
+        if (shape instanceof Line2D line) {
+            return (Shape) line.clone();
+        }
+        if (shape instanceof Area area) {
+            return (Shape) area.clone();
+        }
+        if (shape instanceof Polygon polygon) {
+            return new Polygon(polygon.xpoints.clone(), polygon.ypoints.clone(), polygon.npoints);
+        }
+        return shape;
+    }
+
+    // ---------------- 上下文 ----------------
+
+    @Override
+    public Graphics create() {
+        recorder.check();
+        int child = recorder.contexts++;
+        int parent = context;
+        recorder.ops.add(new DisplayList.Op(null,
+                (graphics, base) -> graphics[child] = (Graphics2D) graphics[parent].create()));
+        return new RecordingGraphics2D(recorder, (Graphics2D) scratch.create(), child);
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        scratch.dispose();
+        // 根上下文由回放方负责释放
+        if (context != 0 && !recorder.finished) {
+            int c = context;
+            recorder.ops.add(new DisplayList.Op(null, (graphics, base) -> graphics[c].dispose()));
+        }
+    }
+
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return scratch.getDeviceConfiguration();
+    }
+
+    // ---------------- 状态 ----------------
+
+    @Override
+    public Color getColor() {
+        return scratch.getColor();
+    }
+
+    @Override
+    public void setColor(Color c) {
+        state(g -> g.setColor(c));
+    }
+
+    @Override
+    public void setPaintMode() {
+        state(Graphics::setPaintMode);
+    }
+
+    @Override
+    public void setXORMode(Color c1) {
+        recorder.opaque = false;
+        state(g -> g.setXORMode(c1));
+    }
+
+    @Override
+    public Font getFont() {
+        return scratch.getFont();
+    }
+
+    @Override
+    public void setFont(Font font) {
+        state(g -> g.setFont(font));
+    }
+
+    @Override
+    public FontMetrics getFontMetrics() {
+        return scratch.getFontMetrics();
+    }
+
+    @Override
+    public FontMetrics getFontMetrics(Font f) {
+        return scratch.getFontMetrics(f);
+    }
+
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        return scratch.getFontRenderContext();
+    }
+
+    @Override
+    public Paint getPaint() {
+        return scratch.getPaint();
+    }
+
+    @Override
+    public void setPaint(Paint paint) {
+        state(g -> g.setPaint(paint));
+    }
+
+    @Override
+    public Composite getComposite() {
+        return scratch.getComposite();
+    }
+
+    @Override
+    public void setComposite(Composite comp) {
+        // 只有SRC_OVER合成到不透明画布上的结果必然不透明
+        if (!(comp instanceof AlphaComposite alpha && alpha.getRule() == AlphaComposite.SRC_OVER)) {
+            recorder.opaque = false;
+        }
+        state(g -> g.setComposite(comp));
+    }
+
+    @Override
+    public Color getBackground() {
+        return scratch.getBackground();
+    }
+
+    @Override
+    public void setBackground(Color color) {
+        state(g -> g.setBackground(color));
+    }
+
+    @Override
+    public Stroke getStroke() {
+        return scratch.getStroke();
+    }
+
+    @Override
+    public void setStroke(Stroke s) {
+        state(g -> g.setStroke(s));
+    }
+
+    @Override
+    public Object getRenderingHint(RenderingHints.Key hintKey) {
+        return scratch.getRenderingHint(hintKey);
+    }
+
+    @Override
+    public void setRenderingHint(RenderingHints.Key hintKey, Object hintValue) {
+        state(g -> g.setRenderingHint(hintKey, hintValue));
+    }
+
+    @Override
+    public RenderingHints getRenderingHints() {
+        return scratch.getRenderingHints();
+    }
+
+    @Override
+    public void setRenderingHints(Map<?, ?> hints) {
+        RenderingHints copy = new RenderingHints(null);
+        copy.putAll(hints);
+        state(g -> g.setRenderingHints(copy));
+    }
+
+    @Override
+    public void addRenderingHints(Map<?, ?> hints) {
+        RenderingHints copy = new RenderingHints(null);
+        copy.putAll(hints);
+        state(g -> g.addRenderingHints(copy));
+    }
+
+    // ---------------- 变换 ----------------
+
+    @Override
+    public void translate(int x, int y) {
+        state(g -> g.translate(x, y));
+    }
+
+    @Override
+    public void translate(double tx, double ty) {
+        state(g -> g.translate(tx, ty));
+    }
+
+    @Override
+    public void rotate(double theta) {
+        state(g -> g.rotate(theta));
+    }
+
+    @Override
+    public void rotate(double theta, double x, double y) {
+        state(g -> g.rotate(theta, x, y));
+    }
+
+    @Override
+    public void scale(double sx, double sy) {
+        state(g -> g.scale(sx, sy));
+    }
+
+    @Override
+    public void shear(double shx, double shy) {
+        state(g -> g.shear(shx, shy));
+    }
+
+    @Override
+    public void transform(AffineTransform tx) {
+        AffineTransform copy = new AffineTransform(tx);
+        state(g -> g.transform(copy));
+    }
+
+    @Override
+    public AffineTransform getTransform() {
+        return scratch.getTransform();
+    }
+
+    @Override
+    public void setTransform(AffineTransform tx) {
+        recorder.check();
+        AffineTransform copy = new AffineTransform(tx);
+        scratch.setTransform(copy);
+        int c = context;
+        recorder.ops.add(new DisplayList.Op(null, (graphics, base) -> {
+            graphics[c].setTransform(base);
+            graphics[c].transform(copy);
+        }));
+    }
+
+    // ---------------- 裁剪 ----------------
+
+    @Override
+    public Rectangle getClipBounds() {
+        return scratch.getClipBounds();
+    }
+
+    @Override
+    public Rectangle getClipBounds(Rectangle r) {
+        return scratch.getClipBounds(r);
+    }
+
+    @Override
+    public boolean hitClip(int x, int y, int width, int height) {
+        return scratch.hitClip(x, y, width, height);
+    }
+
+    @Override
+    public Shape getClip() {
+        return scratch.getClip();
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        state(g -> g.clipRect(x, y, width, height));
+    }
+
+    @Override
+    public void setClip(int x, int y, int width, int height) {
+        state(g -> g.setClip(x, y, width, height));
+    }
+
+    @Override
+    public void setClip(Shape clip) {
+        Shape copy = copy(clip);
+        state(g -> g.setClip(copy));
+    }
+
+    @Override
+    public void clip(Shape s) {
+        Shape copy = copy(s);
+        state(g -> g.clip(copy));
+    }
+
+    @Override
+    public boolean hit(Rectangle rect, Shape s, boolean onStroke) {
+        return scratch.hit(rect, s, onStroke);
+    }
+
+    // ---------------- 形状 ----------------
+
+    @Override
+    public void copyArea(int x, int y, int width, int height, int dx, int dy) {
+        recorder.bandable = false;
+        paint(new Rectangle(x + dx, y + dy, width, height), false, g -> g.copyArea(x, y, width, height, dx, dy));
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        paint(new Line2D.Float(x1, y1, x2, y2), true, g -> g.drawLine(x1, y1, x2, y2));
+    }
+
+    @Override
+    public void drawRect(int x, int y, int width, int height) {
+        paint(new Rectangle(x, y, width, height), true, g -> g.drawRect(x, y, width, height));
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        paint(new Rectangle(x, y, width, height), false, g -> g.fillRect(x, y, width, height));
+    }
+
+    @Override
+    public void clearRect(int x, int y, int width, int height) {
+        Color background = getBackground();
+        if (background == null || background.getAlpha() != 255) {
+            recorder.opaque = false;
+        }
+        paint(new Rectangle(x, y, width, height), false, g -> g.clearRect(x, y, width, height));
+    }
+
+    @Override
+    public void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        paint(new RoundRectangle2D.Float(x, y, width, height, arcWidth, arcHeight), true,
+                g -> g.drawRoundRect(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    @Override
+    public void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        paint(new RoundRectangle2D.Float(x, y, width, height, arcWidth, arcHeight), false,
+                g -> g.fillRoundRect(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        paint(new Ellipse2D.Float(x, y, width, height), true, g -> g.drawOval(x, y, width, height));
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        paint(new Ellipse2D.Float(x, y, width, height), false, g -> g.fillOval(x, y, width, height));
+    }
+
+    @Override
+    public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        paint(new Arc2D.Float(x, y, width, height, startAngle, arcAngle, Arc2D.OPEN), true,
+                g -> g.drawArc(x, y, width, height, startAngle, arcAngle));
+    }
+
+    @Override
+    public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        paint(new Arc2D.Float(x, y, width, height, startAngle, arcAngle, Arc2D.PIE), false,
+                g -> g.fillArc(x, y, width, height, startAngle, arcAngle));
+    }
+
+    @Override
+    public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints) {
+        int[] xs = xPoints.clone();
+        int[] ys = yPoints.clone();
+        Path2D.Float path = new Path2D.Float();
+        for (int i = 0; i < nPoints; i++) {
+            if (i == 0) {
+                path.moveTo(xs[i], ys[i]);
+            } else {
+                path.lineTo(xs[i], ys[i]);
+            }
+        }
+        paint(nPoints > 0 ? path : null, true, g -> g.drawPolyline(xs, ys, nPoints));
+    }
+
+    @Override
+    public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        int[] xs = xPoints.clone();
+        int[] ys = yPoints.clone();
+        paint(new Polygon(xs, ys, nPoints), true, g -> g.drawPolygon(xs, ys, nPoints));
+    }
+
+    @Override
+    public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        int[] xs = xPoints.clone();
+        int[] ys = yPoints.clone();
+        paint(new Polygon(xs, ys, nPoints), false, g -> g.fillPolygon(xs, ys, nPoints));
+    }
+
+    @Override
+    public void draw(Shape s) {
+        Shape copy = copy(s);
+        paint(copy, true, g -> g.draw(copy));
+    }
+
+    @Override
+    public void fill(Shape s) {
+        Shape copy = copy(s);
+        paint(copy, false, g -> g.fill(copy));
+    }
+
+    // ---------------- 文本 ----------------
+
+    @Override
+    public void drawString(String str, int x, int y) {
+        record(includeText(str, x, y), g -> g.drawString(str, x, y));
+    }
+
+    @Override
+    public void drawString(String str, float x, float y) {
+        record(includeText(str, x, y), g -> g.drawString(str, x, y));
+    }
+
+    @Override
+    public void drawChars(char[] data, int offset, int length, int x, int y) {
+        char[] chars = Arrays.copyOfRange(data, offset, offset + length);
+        record(includeText(new String(chars), x, y), g -> g.drawChars(chars, 0, chars.length, x, y));
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, int x, int y) {
+        drawString(iterator, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, float x, float y) {
+        AttributedString copy = new AttributedString(iterator);
+        recorder.check();
+        AttributedCharacterIterator measure = copy.getIterator();
+        Rectangle deviceBounds = new Rectangle();
+        if (measure.getEndIndex() > measure.getBeginIndex()) {
+            Rectangle2D bounds = new TextLayout(measure, scratch.getFontRenderContext()).getBounds();
+            bounds.setRect(bounds.getX() + x, bounds.getY() + y, bounds.getWidth(), bounds.getHeight());
+            deviceBounds = include(scratch.getTransform().createTransformedShape(bounds).getBounds2D());
+        }
+        record(deviceBounds, g -> g.drawString(copy.getIterator(), x, y));
+    }
+
+    @Override
+    public void drawGlyphVector(GlyphVector gv, float x, float y) {
+        recorder.check();
+        Rectangle2D bounds = gv.getVisualBounds();
+        bounds.setRect(bounds.getX() + x, bounds.getY() + y, bounds.getWidth(), bounds.getHeight());
+        record(include(scratch.getTransform().createTransformedShape(bounds).getBounds2D()),
+                g -> g.drawGlyphVector(gv, x, y));
+    }
+
+    // ---------------- 图像 ----------------
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, ImageObserver observer) {
+        if (img != null) {
+            paint(imageBounds(img, x, y), false, g -> g.drawImage(img, x, y, observer));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, Color bgcolor, ImageObserver observer) {
+        if (img != null) {
+            paint(imageBounds(img, x, y), false, g -> g.drawImage(img, x, y, bgcolor, observer));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height, ImageObserver observer) {
+        if (img != null) {
+            paint(new Rectangle(x, y, width, height), false, g -> g.drawImage(img, x, y, width, height, observer));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height, Color bgcolor, ImageObserver observer) {
+        if (img != null) {
+            paint(new Rectangle(x, y, width, height), false,
+                    g -> g.drawImage(img, x, y, width, height, bgcolor, observer));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2,
+                             int sx1, int sy1, int sx2, int sy2, ImageObserver observer) {
+        if (img != null) {
+            paint(destination(dx1, dy1, dx2, dy2), false,
+                    g -> g.drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, observer));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2,
+                             int sx1, int sy1, int sx2, int sy2, Color bgcolor, ImageObserver observer) {
+        if (img != null) {
+            paint(destination(dx1, dy1, dx2, dy2), false,
+                    g -> g.drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, bgcolor, observer));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs) {
+        if (img != null) {
+            AffineTransform copy = xform == null ? new AffineTransform() : new AffineTransform(xform);
+            paint(copy.createTransformedShape(imageBounds(img, 0, 0)), false, g -> g.drawImage(img, copy, obs));
+        }
+        return true;
+    }
+
+    @Override
+    public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y) {
+        if (img == null) {
+            return;
+        }
+        Rectangle2D bounds = op == null ? imageBounds(img, 0, 0) : op.getBounds2D(img);
+        bounds.setRect(bounds.getX() + x, bounds.getY() + y, bounds.getWidth(), bounds.getHeight());
+        paint(bounds, false, g -> g.drawImage(img, op, x, y));
+    }
+
+    @Override
+    public void drawRenderedImage(RenderedImage img, AffineTransform xform) {
+        if (img == null) {
+            return;
+        }
+        AffineTransform copy = new AffineTransform(xform);
+        Rectangle bounds = new Rectangle(img.getMinX(), img.getMinY(), img.getWidth(), img.getHeight());
+        paint(copy.createTransformedShape(bounds), false, g -> g.drawRenderedImage(img, copy));
+    }
+
+    @Override
+    public void drawRenderableImage(RenderableImage img, AffineTransform xform) {
+        if (img == null) {
+            return;
+        }
+        AffineTransform copy = new AffineTransform(xform);
+        Rectangle2D bounds = new Rectangle2D.Float(img.getMinX(), img.getMinY(), img.getWidth(), img.getHeight());
+        paint(copy.createTransformedShape(bounds), false, g -> g.drawRenderableImage(img, copy));
+    }
+
+    private static Rectangle destination(int dx1, int dy1, int dx2, int dy2) {
+        return new Rectangle(Math.min(dx1, dx2), Math.min(dy1, dy2), Math.abs(dx2 - dx1), Math.abs(dy2 - dy1));
+    }
+
+    /**
+     * 录制状态，由根上下文与其所有子上下文共享
+     */
+    private static final class Recorder {
+        private final List<DisplayList.Op> ops = new ArrayList<>();
+        private Rectangle2D bounds;
+        private int contexts = 1;
+        private boolean bandable = true;
+        private boolean opaque = true;
+        private boolean finished;
+
+        void check() {
+            if (finished) {
+                throw new IllegalStateException("显示列表录制已结束");
+            }
+        }
+
+        void include(Rectangle2D deviceBounds) {
+            if (bounds == null) {
+                bounds = new Rectangle2D.Double();
+                bounds.setRect(deviceBounds);
+            } else {
+                bounds.add(deviceBounds);
+            }
+        }
+
+        DisplayList finish() {
+            finished = true;
+            Rectangle measured = new Rectangle();
+            if (bounds != null && !bounds.isEmpty()) {
+                measured = bounds.getBounds();
+                // 抗锯齿可能向外溢出1像素
+                measured.grow(1, 1);
+            }
+            return new DisplayList(ops, contexts, measured, bandable, opaque);
+        }
+    }
+}
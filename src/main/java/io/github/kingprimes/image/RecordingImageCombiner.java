@@ -0,0 +1,195 @@
+package io.github.kingprimes.image;
+
+import io.github.kingprimes.image.encoder.PngEncoder;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 录制模式的图像合成器
+ * <p>只固定画布宽度，所有绘制操作（包括通过 {@link #getGraphics()} 直接进行的绘制）都被录制为 {@link DisplayList}，
+ * 同时测量出内容的精确外接矩形；渲染器无需再预先估算画布高度，录制完成后按测量结果分配画布并一次性回放</p>
+ * <pre>{@code
+ * RecordingImageCombiner content = new RecordingImageCombiner(width, OutputFormat.PNG);
+ * // ……绘制正文……
+ * DisplayList list = content.finish();
+ * ImageCombiner combiner = new ImageCombiner(width, list.getBottom() + bottomMargin, OutputFormat.PNG);
+ * // ……按最终尺寸绘制背景、边框……
+ * list.replay(combiner);
+ * }</pre>
+ * <p>注意：录制时画布高度未知，依赖画布高度的方法（垂直居中文字、{@link #drawTooRoundRect()}、立绘等）
+ * 应在分配画布后绘制到最终的合成器上</p>
+ * <p>画布高度已知时可使用 {@link #RecordingImageCombiner(int, int, OutputFormat)}，用法与普通合成器完全相同，
+ * 但绘制被推迟到 {@link #combine()} 时回放，高画布会被分块并行光栅化（见 {@link DisplayList#rasterize(int, int, OutputFormat)}）；
+ * 使用 {@link #combine(OutputStream)} 输出PNG时逐条带回放并直接写出，不分配整张画布</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.1
+ */
+@SuppressWarnings("unused")
+public class RecordingImageCombiner extends ImageCombiner {
+
+    /**
+     * 固定的画布高度，0表示按测量结果分配
+     */
+    private final int height;
+    private DisplayList displayList;
+    private BufferedImage rasterized;
+    private final List<BufferedImage> recycled = new ArrayList<>();
+
+    /**
+     * 创建录制模式的图像合成器
+     *
+     * @param width  画布宽度，必须大于0
+     * @param format 输出格式，不可为null
+     * @throws IllegalArgumentException 当width小于等于0或format为null时抛出
+     */
+    public RecordingImageCombiner(int width, OutputFormat format) {
+        super(placeholder(width), new RecordingGraphics2D(), format);
+        this.height = 0;
+    }
+
+    /**
+     * 创建画布尺寸固定的录制模式图像合成器
+     * <p>依赖画布尺寸的方法均按指定尺寸计算，{@link #combine()} 时分配指定尺寸的画布回放</p>
+     *
+     * @param width  画布宽度，必须大于0
+     * @param height 画布高度，必须大于0
+     * @param format 输出格式，不可为null
+     * @throws IllegalArgumentException 当width或height小于等于0，或format为null时抛出
+     */
+    public RecordingImageCombiner(int width, int height, OutputFormat format) {
+        super(placeholder(width), new RecordingGraphics2D(), format);
+        if (height <= 0) {
+            throw new IllegalArgumentException("高度需>0");
+        }
+        this.height = height;
+    }
+
+    private static BufferedImage placeholder(int width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("宽度需>0");
+        }
+        // 只用于提供画布宽度，不会被绘制
+        return new BufferedImage(width, 1, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * 结束录制并返回显示列表，重复调用返回同一个显示列表
+     *
+     * @return 不可变的显示列表
+     */
+    public DisplayList finish() {
+        if (displayList == null) {
+            displayList = ((RecordingGraphics2D) g2).finish();
+            g2.dispose();
+        }
+        return displayList;
+    }
+
+    /**
+     * 获取画布高度
+     *
+     * @return 固定的画布高度；未指定高度时返回1（占位画布高度），此时不应依赖画布高度绘制
+     */
+    @Override
+    public int getCanvasHeight() {
+        return height > 0 ? height : super.getCanvasHeight();
+    }
+
+    /**
+     * 结束录制，按指定高度或测量出的高度（宽度保持不变）分配画布，回放后编码
+     *
+     * @throws RuntimeException 若编码过程中发生I/O错误
+     */
+    @Override
+    public void combine() {
+        DisplayList list = finish();
+        int canvasHeight = height > 0 ? height : Math.max(1, list.getBottom());
+        ImageCombiner canvas = list.rasterize(getCanvasWidth(), canvasHeight, format);
+        canvas.setEncoder(encoder).combine();
+        rasterized = canvas.getCombinedImage();
+        out = canvas.getCombinedImageOutStream();
+    }
+
+    /**
+     * 结束录制并将编码结果直接写入输出流
+     * <p>使用 {@link PngEncoder} 输出PNG时，按 {@link DisplayList#STREAM_STRIP_HEIGHT} 高的条带逐条回放并写出
+     * （见 {@link DisplayList#writePng(int, int, int, PngEncoder, OutputStream)}），新分配的画布只有一个条带，与画布高度无关，
+     * 此时不会生成整张图像，{@link #getCombinedImage()} 不可用；其他格式或编码器整体回放后编码</p>
+     * <p>录制时绘制的图像不计入条带内存：这些图像直到 {@link #release()} 才归还（见 {@link #recycle(BufferedImage)}），
+     * 图像很多的页面峰值内存仍随图像数增长</p>
+     *
+     * @param out 输出流，写完后不会被关闭
+     * @throws IOException 编码或写入失败时抛出
+     */
+    @Override
+    public void combine(OutputStream out) throws IOException {
+        DisplayList list = finish();
+        int canvasHeight = height > 0 ? height : Math.max(1, list.getBottom());
+        if (getEncoder() instanceof PngEncoder png) {
+            list.writePng(getCanvasWidth(), canvasHeight, DisplayList.STREAM_STRIP_HEIGHT, png, out);
+            return;
+        }
+        ImageCombiner canvas = list.rasterize(getCanvasWidth(), canvasHeight, format);
+        rasterized = canvas.getCombinedImage();
+        canvas.setEncoder(encoder).combine(out);
+    }
+
+    /**
+     * 获取回放后的图像，需先调用 {@link #combine()}
+     *
+     * @return 回放后的图像
+     * @throws IllegalStateException 尚未调用 {@link #combine()} 时抛出
+     */
+    @Override
+    public BufferedImage getCombinedImage() {
+        if (rasterized == null) {
+            throw new IllegalStateException("录制模式下请先调用 combine() 方法生成图片");
+        }
+        return rasterized;
+    }
+
+    /**
+     * 录制图像绘制操作（占位画布不是绘制目标，不能走直接合成）
+     *
+     * @param back 要绘制的图片对象
+     * @param x    图片绘制位置的x坐标
+     * @param y    图片绘制位置的y坐标
+     * @return 返回当前实例，支持链式调用
+     */
+    @Override
+    public ImageCombiner drawImage(BufferedImage back, int x, int y) {
+        g2.drawImage(back, x, y, null);
+        return this;
+    }
+
+    /**
+     * 录制的绘制操作会在回放时才读取图像，图像延迟到 {@link #release()} 时归还
+     * <p>因此录制期间交由本合成器归还的图像会一直占用，直到本合成器释放；卡片很多的页面
+     * （见 {@link CardGrid}）内存随卡片数增长</p>
+     *
+     * @param image 已绘制的图像，可为null
+     */
+    @Override
+    public void recycle(BufferedImage image) {
+        if (image != null) {
+            recycled.add(image);
+        }
+    }
+
+    /**
+     * 结束录制，并将回放使用的画布及录制期间交由本合成器归还的图像归还画布池
+     */
+    @Override
+    public void release() {
+        finish();
+        super.release();
+        CanvasPool.shared().release(rasterized);
+        recycled.forEach(CanvasPool.shared()::release);
+        recycled.clear();
+    }
+}
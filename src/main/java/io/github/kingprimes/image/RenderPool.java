@@ -0,0 +1,96 @@
+package io.github.kingprimes.image;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 绘图共享线程池
+ * <p>编码、分块渲染等可并行的绘图任务统一提交到此线程池，避免各处自行创建线程</p>
+ * <p>并行度可通过系统属性 {@code drawimage.parallelism} 配置，默认等于CPU核心数；并行度为1时所有任务在调用线程中顺序执行</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class RenderPool {
+
+    /**
+     * 并行度
+     */
+    public static final int PARALLELISM = Math.max(1,
+            Integer.getInteger("drawimage.parallelism", Runtime.getRuntime().availableProcessors()));
+
+    private static final ForkJoinPool POOL = createPool();
+
+    private RenderPool() {
+    }
+
+    /**
+     * 获取共享线程池
+     *
+     * @return 共享线程池
+     */
+    public static ForkJoinPool get() {
+        return POOL;
+    }
+
+    /**
+     * 判断是否启用了并行执行
+     *
+     * @return 并行度大于1时返回true
+     */
+    public static boolean isParallel() {
+        return PARALLELISM > 1;
+    }
+
+    /**
+     * 并行执行一组任务，并按提交顺序返回结果
+     * <p>任务数不超过1或未启用并行时直接在调用线程中顺序执行</p>
+     *
+     * @param tasks 任务列表
+     * @param <T>   结果类型
+     * @return 与任务顺序一致的结果列表
+     * @throws RuntimeException 任意任务执行失败时抛出，原始异常作为cause
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (tasks.size() <= 1 || !isParallel()) {
+            for (Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+        List<ForkJoinTask<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(POOL.submit(task));
+        }
+        for (ForkJoinTask<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("绘图任务执行失败: %s".formatted(e.getMessage()), e);
+        }
+    }
+
+    private static ForkJoinPool createPool() {
+        AtomicInteger index = new AtomicInteger();
+        return new ForkJoinPool(PARALLELISM, pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("draw-image-render-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+}
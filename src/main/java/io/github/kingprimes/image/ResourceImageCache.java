@@ -0,0 +1,268 @@
+package io.github.kingprimes.image;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * classpath 图片资源解码缓存
+ * <p>同一份资源图片（立绘、紫卡模板等）在每个JVM中只解码一次，之后直接复用解码结果</p>
+ * <ul>
+ *     <li>有界：同时限制缓存条目数与解码后像素占用的字节数，超出后按LRU顺序淘汰</li>
+ *     <li>线程安全：并发请求同一资源时只会触发一次解码，其余线程等待同一结果</li>
+ *     <li>共享实例只读：{@link #get(String)} 返回的图片为全局共享，调用方不可修改；需要在图片上绘制时请使用 {@link #getCopy(String)}</li>
+ * </ul>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class ResourceImageCache {
+
+    /**
+     * 默认最大缓存条目数
+     */
+    public static final int DEFAULT_MAX_ENTRIES = Integer.getInteger("drawimage.cache.maxEntries", 32);
+    /**
+     * 默认最大缓存字节数（解码后像素数据）
+     */
+    public static final long DEFAULT_MAX_BYTES = Long.getLong("drawimage.cache.maxBytes", 64L * 1024 * 1024);
+
+    private static final ResourceImageCache SHARED = new ResourceImageCache(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+
+    private final int maxEntries;
+    private final long maxBytes;
+    // 访问顺序的LinkedHashMap，实现LRU淘汰，由this加锁保护
+    private final LinkedHashMap<String, BufferedImage> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // 正在解码中的资源，保证同一资源并发请求时只解码一次
+    private final Map<String, CompletableFuture<BufferedImage>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long retainedBytes;
+
+    /**
+     * 创建一个资源图片缓存
+     *
+     * @param maxEntries 最大缓存条目数，必须大于0
+     * @param maxBytes   最大缓存字节数，必须大于0
+     * @throws IllegalArgumentException 当参数不合法时抛出
+     */
+    public ResourceImageCache(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("缓存条目数与字节数上限需>0");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 获取全局共享的资源图片缓存
+     *
+     * @return 全局缓存实例
+     */
+    public static ResourceImageCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * 获取解码后的共享图片实例（只读）
+     * <p>返回的图片会被其他调用方复用，不可在其上绘制或修改像素</p>
+     *
+     * @param path classpath下的图片路径
+     * @return 共享的图片实例
+     * @throws RuntimeException 当图片加载失败或文件未找到时抛出运行时异常
+     */
+    public BufferedImage get(String path) {
+        synchronized (this) {
+            BufferedImage image = entries.get(path);
+            if (image != null) {
+                hits.incrementAndGet();
+                return image;
+            }
+        }
+        CompletableFuture<BufferedImage> future = new CompletableFuture<>();
+        CompletableFuture<BufferedImage> existing = loading.putIfAbsent(path, future);
+        if (existing != null) {
+            // 其他线程正在解码同一资源，直接等待其结果
+            hits.incrementAndGet();
+            return existing.join();
+        }
+        misses.incrementAndGet();
+        try {
+            BufferedImage image = decode(path);
+            put(path, image);
+            future.complete(image);
+            return image;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(path);
+        }
+    }
+
+    /**
+     * 获取解码后图片的独立副本（写时复制）
+     * <p>副本与缓存中的图片像素格式一致，调用方可以自由在其上绘制</p>
+     *
+     * @param path classpath下的图片路径
+     * @return 图片副本
+     */
+    public BufferedImage getCopy(String path) {
+        return copyOf(get(path));
+    }
+
+    /**
+     * 预热缓存，提前解码指定的资源图片
+     *
+     * @param paths classpath下的图片路径
+     */
+    public void warmUp(String... paths) {
+        warmUp(List.of(paths));
+    }
+
+    /**
+     * 预热缓存，提前解码指定的资源图片
+     *
+     * @param paths classpath下的图片路径集合
+     */
+    public void warmUp(Collection<String> paths) {
+        for (String path : paths) {
+            get(path);
+        }
+    }
+
+    /**
+     * 判断资源是否已在缓存中
+     *
+     * @param path classpath下的图片路径
+     * @return 已缓存返回true
+     */
+    public synchronized boolean contains(String path) {
+        return entries.containsKey(path);
+    }
+
+    /**
+     * 清空缓存（命中统计不清零）
+     */
+    public synchronized void clear() {
+        entries.clear();
+        retainedBytes = 0;
+    }
+
+    /**
+     * 获取缓存命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * 获取缓存未命中（实际解码）次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * 获取因超出上限而被淘汰的条目数
+     *
+     * @return 淘汰次数
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * 获取当前缓存条目数
+     *
+     * @return 条目数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取当前缓存占用的字节数（按解码后像素数据估算）
+     *
+     * @return 占用字节数
+     */
+    public synchronized long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 复制图片，保持原有的颜色模型与像素格式
+     *
+     * @param image 原图片
+     * @return 与原图片互不影响的副本
+     */
+    public static BufferedImage copyOf(BufferedImage image) {
+        ColorModel cm = image.getColorModel();
+        WritableRaster raster = image.copyData(image.getRaster().createCompatibleWritableRaster());
+        return new BufferedImage(cm, raster, cm.isAlphaPremultiplied(), null);
+    }
+
+    private synchronized void put(String path, BufferedImage image) {
+        long size = estimateBytes(image);
+        BufferedImage previous = entries.put(path, image);
+        if (previous != null) {
+            retainedBytes -= estimateBytes(previous);
+        }
+        retainedBytes += size;
+        // 按LRU顺序淘汰，但始终保留刚放入的条目
+        Iterator<Map.Entry<String, BufferedImage>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || retainedBytes > maxBytes) && it.hasNext()) {
+            Map.Entry<String, BufferedImage> eldest = it.next();
+            if (eldest.getKey().equals(path)) {
+                continue;
+            }
+            retainedBytes -= estimateBytes(eldest.getValue());
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static long estimateBytes(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * Math.max(1, image.getColorModel().getPixelSize() / 8);
+    }
+
+    private static BufferedImage decode(String path) {
+        try (InputStream inputStream = ResourceImageCache.class.getResourceAsStream(path)) {
+            if (inputStream == null) {
+                throw new IOException("图片文件未找到: %s".formatted(path));
+            }
+            BufferedImage image = ImageIO.read(inputStream);
+            if (image == null) {
+                throw new IOException("不支持的图片格式: %s".formatted(path));
+            }
+            return image;
+        } catch (IOException e) {
+            throw new RuntimeException("无法加载图片: %s".formatted(e.getMessage()), e);
+        }
+    }
+}
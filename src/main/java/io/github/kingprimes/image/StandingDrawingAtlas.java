@@ -0,0 +1,208 @@
+package io.github.kingprimes.image;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 看板娘立绘精灵图集
+ * <p>预先将每张立绘按比例缩放到各个目标尺寸（如两寸 413*625、一寸 240*360），并转换为画布使用的 TYPE_INT_ARGB 像素格式，
+ * 绘制时只需直接拷贝像素，不再需要每次进行双三次缩放</p>
+ * <p>立绘列表与目标尺寸均可配置，可通过 {@link #setDefault(StandingDrawingAtlas)} 替换 {@link ImageCombiner} 使用的默认图集</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class StandingDrawingAtlas {
+
+    /**
+     * 两寸立绘尺寸
+     */
+    public static final Dimension TWO_INCH = new Dimension(413, 625);
+    /**
+     * 一寸立绘尺寸
+     */
+    public static final Dimension ONE_INCH = new Dimension(240, 360);
+
+    private static volatile StandingDrawingAtlas defaultAtlas;
+
+    private final List<String> portraits;
+    private final List<Dimension> sizes;
+    private final Map<SpriteKey, BufferedImage> sprites = new ConcurrentHashMap<>();
+
+    /**
+     * 创建立绘图集（按需懒加载，可调用 {@link #build()} 立即生成全部精灵）
+     *
+     * @param portraits 立绘图片在classpath下的路径列表，不可为空
+     * @param sizes     目标尺寸列表，不可为空
+     * @throws IllegalArgumentException 当立绘列表或尺寸列表为空时抛出
+     */
+    public StandingDrawingAtlas(List<String> portraits, List<Dimension> sizes) {
+        if (portraits == null || portraits.isEmpty() || sizes == null || sizes.isEmpty()) {
+            throw new IllegalArgumentException("立绘列表与尺寸列表不可为空");
+        }
+        this.portraits = List.copyOf(portraits);
+        List<Dimension> copied = new ArrayList<>(sizes.size());
+        for (Dimension size : sizes) {
+            if (size.width <= 0 || size.height <= 0) {
+                throw new IllegalArgumentException("立绘尺寸需>0: %s".formatted(size));
+            }
+            copied.add(new Dimension(size));
+        }
+        this.sizes = List.copyOf(copied);
+    }
+
+    /**
+     * 获取默认图集（内置的全部看板娘立绘，两寸与一寸两种尺寸）
+     *
+     * @return 默认图集
+     */
+    public static StandingDrawingAtlas getDefault() {
+        StandingDrawingAtlas atlas = defaultAtlas;
+        if (atlas == null) {
+            synchronized (StandingDrawingAtlas.class) {
+                atlas = defaultAtlas;
+                if (atlas == null) {
+                    atlas = defaultAtlas = createBuiltin();
+                }
+            }
+        }
+        return atlas;
+    }
+
+    /**
+     * 替换默认图集
+     *
+     * @param atlas 新的默认图集，为null时恢复内置图集
+     */
+    public static void setDefault(StandingDrawingAtlas atlas) {
+        defaultAtlas = atlas;
+    }
+
+    /**
+     * 创建包含全部内置立绘的图集
+     *
+     * @return 内置图集
+     */
+    public static StandingDrawingAtlas createBuiltin() {
+        List<String> portraits = new ArrayList<>(ImageIOUtils.XIAO_MEI_WANG_COUNT);
+        for (int i = 1; i <= ImageIOUtils.XIAO_MEI_WANG_COUNT; i++) {
+            portraits.add(ImageIOUtils.XIAO_MEI_WANG_PATH.formatted(i));
+        }
+        return new StandingDrawingAtlas(portraits, List.of(TWO_INCH, ONE_INCH));
+    }
+
+    /**
+     * 立即生成所有立绘在所有尺寸下的精灵图
+     *
+     * @return 当前图集，支持链式调用
+     */
+    public StandingDrawingAtlas build() {
+        for (int i = 0; i < portraits.size(); i++) {
+            for (Dimension size : sizes) {
+                getSprite(i, size.width, size.height);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 获取指定立绘在指定目标尺寸下的精灵图
+     * <p>精灵图已按原图比例缩放至目标尺寸内，尺寸可能小于目标框，绘制时需自行居中</p>
+     *
+     * @param index  立绘索引（从0开始）
+     * @param width  目标宽度
+     * @param height 目标高度
+     * @return 精灵图（共享只读实例）；若该尺寸未配置则返回null
+     * @throws IndexOutOfBoundsException 当索引越界时抛出
+     */
+    public BufferedImage getSprite(int index, int width, int height) {
+        if (!hasSize(width, height)) {
+            return null;
+        }
+        String path = portraits.get(index);
+        return sprites.computeIfAbsent(new SpriteKey(index, width, height),
+                key -> scaleToFit(ImageIOUtils.getSharedResourcesImage(path), width, height));
+    }
+
+    /**
+     * 随机获取一张立绘在指定目标尺寸下的精灵图
+     *
+     * @param width  目标宽度
+     * @param height 目标高度
+     * @return 精灵图（共享只读实例）；若该尺寸未配置则返回null
+     */
+    public BufferedImage getRandomSprite(int width, int height) {
+        return getSprite(ImageIOUtils.getRandom().nextInt(portraits.size()), width, height);
+    }
+
+    /**
+     * 判断图集是否配置了指定尺寸
+     *
+     * @param width  目标宽度
+     * @param height 目标高度
+     * @return 已配置返回true
+     */
+    public boolean hasSize(int width, int height) {
+        for (Dimension size : sizes) {
+            if (size.width == width && size.height == height) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getPortraitCount() {
+        return portraits.size();
+    }
+
+    public List<String> getPortraits() {
+        return portraits;
+    }
+
+    public List<Dimension> getSizes() {
+        return sizes.stream().map(Dimension::new).toList();
+    }
+
+    /**
+     * 按比例缩放图片至目标框内
+     * <p>先以双线性插值逐次减半，再以双三次插值缩放到最终尺寸，大比例缩小时比一次性缩放更清晰</p>
+     *
+     * @param image     原图
+     * @param maxWidth  目标框宽度
+     * @param maxHeight 目标框高度
+     * @return 缩放后的TYPE_INT_ARGB图片
+     */
+    private static BufferedImage scaleToFit(BufferedImage image, int maxWidth, int maxHeight) {
+        double scale = Math.min((double) maxWidth / image.getWidth(), (double) maxHeight / image.getHeight());
+        int targetWidth = Math.max(1, (int) (image.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) (image.getHeight() * scale));
+
+        BufferedImage current = image;
+        int w = image.getWidth();
+        int h = image.getHeight();
+        while (w / 2 >= targetWidth && h / 2 >= targetHeight) {
+            w /= 2;
+            h /= 2;
+            current = drawScaled(current, w, h, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+        return drawScaled(current, targetWidth, targetHeight, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+    }
+
+    private static BufferedImage drawScaled(BufferedImage image, int width, int height, Object interpolation) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = scaled.createGraphics();
+        GraphicsUtils.setQualityRenderingHints(g2);
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        g2.drawImage(image, 0, 0, width, height, null);
+        g2.dispose();
+        return scaled;
+    }
+
+    private record SpriteKey(int index, int width, int height) {
+    }
+}
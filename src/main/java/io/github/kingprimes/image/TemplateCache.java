@@ -0,0 +1,187 @@
+package io.github.kingprimes.image;
+
+import java.awt.image.BufferedImage;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 静态模板缓存
+ * <p>循环、仲裁等图像在一个轮换周期内只有"剩余时间"等倒计时文字随时间变化。绘图方法把图像拆成两部分：</p>
+ * <ul>
+ *     <li>静态部分：只依赖本轮换数据的内容，按模板键缓存渲染结果，直到轮换结束</li>
+ *     <li>动态部分：每次请求在模板的副本上重新绘制的倒计时区域</li>
+ * </ul>
+ * <p>命中时一次请求只需复制一次栅格、绘制几行文字并编码，不再重新绘制背景、图标与立绘。
+ * 模板键需包含静态部分用到的全部数据；静态部分中的随机内容（如立绘）在同一模板的有效期内保持不变</p>
+ * <p>有界：超出最大条目数后按LRU顺序淘汰；最大条目数为0时不缓存，每次都完整绘制。
+ * 线程安全：并发请求同一尚未缓存的模板时可能各自绘制一次，结果相同</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class TemplateCache {
+
+    /**
+     * 默认最大模板数
+     */
+    public static final int DEFAULT_MAX_ENTRIES = Integer.getInteger("drawimage.templateCache.maxEntries", 16);
+
+    private static final TemplateCache SHARED = new TemplateCache(DEFAULT_MAX_ENTRIES);
+
+    private final int maxEntries;
+    private final Clock clock;
+    // 访问顺序的LinkedHashMap，实现LRU淘汰，由this加锁保护
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 创建模板缓存
+     *
+     * @param maxEntries 最大模板数，为0时不缓存
+     * @throws IllegalArgumentException 当maxEntries小于0时抛出
+     */
+    public TemplateCache(int maxEntries) {
+        this(maxEntries, Clock.systemUTC());
+    }
+
+    /**
+     * 创建模板缓存
+     *
+     * @param maxEntries 最大模板数，为0时不缓存
+     * @param clock      判断模板过期使用的时钟，不可为null
+     * @throws IllegalArgumentException 当maxEntries小于0或clock为null时抛出
+     */
+    public TemplateCache(int maxEntries, Clock clock) {
+        if (maxEntries < 0 || clock == null) {
+            throw new IllegalArgumentException("最大模板数需>=0，时钟不可为null");
+        }
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * 获取全局共享的模板缓存，最大模板数由系统属性 {@code drawimage.templateCache.maxEntries} 指定
+     *
+     * @return 共享的模板缓存
+     */
+    public static TemplateCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * 打开一张已绘制好静态部分的画布
+     * <p>模板已缓存且未过期时，从 {@link CanvasPool#shared()} 租用画布并复制模板；
+     * 否则新建画布交给staticPainter绘制，再把结果保存为模板。调用方随后在返回的合成器上绘制动态部分</p>
+     *
+     * @param key           模板键，需包含静态部分用到的全部数据，不可为null
+     * @param expiresAt     模板失效时间（通常为本轮换的结束时间），为null时只按LRU淘汰
+     * @param width         画布宽度，必须大于0
+     * @param height        画布高度，必须大于0
+     * @param format        输出格式，不可为null
+     * @param staticPainter 绘制静态部分，不可为null
+     * @return 已绘制静态部分的图像合成器，使用完毕后需调用 {@link ImageCombiner#release()}
+     * @throws IllegalArgumentException 当参数不合法时抛出
+     */
+    public ImageCombiner open(Object key, Instant expiresAt, int width, int height,
+                              ImageCombiner.OutputFormat format, Consumer<ImageCombiner> staticPainter) {
+        if (key == null || staticPainter == null) {
+            throw new IllegalArgumentException("模板键与静态部分绘制方法不可为null");
+        }
+        Instant now = clock.instant();
+        BufferedImage template = get(key, now, width, height);
+        if (template != null) {
+            hits.incrementAndGet();
+            BufferedImage canvas = CanvasPool.shared().lease(width, height);
+            copy(template, canvas);
+            return new ImageCombiner(canvas, format);
+        }
+        misses.incrementAndGet();
+        ImageCombiner combiner = ImageCombiner.leased(width, height, format);
+        try {
+            staticPainter.accept(combiner);
+        } catch (RuntimeException | Error e) {
+            combiner.release();
+            throw e;
+        }
+        if (maxEntries > 0 && (expiresAt == null || expiresAt.isAfter(now))) {
+            BufferedImage snapshot = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            copy(combiner.getCombinedImage(), snapshot);
+            put(key, new Entry(snapshot, expiresAt));
+        }
+        return combiner;
+    }
+
+    /**
+     * 清空所有模板
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * 获取当前缓存的模板数
+     *
+     * @return 模板数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取模板命中次数
+     *
+     * @return 命中次数
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     * 获取模板未命中（完整绘制）次数
+     *
+     * @return 未命中次数
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    private synchronized BufferedImage get(Object key, Instant now, int width, int height) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        BufferedImage image = entry.image();
+        if (entry.expiresAt() != null && !now.isBefore(entry.expiresAt())
+                || image.getWidth() != width || image.getHeight() != height) {
+            entries.remove(key);
+            return null;
+        }
+        return image;
+    }
+
+    private synchronized void put(Object key, Entry entry) {
+        entries.put(key, entry);
+        Iterator<Map.Entry<Object, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 按行复制整张画布的像素
+     */
+    private static void copy(BufferedImage from, BufferedImage to) {
+        to.getRaster().setDataElements(0, 0, from.getRaster());
+    }
+
+    private record Entry(BufferedImage image, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,240 @@
+package io.github.kingprimes.image;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 文本排版引擎
+ * <p>按最大宽度自动换行，为 {@link TextUtils#wrapText(FontMetrics, String, int)} 提供实现：</p>
+ * <ul>
+ *     <li>字形步进缓存：每种字体（字体+渲染上下文）的字符步进只测量一次，按256个字符一页延迟分配，覆盖中日韩等全部BMP字符</li>
+ *     <li>线性换行：按字素簇（{@link BreakIterator#getCharacterInstance()}）单次遍历，累加步进判断是否换行，
+ *     不会拆开代理对、组合字符与表情序列；{@code \n}、{@code \r\n} 为强制换行</li>
+ *     <li>排版结果缓存：以（字体、渲染上下文、文本、最大宽度）为键缓存换行结果，先计算高度再绘制同一段文本时只排版一次，超出上限后按LRU顺序淘汰</li>
+ * </ul>
+ * <p>宽度按与 {@link FontMetrics#stringWidth(String)} 相同的顺序以float累加并四舍五入，
+ * 因此对简单文本（中文、拉丁字母等）的换行结果与逐次调用 {@code stringWidth} 测量完全一致；
+ * 需要整体排版的复杂文字（阿拉伯文、带字距调整属性的字体等）按各字素簇的步进之和近似</p>
+ * <p>线程安全，可在多个渲染线程中共享</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class TextLayoutEngine {
+
+    /**
+     * 默认最大缓存的排版结果数
+     */
+    public static final int DEFAULT_MAX_LAYOUTS = Integer.getInteger("drawimage.text.maxLayouts", 512);
+
+    private static final TextLayoutEngine SHARED = new TextLayoutEngine(DEFAULT_MAX_LAYOUTS);
+
+    private final int maxLayouts;
+    // 字体数量有限（按字号派生），不做淘汰
+    private final Map<FontKey, Advances> advances = new ConcurrentHashMap<>();
+    // 访问顺序的LinkedHashMap，实现LRU淘汰，由this加锁保护
+    private final LinkedHashMap<LayoutKey, String[]> layouts = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 创建一个文本排版引擎
+     *
+     * @param maxLayouts 最大缓存的排版结果数，必须大于0
+     * @throws IllegalArgumentException 当maxLayouts小于等于0时抛出
+     */
+    public TextLayoutEngine(int maxLayouts) {
+        if (maxLayouts <= 0) {
+            throw new IllegalArgumentException("排版结果缓存上限需>0");
+        }
+        this.maxLayouts = maxLayouts;
+    }
+
+    /**
+     * 获取全局共享的文本排版引擎
+     *
+     * @return 全局排版引擎实例
+     */
+    public static TextLayoutEngine shared() {
+        return SHARED;
+    }
+
+    /**
+     * 根据指定的最大宽度对文本进行自动换行
+     * <p>每行末尾预留一个空格的宽度；单个字素簇超过最大宽度时单独成行；除单独成行的字素簇外，每行首尾空白会被去除</p>
+     *
+     * @param metrics  字体度量信息，提供字体与渲染上下文，不可为null
+     * @param text     需要换行处理的文本内容，不可为null
+     * @param maxWidth 每行文本的最大宽度，必须大于0
+     * @return 换行后的文本行数组（调用方可自由修改）
+     */
+    public String[] wrap(FontMetrics metrics, String text, int maxWidth) {
+        Font font = metrics.getFont();
+        FontRenderContext frc = metrics.getFontRenderContext();
+        LayoutKey key = new LayoutKey(font, frc, text, maxWidth);
+        synchronized (this) {
+            String[] lines = layouts.get(key);
+            if (lines != null) {
+                hits.incrementAndGet();
+                return lines.clone();
+            }
+        }
+        misses.incrementAndGet();
+        String[] lines = layout(advances.computeIfAbsent(new FontKey(font, frc), Advances::new), text, maxWidth);
+        synchronized (this) {
+            layouts.put(key, lines);
+            if (layouts.size() > maxLayouts) {
+                var eldest = layouts.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return lines.clone();
+    }
+
+    /**
+     * 使用缓存的字形步进测量单行文本宽度
+     *
+     * @param metrics 字体度量信息，提供字体与渲染上下文，不可为null
+     * @param text    单行文本，不可为null
+     * @return 文本宽度（像素，四舍五入）
+     */
+    public int stringWidth(FontMetrics metrics, String text) {
+        Advances table = advances.computeIfAbsent(new FontKey(metrics.getFont(), metrics.getFontRenderContext()), Advances::new);
+        BreakIterator clusters = BreakIterator.getCharacterInstance();
+        clusters.setText(text);
+        float width = 0;
+        for (int start = clusters.first(), end = clusters.next(); end != BreakIterator.DONE; start = end, end = clusters.next()) {
+            width += table.advance(text, start, end);
+        }
+        return (int) (0.5 + width);
+    }
+
+    private static String[] layout(Advances table, String text, int maxWidth) {
+        List<String> lines = new ArrayList<>();
+        float space = table.advance(' ');
+        BreakIterator clusters = BreakIterator.getCharacterInstance();
+        clusters.setText(text);
+        // 当前行在text中的起始位置，以及[lineStart, start)的累计步进
+        int lineStart = 0;
+        float width = 0;
+        for (int start = clusters.first(), end = clusters.next(); end != BreakIterator.DONE; start = end, end = clusters.next()) {
+            char first = text.charAt(start);
+            if (first == '\n' || first == '\r') {
+                lines.add(text.substring(lineStart, start).trim());
+                lineStart = end;
+                width = 0;
+                continue;
+            }
+            float advance = table.advance(text, start, end);
+            float candidate = width + advance;
+            candidate += space;
+            if ((int) (0.5 + candidate) <= maxWidth) {
+                width += advance;
+            } else if (lineStart == start) {
+                // 单个字素簇超过最大宽度，直接单独成行
+                lines.add(text.substring(start, end));
+                lineStart = end;
+            } else {
+                lines.add(text.substring(lineStart, start).trim());
+                lineStart = start;
+                width = advance;
+            }
+        }
+        if (lineStart < text.length()) {
+            lines.add(text.substring(lineStart).trim());
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    /**
+     * 清空排版结果缓存（字形步进缓存与命中统计保留）
+     */
+    public synchronized void clear() {
+        layouts.clear();
+    }
+
+    /**
+     * 获取排版结果缓存命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * 获取排版结果缓存未命中（实际排版）次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * 获取当前缓存的排版结果数
+     *
+     * @return 排版结果数
+     */
+    public synchronized int size() {
+        return layouts.size();
+    }
+
+    private record FontKey(Font font, FontRenderContext frc) {
+    }
+
+    private record LayoutKey(Font font, FontRenderContext frc, String text, int maxWidth) {
+    }
+
+    /**
+     * 单种字体的字形步进表
+     * <p>BMP字符按页延迟分配，未测量的位置为NaN；多个线程同时测量同一字符时结果相同，无需加锁</p>
+     */
+    private static final class Advances {
+        private final Font font;
+        private final FontRenderContext frc;
+        private final AtomicReferenceArray<float[]> pages = new AtomicReferenceArray<>(256);
+        // 由多个char组成的字素簇（代理对、组合字符等）
+        private final Map<String, Float> clusters = new ConcurrentHashMap<>();
+
+        Advances(FontKey key) {
+            this.font = key.font();
+            this.frc = key.frc();
+        }
+
+        float advance(String text, int start, int end) {
+            if (end - start == 1) {
+                return advance(text.charAt(start));
+            }
+            return clusters.computeIfAbsent(text.substring(start, end),
+                    cluster -> (float) font.getStringBounds(cluster, frc).getWidth());
+        }
+
+        float advance(char ch) {
+            int index = ch >>> 8;
+            float[] page = pages.get(index);
+            if (page == null) {
+                float[] created = new float[256];
+                Arrays.fill(created, Float.NaN);
+                page = pages.compareAndSet(index, null, created) ? created : pages.get(index);
+            }
+            float advance = page[ch & 0xFF];
+            if (Float.isNaN(advance)) {
+                advance = (float) font.getStringBounds(new char[]{ch}, 0, 1, frc).getWidth();
+                page[ch & 0xFF] = advance;
+            }
+            return advance;
+        }
+    }
+}
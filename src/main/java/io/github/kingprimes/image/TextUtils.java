@@ -1,15 +1,13 @@
 package io.github.kingprimes.image;
 
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * 文字处理工具类
  * <p>提供静态工具方法，用于处理文本相关的功能，如自动换行、居中计算、高度计算等</p>
  *
  * @author KingPrimes
- * @version 1.0.0
+ * @version 1.0.1
  */
 @SuppressWarnings("unused")
 public final class TextUtils {
@@ -102,42 +100,19 @@ public final class TextUtils {
 
     /**
      * 根据指定的最大宽度对文本进行自动换行处理
+     * <p>由 {@link TextLayoutEngine#shared()} 完成：缓存字形步进、按字素簇线性换行，并缓存排版结果，
+     * 同一段文本先计算高度再绘制时不会重复排版</p>
      *
      * @param metrics  字体度量信息，用于计算文本宽度
-     * @param text     需要换行处理的文本内容
+     * @param text     需要换行处理的文本内容，{@code \n} 为强制换行
      * @param maxWidth 每行文本的最大宽度限制
      * @return 按照宽度限制换行后的文本行数组
      */
     public static String[] wrapText(FontMetrics metrics, String text, int maxWidth) {
-        List<String> lines = new ArrayList<>();
         if (metrics == null || text == null || maxWidth <= 0) {
-            lines.add(text == null ? "" : text);
-            return lines.toArray(new String[0]);
+            return new String[]{text == null ? "" : text};
         }
-
-        StringBuilder currentLine = new StringBuilder();
-        String[] words = text.split("");
-
-        for (String word : words) {
-            // 测试当前行加单词是否超过最大宽度
-            String testLine = currentLine + word + " ";
-            if (metrics.stringWidth(testLine) <= maxWidth) {
-                currentLine.append(word).append("");
-            } else {
-                // 单个单词超过最大宽度，直接单独成行
-                if (currentLine.isEmpty()) {
-                    lines.add(word);
-                } else {
-                    lines.add(currentLine.toString().trim());
-                    currentLine = new StringBuilder(word);
-                }
-            }
-        }
-        // 添加最后一行
-        if (!currentLine.isEmpty()) {
-            lines.add(currentLine.toString().trim());
-        }
-        return lines.toArray(new String[0]);
+        return TextLayoutEngine.shared().wrap(metrics, text, maxWidth);
     }
 
     /**
@@ -197,7 +172,7 @@ public final class TextUtils {
                                               int cornerRadius, int padding) {
         if (g2 == null || text == null) return;
 
-        FontMetrics metrics = g2.getFontMetrics(font != null ? font : g2.getFont());
+        FontMetrics metrics = FontRegistry.metrics(g2, font != null ? font : g2.getFont());
         int textWidth = metrics.stringWidth(text);
         int textHeight = metrics.getHeight();
 
@@ -251,7 +226,7 @@ public final class TextUtils {
                                                        int cornerRadius, int padding) {
         if (g2 == null || text == null) return;
 
-        FontMetrics metrics = g2.getFontMetrics(font != null ? font : g2.getFont());
+        FontMetrics metrics = FontRegistry.metrics(g2, font != null ? font : g2.getFont());
         String[] lines = text.split("\n");
         if (lines.length == 0) return;
 
@@ -318,7 +293,7 @@ public final class TextUtils {
                                                                Color borderColor, int cornerRadius, int padding) {
         if (g2 == null || text == null || startColor == null || endColor == null) return;
 
-        FontMetrics metrics = g2.getFontMetrics(font != null ? font : g2.getFont());
+        FontMetrics metrics = FontRegistry.metrics(g2, font != null ? font : g2.getFont());
         String[] lines = text.split("\n");
         if (lines.length == 0) return;
 
@@ -426,7 +401,7 @@ public final class TextUtils {
                                         Color shadowColor, int shadowOffsetX, int shadowOffsetY) {
         if (g2 == null || text == null) return;
 
-        FontMetrics metrics = g2.getFontMetrics(font != null ? font : g2.getFont());
+        FontMetrics metrics = FontRegistry.metrics(g2, font != null ? font : g2.getFont());
         // 1. 自动换行
         String[] lines = wrapText(metrics, text, maxWidth);
         if (lines.length == 0) return;
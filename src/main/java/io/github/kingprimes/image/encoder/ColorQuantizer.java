@@ -0,0 +1,484 @@
+package io.github.kingprimes.image.encoder;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 中位切分（median-cut）颜色量化器
+ * <p>将ARGB图片量化为不超过256色的调色板图片，供索引色PNG输出使用：</p>
+ * <ul>
+ *     <li>颜色数本就不超过上限时直接使用原色，无任何损失</li>
+ *     <li>否则先按 RGB各5位、Alpha 4位 统计颜色直方图，再按像素数加权进行中位切分生成调色板</li>
+ *     <li>可选Floyd–Steinberg误差扩散抖动，适合渐变较多的图片；以纯色为主的图片建议关闭</li>
+ * </ul>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class ColorQuantizer {
+
+    /**
+     * 默认量化器：256色、不抖动
+     */
+    public static final ColorQuantizer DEFAULT = new ColorQuantizer(256, false);
+
+    private final int maxColors;
+    private final boolean dither;
+
+    /**
+     * 创建颜色量化器
+     *
+     * @param maxColors 调色板最大颜色数 2-256
+     * @param dither    是否使用Floyd–Steinberg抖动
+     * @throws IllegalArgumentException 当颜色数不合法时抛出
+     */
+    public ColorQuantizer(int maxColors, boolean dither) {
+        if (maxColors < 2 || maxColors > 256) {
+            throw new IllegalArgumentException("调色板颜色数需在2-256之间");
+        }
+        this.maxColors = maxColors;
+        this.dither = dither;
+    }
+
+    /**
+     * 量化图片
+     *
+     * @param image 待量化的图片，不会被修改
+     * @return 调色板图片
+     */
+    public IndexedImage quantize(BufferedImage image) {
+        IntPixels pixels = IntPixels.of(image);
+        if (pixels == null) {
+            BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+            copy.createGraphics().drawImage(image, 0, 0, null);
+            pixels = IntPixels.of(copy);
+        }
+        int[] exact = exactPalette(pixels);
+        if (exact != null) {
+            return mapExact(pixels, exact);
+        }
+        int[] palette = medianCut(pixels);
+        return dither ? mapDithered(pixels, palette) : mapNearest(pixels, palette);
+    }
+
+    public int getMaxColors() {
+        return maxColors;
+    }
+
+    public boolean isDither() {
+        return dither;
+    }
+
+    /**
+     * 读取像素并统一处理：无alpha图片补全不透明，完全透明的像素统一为0
+     */
+    private static int pixel(IntPixels pixels, int offset) {
+        int p = pixels.data()[offset];
+        if (!pixels.alpha()) {
+            return p | 0xFF000000;
+        }
+        return (p >>> 24) == 0 ? 0 : p;
+    }
+
+    /**
+     * 统计原始颜色，颜色数不超过上限时返回调色板，否则返回null
+     */
+    private int[] exactPalette(IntPixels pixels) {
+        ColorTable table = new ColorTable(512);
+        int last = 0;
+        boolean first = true;
+        for (int y = 0; y < pixels.height(); y++) {
+            int offset = pixels.base() + y * pixels.stride();
+            for (int x = 0; x < pixels.width(); x++) {
+                int p = pixel(pixels, offset + x);
+                if (first || p != last) {
+                    table.slot(p);
+                    if (table.size() > maxColors) {
+                        return null;
+                    }
+                    last = p;
+                    first = false;
+                }
+            }
+        }
+        return orderForTransparency(table.keys());
+    }
+
+    private IndexedImage mapExact(IntPixels pixels, int[] palette) {
+        ColorTable index = new ColorTable(palette.length * 2);
+        for (int i = 0; i < palette.length; i++) {
+            index.values[index.slot(palette[i])] = i;
+        }
+        int width = pixels.width();
+        byte[] indices = new byte[width * pixels.height()];
+        for (int y = 0; y < pixels.height(); y++) {
+            int offset = pixels.base() + y * pixels.stride();
+            for (int x = 0; x < width; x++) {
+                indices[y * width + x] = (byte) index.values[index.slot(pixel(pixels, offset + x))];
+            }
+        }
+        return new IndexedImage(width, pixels.height(), palette, indices);
+    }
+
+    /**
+     * 中位切分生成调色板
+     */
+    private int[] medianCut(IntPixels pixels) {
+        ColorTable histogram = new ColorTable(4096);
+        for (int y = 0; y < pixels.height(); y++) {
+            int offset = pixels.base() + y * pixels.stride();
+            for (int x = 0; x < pixels.width(); x++) {
+                int p = pixel(pixels, offset + x);
+                histogram.accumulate(reduce(p), p);
+            }
+        }
+        int n = histogram.size();
+        int[][] channels = new int[4][n];
+        long[] weights = new long[n];
+        histogram.averages(channels, weights);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        List<Box> boxes = new ArrayList<>();
+        boxes.add(new Box(0, n, channels, weights, order));
+        long[] sortKeys = new long[n];
+        while (boxes.size() < maxColors) {
+            Box target = null;
+            for (Box box : boxes) {
+                if (box.range > 0 && (target == null || box.score() > target.score())) {
+                    target = box;
+                }
+            }
+            if (target == null) {
+                break;
+            }
+            // 按最长的颜色通道排序，并在加权中位处切分
+            int[] values = channels[target.channel];
+            for (int i = target.lo; i < target.hi; i++) {
+                sortKeys[i] = ((long) values[order[i]] << 32) | order[i];
+            }
+            Arrays.sort(sortKeys, target.lo, target.hi);
+            for (int i = target.lo; i < target.hi; i++) {
+                order[i] = (int) sortKeys[i];
+            }
+            long half = target.weight / 2;
+            long sum = 0;
+            int split = target.lo + 1;
+            for (int i = target.lo; i < target.hi - 1; i++) {
+                sum += weights[order[i]];
+                split = i + 1;
+                if (sum >= half) {
+                    break;
+                }
+            }
+            boxes.remove(target);
+            boxes.add(new Box(target.lo, split, channels, weights, order));
+            boxes.add(new Box(split, target.hi, channels, weights, order));
+        }
+
+        int[] palette = new int[boxes.size()];
+        for (int b = 0; b < boxes.size(); b++) {
+            palette[b] = boxes.get(b).average(channels, weights, order);
+        }
+        return orderForTransparency(palette);
+    }
+
+    private IndexedImage mapNearest(IntPixels pixels, int[] palette) {
+        ColorTable memo = new ColorTable(4096);
+        int width = pixels.width();
+        byte[] indices = new byte[width * pixels.height()];
+        int last = 0;
+        int lastIndex = nearest(palette, 0);
+        for (int y = 0; y < pixels.height(); y++) {
+            int offset = pixels.base() + y * pixels.stride();
+            for (int x = 0; x < width; x++) {
+                int p = pixel(pixels, offset + x);
+                if (p != last) {
+                    int slot = memo.find(p);
+                    if (slot < 0) {
+                        slot = memo.slot(p);
+                        memo.values[slot] = nearest(palette, p);
+                    }
+                    last = p;
+                    lastIndex = memo.values[slot];
+                }
+                indices[y * width + x] = (byte) lastIndex;
+            }
+        }
+        return new IndexedImage(width, pixels.height(), palette, indices);
+    }
+
+    /**
+     * Floyd–Steinberg抖动映射，误差按 7/16、3/16、5/16、1/16 扩散到相邻像素
+     */
+    private IndexedImage mapDithered(IntPixels pixels, int[] palette) {
+        ColorTable memo = new ColorTable(4096);
+        int width = pixels.width();
+        int height = pixels.height();
+        byte[] indices = new byte[width * height];
+        // 每个像素4个通道(A,R,G,B)的累计误差（已乘16），左右各留一个像素的边界
+        int[] current = new int[(width + 2) * 4];
+        int[] next = new int[(width + 2) * 4];
+        int[] color = new int[4];
+        for (int y = 0; y < height; y++) {
+            int offset = pixels.base() + y * pixels.stride();
+            Arrays.fill(next, 0);
+            for (int x = 0; x < width; x++) {
+                int p = pixel(pixels, offset + x);
+                int e = (x + 1) * 4;
+                for (int c = 0; c < 4; c++) {
+                    int v = (p >>> (24 - c * 8)) & 0xFF;
+                    color[c] = Math.clamp(v + (current[e + c] + 8 >> 4), 0, 255);
+                }
+                int argb = color[0] << 24 | color[1] << 16 | color[2] << 8 | color[3];
+                int key = reduce(argb);
+                int slot = memo.find(key);
+                if (slot < 0) {
+                    slot = memo.slot(key);
+                    memo.values[slot] = nearest(palette, argb);
+                }
+                int index = memo.values[slot];
+                indices[y * width + x] = (byte) index;
+                int chosen = palette[index];
+                for (int c = 0; c < 4; c++) {
+                    int error = color[c] - ((chosen >>> (24 - c * 8)) & 0xFF);
+                    current[e + 4 + c] += error * 7;
+                    next[e - 4 + c] += error * 3;
+                    next[e + c] += error * 5;
+                    next[e + 4 + c] += error;
+                }
+            }
+            int[] t = current;
+            current = next;
+            next = t;
+        }
+        return new IndexedImage(width, height, palette, indices);
+    }
+
+    private static int nearest(int[] palette, int argb) {
+        int a = argb >>> 24, r = (argb >> 16) & 0xFF, g = (argb >> 8) & 0xFF, b = argb & 0xFF;
+        int best = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < palette.length; i++) {
+            int c = palette[i];
+            int da = a - (c >>> 24);
+            int dr = r - ((c >> 16) & 0xFF);
+            int dg = g - ((c >> 8) & 0xFF);
+            int db = b - (c & 0xFF);
+            int distance = da * da * 2 + dr * dr * 3 + dg * dg * 4 + db * db * 2;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+                if (distance == 0) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 将颜色压缩为 A4 R5 G5 B5 的直方图键
+     */
+    private static int reduce(int argb) {
+        return (argb >>> 28) << 15 | ((argb >> 19) & 0x1F) << 10 | ((argb >> 11) & 0x1F) << 5 | ((argb >> 3) & 0x1F);
+    }
+
+    /**
+     * 半透明颜色排在调色板前面，使tRNS块尽量短
+     */
+    private static int[] orderForTransparency(int[] palette) {
+        int[] ordered = new int[palette.length];
+        int i = 0;
+        for (int c : palette) {
+            if ((c >>> 24) != 0xFF) {
+                ordered[i++] = c;
+            }
+        }
+        for (int c : palette) {
+            if ((c >>> 24) == 0xFF) {
+                ordered[i++] = c;
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * 中位切分中的颜色盒
+     */
+    private static final class Box {
+        final int lo;
+        final int hi;
+        long weight;
+        int channel;
+        int range;
+
+        Box(int lo, int hi, int[][] channels, long[] weights, int[] order) {
+            this.lo = lo;
+            this.hi = hi;
+            int[] min = {255, 255, 255, 255};
+            int[] max = {0, 0, 0, 0};
+            for (int i = lo; i < hi; i++) {
+                int e = order[i];
+                weight += weights[e];
+                for (int c = 0; c < 4; c++) {
+                    min[c] = Math.min(min[c], channels[c][e]);
+                    max[c] = Math.max(max[c], channels[c][e]);
+                }
+            }
+            for (int c = 0; c < 4; c++) {
+                if (max[c] - min[c] > range) {
+                    range = max[c] - min[c];
+                    channel = c;
+                }
+            }
+            if (hi - lo < 2) {
+                range = 0;
+            }
+        }
+
+        long score() {
+            return weight * range;
+        }
+
+        int average(int[][] channels, long[] weights, int[] order) {
+            long[] sums = new long[4];
+            for (int i = lo; i < hi; i++) {
+                int e = order[i];
+                for (int c = 0; c < 4; c++) {
+                    sums[c] += channels[c][e] * weights[e];
+                }
+            }
+            int argb = 0;
+            for (int c = 0; c < 4; c++) {
+                argb |= (int) ((sums[c] + weight / 2) / Math.max(1, weight)) << (24 - c * 8);
+            }
+            return argb;
+        }
+    }
+
+    /**
+     * 以int颜色为键的开放寻址哈希表，可附带一个int值与各通道累加和
+     */
+    private static final class ColorTable {
+        private int[] keys;
+        private boolean[] used;
+        int[] values;
+        private long[][] sums;
+        private int size;
+
+        ColorTable(int capacity) {
+            int n = Integer.highestOneBit(Math.max(16, capacity) * 2 - 1);
+            keys = new int[n];
+            used = new boolean[n];
+            values = new int[n];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int find(int key) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (used[i]) {
+                if (keys[i] == key) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        int slot(int key) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (used[i]) {
+                if (keys[i] == key) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                return slot(key);
+            }
+            used[i] = true;
+            keys[i] = key;
+            size++;
+            return i;
+        }
+
+        /**
+         * 累加颜色：values记录像素数，sums记录各通道之和
+         */
+        void accumulate(int key, int argb) {
+            if (sums == null) {
+                sums = new long[4][keys.length];
+            }
+            int i = slot(key);
+            values[i]++;
+            sums[0][i] += argb >>> 24;
+            sums[1][i] += (argb >> 16) & 0xFF;
+            sums[2][i] += (argb >> 8) & 0xFF;
+            sums[3][i] += argb & 0xFF;
+        }
+
+        void averages(int[][] channels, long[] weights) {
+            int n = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (used[i]) {
+                    weights[n] = values[i];
+                    for (int c = 0; c < 4; c++) {
+                        channels[c][n] = (int) (sums[c][i] / values[i]);
+                    }
+                    n++;
+                }
+            }
+        }
+
+        int[] keys() {
+            int[] result = new int[size];
+            int n = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (used[i]) {
+                    result[n++] = keys[i];
+                }
+            }
+            return result;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            boolean[] oldUsed = used;
+            int[] oldValues = values;
+            long[][] oldSums = sums;
+            keys = new int[oldKeys.length * 2];
+            used = new boolean[keys.length];
+            values = new int[keys.length];
+            sums = oldSums == null ? null : new long[4][keys.length];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int j = slot(oldKeys[i]);
+                    values[j] = oldValues[i];
+                    if (oldSums != null) {
+                        for (int c = 0; c < 4; c++) {
+                            sums[c][j] = oldSums[c][i];
+                        }
+                    }
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
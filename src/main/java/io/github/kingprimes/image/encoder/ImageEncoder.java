@@ -0,0 +1,28 @@
+package io.github.kingprimes.image.encoder;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 图片编码器SPI
+ * <p>负责将绘制完成的画布编码为指定格式的字节流，可通过 {@link ImageEncoders#register} 注册到全局，
+ * 或通过 {@link io.github.kingprimes.image.ImageCombiner#setEncoder(ImageEncoder)} 为单个画布指定</p>
+ * <p>实现类必须是线程安全的，同一个编码器实例可能被多个线程同时使用</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface ImageEncoder {
+
+    /**
+     * 将图片编码后写入输出流
+     * <p>编码器只读取图片像素，不会修改图片，也不会关闭输出流</p>
+     *
+     * @param image 待编码的图片
+     * @param out   输出流
+     * @throws IOException 编码或写入失败时抛出
+     */
+    void encode(BufferedImage image, OutputStream out) throws IOException;
+}
@@ -0,0 +1,68 @@
+package io.github.kingprimes.image.encoder;
+
+import io.github.kingprimes.image.ImageCombiner.OutputFormat;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 图片编码器注册表
+ * <p>为每种 {@link OutputFormat} 维护一个全局编码器，{@link io.github.kingprimes.image.ImageCombiner#combine()} 默认从这里获取编码器</p>
+ * <p>PNG默认使用内置的 {@link PngEncoder}，可通过系统属性 {@code drawimage.png.encoder=imageio} 切换回 {@link ImageIOEncoder}</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class ImageEncoders {
+
+    private static final Map<OutputFormat, ImageEncoder> ENCODERS = new EnumMap<>(OutputFormat.class);
+
+    static {
+        reset();
+    }
+
+    private ImageEncoders() {
+    }
+
+    /**
+     * 获取指定格式的编码器
+     *
+     * @param format 输出格式
+     * @return 编码器
+     * @throws IllegalArgumentException 当该格式没有注册编码器时抛出
+     */
+    public static synchronized ImageEncoder get(OutputFormat format) {
+        ImageEncoder encoder = ENCODERS.get(format);
+        if (encoder == null) {
+            throw new IllegalArgumentException("未注册的图片输出格式: %s".formatted(format));
+        }
+        return encoder;
+    }
+
+    /**
+     * 注册（替换）指定格式的编码器
+     *
+     * @param format  输出格式
+     * @param encoder 编码器，必须是线程安全的
+     * @return 被替换的旧编码器，没有时返回null
+     */
+    public static synchronized ImageEncoder register(OutputFormat format, ImageEncoder encoder) {
+        if (format == null || encoder == null) {
+            throw new IllegalArgumentException("输出格式和编码器不可为null");
+        }
+        return ENCODERS.put(format, encoder);
+    }
+
+    /**
+     * 恢复所有格式的默认编码器
+     */
+    public static synchronized void reset() {
+        ENCODERS.clear();
+        boolean useImageIO = "imageio".equalsIgnoreCase(System.getProperty("drawimage.png.encoder"));
+        ENCODERS.put(OutputFormat.PNG, useImageIO ? ImageIOEncoder.PNG : PngEncoder.DEFAULT);
+        ENCODERS.put(OutputFormat.PNG_INDEXED, IndexedPngEncoder.DEFAULT);
+        ENCODERS.put(OutputFormat.JPG, ImageIOEncoder.JPG);
+        ENCODERS.put(OutputFormat.WEBP, WebpEncoder.DEFAULT);
+    }
+}
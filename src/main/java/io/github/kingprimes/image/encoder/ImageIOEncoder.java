@@ -0,0 +1,64 @@
+package io.github.kingprimes.image.encoder;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 基于 {@link ImageIO} 的通用编码器
+ * <p>作为内置编码器无法处理时的兜底实现；对不支持透明通道的格式（如jpg）会先将图片铺白底转换为RGB</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class ImageIOEncoder implements ImageEncoder {
+
+    /**
+     * PNG格式编码器
+     */
+    public static final ImageIOEncoder PNG = new ImageIOEncoder("png", true);
+    /**
+     * JPG格式编码器
+     */
+    public static final ImageIOEncoder JPG = new ImageIOEncoder("jpg", false);
+
+    private final String formatName;
+    private final boolean supportsAlpha;
+
+    /**
+     * 创建ImageIO编码器
+     *
+     * @param formatName    ImageIO格式名称，如"png"、"jpg"
+     * @param supportsAlpha 该格式是否支持透明通道
+     */
+    public ImageIOEncoder(String formatName, boolean supportsAlpha) {
+        if (formatName == null || formatName.isBlank()) {
+            throw new IllegalArgumentException("格式名称不可为空");
+        }
+        this.formatName = formatName;
+        this.supportsAlpha = supportsAlpha;
+    }
+
+    @Override
+    public void encode(BufferedImage image, OutputStream out) throws IOException {
+        BufferedImage source = image;
+        if (!supportsAlpha && image.getColorModel().hasAlpha()) {
+            source = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2 = source.createGraphics();
+            g2.setColor(Color.WHITE);
+            g2.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g2.drawImage(image, 0, 0, null);
+            g2.dispose();
+        }
+        if (!ImageIO.write(source, formatName, out)) {
+            throw new IOException("没有可用的图片写入器: %s".formatted(formatName));
+        }
+    }
+
+    public String getFormatName() {
+        return formatName;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.kingprimes.image.encoder;
+
+/**
+ * 调色板（索引色）图片
+ *
+ * @param width   图片宽度
+ * @param height  图片高度
+ * @param palette 调色板颜色（ARGB），最多256色
+ * @param indices 按行排列的像素调色板索引，长度为 width * height
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+public record IndexedImage(int width, int height, int[] palette, byte[] indices) {
+
+    public IndexedImage {
+        if (palette == null || palette.length == 0 || palette.length > 256) {
+            throw new IllegalArgumentException("调色板颜色数需在1-256之间");
+        }
+        if (indices == null || indices.length != width * height) {
+            throw new IllegalArgumentException("索引数据长度与图片尺寸不一致");
+        }
+    }
+
+    /**
+     * 获取指定像素的ARGB颜色
+     *
+     * @param x x坐标
+     * @param y y坐标
+     * @return ARGB颜色
+     */
+    public int argb(int x, int y) {
+        return palette[indices[y * width + x] & 0xFF];
+    }
+}
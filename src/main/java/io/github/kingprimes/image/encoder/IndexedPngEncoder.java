@@ -0,0 +1,53 @@
+package io.github.kingprimes.image.encoder;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 索引色PNG编码器
+ * <p>先用 {@link ColorQuantizer} 将画布量化为不超过256色的调色板图片，再以8位（或更低）位深度写出PNG，
+ * 对以少量纯色加抗锯齿边缘为主的图片，体积通常只有32位真彩色PNG的几分之一</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class IndexedPngEncoder implements ImageEncoder {
+
+    /**
+     * 默认编码器：256色、不抖动、默认压缩级别
+     */
+    public static final IndexedPngEncoder DEFAULT = new IndexedPngEncoder(ColorQuantizer.DEFAULT,
+            new PngEncoder(PngEncoder.DEFAULT_COMPRESSION_LEVEL, PngEncoder.Filter.NONE, 0, true));
+
+    private final ColorQuantizer quantizer;
+    private final PngEncoder pngEncoder;
+
+    /**
+     * 创建索引色PNG编码器
+     *
+     * @param quantizer  颜色量化器，不可为null
+     * @param pngEncoder PNG编码器（决定压缩级别、过滤与并行方式），不可为null
+     */
+    public IndexedPngEncoder(ColorQuantizer quantizer, PngEncoder pngEncoder) {
+        if (quantizer == null || pngEncoder == null) {
+            throw new IllegalArgumentException("量化器和PNG编码器不可为null");
+        }
+        this.quantizer = quantizer;
+        this.pngEncoder = pngEncoder;
+    }
+
+    @Override
+    public void encode(BufferedImage image, OutputStream out) throws IOException {
+        pngEncoder.encodeIndexed(quantizer.quantize(image), out);
+    }
+
+    public ColorQuantizer getQuantizer() {
+        return quantizer;
+    }
+
+    public PngEncoder getPngEncoder() {
+        return pngEncoder;
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.kingprimes.image.encoder;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * TYPE_INT_ARGB / TYPE_INT_RGB 图片的像素数组直接访问视图
+ * <p>坐标(x, y)的像素位于 {@code data[base + y * stride + x]}，已处理子图的偏移与行跨度</p>
+ *
+ * @param data   像素数组
+ * @param base   (0, 0)像素在数组中的下标
+ * @param stride 行跨度
+ * @param width  图片宽度
+ * @param height 图片高度
+ * @param alpha  像素是否带有alpha通道（TYPE_INT_RGB的高8位无意义）
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+record IntPixels(int[] data, int base, int stride, int width, int height, boolean alpha) {
+
+    /**
+     * 获取图片的像素数组视图
+     *
+     * @param image 图片
+     * @return 像素视图；图片不是单缓冲区的 TYPE_INT_ARGB / TYPE_INT_RGB 时返回null
+     */
+    static IntPixels of(BufferedImage image) {
+        int type = image.getType();
+        if (type != BufferedImage.TYPE_INT_ARGB && type != BufferedImage.TYPE_INT_RGB) {
+            return null;
+        }
+        WritableRaster raster = image.getRaster();
+        if (!(raster.getDataBuffer() instanceof DataBufferInt buffer)
+                || !(raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel)
+                || buffer.getNumBanks() != 1) {
+            return null;
+        }
+        int stride = sampleModel.getScanlineStride();
+        int base = buffer.getOffset() - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+        return new IntPixels(buffer.getData(), base, stride, image.getWidth(), image.getHeight(),
+                type == BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * 获取指定像素的ARGB值（不带alpha的图片返回完全不透明）
+     */
+    int argb(int x, int y) {
+        int p = data[base + y * stride + x];
+        return alpha ? p : p | 0xFF000000;
+    }
+
+    /**
+     * 判断是否存在非完全不透明的像素
+     */
+    boolean hasTransparency() {
+        if (!alpha) {
+            return false;
+        }
+        for (int y = 0; y < height; y++) {
+            int offset = base + y * stride;
+            for (int x = 0; x < width; x++) {
+                if ((data[offset + x] >>> 24) != 0xFF) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,827 @@
+package io.github.kingprimes.image.encoder;
+
+import io.github.kingprimes.image.OffHeapDataBuffer;
+import io.github.kingprimes.image.RenderPool;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 纯Java实现的PNG编码器
+ * <ul>
+ *     <li>直接读取 TYPE_INT_ARGB / TYPE_INT_RGB 画布的 {@link java.awt.image.DataBufferInt}，不经过 getRGB 逐像素拷贝</li>
+ *     <li>堆外画布（见 {@link OffHeapDataBuffer}）按行批量读取本地内存，不复制整张画布</li>
+ *     <li>支持写出索引色（调色板）PNG，见 {@link #encodeIndexed(IndexedImage, OutputStream)}</li>
+ *     <li>可选压缩级别与行过滤策略</li>
+ *     <li>按行分块并行压缩：每块以前一块末尾32KB作为预设字典独立deflate，再以SYNC_FLUSH首尾相接拼成一个zlib流</li>
+ *     <li>画布完全不透明时输出RGB（不含alpha通道），减小体积</li>
+ *     <li>逐行写出：{@link #openRows(OutputStream, int, int, boolean)} 按顺序接收若干条带的像素行，
+ *     每积累一个IDAT块就写入输出流，不需要整张画布，也不缓存整个压缩结果</li>
+ * </ul>
+ * <p>其他像素格式的图片交由 {@link ImageIOEncoder#PNG} 处理</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class PngEncoder implements ImageEncoder {
+
+    /**
+     * 默认压缩级别
+     */
+    public static final int DEFAULT_COMPRESSION_LEVEL = 4;
+    /**
+     * 默认编码器：默认压缩级别、不过滤、自动分块并行
+     * <p>插件输出的图片以大面积纯色为主，实测不过滤时体积最小、速度最快</p>
+     */
+    public static final PngEncoder DEFAULT = new PngEncoder(DEFAULT_COMPRESSION_LEVEL, Filter.NONE, 0, true);
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int WINDOW_SIZE = 32 * 1024;
+    private static final int MIN_STRIP_ROWS = 64;
+    private static final int ADLER_BASE = 65521;
+
+    private final int compressionLevel;
+    private final Filter filter;
+    private final int stripRows;
+    private final boolean parallel;
+
+    /**
+     * 创建PNG编码器
+     *
+     * @param compressionLevel 压缩级别 0-9，0为不压缩，9为最高压缩
+     * @param filter           行过滤策略，不可为null
+     * @param stripRows        每个并行压缩块的行数，&lt;=0时根据并行度自动计算
+     * @param parallel         是否在 {@link RenderPool} 中并行压缩
+     * @throws IllegalArgumentException 当参数不合法时抛出
+     */
+    public PngEncoder(int compressionLevel, Filter filter, int stripRows, boolean parallel) {
+        if (compressionLevel < 0 || compressionLevel > 9 || filter == null) {
+            throw new IllegalArgumentException("压缩级别需在0-9之间，过滤策略不可为null");
+        }
+        this.compressionLevel = compressionLevel;
+        this.filter = filter;
+        this.stripRows = stripRows;
+        this.parallel = parallel;
+    }
+
+    /**
+     * 创建PNG编码器（不过滤、自动分块并行）
+     *
+     * @param compressionLevel 压缩级别 0-9
+     */
+    public PngEncoder(int compressionLevel) {
+        this(compressionLevel, Filter.NONE, 0, true);
+    }
+
+    @Override
+    public void encode(BufferedImage image, OutputStream out) throws IOException {
+        IntPixels pixels = IntPixels.of(image);
+        if (pixels == null) {
+            OffHeapDataBuffer buffer = OffHeapDataBuffer.ofCanvas(image);
+            if (buffer == null) {
+                ImageIOEncoder.PNG.encode(image, out);
+                return;
+            }
+            OffHeapRows rows = new OffHeapRows(buffer, image.getWidth(), image.getHeight(), 4);
+            boolean alpha = rows.hasTransparency();
+            writePng(out, image.getWidth(), image.getHeight(), 8, alpha ? 6 : 2,
+                    alpha ? rows : new OffHeapRows(buffer, image.getWidth(), image.getHeight(), 3));
+            return;
+        }
+        boolean alpha = pixels.hasTransparency();
+        writePng(out, image.getWidth(), image.getHeight(), 8, alpha ? 6 : 2, new TrueColorRows(pixels, alpha ? 4 : 3));
+    }
+
+    /**
+     * 打开逐行写出的PNG流，随后按从上到下的顺序通过 {@link RowWriter#writeRows(BufferedImage, int, int)} 写入所有行
+     * <p>写入IHDR后立即返回；压缩在调用线程中顺序进行（单个zlib流，不分块并行），
+     * 内存占用只与行宽和IDAT块大小有关，与图片高度无关</p>
+     *
+     * @param out    输出流，写完后不会被关闭
+     * @param width  图片宽度，必须大于0
+     * @param height 图片高度，必须大于0
+     * @param alpha  是否写出alpha通道；为false时像素的alpha被忽略
+     * @return 逐行写出器，写完所有行后需调用 {@link RowWriter#close()} 结束文件
+     * @throws IOException              写入失败时抛出
+     * @throws IllegalArgumentException 当宽高小于等于0或out为null时抛出
+     */
+    public RowWriter openRows(OutputStream out, int width, int height, boolean alpha) throws IOException {
+        if (out == null || width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("输出流不可为null，宽高需>0");
+        }
+        return new RowWriter(out, width, height, alpha, compressionLevel, filter);
+    }
+
+    /**
+     * 将调色板图片编码为索引色PNG
+     * <p>调色板不超过16色时自动使用1/2/4位深度；存在半透明颜色时写入tRNS块</p>
+     *
+     * @param image 调色板图片
+     * @param out   输出流
+     * @throws IOException 写入失败时抛出
+     */
+    public void encodeIndexed(IndexedImage image, OutputStream out) throws IOException {
+        int[] palette = image.palette();
+        int bitDepth = palette.length <= 2 ? 1 : palette.length <= 4 ? 2 : palette.length <= 16 ? 4 : 8;
+
+        byte[] plte = new byte[palette.length * 3];
+        int transparent = 0;
+        for (int i = 0; i < palette.length; i++) {
+            plte[i * 3] = (byte) (palette[i] >> 16);
+            plte[i * 3 + 1] = (byte) (palette[i] >> 8);
+            plte[i * 3 + 2] = (byte) palette[i];
+            if ((palette[i] >>> 24) != 0xFF) {
+                transparent = i + 1;
+            }
+        }
+        byte[] trns = new byte[transparent];
+        for (int i = 0; i < transparent; i++) {
+            trns[i] = (byte) (palette[i] >>> 24);
+        }
+        writePng(out, image.width(), image.height(), bitDepth, 3,
+                new IndexedRows(image.indices(), image.width(), bitDepth), plte, trns);
+    }
+
+    /**
+     * 写出完整的PNG文件
+     *
+     * @param palette 索引色图片的PLTE与tRNS数据，真彩色图片不传
+     */
+    private void writePng(OutputStream out, int width, int height, int bitDepth, int colorType,
+                          RowSource rows, byte[]... palette) throws IOException {
+        out.write(SIGNATURE);
+        byte[] ihdr = new byte[13];
+        writeInt(ihdr, 0, width);
+        writeInt(ihdr, 4, height);
+        ihdr[8] = (byte) bitDepth;
+        ihdr[9] = (byte) colorType;
+        writeChunk(out, "IHDR", ihdr);
+        if (palette.length > 0) {
+            writeChunk(out, "PLTE", palette[0]);
+            if (palette.length > 1 && palette[1].length > 0) {
+                writeChunk(out, "tRNS", palette[1]);
+            }
+        }
+
+        List<Strip> strips = compress(rows, height);
+        long adler = strips.getFirst().adler;
+        for (int i = 1; i < strips.size(); i++) {
+            adler = combineAdler(adler, strips.get(i).adler, strips.get(i).rawLength);
+        }
+        for (int i = 0; i < strips.size(); i++) {
+            byte[] head = i == 0 ? zlibHeader() : new byte[0];
+            byte[] tail = new byte[0];
+            if (i == strips.size() - 1) {
+                tail = new byte[4];
+                writeInt(tail, 0, (int) adler);
+            }
+            writeChunk(out, "IDAT", head, strips.get(i).data, tail);
+        }
+        writeChunk(out, "IEND");
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public Filter getFilter() {
+        return filter;
+    }
+
+    public int getStripRows() {
+        return stripRows;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    private List<Strip> compress(RowSource rows, int height) {
+        int perStrip = stripRows > 0 ? stripRows : height;
+        if (stripRows <= 0 && parallel && RenderPool.isParallel()) {
+            perStrip = Math.max(MIN_STRIP_ROWS, (height + RenderPool.PARALLELISM * 2 - 1) / (RenderPool.PARALLELISM * 2));
+        }
+        List<Callable<Strip>> tasks = new ArrayList<>();
+        for (int y = 0; y < height; y += perStrip) {
+            int from = y;
+            int to = Math.min(height, y + perStrip);
+            tasks.add(() -> compressStrip(rows, from, to, to == height));
+        }
+        if (parallel) {
+            return RenderPool.invokeAll(tasks);
+        }
+        List<Strip> strips = new ArrayList<>(tasks.size());
+        for (int y = 0; y < height; y += perStrip) {
+            int to = Math.min(height, y + perStrip);
+            strips.add(compressStrip(rows, y, to, to == height));
+        }
+        return strips;
+    }
+
+    private Strip compressStrip(RowSource rows, int from, int to, boolean last) {
+        Deflater deflater = new Deflater(compressionLevel, true);
+        try {
+            if (from > 0) {
+                deflater.setDictionary(dictionaryBefore(rows, from));
+            }
+            RowFilter rowFilter = new RowFilter(rows, filter);
+            Adler32 adler = new Adler32();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, (to - from) * rowFilter.lineLength() / 8));
+            byte[] buffer = new byte[16 * 1024];
+            for (int y = from; y < to; y++) {
+                byte[] line = rowFilter.filterRow(y);
+                adler.update(line);
+                deflater.setInput(line);
+                while (!deflater.needsInput()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            }
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                // SYNC_FLUSH 以字节边界结束当前块，使下一块的deflate数据可以直接拼接在后面
+                int n;
+                do {
+                    n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    compressed.write(buffer, 0, n);
+                } while (n == buffer.length);
+            }
+            return new Strip(compressed.toByteArray(), adler.getValue(), (long) (to - from) * rowFilter.lineLength());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 计算指定行之前最多32KB的过滤后数据，作为当前块的预设字典
+     * <p>过滤结果只依赖当前行与上一行的像素，因此可以在各块中独立重算，保证与顺序压缩看到的历史数据一致</p>
+     */
+    private byte[] dictionaryBefore(RowSource rows, int y) {
+        RowFilter rowFilter = new RowFilter(rows, filter);
+        int lineLength = rowFilter.lineLength();
+        int count = Math.min(y, (WINDOW_SIZE + lineLength - 1) / lineLength);
+        byte[] all = new byte[count * lineLength];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(rowFilter.filterRow(y - count + i), 0, all, i * lineLength, lineLength);
+        }
+        if (all.length <= WINDOW_SIZE) {
+            return all;
+        }
+        byte[] dictionary = new byte[WINDOW_SIZE];
+        System.arraycopy(all, all.length - WINDOW_SIZE, dictionary, 0, WINDOW_SIZE);
+        return dictionary;
+    }
+
+    private byte[] zlibHeader() {
+        int flg;
+        if (compressionLevel <= 1) {
+            flg = 0x01;
+        } else if (compressionLevel <= 5) {
+            flg = 0x5E;
+        } else if (compressionLevel == 6) {
+            flg = 0x9C;
+        } else {
+            flg = 0xDA;
+        }
+        return new byte[]{0x78, (byte) flg};
+    }
+
+    /**
+     * 合并两段数据的Adler-32校验值（算法同zlib的adler32_combine）
+     */
+    static long combineAdler(long adler1, long adler2, long length2) {
+        long rem = length2 % ADLER_BASE;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = (rem * sum1) % ADLER_BASE;
+        sum1 += (adler2 & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += ((adler1 >>> 16) & 0xFFFF) + ((adler2 >>> 16) & 0xFFFF) + ADLER_BASE - rem;
+        if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+        if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+        if (sum2 >= ((long) ADLER_BASE << 1)) sum2 -= ((long) ADLER_BASE << 1);
+        if (sum2 >= ADLER_BASE) sum2 -= ADLER_BASE;
+        return (sum2 << 16) | sum1;
+    }
+
+    private static void writeChunk(OutputStream out, String type, byte[]... parts) throws IOException {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        byte[] header = new byte[8];
+        writeInt(header, 0, length);
+        System.arraycopy(typeBytes, 0, header, 4, 4);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        out.write(header);
+        for (byte[] part : parts) {
+            crc.update(part);
+            out.write(part);
+        }
+        byte[] crcBytes = new byte[4];
+        writeInt(crcBytes, 0, (int) crc.getValue());
+        out.write(crcBytes);
+    }
+
+    private static void writeInt(byte[] b, int offset, int value) {
+        b[offset] = (byte) (value >>> 24);
+        b[offset + 1] = (byte) (value >>> 16);
+        b[offset + 2] = (byte) (value >>> 8);
+        b[offset + 3] = (byte) value;
+    }
+
+    /**
+     * PNG行过滤策略
+     */
+    public enum Filter {
+        /**
+         * 不过滤
+         */
+        NONE,
+        /**
+         * 与左侧像素做差
+         */
+        SUB,
+        /**
+         * 与上方像素做差
+         */
+        UP,
+        /**
+         * 与左侧、上方像素均值做差
+         */
+        AVERAGE,
+        /**
+         * Paeth预测
+         */
+        PAETH,
+        /**
+         * 逐行尝试全部过滤方式，选择差值绝对值之和最小的一种
+         */
+        ADAPTIVE
+    }
+
+    private record Strip(byte[] data, long adler, long rawLength) {
+    }
+
+    /**
+     * 逐行写出的PNG流，由 {@link #openRows(OutputStream, int, int, boolean)} 创建
+     * <p>行过滤器保留上一行的原始字节，条带之间的UP/AVERAGE/PAETH过滤与整张画布编码一致；
+     * 压缩输出每满 {@link #CHUNK_SIZE} 字节即作为一个IDAT块写出</p>
+     * <p>不是线程安全的，只能由一个线程按顺序写入</p>
+     */
+    public static final class RowWriter implements Closeable {
+
+        /**
+         * 单个IDAT块的最大数据长度
+         */
+        public static final int CHUNK_SIZE = 64 * 1024;
+
+        private final OutputStream out;
+        private final int width;
+        private final int height;
+        private final StripRows rows;
+        private final RowFilter rowFilter;
+        private final Deflater deflater;
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+        private int pending;
+        private int written;
+        private boolean closed;
+
+        private RowWriter(OutputStream out, int width, int height, boolean alpha, int compressionLevel, Filter filter) throws IOException {
+            this.out = out;
+            this.width = width;
+            this.height = height;
+            this.rows = new StripRows(width, alpha ? 4 : 3);
+            this.rowFilter = new RowFilter(rows, filter);
+            out.write(SIGNATURE);
+            byte[] ihdr = new byte[13];
+            writeInt(ihdr, 0, width);
+            writeInt(ihdr, 4, height);
+            ihdr[8] = 8;
+            ihdr[9] = (byte) (alpha ? 6 : 2);
+            writeChunk(out, "IHDR", ihdr);
+            // 带zlib头与Adler-32校验的单个压缩流
+            this.deflater = new Deflater(compressionLevel);
+        }
+
+        /**
+         * 写入整张图片（或条带）的所有行
+         *
+         * @param image 图片，宽度需与PNG宽度相同
+         * @throws IOException 写入失败时抛出
+         */
+        public void writeRows(BufferedImage image) throws IOException {
+            writeRows(image, 0, image.getHeight());
+        }
+
+        /**
+         * 按顺序写入图片中[fromRow, toRow)范围内的行，作为PNG接下来的若干行
+         *
+         * @param image   图片，宽度需与PNG宽度相同，可为子图或堆外画布
+         * @param fromRow 起始行（含）
+         * @param toRow   结束行（不含）
+         * @throws IOException              写入失败时抛出
+         * @throws IllegalArgumentException 当宽度不一致、行范围不合法或超出PNG高度时抛出
+         * @throws IllegalStateException    已关闭时抛出
+         */
+        public void writeRows(BufferedImage image, int fromRow, int toRow) throws IOException {
+            if (closed) {
+                throw new IllegalStateException("PNG流已关闭");
+            }
+            if (image.getWidth() != width || fromRow < 0 || toRow > image.getHeight() || fromRow > toRow
+                    || written + toRow - fromRow > height) {
+                throw new IllegalArgumentException("行范围不合法: %d-%d，已写入%d/%d行".formatted(fromRow, toRow, written, height));
+            }
+            rows.set(image, written - fromRow);
+            for (int y = fromRow; y < toRow; y++) {
+                deflater.setInput(rowFilter.filterRow(written++));
+                while (!deflater.needsInput()) {
+                    drain();
+                }
+            }
+            rows.set(null, 0);
+        }
+
+        /**
+         * 获取已写入的行数
+         *
+         * @return 行数
+         */
+        public int getRowsWritten() {
+            return written;
+        }
+
+        /**
+         * 结束压缩流并写出剩余的IDAT块与IEND，不关闭输出流；重复调用无副作用
+         *
+         * @throws IOException           写入失败时抛出
+         * @throws IllegalStateException 尚未写入全部行时抛出，此时输出的PNG不完整
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (written != height) {
+                    throw new IllegalStateException("PNG尚未写完: %d/%d行".formatted(written, height));
+                }
+                deflater.finish();
+                while (!deflater.finished()) {
+                    drain();
+                }
+                if (pending > 0) {
+                    writeChunk(out, "IDAT", Arrays.copyOf(chunk, pending));
+                }
+                writeChunk(out, "IEND");
+            } finally {
+                deflater.end();
+            }
+        }
+
+        private void drain() throws IOException {
+            pending += deflater.deflate(chunk, pending, CHUNK_SIZE - pending);
+            if (pending == CHUNK_SIZE) {
+                writeChunk(out, "IDAT", chunk);
+                pending = 0;
+            }
+        }
+    }
+
+    /**
+     * 按行提供未过滤的原始字节
+     */
+    private interface RowSource {
+        /**
+         * 每行字节数
+         */
+        int rowBytes();
+
+        /**
+         * 过滤时使用的每像素字节数（不足1字节按1计算）
+         */
+        int bpp();
+
+        void unpack(int y, byte[] row);
+    }
+
+    /**
+     * 直接读取 int 像素数组的真彩色行数据源
+     */
+    private record TrueColorRows(IntPixels pixels, int bpp) implements RowSource {
+
+        @Override
+        public int rowBytes() {
+            return pixels.width() * bpp;
+        }
+
+        @Override
+        public void unpack(int y, byte[] row) {
+            int[] data = pixels.data();
+            int offset = pixels.base() + y * pixels.stride();
+            int width = pixels.width();
+            int j = 0;
+            if (bpp == 4) {
+                for (int x = 0; x < width; x++) {
+                    int p = data[offset + x];
+                    row[j++] = (byte) (p >> 16);
+                    row[j++] = (byte) (p >> 8);
+                    row[j++] = (byte) p;
+                    row[j++] = (byte) (p >>> 24);
+                }
+            } else {
+                for (int x = 0; x < width; x++) {
+                    int p = data[offset + x];
+                    row[j++] = (byte) (p >> 16);
+                    row[j++] = (byte) (p >> 8);
+                    row[j++] = (byte) p;
+                }
+            }
+        }
+    }
+
+    /**
+     * 按行批量读取堆外画布的真彩色行数据源
+     */
+    private record OffHeapRows(OffHeapDataBuffer buffer, int width, int height, int bpp) implements RowSource {
+
+        // 各压缩线程的行缓冲，避免每行分配
+        private static final ThreadLocal<int[]> LINE = ThreadLocal.withInitial(() -> new int[0]);
+
+        private static int[] line(int width) {
+            int[] line = LINE.get();
+            if (line.length < width) {
+                line = new int[width];
+                LINE.set(line);
+            }
+            return line;
+        }
+
+        boolean hasTransparency() {
+            int[] line = line(width);
+            for (int y = 0; y < height; y++) {
+                buffer.getElems(y * width, line, 0, width);
+                for (int x = 0; x < width; x++) {
+                    if ((line[x] >>> 24) != 0xFF) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int rowBytes() {
+            return width * bpp;
+        }
+
+        @Override
+        public void unpack(int y, byte[] row) {
+            int[] line = line(width);
+            buffer.getElems(y * width, line, 0, width);
+            int j = 0;
+            if (bpp == 4) {
+                for (int x = 0; x < width; x++) {
+                    int p = line[x];
+                    row[j++] = (byte) (p >> 16);
+                    row[j++] = (byte) (p >> 8);
+                    row[j++] = (byte) p;
+                    row[j++] = (byte) (p >>> 24);
+                }
+            } else {
+                for (int x = 0; x < width; x++) {
+                    int p = line[x];
+                    row[j++] = (byte) (p >> 16);
+                    row[j++] = (byte) (p >> 8);
+                    row[j++] = (byte) p;
+                }
+            }
+        }
+    }
+
+    /**
+     * 逐行写出时当前条带的行数据源，第y行位于条带的第(y - top)行
+     */
+    private static final class StripRows implements RowSource {
+        private final int width;
+        private final int bpp;
+        private final int[] line;
+        private BufferedImage image;
+        private IntPixels pixels;
+        private int top;
+
+        StripRows(int width, int bpp) {
+            this.width = width;
+            this.bpp = bpp;
+            this.line = new int[width];
+        }
+
+        void set(BufferedImage image, int top) {
+            this.image = image;
+            this.pixels = image == null ? null : IntPixels.of(image);
+            this.top = top;
+        }
+
+        @Override
+        public int rowBytes() {
+            return width * bpp;
+        }
+
+        @Override
+        public int bpp() {
+            return bpp;
+        }
+
+        @Override
+        public void unpack(int y, byte[] row) {
+            if (pixels != null) {
+                System.arraycopy(pixels.data(), pixels.base() + (y - top) * pixels.stride(), line, 0, width);
+                if (!pixels.alpha()) {
+                    for (int x = 0; x < width; x++) {
+                        line[x] |= 0xFF000000;
+                    }
+                }
+            } else {
+                image.getRGB(0, y - top, width, 1, line, 0, width);
+            }
+            int j = 0;
+            for (int x = 0; x < width; x++) {
+                int p = line[x];
+                row[j++] = (byte) (p >> 16);
+                row[j++] = (byte) (p >> 8);
+                row[j++] = (byte) p;
+                if (bpp == 4) {
+                    row[j++] = (byte) (p >>> 24);
+                }
+            }
+        }
+    }
+
+    /**
+     * 调色板索引行数据源，位深度小于8时按PNG规范高位在前打包
+     */
+    private record IndexedRows(byte[] indices, int width, int bitDepth) implements RowSource {
+
+        @Override
+        public int rowBytes() {
+            return (width * bitDepth + 7) / 8;
+        }
+
+        @Override
+        public int bpp() {
+            return 1;
+        }
+
+        @Override
+        public void unpack(int y, byte[] row) {
+            int offset = y * width;
+            if (bitDepth == 8) {
+                System.arraycopy(indices, offset, row, 0, width);
+                return;
+            }
+            int perByte = 8 / bitDepth;
+            Arrays.fill(row, (byte) 0);
+            for (int x = 0; x < width; x++) {
+                int shift = 8 - bitDepth * (x % perByte + 1);
+                row[x / perByte] |= (byte) ((indices[offset + x] & 0xFF) << shift);
+            }
+        }
+    }
+
+    /**
+     * 单线程使用的行过滤器，缓存当前行与上一行的原始字节
+     */
+    private static final class RowFilter {
+        private final RowSource rows;
+        private final Filter filter;
+        private final int bpp;
+        private final int rowBytes;
+        private byte[] previous;
+        private byte[] current;
+        private final byte[][] candidates;
+        private int lastRow = -2;
+
+        RowFilter(RowSource rows, Filter filter) {
+            this.rows = rows;
+            this.filter = filter;
+            this.bpp = rows.bpp();
+            this.rowBytes = rows.rowBytes();
+            this.previous = new byte[rowBytes];
+            this.current = new byte[rowBytes];
+            this.candidates = new byte[filter == Filter.ADAPTIVE ? 5 : 1][rowBytes + 1];
+        }
+
+        int lineLength() {
+            return rowBytes + 1;
+        }
+
+        /**
+         * 过滤指定行，返回的数组以过滤类型字节开头，在下一次调用前有效
+         */
+        byte[] filterRow(int y) {
+            if (y == 0) {
+                Arrays.fill(previous, (byte) 0);
+            } else if (lastRow != y - 1) {
+                rows.unpack(y - 1, previous);
+            } else {
+                byte[] t = previous;
+                previous = current;
+                current = t;
+            }
+            rows.unpack(y, current);
+            lastRow = y;
+
+            if (filter != Filter.ADAPTIVE) {
+                apply(filter.ordinal(), candidates[0]);
+                return candidates[0];
+            }
+            int best = 0;
+            long bestSum = Long.MAX_VALUE;
+            for (int type = 0; type < 5; type++) {
+                long sum = apply(type, candidates[type]);
+                if (sum < bestSum) {
+                    bestSum = sum;
+                    best = type;
+                }
+            }
+            return candidates[best];
+        }
+
+        /**
+         * 使用指定过滤类型处理当前行，返回差值绝对值之和（用于自适应选择）
+         * <p>每种过滤方式单独成环，避免在逐字节循环中分支</p>
+         */
+        private long apply(int type, byte[] out) {
+            byte[] cur = current;
+            byte[] up = previous;
+            int n = rowBytes;
+            int lead = Math.min(bpp, n);
+            out[0] = (byte) type;
+            switch (type) {
+                case 1 -> {
+                    System.arraycopy(cur, 0, out, 1, lead);
+                    for (int i = lead; i < n; i++) {
+                        out[i + 1] = (byte) (cur[i] - cur[i - bpp]);
+                    }
+                }
+                case 2 -> {
+                    for (int i = 0; i < n; i++) {
+                        out[i + 1] = (byte) (cur[i] - up[i]);
+                    }
+                }
+                case 3 -> {
+                    for (int i = 0; i < lead; i++) {
+                        out[i + 1] = (byte) (cur[i] - ((up[i] & 0xFF) >>> 1));
+                    }
+                    for (int i = lead; i < n; i++) {
+                        out[i + 1] = (byte) (cur[i] - (((cur[i - bpp] & 0xFF) + (up[i] & 0xFF)) >>> 1));
+                    }
+                }
+                case 4 -> {
+                    for (int i = 0; i < lead; i++) {
+                        out[i + 1] = (byte) (cur[i] - up[i]);
+                    }
+                    for (int i = lead; i < n; i++) {
+                        out[i + 1] = (byte) (cur[i] - paeth(cur[i - bpp] & 0xFF, up[i] & 0xFF, up[i - bpp] & 0xFF));
+                    }
+                }
+                default -> System.arraycopy(cur, 0, out, 1, n);
+            }
+            if (filter != Filter.ADAPTIVE) {
+                return 0;
+            }
+            long sum = 0;
+            for (int i = 1; i <= n; i++) {
+                sum += Math.abs(out[i]);
+            }
+            return sum;
+        }
+
+        private static int paeth(int a, int b, int c) {
+            int p = a + b - c;
+            int pa = Math.abs(p - a);
+            int pb = Math.abs(p - b);
+            int pc = Math.abs(p - c);
+            if (pa <= pb && pa <= pc) {
+                return a;
+            }
+            return pb <= pc ? b : c;
+        }
+    }
+}
@@ -0,0 +1,832 @@
+package io.github.kingprimes.image.encoder;
+
+import io.github.kingprimes.image.OffHeapDataBuffer;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 纯Java实现的无损WebP（VP8L）编码器
+ * <ul>
+ *     <li>减绿变换（subtract green）+ 按块选择的预测变换（predictor），去除通道间与相邻像素间的相关性</li>
+ *     <li>哈希链LZ77反向引用，优先使用VP8L的二维短距离编码（上方、左侧等邻近像素）</li>
+ *     <li>颜色缓存（color cache）复用最近出现过的颜色</li>
+ *     <li>长度受限的规范哈夫曼编码</li>
+ * </ul>
+ * <p>未实现交叉颜色变换与多组哈夫曼编码（meta prefix codes），以编码速度优先；输出可被任意符合规范的WebP解码器读取</p>
+ *
+ * @author KingPrimes
+ * @version 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class WebpEncoder implements ImageEncoder {
+
+    /**
+     * 默认编码器：启用预测变换、10位颜色缓存、搜索深度32
+     */
+    public static final WebpEncoder DEFAULT = new WebpEncoder(true, 10, 32);
+    /**
+     * WebP支持的最大宽高
+     */
+    public static final int MAX_DIMENSION = 16384;
+
+    private static final int NUM_LENGTH_CODES = 24;
+    private static final int NUM_DISTANCE_CODES = 40;
+    private static final int MAX_LENGTH = 4096;
+    private static final int MAX_DISTANCE = (1 << 20) - 120;
+    private static final int MIN_MATCH = 3;
+    private static final int HASH_BITS = 16;
+    private static final int PREDICTOR_BITS = 4;
+    private static final int[] CODE_LENGTH_ORDER = {17, 18, 0, 1, 2, 3, 4, 5, 16, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15};
+    /**
+     * VP8L的120个二维距离编码，每项为(xi, yi)，距离 = xi + yi * 宽度
+     */
+    private static final int[][] PLANE_CODES = {
+            {0, 1}, {1, 0}, {1, 1}, {-1, 1}, {0, 2}, {2, 0}, {1, 2},
+            {-1, 2}, {2, 1}, {-2, 1}, {2, 2}, {-2, 2}, {0, 3}, {3, 0},
+            {1, 3}, {-1, 3}, {3, 1}, {-3, 1}, {2, 3}, {-2, 3}, {3, 2},
+            {-3, 2}, {0, 4}, {4, 0}, {1, 4}, {-1, 4}, {4, 1}, {-4, 1},
+            {3, 3}, {-3, 3}, {2, 4}, {-2, 4}, {4, 2}, {-4, 2}, {0, 5},
+            {3, 4}, {-3, 4}, {4, 3}, {-4, 3}, {5, 0}, {1, 5}, {-1, 5},
+            {5, 1}, {-5, 1}, {2, 5}, {-2, 5}, {5, 2}, {-5, 2}, {4, 4},
+            {-4, 4}, {3, 5}, {-3, 5}, {5, 3}, {-5, 3}, {0, 6}, {6, 0},
+            {1, 6}, {-1, 6}, {6, 1}, {-6, 1}, {2, 6}, {-2, 6}, {6, 2},
+            {-6, 2}, {4, 5}, {-4, 5}, {5, 4}, {-5, 4}, {3, 6}, {-3, 6},
+            {6, 3}, {-6, 3}, {0, 7}, {7, 0}, {1, 7}, {-1, 7}, {5, 5},
+            {-5, 5}, {7, 1}, {-7, 1}, {4, 6}, {-4, 6}, {6, 4}, {-6, 4},
+            {2, 7}, {-2, 7}, {7, 2}, {-7, 2}, {3, 7}, {-3, 7}, {7, 3},
+            {-7, 3}, {5, 6}, {-5, 6}, {6, 5}, {-6, 5}, {8, 0}, {4, 7},
+            {-4, 7}, {7, 4}, {-7, 4}, {8, 1}, {8, 2}, {6, 6}, {-6, 6},
+            {8, 3}, {5, 7}, {-5, 7}, {7, 5}, {-7, 5}, {8, 4}, {6, 7},
+            {-6, 7}, {7, 6}, {-7, 6}, {8, 5}, {7, 7}, {-7, 7}, {8, 6},
+            {8, 7}
+    };
+    /**
+     * (yi, xi) -> 距离编码（1-120），0表示没有对应编码
+     */
+    private static final int[] PLANE_LOOKUP = new int[9 * 17];
+
+    static {
+        for (int i = 0; i < PLANE_CODES.length; i++) {
+            PLANE_LOOKUP[PLANE_CODES[i][1] * 17 + PLANE_CODES[i][0] + 8] = i + 1;
+        }
+    }
+
+    private final boolean predictor;
+    private final int colorCacheBits;
+    private final int searchDepth;
+
+    /**
+     * 创建WebP无损编码器
+     *
+     * @param predictor      是否启用预测变换（体积更小，编码稍慢）
+     * @param colorCacheBits 颜色缓存位数 1-11，0表示不使用颜色缓存
+     * @param searchDepth    LZ77哈希链最大搜索深度，越大压缩率越高、速度越慢
+     * @throws IllegalArgumentException 当参数不合法时抛出
+     */
+    public WebpEncoder(boolean predictor, int colorCacheBits, int searchDepth) {
+        if (colorCacheBits < 0 || colorCacheBits > 11 || searchDepth < 1) {
+            throw new IllegalArgumentException("颜色缓存位数需在0-11之间，搜索深度需>0");
+        }
+        this.predictor = predictor;
+        this.colorCacheBits = colorCacheBits;
+        this.searchDepth = searchDepth;
+    }
+
+    @Override
+    public void encode(BufferedImage image, OutputStream out) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (width > MAX_DIMENSION || height > MAX_DIMENSION) {
+            throw new IOException("WebP图片宽高不可超过%d: %dx%d".formatted(MAX_DIMENSION, width, height));
+        }
+        int[] argb = readPixels(image);
+        boolean alpha = false;
+        for (int p : argb) {
+            if ((p >>> 24) != 0xFF) {
+                alpha = true;
+                break;
+            }
+        }
+
+        BitWriter bits = new BitWriter(Math.max(1024, argb.length));
+        bits.write(0x2F, 8);
+        bits.write(width - 1, 14);
+        bits.write(height - 1, 14);
+        bits.write(alpha ? 1 : 0, 1);
+        bits.write(0, 3);
+
+        // 减绿变换
+        bits.write(1, 1);
+        bits.write(2, 2);
+        for (int i = 0; i < argb.length; i++) {
+            int p = argb[i];
+            int green = (p >> 8) & 0xFF;
+            argb[i] = (p & 0xFF00FF00) | ((((p >> 16) & 0xFF) - green) & 0xFF) << 16 | (((p & 0xFF) - green) & 0xFF);
+        }
+
+        int[] pixels = argb;
+        if (predictor && width > 1 && height > 1) {
+            bits.write(1, 1);
+            bits.write(0, 2);
+            bits.write(PREDICTOR_BITS - 2, 3);
+            int blocksX = subSampleSize(width, PREDICTOR_BITS);
+            int blocksY = subSampleSize(height, PREDICTOR_BITS);
+            int[] modes = chooseModes(argb, width, height, blocksX, blocksY);
+            pixels = residuals(argb, width, height, modes, blocksX);
+            int[] modeImage = new int[modes.length];
+            for (int i = 0; i < modes.length; i++) {
+                modeImage[i] = 0xFF000000 | modes[i] << 8;
+            }
+            writeImage(bits, modeImage, blocksX, 0, false);
+        }
+        bits.write(0, 1);
+        writeImage(bits, pixels, width, colorCacheBits, true);
+
+        byte[] data = bits.toByteArray();
+        int padding = data.length & 1;
+        byte[] header = new byte[20];
+        header[0] = 'R';
+        header[1] = 'I';
+        header[2] = 'F';
+        header[3] = 'F';
+        writeIntLE(header, 4, 4 + 8 + data.length + padding);
+        header[8] = 'W';
+        header[9] = 'E';
+        header[10] = 'B';
+        header[11] = 'P';
+        header[12] = 'V';
+        header[13] = 'P';
+        header[14] = '8';
+        header[15] = 'L';
+        writeIntLE(header, 16, data.length);
+        out.write(header);
+        out.write(data);
+        if (padding != 0) {
+            out.write(0);
+        }
+    }
+
+    public boolean isPredictor() {
+        return predictor;
+    }
+
+    public int getColorCacheBits() {
+        return colorCacheBits;
+    }
+
+    public int getSearchDepth() {
+        return searchDepth;
+    }
+
+    private static int[] readPixels(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] argb = new int[width * height];
+        IntPixels pixels = IntPixels.of(image);
+        if (pixels == null) {
+            OffHeapDataBuffer buffer = OffHeapDataBuffer.ofCanvas(image);
+            if (buffer != null) {
+                buffer.getElems(0, argb, 0, argb.length);
+            } else {
+                image.getRGB(0, 0, width, height, argb, 0, width);
+            }
+            return argb;
+        }
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(pixels.data(), pixels.base() + y * pixels.stride(), argb, y * width, width);
+        }
+        if (!pixels.alpha()) {
+            for (int i = 0; i < argb.length; i++) {
+                argb[i] |= 0xFF000000;
+            }
+        }
+        return argb;
+    }
+
+    private static int subSampleSize(int size, int bits) {
+        return (size + (1 << bits) - 1) >> bits;
+    }
+
+    // ---------------------------------------------------------------- 预测变换
+
+    /**
+     * 为每个块选择残差绝对值之和最小的预测模式
+     */
+    private static int[] chooseModes(int[] argb, int width, int height, int blocksX, int blocksY) {
+        int[] modes = new int[blocksX * blocksY];
+        int blockSize = 1 << PREDICTOR_BITS;
+        long[] costs = new long[14];
+        for (int by = 0; by < blocksY; by++) {
+            for (int bx = 0; bx < blocksX; bx++) {
+                Arrays.fill(costs, 0);
+                int yEnd = Math.min(height, (by + 1) * blockSize);
+                int xEnd = Math.min(width, (bx + 1) * blockSize);
+                for (int y = Math.max(1, by * blockSize); y < yEnd; y++) {
+                    for (int x = Math.max(1, bx * blockSize); x < xEnd; x++) {
+                        int i = y * width + x;
+                        int p = argb[i];
+                        int left = argb[i - 1];
+                        int top = argb[i - width];
+                        int topLeft = argb[i - width - 1];
+                        int topRight = argb[i - width + 1];
+                        for (int mode = 0; mode < 14; mode++) {
+                            costs[mode] += residualCost(p, predict(mode, left, top, topLeft, topRight));
+                        }
+                    }
+                }
+                int best = 0;
+                for (int mode = 1; mode < 14; mode++) {
+                    if (costs[mode] < costs[best]) {
+                        best = mode;
+                    }
+                }
+                modes[by * blocksX + bx] = best;
+            }
+        }
+        return modes;
+    }
+
+    private static int[] residuals(int[] argb, int width, int height, int[] modes, int blocksX) {
+        int[] residual = new int[argb.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y * width + x;
+                int prediction;
+                if (y == 0) {
+                    prediction = x == 0 ? 0xFF000000 : argb[i - 1];
+                } else if (x == 0) {
+                    prediction = argb[i - width];
+                } else {
+                    // 最右列的右上像素即为当前行最左侧像素，与 i - width + 1 恰好一致
+                    int mode = modes[(y >> PREDICTOR_BITS) * blocksX + (x >> PREDICTOR_BITS)];
+                    prediction = predict(mode, argb[i - 1], argb[i - width], argb[i - width - 1], argb[i - width + 1]);
+                }
+                residual[i] = subtractPixels(argb[i], prediction);
+            }
+        }
+        return residual;
+    }
+
+    private static int predict(int mode, int left, int top, int topLeft, int topRight) {
+        return switch (mode) {
+            case 0 -> 0xFF000000;
+            case 1 -> left;
+            case 2 -> top;
+            case 3 -> topRight;
+            case 4 -> topLeft;
+            case 5 -> average2(average2(left, topRight), top);
+            case 6 -> average2(left, topLeft);
+            case 7 -> average2(left, top);
+            case 8 -> average2(topLeft, top);
+            case 9 -> average2(top, topRight);
+            case 10 -> average2(average2(left, topLeft), average2(top, topRight));
+            case 11 -> select(left, top, topLeft);
+            case 12 -> clampAddSubtractFull(left, top, topLeft);
+            default -> clampAddSubtractHalf(average2(left, top), topLeft);
+        };
+    }
+
+    private static int average2(int a, int b) {
+        return (((a ^ b) & 0xFEFEFEFE) >>> 1) + (a & b);
+    }
+
+    private static int select(int left, int top, int topLeft) {
+        int predictLeft = 0;
+        int predictTop = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int l = (left >>> shift) & 0xFF;
+            int t = (top >>> shift) & 0xFF;
+            int tl = (topLeft >>> shift) & 0xFF;
+            predictLeft += Math.abs(t - tl);
+            predictTop += Math.abs(l - tl);
+        }
+        return predictLeft < predictTop ? left : top;
+    }
+
+    private static int clampAddSubtractFull(int a, int b, int c) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int v = ((a >>> shift) & 0xFF) + ((b >>> shift) & 0xFF) - ((c >>> shift) & 0xFF);
+            result |= Math.clamp(v, 0, 255) << shift;
+        }
+        return result;
+    }
+
+    private static int clampAddSubtractHalf(int a, int b) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int ac = (a >>> shift) & 0xFF;
+            int v = ac + (ac - ((b >>> shift) & 0xFF)) / 2;
+            result |= Math.clamp(v, 0, 255) << shift;
+        }
+        return result;
+    }
+
+    private static int subtractPixels(int a, int b) {
+        int alphaGreen = 0x00FF00FF + (a & 0xFF00FF00) - (b & 0xFF00FF00);
+        int redBlue = 0xFF00FF00 + (a & 0x00FF00FF) - (b & 0x00FF00FF);
+        return (alphaGreen & 0xFF00FF00) | (redBlue & 0x00FF00FF);
+    }
+
+    private static int residualCost(int p, int prediction) {
+        int r = subtractPixels(p, prediction);
+        return Math.abs((byte) (r >>> 24)) + Math.abs((byte) (r >>> 16)) + Math.abs((byte) (r >>> 8)) + Math.abs((byte) r);
+    }
+
+    // ---------------------------------------------------------------- 熵编码
+
+    /**
+     * 写出一幅熵编码图像（颜色缓存信息、meta prefix标志、5组哈夫曼编码及LZ77数据）
+     */
+    private void writeImage(BitWriter bits, int[] pixels, int width, int cacheBits, boolean topLevel) {
+        if (cacheBits > 0) {
+            bits.write(1, 1);
+            bits.write(cacheBits, 4);
+        } else {
+            bits.write(0, 1);
+        }
+        if (topLevel) {
+            bits.write(0, 1);
+        }
+        Tokens tokens = tokenize(pixels, width, cacheBits);
+
+        int cacheSize = cacheBits > 0 ? 1 << cacheBits : 0;
+        int[] green = new int[256 + NUM_LENGTH_CODES + cacheSize];
+        int[] red = new int[256];
+        int[] blue = new int[256];
+        int[] alpha = new int[256];
+        int[] distance = new int[NUM_DISTANCE_CODES];
+        for (int t = 0; t < tokens.size; t++) {
+            int value = tokens.values[t];
+            switch (tokens.kinds[t]) {
+                case Tokens.LITERAL -> {
+                    green[(value >> 8) & 0xFF]++;
+                    red[(value >> 16) & 0xFF]++;
+                    blue[value & 0xFF]++;
+                    alpha[value >>> 24]++;
+                }
+                case Tokens.CACHE -> green[256 + NUM_LENGTH_CODES + value]++;
+                default -> {
+                    green[256 + prefixCode(value)]++;
+                    distance[prefixCode(tokens.distances[t])]++;
+                }
+            }
+        }
+        PrefixCode greenCode = writePrefixCode(bits, green);
+        PrefixCode redCode = writePrefixCode(bits, red);
+        PrefixCode blueCode = writePrefixCode(bits, blue);
+        PrefixCode alphaCode = writePrefixCode(bits, alpha);
+        PrefixCode distanceCode = writePrefixCode(bits, distance);
+
+        for (int t = 0; t < tokens.size; t++) {
+            int value = tokens.values[t];
+            switch (tokens.kinds[t]) {
+                case Tokens.LITERAL -> {
+                    greenCode.write(bits, (value >> 8) & 0xFF);
+                    redCode.write(bits, (value >> 16) & 0xFF);
+                    blueCode.write(bits, value & 0xFF);
+                    alphaCode.write(bits, value >>> 24);
+                }
+                case Tokens.CACHE -> greenCode.write(bits, 256 + NUM_LENGTH_CODES + value);
+                default -> {
+                    int lengthCode = prefixCode(value);
+                    greenCode.write(bits, 256 + lengthCode);
+                    writeExtraBits(bits, lengthCode, value);
+                    int distanceValue = tokens.distances[t];
+                    int code = prefixCode(distanceValue);
+                    distanceCode.write(bits, code);
+                    writeExtraBits(bits, code, distanceValue);
+                }
+            }
+        }
+    }
+
+    /**
+     * LZ77 + 颜色缓存，将像素序列转换为字面量、缓存引用与反向引用
+     */
+    private Tokens tokenize(int[] pixels, int width, int cacheBits) {
+        int n = pixels.length;
+        Tokens tokens = new Tokens(n);
+        int[] head = new int[1 << HASH_BITS];
+        Arrays.fill(head, -1);
+        int[] chain = new int[n];
+        int[] cache = cacheBits > 0 ? new int[1 << cacheBits] : null;
+        boolean[] cached = cacheBits > 0 ? new boolean[1 << cacheBits] : null;
+        int cacheShift = 32 - cacheBits;
+
+        int i = 0;
+        while (i < n) {
+            int bestLength = 0;
+            int bestDistance = 0;
+            if (i + 1 < n) {
+                int limit = Math.min(MAX_LENGTH, n - i);
+                // 优先尝试左侧与上方像素，平铺色块中最常命中
+                for (int candidate : new int[]{i - 1, i - width}) {
+                    if (candidate >= 0) {
+                        int length = matchLength(pixels, candidate, i, limit);
+                        if (length > bestLength) {
+                            bestLength = length;
+                            bestDistance = i - candidate;
+                        }
+                    }
+                }
+                int candidate = head[hash(pixels[i], pixels[i + 1])];
+                for (int depth = 0; candidate >= 0 && depth < searchDepth && bestLength < limit; depth++) {
+                    if (i - candidate > MAX_DISTANCE) {
+                        break;
+                    }
+                    int length = matchLength(pixels, candidate, i, limit);
+                    if (length > bestLength) {
+                        bestLength = length;
+                        bestDistance = i - candidate;
+                    }
+                    candidate = chain[candidate];
+                }
+            }
+
+            if (bestLength >= MIN_MATCH) {
+                tokens.add(Tokens.COPY, bestLength, distanceCode(bestDistance, width));
+                for (int k = i; k < i + bestLength; k++) {
+                    insertHash(pixels, k, head, chain);
+                    if (cache != null) {
+                        int slot = (0x1E35A7BD * pixels[k]) >>> cacheShift;
+                        cache[slot] = pixels[k];
+                        cached[slot] = true;
+                    }
+                }
+                i += bestLength;
+            } else {
+                int p = pixels[i];
+                if (cache != null) {
+                    int slot = (0x1E35A7BD * p) >>> cacheShift;
+                    if (cached[slot] && cache[slot] == p) {
+                        tokens.add(Tokens.CACHE, slot, 0);
+                    } else {
+                        tokens.add(Tokens.LITERAL, p, 0);
+                        cache[slot] = p;
+                        cached[slot] = true;
+                    }
+                } else {
+                    tokens.add(Tokens.LITERAL, p, 0);
+                }
+                insertHash(pixels, i, head, chain);
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static void insertHash(int[] pixels, int i, int[] head, int[] chain) {
+        if (i + 1 < pixels.length) {
+            int h = hash(pixels[i], pixels[i + 1]);
+            chain[i] = head[h];
+            head[h] = i;
+        }
+    }
+
+    private static int hash(int a, int b) {
+        return ((a * 0x9E3779B1) ^ (b * 0x85EBCA77)) >>> (32 - HASH_BITS);
+    }
+
+    private static int matchLength(int[] pixels, int candidate, int i, int limit) {
+        int length = 0;
+        while (length < limit && pixels[candidate + length] == pixels[i + length]) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * 将线性距离转换为VP8L距离编码值：能用二维短距离编码表示时使用1-120，否则为 距离 + 120
+     */
+    private static int distanceCode(int distance, int width) {
+        int yi = distance / width;
+        int xi = distance - yi * width;
+        int best = distance + 120;
+        if (xi <= 8 && yi <= 8) {
+            int code = PLANE_LOOKUP[yi * 17 + xi + 8];
+            if (code > 0) {
+                best = Math.min(best, code);
+            }
+        }
+        if (xi - width >= -8 && yi + 1 <= 8) {
+            int code = PLANE_LOOKUP[(yi + 1) * 17 + xi - width + 8];
+            if (code > 0) {
+                best = Math.min(best, code);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 长度/距离值（>=1）对应的前缀编码
+     */
+    private static int prefixCode(int value) {
+        int v = value - 1;
+        if (v < 4) {
+            return v;
+        }
+        int highest = 31 - Integer.numberOfLeadingZeros(v);
+        int second = (v >> (highest - 1)) & 1;
+        return 2 * highest + second;
+    }
+
+    private static void writeExtraBits(BitWriter bits, int code, int value) {
+        if (code < 4) {
+            return;
+        }
+        int extraBits = (code - 2) >> 1;
+        bits.write((value - 1) & ((1 << extraBits) - 1), extraBits);
+    }
+
+    /**
+     * 根据符号频率构建并写出一组哈夫曼编码
+     */
+    private static PrefixCode writePrefixCode(BitWriter bits, int[] counts) {
+        List<Integer> used = new ArrayList<>();
+        for (int s = 0; s < counts.length; s++) {
+            if (counts[s] > 0) {
+                used.add(s);
+            }
+        }
+        int[] lengths = new int[counts.length];
+        if (used.size() <= 2 && (used.isEmpty() || used.getLast() < 256)) {
+            // 简单编码：最多两个符号且均小于256
+            if (used.isEmpty()) {
+                used.add(0);
+            }
+            bits.write(1, 1);
+            bits.write(used.size() - 1, 1);
+            int first = used.getFirst();
+            if (first <= 1) {
+                bits.write(0, 1);
+                bits.write(first, 1);
+            } else {
+                bits.write(1, 1);
+                bits.write(first, 8);
+            }
+            if (used.size() == 2) {
+                bits.write(used.get(1), 8);
+                lengths[used.get(0)] = 1;
+                lengths[used.get(1)] = 1;
+            }
+            return new PrefixCode(lengths, canonicalCodes(lengths));
+        }
+
+        int[] weights = counts.clone();
+        if (used.size() == 1) {
+            // 单符号的普通编码在解码端不读取任何位，补一个占位符号使编码含义明确
+            weights[used.getFirst() == 0 ? 1 : 0] = 1;
+        }
+        lengths = huffmanLengths(weights, 15);
+        writeCodeLengths(bits, lengths);
+        return new PrefixCode(lengths, canonicalCodes(lengths));
+    }
+
+    /**
+     * 以游程编码（16/17/18）写出码长序列
+     */
+    private static void writeCodeLengths(BitWriter bits, int[] lengths) {
+        int[] symbols = new int[lengths.length];
+        int[] extras = new int[lengths.length];
+        int count = 0;
+        for (int i = 0; i < lengths.length; ) {
+            int value = lengths[i];
+            int run = 1;
+            while (i + run < lengths.length && lengths[i + run] == value) {
+                run++;
+            }
+            i += run;
+            if (value == 0) {
+                while (run > 0) {
+                    if (run >= 11) {
+                        int r = Math.min(run, 138);
+                        symbols[count] = 18;
+                        extras[count++] = r - 11;
+                        run -= r;
+                    } else if (run >= 3) {
+                        symbols[count] = 17;
+                        extras[count++] = run - 3;
+                        run = 0;
+                    } else {
+                        symbols[count++] = 0;
+                        run--;
+                    }
+                }
+            } else {
+                symbols[count++] = value;
+                run--;
+                while (run >= 3) {
+                    int r = Math.min(run, 6);
+                    symbols[count] = 16;
+                    extras[count++] = r - 3;
+                    run -= r;
+                }
+                while (run-- > 0) {
+                    symbols[count++] = value;
+                }
+            }
+        }
+
+        int[] counts = new int[19];
+        for (int i = 0; i < count; i++) {
+            counts[symbols[i]]++;
+        }
+        int nonZero = 0;
+        for (int c : counts) {
+            if (c > 0) {
+                nonZero++;
+            }
+        }
+        if (nonZero < 2) {
+            counts[counts[0] > 0 ? 8 : 0]++;
+        }
+        int[] codeLengthLengths = huffmanLengths(counts, 7);
+        int numCodes = 19;
+        while (numCodes > 4 && codeLengthLengths[CODE_LENGTH_ORDER[numCodes - 1]] == 0) {
+            numCodes--;
+        }
+        bits.write(0, 1);
+        bits.write(numCodes - 4, 4);
+        for (int i = 0; i < numCodes; i++) {
+            bits.write(codeLengthLengths[CODE_LENGTH_ORDER[i]], 3);
+        }
+        // 码长序列覆盖整个字母表，不使用max_symbol
+        bits.write(0, 1);
+        PrefixCode code = new PrefixCode(codeLengthLengths, canonicalCodes(codeLengthLengths));
+        for (int i = 0; i < count; i++) {
+            code.write(bits, symbols[i]);
+            switch (symbols[i]) {
+                case 16 -> bits.write(extras[i], 2);
+                case 17 -> bits.write(extras[i], 3);
+                case 18 -> bits.write(extras[i], 7);
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * 计算码长不超过limit的哈夫曼码长；超出时将频率减半后重建
+     */
+    private static int[] huffmanLengths(int[] counts, int limit) {
+        long[] weights = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            weights[i] = counts[i];
+        }
+        while (true) {
+            int[] lengths = buildHuffman(weights);
+            int max = 0;
+            for (int length : lengths) {
+                max = Math.max(max, length);
+            }
+            if (max <= limit) {
+                return lengths;
+            }
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] > 0) {
+                    weights[i] = Math.max(1, weights[i] >> 1);
+                }
+            }
+        }
+    }
+
+    private static int[] buildHuffman(long[] weights) {
+        int n = weights.length;
+        int[] parent = new int[2 * n];
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        for (int s = 0; s < n; s++) {
+            if (weights[s] > 0) {
+                queue.add(new long[]{weights[s], s});
+            }
+        }
+        int next = n;
+        while (queue.size() > 1) {
+            long[] a = queue.poll();
+            long[] b = queue.poll();
+            parent[(int) a[1]] = next;
+            parent[(int) b[1]] = next;
+            queue.add(new long[]{a[0] + b[0], next});
+            next++;
+        }
+        int root = next - 1;
+        int[] depth = new int[2 * n];
+        for (int node = root - 1; node >= n; node--) {
+            depth[node] = depth[parent[node]] + 1;
+        }
+        int[] lengths = new int[n];
+        for (int s = 0; s < n; s++) {
+            if (weights[s] > 0) {
+                lengths[s] = depth[parent[s]] + 1;
+            }
+        }
+        return lengths;
+    }
+
+    /**
+     * 由码长生成规范哈夫曼编码，并按位倒序以便LSB优先写出
+     */
+    private static int[] canonicalCodes(int[] lengths) {
+        int[] lengthCount = new int[16];
+        for (int length : lengths) {
+            lengthCount[length]++;
+        }
+        lengthCount[0] = 0;
+        int[] nextCode = new int[16];
+        int code = 0;
+        for (int len = 1; len < 16; len++) {
+            code = (code + lengthCount[len - 1]) << 1;
+            nextCode[len] = code;
+        }
+        int[] codes = new int[lengths.length];
+        for (int s = 0; s < lengths.length; s++) {
+            int len = lengths[s];
+            if (len > 0) {
+                codes[s] = Integer.reverse(nextCode[len]++) >>> (32 - len);
+            }
+        }
+        return codes;
+    }
+
+    private static void writeIntLE(byte[] b, int offset, int value) {
+        b[offset] = (byte) value;
+        b[offset + 1] = (byte) (value >>> 8);
+        b[offset + 2] = (byte) (value >>> 16);
+        b[offset + 3] = (byte) (value >>> 24);
+    }
+
+    private record PrefixCode(int[] lengths, int[] codes) {
+        void write(BitWriter bits, int symbol) {
+            bits.write(codes[symbol], lengths[symbol]);
+        }
+    }
+
+    /**
+     * LZ77输出序列
+     */
+    private static final class Tokens {
+        static final byte LITERAL = 0;
+        static final byte CACHE = 1;
+        static final byte COPY = 2;
+
+        final byte[] kinds;
+        final int[] values;
+        final int[] distances;
+        int size;
+
+        Tokens(int capacity) {
+            kinds = new byte[capacity];
+            values = new int[capacity];
+            distances = new int[capacity];
+        }
+
+        void add(byte kind, int value, int distance) {
+            kinds[size] = kind;
+            values[size] = value;
+            distances[size++] = distance;
+        }
+    }
+
+    /**
+     * LSB优先的位写入器
+     */
+    private static final class BitWriter {
+        private byte[] buffer;
+        private int position;
+        private long accumulator;
+        private int count;
+
+        BitWriter(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void write(int value, int n) {
+            if (n == 0) {
+                return;
+            }
+            accumulator |= (value & ((1L << n) - 1)) << count;
+            count += n;
+            while (count >= 8) {
+                if (position == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                buffer[position++] = (byte) accumulator;
+                accumulator >>>= 8;
+                count -= 8;
+            }
+        }
+
+        byte[] toByteArray() {
+            if (count > 0) {
+                write(0, 8 - count);
+            }
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+}
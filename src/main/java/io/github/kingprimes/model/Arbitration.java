@@ -147,7 +147,7 @@ public class Arbitration {
      */
     @JsonIgnore
     public String getTimeLeft() {
-        return TimeUtils.timeDeltaToString(expiry.toEpochMilli() - System.currentTimeMillis());
+        return TimeUtils.timeDeltaToString(expiry.toEpochMilli() - TimeUtils.currentTimeMillis());
     }
 
     /**
@@ -157,7 +157,7 @@ public class Arbitration {
      */
     @JsonIgnore
     public String getEtc() {
-        return TimeUtils.timeDeltaToString(expiry.toEpochMilli() - System.currentTimeMillis());
+        return TimeUtils.timeDeltaToString(expiry.toEpochMilli() - TimeUtils.currentTimeMillis());
     }
 
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.github.kingprimes.model.enums.SyndicateEnum;
 import io.github.kingprimes.model.worldstate.*;
+import io.github.kingprimes.utils.TimeUtils;
 import lombok.Data;
 import lombok.experimental.Accessors;
 
@@ -188,6 +189,6 @@ public class WorldState {
                 .filter(s -> s.getTag() != null && s.getTag().equals(key))
                 .findFirst()
                 .map(s -> s.getExpiry().getEpochSecond())
-                .orElse(Instant.now());
+                .orElse(TimeUtils.now());
     }
 }
@@ -70,7 +70,7 @@ public final class CetusCycle {
      *
      */
     public CetusCycle(Instant bountiesEndDate) {
-        Instant now = Instant.now();
+        Instant now = TimeUtils.now();
         Instant bountiesClone = bountiesEndDate.truncatedTo(ChronoUnit.SECONDS);
 
         long millisLeft = Duration.between(now, bountiesClone).toMillis();
@@ -47,7 +47,7 @@ public class DateField {
      */
     @JsonIgnore
     public String getTimeLeft() {
-        return TimeUtils.timeDeltaToString(date.getEpochSecond().toEpochMilli() - System.currentTimeMillis());
+        return TimeUtils.timeDeltaToString(date.getEpochSecond().toEpochMilli() - TimeUtils.currentTimeMillis());
     }
 
     /**
@@ -59,7 +59,7 @@ public final class DuvalierCycle {
     public DuvalierCycle(List<EndlessXpChoices> choices) {
         this.choices = choices;
 
-        long nowSeconds = Instant.now().getEpochSecond();
+        long nowSeconds = TimeUtils.now().getEpochSecond();
         long cycleDelta = (nowSeconds - 52) % CYCLE_TIME;
 
         int stateInd = (int) (cycleDelta / STATE_TIME);
@@ -68,9 +68,9 @@ public final class DuvalierCycle {
 
         this.state = STATES.get(stateInd);
 
-        this.expiry = Instant.now().plus(untilNext, ChronoUnit.SECONDS).truncatedTo(ChronoUnit.SECONDS);
+        this.expiry = TimeUtils.now().plus(untilNext, ChronoUnit.SECONDS).truncatedTo(ChronoUnit.SECONDS);
         this.activation = this.expiry.minus(STATE_TIME, ChronoUnit.SECONDS);
-        this.timeLeft = TimeUtils.timeDeltaToString(this.expiry.toEpochMilli() - System.currentTimeMillis());
+        this.timeLeft = TimeUtils.timeDeltaToString(this.expiry.toEpochMilli() - TimeUtils.currentTimeMillis());
     }
 
 }
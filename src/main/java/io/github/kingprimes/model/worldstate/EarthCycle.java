@@ -60,7 +60,7 @@ public final class EarthCycle {
 
 
     public EarthCycle() {
-        long now = System.currentTimeMillis();
+        long now = TimeUtils.currentTimeMillis();
         long nowSeconds = now / 1000;
 
         long cycleSeconds = nowSeconds % CYCLE_SECONDS;
@@ -85,7 +85,7 @@ public final class EarthCycle {
 
         this.activation = this.start;
 
-        this.expired = expiry.isBefore(Instant.now());
+        this.expired = expiry.isBefore(TimeUtils.now());
     }
 
 
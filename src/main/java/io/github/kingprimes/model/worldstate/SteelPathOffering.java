@@ -83,7 +83,7 @@ public final class SteelPathOffering {
     public SteelPathOffering() {
 
         // 计算当前周期索引
-        long secondsSinceStart = ChronoUnit.SECONDS.between(START_DATE, LocalDateTime.now(ZoneOffset.UTC));
+        long secondsSinceStart = ChronoUnit.SECONDS.between(START_DATE, LocalDateTime.ofInstant(TimeUtils.now(), ZoneOffset.UTC));
         long eightWeeks = 4838400; // 8周的秒数
         long sevenDays = 604800;   // 7天的秒数
 
@@ -100,7 +100,7 @@ public final class SteelPathOffering {
         this.expiry = TimeUtils.getLastDayOfWeek();
 
         // 计算剩余时间
-        this.remaining = TimeUtils.timeDeltaToString(ChronoUnit.MILLIS.between(LocalDateTime.now(ZoneOffset.UTC), this.expiry));
+        this.remaining = TimeUtils.timeDeltaToString(ChronoUnit.MILLIS.between(LocalDateTime.ofInstant(TimeUtils.now(), ZoneOffset.UTC), this.expiry));
 
         // 设置时间信息
         LocalDateTime startOfDay = TimeUtils.getStartOfDay();
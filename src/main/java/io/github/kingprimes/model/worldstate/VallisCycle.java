@@ -54,7 +54,7 @@ public final class VallisCycle {
      * 构造函数，同时执行 getCurrentCycle 的逻辑
      */
     public VallisCycle() {
-        long now = System.currentTimeMillis();
+        long now = TimeUtils.currentTimeMillis();
         long sinceLast = (now - L_START.toEpochMilli()) % LOOP_TIME;
         long toNextFull = LOOP_TIME - sinceLast;
 
@@ -81,7 +81,7 @@ public final class VallisCycle {
         this.expiry = timeAtNext.truncatedTo(ChronoUnit.SECONDS);
         this.activation = timeAtPrevious.truncatedTo(ChronoUnit.SECONDS);
         this.timeLeft = TimeUtils.timeDeltaToString(toNextMinor);
-        this.expired = expiry.isBefore(Instant.now());
+        this.expired = expiry.isBefore(TimeUtils.now());
     }
 
 }
@@ -56,7 +56,7 @@ public final class ZarimanCycle {
      *                        </pro>
      */
     public ZarimanCycle(Instant bountiesEndDate) {
-        long now = System.currentTimeMillis();
+        long now = TimeUtils.currentTimeMillis();
 
         // 计算剩余时间
         long bountiesClone = bountiesEndDate.toEpochMilli() - 5000;
@@ -79,7 +79,7 @@ public final class ZarimanCycle {
         this.timeLeft = TimeUtils.timeDeltaToString(millisLeft);
 
 
-        this.expired = expiry.isBefore(Instant.now());
+        this.expired = expiry.isBefore(TimeUtils.now());
     }
 
 }
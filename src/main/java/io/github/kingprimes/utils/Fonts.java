@@ -1,8 +1,8 @@
 package io.github.kingprimes.utils;
 
 import java.awt.*;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 /**
@@ -23,8 +23,8 @@ public class Fonts {
     public static final Font FONT_SERIF = new Font(Font.SERIF, Font.PLAIN, DEFAULT_FONT_SIZE);
     public static final Font FONT_MONOSPACED = new Font(Font.MONOSPACED, Font.PLAIN, DEFAULT_FONT_SIZE);
     private static final Logger logger = Logger.getLogger(Fonts.class.getName());
-    // 字体缓存，避免重复创建字体对象
-    private static final Map<String, Font> FONT_CACHE = new HashMap<>();
+    // 字体缓存，避免重复创建字体对象（可能被多个绘图线程同时访问）
+    private static final Map<String, Font> FONT_CACHE = new ConcurrentHashMap<>();
     // 基础字体
     public static final Font FONT_TEXT = createFont("fonts/SourceHanSerifCN-Bold.ttf", Font.TRUETYPE_FONT, Font.PLAIN, LARGE_FONT_SIZE);
     // 艺术字体
@@ -41,8 +41,9 @@ public class Fonts {
     public static Font createFont(String fontPath, int fontFormat, int style, int size) {
         String key = fontPath + ":" + style + ":" + size;
 
-        if (FONT_CACHE.containsKey(key)) {
-            return FONT_CACHE.get(key);
+        Font cached = FONT_CACHE.get(key);
+        if (cached != null) {
+            return cached;
         }
 
         try {
@@ -56,8 +57,9 @@ public class Fonts {
 
             Font font = Font.createFont(fontFormat, resource.openStream());
             font = font.deriveFont(style, size);
-            FONT_CACHE.put(key, font);
-            return font;
+            // 并发创建同一字体时保留先放入缓存的实例
+            Font existing = FONT_CACHE.putIfAbsent(key, font);
+            return existing != null ? existing : font;
         } catch (Exception e) {
             logger.severe(String.format("创建字体失败: %s", e.getMessage()));
             return new Font(Font.SANS_SERIF, style, size);
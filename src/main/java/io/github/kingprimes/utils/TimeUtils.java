@@ -12,6 +12,46 @@ import java.time.temporal.TemporalAdjusters;
  */
 @SuppressWarnings("unused")
 public class TimeUtils {
+
+    // 获取"当前时间"使用的时钟，所有绘图相关的当前时间都应通过此时钟获取，便于测试时固定时间
+    private static volatile Clock clock = Clock.systemUTC();
+
+    /**
+     * 获取当前使用的时钟
+     *
+     * @return 时钟
+     */
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * 设置获取当前时间使用的时钟
+     *
+     * @param clock 时钟，为null时恢复为系统时钟
+     */
+    public static void setClock(Clock clock) {
+        TimeUtils.clock = clock == null ? Clock.systemUTC() : clock;
+    }
+
+    /**
+     * 获取当前时间
+     *
+     * @return 当前时间
+     */
+    public static Instant now() {
+        return clock.instant();
+    }
+
+    /**
+     * 获取当前时间戳
+     *
+     * @return 当前时间的毫秒数
+     */
+    public static long currentTimeMillis() {
+        return clock.millis();
+    }
+
     /**
      * 将毫秒时间差转换为可读的字符串格式
      * 格式为: Xd Xh Xm Xs (分别表示天、小时、分钟、秒)
@@ -68,7 +108,7 @@ public class TimeUtils {
      * @return 指定时间戳与当前时间的分钟差（绝对值）
      */
     public static long timeDeltaToMinutes(long startMillis) {
-        return timeDeltaToMinutes(startMillis, System.currentTimeMillis());
+        return timeDeltaToMinutes(startMillis, currentTimeMillis());
     }
 
     /**
@@ -130,7 +170,7 @@ public class TimeUtils {
      * @return 格式化的时间差字符串
      */
     public static String timeDeltaToNow(long millis, String timezone) {
-        return timeDeltaToString(millis, System.currentTimeMillis(), timezone);
+        return timeDeltaToString(millis, currentTimeMillis(), timezone);
     }
 
     /**
@@ -149,7 +189,7 @@ public class TimeUtils {
      * @return 本周第一天的LocalDateTime对象（UTC时区）
      */
     public static LocalDateTime getFirstDayOfWeek() {
-        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate today = LocalDate.ofInstant(now(), ZoneOffset.UTC);
         LocalDate firstDay = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
         return firstDay.atStartOfDay().atOffset(ZoneOffset.UTC).toLocalDateTime();
     }
@@ -170,7 +210,7 @@ public class TimeUtils {
      * @return 当天开始时间的LocalDateTime对象（UTC时区）
      */
     public static LocalDateTime getStartOfDay() {
-        return LocalDate.now(ZoneOffset.UTC).atStartOfDay().atOffset(ZoneOffset.UTC).toLocalDateTime();
+        return LocalDate.ofInstant(now(), ZoneOffset.UTC).atStartOfDay().atOffset(ZoneOffset.UTC).toLocalDateTime();
     }
 
     /**
@@ -179,7 +219,7 @@ public class TimeUtils {
      * @return 当天结束时间的LocalDateTime对象（UTC时区，时间为23:59:59）
      */
     public static LocalDateTime getEndOfDay() {
-        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate today = LocalDate.ofInstant(now(), ZoneOffset.UTC);
         return today.atTime(23, 59, 59).atOffset(ZoneOffset.UTC).toLocalDateTime();
     }
 }
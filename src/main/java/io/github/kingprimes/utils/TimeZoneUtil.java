@@ -114,6 +114,6 @@ public class TimeZoneUtil {
      * @return 当前时间的毫秒数
      */
     public static Long getTimeStampMillis() {
-        return System.currentTimeMillis();
+        return TimeUtils.currentTimeMillis();
     }
 }
@@ -0,0 +1,98 @@
+package benchmark;
+
+import com.alibaba.fastjson2.JSON;
+import common.Constant;
+import io.github.kingprimes.DrawImagePlugin;
+import io.github.kingprimes.defaultdraw.DefaultDrawImagePlugin;
+import io.github.kingprimes.image.DisplayList;
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.RecordingImageCombiner;
+import io.github.kingprimes.model.market.OrderWithUser;
+import io.github.kingprimes.model.market.Orders;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * 分块并行光栅化的扩展性测试，使用 orders.json 与 state-test.json 中的数据，
+ * 以1到CPU核心数的线程数回放同一个显示列表
+ */
+public class TestBandRasterBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+
+    private static RecordingImageCombiner record(Function<DrawImagePlugin, byte[]> draw) {
+        List<RecordingImageCombiner> captured = new ArrayList<>();
+        DrawImagePlugin plugin = new DefaultDrawImagePlugin() {
+            @Override
+            protected byte[] encode(ImageCombiner combiner) {
+                captured.add((RecordingImageCombiner) combiner);
+                return new byte[0];
+            }
+        };
+        draw.apply(plugin);
+        Assert.assertEquals(1, captured.size());
+        return captured.getFirst();
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private static void bench(String name, RecordingImageCombiner combiner) {
+        DisplayList list = combiner.finish();
+        int width = combiner.getCanvasWidth(), height = combiner.getCanvasHeight();
+        int[] expected = null;
+        double baseline = 0;
+        System.out.printf("%s %dx%d, %d ops%n", name, width, height, list.size());
+        System.out.printf("%8s %6s %10s %8s%n", "threads", "bands", "ms", "speedup");
+        for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads++) {
+            int bands = threads == 1 ? 1 : Math.min(threads * 2, height / DisplayList.MIN_BAND_HEIGHT);
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                BufferedImage image = null;
+                for (int i = 0; i < WARMUP; i++) {
+                    image = list.rasterize(width, height, ImageCombiner.OutputFormat.PNG, bands, pool).getCombinedImage();
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < ROUNDS; i++) {
+                    list.rasterize(width, height, ImageCombiner.OutputFormat.PNG, bands, pool);
+                }
+                double ms = (System.nanoTime() - start) / 1e6 / ROUNDS;
+                if (expected == null) {
+                    expected = pixels(image);
+                    baseline = ms;
+                } else {
+                    Assert.assertArrayEquals(name + " threads=" + threads, expected, pixels(image));
+                }
+                System.out.printf("%8d %6d %10.1f %7.2fx%n", threads, bands, ms, baseline / ms);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void testMarketOrdersScaling() {
+        Orders orders = JSON.parseObject(TestBandRasterBenchmark.class.getResourceAsStream("/orders.json"), Orders.class);
+        Assert.assertNotNull(orders);
+        // 重复订单数据，得到与真实热门物品相当的数千像素高的画布
+        List<OrderWithUser> rows = new ArrayList<>();
+        while (rows.size() < 60) {
+            rows.addAll(orders.getOrders());
+        }
+        orders.setOrders(rows);
+        bench("market orders", record(plugin -> plugin.drawMarketOrdersImage(orders)));
+    }
+
+    @Test
+    public void testInvasionScaling() {
+        bench("invasions", record(plugin -> plugin.drawInvasionImage(Constant.WORLD_STATE.getInvasions())));
+    }
+}
@@ -0,0 +1,116 @@
+package benchmark;
+
+import io.github.kingprimes.image.Blitter;
+import io.github.kingprimes.image.CanvasPool;
+import io.github.kingprimes.image.GraphicsUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 卡片拼接耗时对比：高质量渲染参数下的 Graphics2D.drawImage、按行读写栅格的直接合成，
+ * 以及画布池画布上直接读写像素数组的合成
+ */
+public class TestBlitBenchmark {
+
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 10;
+    private static final int CARDS = 24;
+    private static final int COLUMNS = 4;
+    private static final int CARD_WIDTH = 500;
+    private static final int CARD_HEIGHT = 320;
+    private static final int MARGIN = 20;
+
+    /**
+     * 与卡片渲染结果相当的圆角卡片：四角透明、边缘抗锯齿半透明、内部不透明
+     */
+    private static List<BufferedImage> cards(boolean pooled) {
+        List<BufferedImage> cards = new ArrayList<>();
+        for (int i = 0; i < CARDS; i++) {
+            BufferedImage card = canvas(CARD_WIDTH, CARD_HEIGHT, pooled);
+            Graphics2D g = card.createGraphics();
+            GraphicsUtils.setQualityRenderingHints(g);
+            g.setColor(new Color(0x2A2A2A + i * 0x030303));
+            g.fillRoundRect(0, 0, CARD_WIDTH, CARD_HEIGHT, 30, 30);
+            g.setColor(Color.WHITE);
+            g.drawString("Card " + i, 40, 60);
+            g.dispose();
+            cards.add(card);
+        }
+        return cards;
+    }
+
+    private static BufferedImage canvas(int width, int height, boolean pooled) {
+        return pooled ? CanvasPool.shared().lease(width, height) : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static BufferedImage page(boolean pooled) {
+        int rows = (CARDS + COLUMNS - 1) / COLUMNS;
+        BufferedImage page = canvas(COLUMNS * (CARD_WIDTH + MARGIN) + MARGIN,
+                rows * (CARD_HEIGHT + MARGIN) + MARGIN, pooled);
+        Graphics2D g = page.createGraphics();
+        g.setColor(new Color(0x1E1E1E));
+        g.fillRect(0, 0, page.getWidth(), page.getHeight());
+        g.dispose();
+        return page;
+    }
+
+    private static void stitch(BufferedImage page, List<BufferedImage> cards, boolean direct) {
+        Graphics2D g = page.createGraphics();
+        GraphicsUtils.setQualityRenderingHints(g);
+        for (int i = 0; i < cards.size(); i++) {
+            int x = MARGIN + i % COLUMNS * (CARD_WIDTH + MARGIN);
+            int y = MARGIN + i / COLUMNS * (CARD_HEIGHT + MARGIN);
+            if (!direct || !Blitter.drawImage(g, page, cards.get(i), x, y)) {
+                g.drawImage(cards.get(i), x, y, null);
+            }
+        }
+        g.dispose();
+    }
+
+    private static BufferedImage stitch(List<BufferedImage> cards, boolean direct, boolean pooled) {
+        BufferedImage page = page(pooled);
+        stitch(page, cards, direct);
+        return page;
+    }
+
+    /**
+     * 只计拼接耗时，不含页面分配与铺底
+     */
+    private static double time(List<BufferedImage> cards, boolean direct, boolean pooled) {
+        long total = 0;
+        for (int i = 0; i < WARMUP + ROUNDS; i++) {
+            BufferedImage page = page(pooled);
+            long start = System.nanoTime();
+            stitch(page, cards, direct);
+            if (i >= WARMUP) {
+                total += System.nanoTime() - start;
+            }
+            CanvasPool.shared().release(page);
+        }
+        return total / 1e6 / ROUNDS;
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    @Test
+    public void testStitchCards() {
+        List<BufferedImage> cards = cards(false);
+        List<BufferedImage> pooledCards = cards(true);
+        BufferedImage expected = stitch(cards, false, false);
+        Assert.assertArrayEquals(pixels(expected), pixels(stitch(cards, true, false)));
+        Assert.assertArrayEquals(pixels(expected), pixels(stitch(pooledCards, true, true)));
+        double drawImage = time(cards, false, false);
+        double raster = time(cards, true, false);
+        double pooled = time(pooledCards, true, true);
+        System.out.printf("stitch %d cards (%dx%d page): drawImage %.1f ms, raster rows %.1f ms (%.2fx), pooled arrays %.1f ms (%.2fx)%n",
+                CARDS, expected.getWidth(), expected.getHeight(), drawImage, raster, drawImage / raster, pooled, drawImage / pooled);
+        pooledCards.forEach(CanvasPool.shared()::release);
+    }
+}
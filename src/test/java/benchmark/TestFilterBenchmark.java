@@ -0,0 +1,132 @@
+package benchmark;
+
+import io.github.kingprimes.image.FilterEngine;
+import io.github.kingprimes.image.FilterUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * 滤镜耗时对比：原有的逐像素钳制卷积（getRGB/setRGB拷贝）、像素数组上的可分离卷积，以及盒式模糊近似；
+ * 原有的逐像素getRGB/setRGB灰度转换与像素数组上的灰度运算
+ */
+public class TestFilterBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+
+    /**
+     * 原有的高斯模糊实现
+     */
+    private static BufferedImage legacyGaussianBlur(BufferedImage image, int radius) {
+        int size = radius * 2 + 1;
+        float[] kernel = FilterEngine.gaussianKernel(radius);
+        BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = result.createGraphics();
+        g2.drawImage(image, 0, 0, null);
+        g2.dispose();
+        result = legacyConvolve(result, kernel, size, 1);
+        return legacyConvolve(result, kernel, 1, size);
+    }
+
+    private static BufferedImage legacyConvolve(BufferedImage image, float[] kernel, int kernelWidth, int kernelHeight) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int halfKernelX = kernelWidth / 2;
+        int halfKernelY = kernelHeight / 2;
+        int[] pixels = new int[width * height];
+        image.getRGB(0, 0, width, height, pixels, 0, width);
+        int[] output = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                float r = 0, g = 0, b = 0, a = 0;
+                for (int ky = 0; ky < kernelHeight; ky++) {
+                    for (int kx = 0; kx < kernelWidth; kx++) {
+                        int pixelX = Math.min(width - 1, Math.max(0, x + kx - halfKernelX));
+                        int pixelY = Math.min(height - 1, Math.max(0, y + ky - halfKernelY));
+                        int pixel = pixels[pixelY * width + pixelX];
+                        float weight = kernel[ky * kernelWidth + kx];
+                        a += weight * ((pixel >> 24) & 0xFF);
+                        r += weight * ((pixel >> 16) & 0xFF);
+                        g += weight * ((pixel >> 8) & 0xFF);
+                        b += weight * (pixel & 0xFF);
+                    }
+                }
+                output[y * width + x] = (((int) a & 0xFF) << 24) | (((int) r & 0xFF) << 16)
+                        | (((int) g & 0xFF) << 8) | ((int) b & 0xFF);
+            }
+        }
+        result.setRGB(0, 0, width, height, output, 0, width);
+        return result;
+    }
+
+    /**
+     * 原有的灰度实现
+     */
+    private static BufferedImage legacyGrayScale(BufferedImage image) {
+        BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int rgb = image.getRGB(x, y);
+                int gray = (int) (0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF));
+                result.setRGB(x, y, (rgb & 0xFF000000) | (gray << 16) | (gray << 8) | gray);
+            }
+        }
+        return result;
+    }
+
+    private static double time(Function<BufferedImage, BufferedImage> filter, BufferedImage image) {
+        for (int i = 0; i < WARMUP; i++) {
+            filter.apply(image);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            filter.apply(image);
+        }
+        return (System.nanoTime() - start) / 1e6 / ROUNDS;
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private static BufferedImage sample() {
+        // 与卡片背景相当的尺寸
+        BufferedImage image = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(7);
+        Graphics2D g2 = image.createGraphics();
+        for (int i = 0; i < 300; i++) {
+            g2.setColor(new Color(random.nextInt(), true));
+            g2.fillOval(random.nextInt(1200), random.nextInt(800), 20 + random.nextInt(200), 20 + random.nextInt(200));
+        }
+        g2.dispose();
+        return image;
+    }
+
+    @Test
+    public void testGaussianBlur() {
+        BufferedImage image = sample();
+        System.out.printf("%6s %12s %12s %12s %10s %10s%n", "radius", "legacy ms", "engine ms", "box ms", "engine", "box");
+        for (int radius : new int[]{2, 5, 10, 20}) {
+            Assert.assertArrayEquals(pixels(legacyGaussianBlur(image, radius)), pixels(FilterUtils.gaussianBlur(image, radius)));
+            double legacy = time(source -> legacyGaussianBlur(source, radius), image);
+            double engine = time(source -> FilterUtils.gaussianBlur(source, radius), image);
+            double box = time(source -> FilterUtils.fastGaussianBlur(source, radius), image);
+            System.out.printf("%6d %12.1f %12.1f %12.1f %9.2fx %9.2fx%n", radius, legacy, engine, box, legacy / engine, legacy / box);
+        }
+    }
+
+    @Test
+    public void testGrayScale() {
+        BufferedImage image = sample();
+        Assert.assertArrayEquals(pixels(legacyGrayScale(image)), pixels(FilterUtils.grayScale(image)));
+        double legacy = time(TestFilterBenchmark::legacyGrayScale, image);
+        double pixelOps = time(FilterUtils::grayScale, image);
+        System.out.printf("grayScale legacy %.1f ms, pixel ops %.1f ms, %.2fx%n", legacy, pixelOps, legacy / pixelOps);
+    }
+}
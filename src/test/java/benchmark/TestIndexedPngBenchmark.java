@@ -0,0 +1,72 @@
+package benchmark;
+
+import io.github.kingprimes.image.encoder.ImageEncoder;
+import io.github.kingprimes.image.encoder.IndexedPngEncoder;
+import io.github.kingprimes.image.encoder.PngEncoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 索引色PNG与真彩色PNG的体积/画质对比，使用 draw/ 目录下的参考图片
+ */
+public class TestIndexedPngBenchmark {
+
+    private static BufferedImage toArgb(BufferedImage source) {
+        BufferedImage image = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        image.createGraphics().drawImage(source, 0, 0, null);
+        return image;
+    }
+
+    private static byte[] encode(ImageEncoder encoder, BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.encode(image, out);
+        return out.toByteArray();
+    }
+
+    private static double psnr(BufferedImage a, BufferedImage b) {
+        double error = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                int p = a.getRGB(x, y), q = b.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int d = ((p >>> shift) & 0xFF) - ((q >>> shift) & 0xFF);
+                    error += d * d;
+                }
+            }
+        }
+        double mse = error / (a.getWidth() * (double) a.getHeight() * 4);
+        return mse == 0 ? Double.POSITIVE_INFINITY : 10 * Math.log10(255 * 255 / mse);
+    }
+
+    @Test
+    public void testSizeAndQuality() throws IOException {
+        File[] files = new File("draw").listFiles((dir, name) -> name.endsWith(".png"));
+        Assert.assertNotNull(files);
+        Arrays.sort(files);
+        long totalTrueColor = 0, totalIndexed = 0;
+        System.out.printf("%-45s %10s %10s %7s %8s %8s%n", "image", "argb", "indexed", "ratio", "psnr", "ms");
+        for (File file : files) {
+            BufferedImage image = toArgb(ImageIO.read(file));
+            byte[] trueColor = encode(PngEncoder.DEFAULT, image);
+            long start = System.nanoTime();
+            byte[] indexed = encode(IndexedPngEncoder.DEFAULT, image);
+            double ms = (System.nanoTime() - start) / 1e6;
+            double psnr = psnr(image, ImageIO.read(new ByteArrayInputStream(indexed)));
+            totalTrueColor += trueColor.length;
+            totalIndexed += indexed.length;
+            System.out.printf("%-45s %10d %10d %6.2fx %8.2f %8.1f%n", file.getName(), trueColor.length, indexed.length,
+                    trueColor.length / (double) indexed.length, psnr, ms);
+            Assert.assertTrue(file.getName() + " psnr " + psnr, psnr > 30);
+        }
+        System.out.printf("total %d -> %d (%.2fx)%n", totalTrueColor, totalIndexed, totalTrueColor / (double) totalIndexed);
+        Assert.assertTrue(totalIndexed < totalTrueColor);
+    }
+}
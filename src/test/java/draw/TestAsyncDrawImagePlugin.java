@@ -0,0 +1,186 @@
+package draw;
+
+import io.github.kingprimes.AsyncDrawImagePlugin;
+import io.github.kingprimes.AsyncDrawImagePlugin.Priority;
+import io.github.kingprimes.AsyncDrawImagePlugin.RejectionPolicy;
+import io.github.kingprimes.ForwardingDrawImagePlugin;
+import io.github.kingprimes.defaultdraw.DefaultDrawImagePlugin;
+import io.github.kingprimes.image.ImageCombiner;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class TestAsyncDrawImagePlugin {
+
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private AsyncDrawImagePlugin plugin;
+
+    private AsyncDrawImagePlugin create(int threads, int capacity, RejectionPolicy policy) {
+        plugin = new AsyncDrawImagePlugin(new ForwardingDrawImagePlugin(new DefaultDrawImagePlugin()) {
+            @Override
+            protected byte[] draw(String method, Supplier<byte[]> call, Object... args) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                return method.getBytes(StandardCharsets.UTF_8);
+            }
+        }, threads, capacity, policy);
+        return plugin;
+    }
+
+    @After
+    public void close() {
+        gate.countDown();
+        if (plugin != null) {
+            plugin.close();
+        }
+    }
+
+    @Test
+    public void testWithOutputFormatKeepsAsyncSettings() throws Exception {
+        plugin = new AsyncDrawImagePlugin(new DefaultDrawImagePlugin(), 2, 4, RejectionPolicy.CALLER_RUNS)
+                .setPriority("drawHelpImage", Priority.LOW);
+        Assert.assertSame(plugin, plugin.withOutputFormat(ImageCombiner.OutputFormat.PNG));
+        try (AsyncDrawImagePlugin webp = plugin.withOutputFormat(ImageCombiner.OutputFormat.WEBP)) {
+            Assert.assertEquals(ImageCombiner.OutputFormat.WEBP, webp.getOutputFormat());
+            Assert.assertEquals(Priority.LOW, webp.getPriority("drawHelpImage"));
+            // 直接按WebP编码，不经过转码装饰器
+            Assert.assertTrue(webp.getDelegate() instanceof DefaultDrawImagePlugin);
+            byte[] bytes = webp.drawHelpImageAsync(List.of("HELP")).get(30, TimeUnit.SECONDS);
+            Assert.assertEquals("RIFF", new String(bytes, 0, 4, StandardCharsets.US_ASCII));
+        }
+    }
+
+    // 占住唯一的渲染线程，直到gate放行
+    private CompletableFuture<byte[]> blockWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<byte[]> blocker = plugin.submit("blocker", Priority.HIGH, () -> {
+            started.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new byte[0];
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        return blocker;
+    }
+
+    @Test
+    public void testPriorityOrder() throws Exception {
+        create(1, 16, RejectionPolicy.ABORT);
+        blockWorker();
+        List<String> order = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+        futures.add(plugin.drawMarketRivenImageAsync(null).whenComplete((b, e) -> order.add("riven")));
+        futures.add(plugin.drawInvasionImageAsync(null).whenComplete((b, e) -> order.add("invasion")));
+        futures.add(plugin.drawHelpImageAsync(null).whenComplete((b, e) -> order.add("help")));
+        Assert.assertEquals(3, plugin.getQueuedCount());
+        gate.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(List.of("help", "invasion", "riven"), order);
+        Assert.assertEquals("drawHelpImage", new String(futures.get(2).get(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testAbortWhenFull() throws Exception {
+        create(1, 2, RejectionPolicy.ABORT);
+        blockWorker();
+        CompletableFuture<byte[]> first = plugin.drawHelpImageAsync(null);
+        CompletableFuture<byte[]> second = plugin.drawHelpImageAsync(null);
+        CompletableFuture<byte[]> third = plugin.drawHelpImageAsync(null);
+        Assert.assertTrue(third.isCompletedExceptionally());
+        try {
+            third.join();
+            Assert.fail();
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        Assert.assertEquals(1, plugin.getRejectedCount());
+        gate.countDown();
+        Assert.assertNotNull(first.get(5, TimeUnit.SECONDS));
+        Assert.assertNotNull(second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCallerRunsWhenFull() throws Exception {
+        create(1, 1, RejectionPolicy.CALLER_RUNS);
+        blockWorker();
+        plugin.drawHelpImageAsync(null);
+        String caller = Thread.currentThread().getName();
+        CompletableFuture<String> thread = plugin.submit("drawHelpImage", () -> Thread.currentThread().getName()
+                .getBytes(StandardCharsets.UTF_8)).thenApply(b -> new String(b, StandardCharsets.UTF_8));
+        Assert.assertEquals(caller, thread.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testBlockWhenFull() throws Exception {
+        create(1, 1, RejectionPolicy.BLOCK);
+        blockWorker();
+        plugin.drawHelpImageAsync(null);
+        CompletableFuture<CompletableFuture<byte[]>> submitted = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> submitted.complete(plugin.drawHelpImageAsync(null)));
+        Thread.sleep(100);
+        Assert.assertFalse("队列已满时提交线程应被阻塞", submitted.isDone());
+        gate.countDown();
+        Assert.assertNotNull(submitted.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancelQueuedTask() throws Exception {
+        create(1, 1, RejectionPolicy.ABORT);
+        blockWorker();
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<byte[]> queued = plugin.submit("drawHelpImage", () -> {
+            calls.incrementAndGet();
+            return new byte[0];
+        });
+        Assert.assertTrue(queued.cancel(false));
+        Assert.assertEquals(0, plugin.getQueuedCount());
+        // 取消后归还了队列空位
+        CompletableFuture<byte[]> next = plugin.drawHelpImageAsync(null);
+        Assert.assertFalse(next.isCompletedExceptionally());
+        gate.countDown();
+        next.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void testVirtualThreadCallersAreBounded() throws Exception {
+        create(2, 1024, RejectionPolicy.BLOCK);
+        int callers = 200;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> plugin.drawHelpImage(List.of())));
+            }
+            for (Future<byte[]> result : results) {
+                Assert.assertEquals("drawHelpImage", new String(result.get(), StandardCharsets.UTF_8));
+            }
+        }
+        Assert.assertTrue("同时渲染的任务数不应超过渲染线程数: " + maxRunning.get(), maxRunning.get() <= 2);
+    }
+}
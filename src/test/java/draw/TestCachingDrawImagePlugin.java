@@ -0,0 +1,202 @@
+package draw;
+
+import common.Constant;
+import io.github.kingprimes.CachingDrawImagePlugin;
+import io.github.kingprimes.DrawImagePlugin;
+import io.github.kingprimes.ForwardingDrawImagePlugin;
+import io.github.kingprimes.defaultdraw.DefaultDrawImagePlugin;
+import io.github.kingprimes.model.worldstate.Alert;
+import io.github.kingprimes.model.worldstate.DateField;
+import io.github.kingprimes.model.worldstate.SteelPathOffering;
+import io.github.kingprimes.utils.TimeUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class TestCachingDrawImagePlugin {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final AtomicInteger renders = new AtomicInteger();
+    private final MutableClock clock = new MutableClock();
+    private volatile CountDownLatch gate;
+
+    private final DrawImagePlugin counting = new ForwardingDrawImagePlugin(new DefaultDrawImagePlugin()) {
+        @Override
+        protected byte[] draw(String method, Supplier<byte[]> call, Object... args) {
+            int n = renders.incrementAndGet();
+            CountDownLatch latch = gate;
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return (method + n).getBytes(StandardCharsets.UTF_8);
+        }
+    };
+
+    private CachingDrawImagePlugin cache(int maxEntries) {
+        return new CachingDrawImagePlugin(counting, maxEntries, 1024 * 1024, Duration.ofSeconds(60), clock);
+    }
+
+    private static Alert alert(String node, Instant expiry) {
+        Alert alert = new Alert();
+        alert.setExpiry(new DateField().setDate(new DateField.D().setNumberLong(expiry)));
+        alert.setTag(node);
+        return alert;
+    }
+
+    @Test
+    public void testContentKey() {
+        CachingDrawImagePlugin plugin = cache(16);
+        byte[] first = plugin.drawHelpImage(new ArrayList<>(List.of("a", "b")));
+        byte[] second = plugin.drawHelpImage(List.of("a", "b"));
+        Assert.assertArrayEquals(first, second);
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(1, renders.get());
+
+        plugin.drawHelpImage(List.of("a", "c"));
+        plugin.drawHelpImage(List.of());
+        Assert.assertEquals(3, renders.get());
+        Assert.assertEquals(3, plugin.missCount());
+        Assert.assertEquals(1, plugin.hitCount());
+
+        // 真实的世界状态数据也能生成稳定的缓存键
+        plugin.drawSortiesImage(Constant.WORLD_STATE.getSorties().get(0));
+        plugin.drawSortiesImage(Constant.WORLD_STATE.getSorties().get(0));
+        Assert.assertEquals(4, renders.get());
+    }
+
+    @Test
+    public void testExpiry() {
+        CachingDrawImagePlugin plugin = cache(16);
+        List<String> help = List.of("help");
+        plugin.drawHelpImage(help);
+        clock.advance(Duration.ofSeconds(59));
+        plugin.drawHelpImage(help);
+        Assert.assertEquals(1, renders.get());
+        clock.advance(Duration.ofSeconds(1));
+        plugin.drawHelpImage(help);
+        Assert.assertEquals(2, renders.get());
+
+        // 数据自身的结束时间早于TTL时以结束时间为准
+        List<Alert> alerts = List.of(alert("Earth", START.plusSeconds(90)));
+        plugin.drawAlertsImage(alerts);
+        clock.advance(Duration.ofSeconds(29));
+        plugin.drawAlertsImage(alerts);
+        Assert.assertEquals(3, renders.get());
+        clock.advance(Duration.ofSeconds(1));
+        plugin.drawAlertsImage(alerts);
+        Assert.assertEquals(4, renders.get());
+    }
+
+    @Test
+    public void testSteelPathExpiryIgnoresDefaultZone() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        TimeUtils.setClock(clock);
+        try {
+            for (String zone : List.of("Asia/Shanghai", "America/Los_Angeles")) {
+                TimeZone.setDefault(TimeZone.getTimeZone(zone));
+                CachingDrawImagePlugin plugin = cache(16);
+                int before = renders.get();
+                SteelPathOffering steelPath = new SteelPathOffering();
+                // 每周重置前30秒绘制，缓存需在重置时刻（UTC）失效，而不是按TTL或默认时区推算
+                Instant reset = steelPath.getExpiry().toInstant(ZoneOffset.UTC);
+                clock.advance(Duration.between(clock.instant(), reset).minusSeconds(30));
+                plugin.drawSteelPath(steelPath);
+                clock.advance(Duration.ofSeconds(29));
+                plugin.drawSteelPath(steelPath);
+                Assert.assertEquals(zone, before + 1, renders.get());
+                clock.advance(Duration.ofSeconds(1));
+                plugin.drawSteelPath(steelPath);
+                Assert.assertEquals(zone, before + 2, renders.get());
+            }
+        } finally {
+            TimeZone.setDefault(defaultZone);
+            TimeUtils.setClock(null);
+        }
+    }
+
+    @Test
+    public void testLruEviction() {
+        CachingDrawImagePlugin plugin = cache(2);
+        plugin.drawHelpImage(List.of("1"));
+        plugin.drawHelpImage(List.of("2"));
+        plugin.drawHelpImage(List.of("1"));
+        plugin.drawHelpImage(List.of("3"));
+        Assert.assertEquals(2, plugin.size());
+        Assert.assertEquals(1, plugin.evictionCount());
+        plugin.drawHelpImage(List.of("1"));
+        Assert.assertEquals(3, renders.get());
+        plugin.drawHelpImage(List.of("2"));
+        Assert.assertEquals(4, renders.get());
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        CachingDrawImagePlugin plugin = cache(16);
+        gate = new CountDownLatch(1);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<byte[]>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> plugin.drawHelpImage(List.of("same"))));
+            }
+            // 等待所有请求都已提交后再放行正在绘制的线程
+            while (plugin.hitCount() + plugin.missCount() < threads) {
+                Thread.sleep(5);
+            }
+            gate.countDown();
+            byte[] expected = futures.get(0).get();
+            for (Future<byte[]> future : futures) {
+                Assert.assertArrayEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, renders.get());
+        Assert.assertEquals(1, plugin.missCount());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now = START;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package draw;
+
+import com.alibaba.fastjson2.JSON;
+import common.Constant;
+import io.github.kingprimes.DrawImagePlugin;
+import io.github.kingprimes.defaultdraw.DefaultDrawImagePlugin;
+import io.github.kingprimes.image.ImageIOUtils;
+import io.github.kingprimes.model.*;
+import io.github.kingprimes.model.market.MarketLichSister;
+import io.github.kingprimes.model.market.MarketRiven;
+import io.github.kingprimes.model.market.Orders;
+import io.github.kingprimes.model.worldstate.AllCycle;
+import io.github.kingprimes.model.worldstate.SeasonInfo;
+import io.github.kingprimes.model.worldstate.SyndicateMission;
+import io.github.kingprimes.utils.TimeUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * 并发渲染压力测试：多线程同时调用 {@link DrawImagePlugin} 的所有绘图方法，输出必须与单线程逐字节一致
+ */
+public class TestConcurrentRendering {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 2;
+
+    @Before
+    public void fixTimeAndRandom() {
+        // 固定时钟与随机立绘，保证同一输入的输出是确定的
+        TimeUtils.setClock(Clock.fixed(Instant.parse("2025-09-01T12:00:00Z"), ZoneOffset.UTC));
+        ImageIOUtils.setRandom(() -> 0L);
+    }
+
+    @After
+    public void reset() {
+        TimeUtils.setClock(null);
+        ImageIOUtils.setRandom(null);
+    }
+
+    private static Map<String, Function<DrawImagePlugin, byte[]>> allMethods() {
+        WorldState ws = Constant.WORLD_STATE;
+        Ducats ducats = JSON.parseObject(TestConcurrentRendering.class.getResourceAsStream("/ducats.json"), Ducats.class);
+        List<Arbitration> arbitrations = Objects.requireNonNull(JSON.parseArray(
+                TestConcurrentRendering.class.getResourceAsStream("/arbitrations.json"))).toJavaList(Arbitration.class);
+        MarketLichSister liches = JSON.parseObject(TestConcurrentRendering.class.getResourceAsStream("/liches.json"), MarketLichSister.class);
+        Orders orders = JSON.parseObject(TestConcurrentRendering.class.getResourceAsStream("/orders.json"), Orders.class);
+        orders.setIcon(ImageIOUtils.getResourcesImage("/image/nova.png"));
+        MarketRiven riven = JSON.parseObject(TestConcurrentRendering.class.getResourceAsStream("/marketRiven.json"), MarketRiven.class);
+        List<Relics> relics = Objects.requireNonNull(JSON.parseArray(
+                TestConcurrentRendering.class.getResourceAsStream("/relics.json"))).toJavaList(Relics.class).stream().limit(9).toList();
+        List<RivenAnalyseTrendModel> trends = JSON.parseArray(JSON.parseObject(
+                TestConcurrentRendering.class.getResourceAsStream("/rivenAnalyseTrend.json"), String.class), RivenAnalyseTrendModel.class);
+        SyndicateMission nodes = ws.getSyndicateMissions().stream()
+                .filter(sm -> sm.getNodes() != null && !sm.getNodes().isEmpty()).findFirst().orElseThrow();
+        SyndicateMission jobs = ws.getSyndicateMissions().stream()
+                .filter(sm -> sm.getJobs() != null && !sm.getJobs().isEmpty()).findFirst().orElseThrow();
+        SeasonInfo seasonInfo = new SeasonInfo();
+        seasonInfo.setSeason(13);
+        seasonInfo.setPhase(2);
+        SeasonInfo.ActiveChallenges challenge = new SeasonInfo.ActiveChallenges();
+        challenge.setName("完成3个入侵任务");
+        challenge.setDescription("在入侵任务中获胜3次");
+        challenge.setStanding(1000);
+        challenge.setRequired(3);
+        challenge.setDaily(true);
+        challenge.setWeekly(false);
+        challenge.setElite(false);
+        seasonInfo.setActiveChallenges(List.of(challenge));
+
+        Map<String, Function<DrawImagePlugin, byte[]>> methods = new LinkedHashMap<>();
+        methods.put("help", p -> p.drawHelpImage(List.of("警报", "突击", "仲裁", "电波|每日任务")));
+        methods.put("allCycle", p -> p.drawAllCycleImage(new AllCycle()
+                .setEarthCycle(ws.getEarthCycle())
+                .setCetusCycle(ws.getCetusCycle())
+                .setCambionCycle(ws.getCambionCycle())
+                .setVallisCycle(ws.getVallisCycle())
+                .setZarimanCycle(ws.getZarimanCycle())));
+        methods.put("allInfo", p -> p.drawAllInfoImage(new AllInfo()
+                .setCpuInfo(new CpuInfo().setModel("Test CPU").setCores(6).setThreads(12).setFrequency(2600)
+                        .setCacheSize(12288).setUserUsage(25.5).setSysUsage(15.2).setWaitUsage(2.1).setIdleUsage(57.2))
+                .setJvmInfo(new JvmInfo().setVersion("21").setMaxMemory(2048 * 1024 * 1024L)
+                        .setUsedMemory(1024 * 1024 * 1024L).setFreeMemory(1024 * 1024 * 1024L)
+                        .setUsedMemoryRatio(50.0).setFreeMemoryRatio(50.0))
+                .setSystemInfo(new SystemInfo().setOsName("Linux").setOsArch("amd64")
+                        .setComputerName("TEST").setComputerIp("127.0.0.1"))
+                .setSysFileInfos(new SysFileInfos().setSysFileInfos(List.of(new SysFileInfos.SysFileInfo()
+                        .setDirName("/").setTypeName("本地磁盘").setFileType("ext4")
+                        .setTotal(512L * 1024 * 1024 * 1024).setUsed(256L * 1024 * 1024 * 1024))))
+                .setPackageVersion(new AllInfo.PackageVersion("NyxBot", "1.1.0"))));
+        methods.put("alerts", p -> p.drawAlertsImage(ws.getAlerts()));
+        methods.put("arbitration", p -> p.drawArbitrationImage(arbitrations.getFirst()));
+        methods.put("arbitrations", p -> p.drawArbitrationsImage(arbitrations));
+        methods.put("dailyDeals", p -> p.drawDailyDealsImage(ws.getDailyDeals().getFirst()));
+        methods.put("duviri", p -> p.drawDuviriCycleImage(ws.getDuvalierCycle()));
+        methods.put("activeMission", p -> p.drawActiveMissionImage(ws.getActiveMissions()));
+        methods.put("invasion", p -> p.drawInvasionImage(ws.getInvasions()));
+        methods.put("calendar", p -> p.drawKnownCalendarSeasonsImage(ws.getKnownCalendarSeasons()));
+        methods.put("liteSorite", p -> p.drawLiteSoriteImage(ws.getLiteSorties().getFirst()));
+        methods.put("godDump", p -> p.drawMarketGodDumpImage(ducats.getGoldDump()));
+        methods.put("silverDump", p -> p.drawMarketSilverDumpImage(ducats.getSilverDump()));
+        methods.put("liches", p -> p.drawMarketLichesImage(liches));
+        methods.put("sister", p -> p.drawMarketSisterImage(liches));
+        methods.put("orders", p -> p.drawMarketOrdersImage(orders));
+        methods.put("possibleItems", p -> p.drawMarketOrdersImage(Arrays.asList("Ash Prime Set", "Nova Prime Blueprint")));
+        methods.put("riven", p -> p.drawMarketRivenImage(riven));
+        methods.put("seasonInfo", p -> p.drawSeasonInfoImage(seasonInfo));
+        methods.put("relics", p -> p.drawRelicsImage(relics));
+        methods.put("rivenTrend", p -> p.drawRivenAnalyseTrendImage(trends));
+        methods.put("sorties", p -> p.drawSortiesImage(ws.getSorties().getFirst()));
+        methods.put("steelPath", p -> p.drawSteelPath(ws.getSteelPath()));
+        methods.put("syndicateNodes", p -> p.drawSyndicateImage(nodes));
+        methods.put("syndicateJobs", p -> p.drawSyndicateImage(jobs));
+        methods.put("voidTrader", p -> p.drawVoidTraderImage(ws.getVoidTraders()));
+        methods.put("subscribe", p -> p.drawWarframeSubscribeImage(Map.of(1, "警报", 2, "入侵"), Map.of(1, "歼灭", 2, "防御")));
+        return methods;
+    }
+
+    /**
+     * 调用结果：图像字节，或调用失败时的异常类型（失败也必须是确定的）
+     */
+    private static byte[] outcome(Function<DrawImagePlugin, byte[]> method, DrawImagePlugin plugin) {
+        try {
+            return method.apply(plugin);
+        } catch (RuntimeException e) {
+            return ("error:" + e.getClass().getName()).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testConcurrentOutputMatchesSequential() throws Exception {
+        DrawImagePlugin plugin = new DefaultDrawImagePlugin();
+        Map<String, Function<DrawImagePlugin, byte[]>> methods = allMethods();
+
+        Map<String, byte[]> expected = new LinkedHashMap<>();
+        int images = 0;
+        for (Map.Entry<String, Function<DrawImagePlugin, byte[]>> entry : methods.entrySet()) {
+            byte[] bytes = outcome(entry.getValue(), plugin);
+            expected.put(entry.getKey(), bytes);
+            if (bytes.length > 8 && bytes[1] == 'P' && bytes[2] == 'N' && bytes[3] == 'G') {
+                images++;
+            }
+        }
+        Assert.assertTrue("大部分绘图方法应输出图像: " + images, images >= methods.size() - 4);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                List<String> order = new ArrayList<>(methods.keySet());
+                Collections.shuffle(order, new Random(t));
+                Callable<List<String>> worker = () -> {
+                    start.await();
+                    List<String> mismatches = new ArrayList<>();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        for (String name : order) {
+                            if (!Arrays.equals(expected.get(name), outcome(methods.get(name), plugin))) {
+                                mismatches.add(name);
+                            }
+                        }
+                    }
+                    return mismatches;
+                };
+                futures.add(executor.submit(worker));
+            }
+            start.countDown();
+            List<String> mismatches = new ArrayList<>();
+            for (Future<List<String>> future : futures) {
+                mismatches.addAll(future.get());
+            }
+            Assert.assertEquals("并发渲染结果与单线程不一致", List.of(), mismatches);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
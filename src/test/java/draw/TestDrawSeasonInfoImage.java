@@ -2,7 +2,10 @@ package draw;
 
 import common.Constant;
 import io.github.kingprimes.defaultdraw.DefaultDrawImagePlugin;
+import io.github.kingprimes.defaultdraw.DefaultDrawSeasonInfoImage;
+import io.github.kingprimes.image.CanvasPool;
 import io.github.kingprimes.model.worldstate.SeasonInfo;
+import org.junit.Assert;
 import org.junit.Test;
 
 import javax.imageio.ImageIO;
@@ -42,6 +45,34 @@ public class TestDrawSeasonInfoImage {
         }
     }
 
+    /**
+     * 测试静态绘制方法直接返回PNG字节数组，并归还租用的画布
+     */
+    @Test
+    public void drawSeasonInfoImageBytes() throws IOException {
+        SeasonInfo seasonInfo = createMockSeasonInfo();
+        int leased = CanvasPool.shared().getLeasedCount();
+        byte[] bytes = DefaultDrawSeasonInfoImage.drawSeasonInfoImage(seasonInfo);
+        Assert.assertEquals(leased, CanvasPool.shared().getLeasedCount());
+        Assert.assertArrayEquals(new DefaultDrawImagePlugin().drawSeasonInfoImage(seasonInfo), bytes);
+        Assert.assertEquals(0, DefaultDrawSeasonInfoImage.drawSeasonInfoImage(null).length);
+    }
+
+    /**
+     * 测试绘制中途失败时归还租用的画布
+     */
+    @Test
+    public void drawSeasonInfoImageFailureReleasesCanvas() {
+        SeasonInfo seasonInfo = createMockSeasonInfo();
+        // 描述中的次数占位符缺少对应数值，绘制挑战描述时抛出异常
+        SeasonInfo.ActiveChallenges challenge = seasonInfo.getActiveChallenges().getLast();
+        challenge.setDescription("完成|COUNT|次仲裁任务");
+        challenge.setRequired(null);
+        int leased = CanvasPool.shared().getLeasedCount();
+        Assert.assertThrows(NullPointerException.class, () -> DefaultDrawSeasonInfoImage.drawSeasonInfoImage(seasonInfo));
+        Assert.assertEquals(leased, CanvasPool.shared().getLeasedCount());
+    }
+
     /**
      * 创建模拟的电波数据用于测试
      *
@@ -0,0 +1,78 @@
+package draw;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import io.github.kingprimes.NativeImage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestNativeImage {
+
+    private final AtomicInteger released = new AtomicInteger();
+
+    // 模拟本地插件返回的内存：4字节长度 + 数据
+    private static Memory nativeResult(byte[] data) {
+        Memory memory = new Memory(data.length + 4L);
+        memory.setInt(0, data.length);
+        memory.write(4, data, 0, data.length);
+        return memory;
+    }
+
+    private static byte[] data(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        return data;
+    }
+
+    @Test
+    public void testViewsAndRelease() throws Exception {
+        byte[] data = data(200_000);
+        Memory memory = nativeResult(data);
+        try (NativeImage image = NativeImage.of(memory, p -> released.incrementAndGet())) {
+            Assert.assertEquals(data.length, image.size());
+            ByteBuffer buffer = image.buffer();
+            Assert.assertTrue(buffer.isDirect());
+            Assert.assertTrue(buffer.isReadOnly());
+            Assert.assertEquals(ByteBuffer.wrap(data), buffer);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Assert.assertEquals(data.length, image.writeTo(out));
+            Assert.assertArrayEquals(data, out.toByteArray());
+
+            out.reset();
+            Assert.assertEquals(data.length, image.transferTo(Channels.newChannel(out)));
+            Assert.assertArrayEquals(data, out.toByteArray());
+            Assert.assertArrayEquals(data, image.toByteArray());
+
+            image.close();
+            Assert.assertEquals(1, released.get());
+            Assert.assertThrows(IllegalStateException.class, image::buffer);
+        }
+        // try-with-resources再次关闭不会重复释放
+        Assert.assertEquals(1, released.get());
+        memory.close();
+    }
+
+    @Test
+    public void testEmptyResult() {
+        Assert.assertSame(NativeImage.EMPTY, NativeImage.of(null, p -> released.incrementAndGet()));
+        Assert.assertSame(NativeImage.EMPTY, NativeImage.of(Pointer.NULL, p -> released.incrementAndGet()));
+        Assert.assertEquals(0, released.get());
+
+        // 长度为0的结果也要立即释放
+        try (Memory memory = nativeResult(new byte[0]);
+             NativeImage image = NativeImage.of(memory, p -> released.incrementAndGet())) {
+            Assert.assertTrue(image.isEmpty());
+            Assert.assertEquals(0, image.buffer().remaining());
+            Assert.assertEquals(0, image.toByteArray().length);
+        }
+        Assert.assertEquals(1, released.get());
+    }
+}
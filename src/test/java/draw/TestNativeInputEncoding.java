@@ -0,0 +1,64 @@
+package draw;
+
+import com.alibaba.fastjson2.JSON;
+import io.github.kingprimes.NativeInputEncoding;
+import io.github.kingprimes.model.market.Orders;
+import org.junit.Assert;
+import org.junit.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestNativeInputEncoding {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static String cbor(Object value) {
+        return HexFormat.of().formatHex(NativeInputEncoding.CBOR.encode(MAPPER, value));
+    }
+
+    @Test
+    public void testRfcVectors() {
+        // RFC 8949 附录A中的示例
+        Assert.assertEquals("00", cbor(0));
+        Assert.assertEquals("17", cbor(23));
+        Assert.assertEquals("1818", cbor(24));
+        Assert.assertEquals("1903e8", cbor(1000));
+        Assert.assertEquals("1b000000e8d4a51000", cbor(1000000000000L));
+        Assert.assertEquals("3863", cbor(-100));
+        Assert.assertEquals("c249010000000000000000", cbor(new BigInteger("18446744073709551616")));
+        Assert.assertEquals("c349010000000000000000", cbor(new BigInteger("-18446744073709551617")));
+        Assert.assertEquals("fa3fc00000", cbor(1.5));
+        Assert.assertEquals("fb3ff199999999999a", cbor(1.1));
+        Assert.assertEquals("c48221196ab3", cbor(new BigDecimal("273.15")));
+        Assert.assertEquals("f4", cbor(false));
+        Assert.assertEquals("f6", cbor(null));
+        Assert.assertEquals("6449455446", cbor("IETF"));
+        Assert.assertEquals("63e6b0b4", cbor("水"));
+        Assert.assertEquals("4401020304", cbor(new byte[]{1, 2, 3, 4}));
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", 1);
+        map.put("b", List.of(2, 3));
+        Assert.assertEquals("bf61610161629f0203ffff", cbor(map));
+    }
+
+    @Test
+    public void testSmallerThanJson() {
+        Orders orders = JSON.parseObject(TestNativeInputEncoding.class.getResourceAsStream("/orders.json"), Orders.class);
+        byte[] json = NativeInputEncoding.JSON.encode(MAPPER, orders);
+        byte[] cbor = NativeInputEncoding.CBOR.encode(MAPPER, orders);
+        Assert.assertTrue("CBOR: %d, JSON: %d".formatted(cbor.length, json.length), cbor.length < json.length);
+    }
+
+    @Test
+    public void testNegotiation() {
+        Assert.assertEquals(0b11, NativeInputEncoding.supportedMask());
+        Assert.assertSame(NativeInputEncoding.CBOR, NativeInputEncoding.of(1));
+        Assert.assertNull(NativeInputEncoding.of(7));
+    }
+}
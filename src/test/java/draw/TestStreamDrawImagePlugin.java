@@ -0,0 +1,89 @@
+package draw;
+
+import common.Constant;
+import io.github.kingprimes.DrawImagePlugin;
+import io.github.kingprimes.ForwardingDrawImagePlugin;
+import io.github.kingprimes.defaultdraw.DefaultDrawImagePlugin;
+import io.github.kingprimes.image.ImageIOUtils;
+import io.github.kingprimes.utils.TimeUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 测试写入输出流的绘图方法与返回字节数组的绘图方法输出一致
+ */
+public class TestStreamDrawImagePlugin {
+
+    private final DefaultDrawImagePlugin plugin = new DefaultDrawImagePlugin();
+
+    @Before
+    public void fixTimeAndRandom() {
+        TimeUtils.setClock(Clock.fixed(Instant.parse("2025-09-01T12:00:00Z"), ZoneOffset.UTC));
+        ImageIOUtils.setRandom(() -> 0L);
+    }
+
+    @After
+    public void reset() {
+        TimeUtils.setClock(null);
+        ImageIOUtils.setRandom(null);
+    }
+
+    private static int[] pixels(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    @Test
+    public void testDefaultPluginStreamsSameImage() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        plugin.drawHelpImage(List.of("HELP|帮助", "突击", "仲裁"), out);
+        Assert.assertArrayEquals(plugin.drawHelpImage(List.of("HELP|帮助", "突击", "仲裁")), out.toByteArray());
+
+        out.reset();
+        plugin.drawSortiesImage(Constant.WORLD_STATE.getSorties().getFirst(), Channels.newOutputStream(Channels.newChannel(out)));
+        Assert.assertArrayEquals(plugin.drawSortiesImage(Constant.WORLD_STATE.getSorties().getFirst()), out.toByteArray());
+
+        // 录制模式逐条带编码，IDAT分块可能不同，比较解码后的像素
+        out.reset();
+        plugin.drawKnownCalendarSeasonsImage(Constant.WORLD_STATE.getKnownCalendarSeasons(), out);
+        Assert.assertArrayEquals(pixels(plugin.drawKnownCalendarSeasonsImage(Constant.WORLD_STATE.getKnownCalendarSeasons())),
+                pixels(out.toByteArray()));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> plugin.drawHelpImage(List.of("HELP"), null));
+    }
+
+    @Test
+    public void testDefaultBridgeWritesByteArray() throws IOException {
+        DrawImagePlugin bridged = new ForwardingDrawImagePlugin(plugin) {
+            @Override
+            protected byte[] draw(String method, Supplier<byte[]> call, Object... args) {
+                return method.startsWith("drawHelp") ? new byte[0] : method.getBytes(StandardCharsets.UTF_8);
+            }
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bridged.drawSortiesImage(null, out);
+        bridged.drawWarframeSubscribeImage(null, null, out);
+        Assert.assertEquals("drawSortiesImagedrawWarframeSubscribeImage", out.toString(StandardCharsets.UTF_8));
+
+        // 没有数据时不写入
+        out.reset();
+        bridged.drawHelpImage(List.of(), out);
+        Assert.assertEquals(0, out.size());
+        Assert.assertThrows(IllegalArgumentException.class, () -> bridged.drawSortiesImage(null, null));
+    }
+}
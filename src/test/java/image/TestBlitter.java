@@ -0,0 +1,123 @@
+package image;
+
+import io.github.kingprimes.image.Blitter;
+import io.github.kingprimes.image.CanvasPool;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+public class TestBlitter {
+
+    private static BufferedImage random(int width, int height, int type, long seed) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Random random = new Random(seed);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int pixel = random.nextInt();
+                // 混入完全透明与完全不透明的像素
+                switch (random.nextInt(4)) {
+                    case 0 -> pixel &= 0x00FFFFFF;
+                    case 1 -> pixel |= 0xFF000000;
+                    default -> {
+                    }
+                }
+                image.setRGB(x, y, pixel);
+            }
+        }
+        return image;
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), image.getType());
+        copy.setRGB(0, 0, image.getWidth(), image.getHeight(), pixels(image), 0, image.getWidth());
+        return copy;
+    }
+
+    @Test
+    public void testBlitMatchesDrawImage() {
+        BufferedImage page = random(320, 240, BufferedImage.TYPE_INT_ARGB, 1);
+        BufferedImage[] sources = {
+                random(100, 80, BufferedImage.TYPE_INT_ARGB, 2),
+                random(100, 80, BufferedImage.TYPE_INT_RGB, 3),
+                random(200, 150, BufferedImage.TYPE_INT_ARGB, 4).getSubimage(30, 20, 90, 70)
+        };
+        int[][] positions = {{10, 10}, {-30, -20}, {280, 200}, {0, 0}, {400, 10}};
+        for (BufferedImage source : sources) {
+            for (int[] position : positions) {
+                BufferedImage expected = copy(page);
+                Graphics2D g = expected.createGraphics();
+                g.drawImage(source, position[0], position[1], null);
+                g.dispose();
+                BufferedImage actual = copy(page);
+                Assert.assertTrue(Blitter.blit(source, actual, position[0], position[1]));
+                Assert.assertArrayEquals(pixels(expected), pixels(actual));
+            }
+        }
+    }
+
+    @Test
+    public void testPooledCanvasMatchesDrawImage() {
+        BufferedImage page = random(320, 240, BufferedImage.TYPE_INT_ARGB, 7);
+        BufferedImage source = random(200, 150, BufferedImage.TYPE_INT_ARGB, 8);
+        BufferedImage pooledPage = CanvasPool.shared().lease(320, 240);
+        BufferedImage pooledSource = CanvasPool.shared().lease(200, 150);
+        pooledPage.setRGB(0, 0, 320, 240, pixels(page), 0, 320);
+        pooledSource.setRGB(0, 0, 200, 150, pixels(source), 0, 200);
+        for (int[] position : new int[][]{{10, 10}, {-30, -20}, {250, 200}}) {
+            Graphics2D g = page.createGraphics();
+            g.drawImage(source.getSubimage(20, 10, 150, 120), position[0], position[1], null);
+            g.dispose();
+            Assert.assertTrue(Blitter.blit(pooledSource.getSubimage(20, 10, 150, 120), pooledPage, position[0], position[1]));
+            Assert.assertArrayEquals(pixels(page), pixels(pooledPage));
+        }
+        CanvasPool.shared().release(pooledPage);
+        CanvasPool.shared().release(pooledSource);
+    }
+
+    @Test
+    public void testDrawImageFollowsGraphicsState() {
+        BufferedImage page = random(320, 240, BufferedImage.TYPE_INT_ARGB, 5);
+        BufferedImage source = random(100, 80, BufferedImage.TYPE_INT_ARGB, 6);
+
+        BufferedImage expected = copy(page);
+        Graphics2D g = expected.createGraphics();
+        g.translate(15, -5);
+        g.setClip(0, 0, 60, 50);
+        g.drawImage(source, 5, 10, null);
+        g.dispose();
+
+        BufferedImage actual = copy(page);
+        g = actual.createGraphics();
+        g.translate(15, -5);
+        g.setClip(0, 0, 60, 50);
+        Assert.assertTrue(Blitter.drawImage(g, actual, source, 5, 10));
+        g.dispose();
+        Assert.assertArrayEquals(pixels(expected), pixels(actual));
+
+        // 缩放、非SRC_OVER合成与非矩形裁剪交给Java2D
+        g = actual.createGraphics();
+        g.scale(2, 2);
+        Assert.assertFalse(Blitter.drawImage(g, actual, source, 0, 0));
+        g.dispose();
+        g = actual.createGraphics();
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f));
+        Assert.assertFalse(Blitter.drawImage(g, actual, source, 0, 0));
+        g.dispose();
+        g = actual.createGraphics();
+        g.setClip(new java.awt.geom.Ellipse2D.Float(0, 0, 50, 50));
+        Assert.assertFalse(Blitter.drawImage(g, actual, source, 0, 0));
+        g.dispose();
+        Assert.assertArrayEquals(pixels(expected), pixels(actual));
+        // 不支持的像素格式
+        Assert.assertFalse(Blitter.blit(new BufferedImage(10, 10, BufferedImage.TYPE_3BYTE_BGR), actual, 0, 0));
+        // 源与目标共用像素
+        Assert.assertFalse(Blitter.blit(actual.getSubimage(0, 0, 50, 50), actual, 10, 10));
+    }
+}
@@ -0,0 +1,113 @@
+package image;
+
+import io.github.kingprimes.image.CanvasPool;
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.RecordingImageCombiner;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public class TestCanvasPool {
+
+    @Test
+    public void testLeaseIsClearedAndReused() {
+        CanvasPool pool = new CanvasPool(64L << 20);
+        BufferedImage first = pool.lease(400, 300);
+        Assert.assertEquals(BufferedImage.TYPE_INT_ARGB, first.getType());
+        Assert.assertEquals(1, pool.getLeasedCount());
+        Graphics2D g = first.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 400, 300);
+        g.dispose();
+        Assert.assertTrue(pool.release(first));
+        Assert.assertEquals(0, pool.getLeasedCount());
+        Assert.assertTrue(pool.getRetainedBytes() > 0);
+
+        // 同一桶内不同宽高的画布复用同一数组，且完全透明
+        BufferedImage second = pool.lease(300, 390);
+        Assert.assertEquals(1, pool.getHitCount());
+        Assert.assertEquals(1, pool.getMissCount());
+        Assert.assertEquals(0, pool.getRetainedBytes());
+        Assert.assertEquals(300, second.getWidth());
+        Assert.assertEquals(390, second.getHeight());
+        for (int pixel : second.getRGB(0, 0, 300, 390, null, 0, 300)) {
+            Assert.assertEquals(0, pixel);
+        }
+        Assert.assertTrue(pool.release(second));
+    }
+
+    @Test
+    public void testReleaseIgnoresForeignAndReleasedImages() {
+        CanvasPool pool = new CanvasPool(64L << 20);
+        CanvasPool other = new CanvasPool(64L << 20);
+        Assert.assertFalse(pool.release(null));
+        Assert.assertFalse(pool.release(new BufferedImage(400, 300, BufferedImage.TYPE_INT_ARGB)));
+        BufferedImage image = pool.lease(400, 300);
+        Assert.assertFalse(other.release(image));
+        Assert.assertTrue(pool.release(image));
+        Assert.assertFalse(pool.release(image));
+        // 小画布直接分配，不经过池
+        BufferedImage small = pool.lease(10, 10);
+        Assert.assertFalse(pool.release(small));
+        Assert.assertEquals(1, pool.getMissCount());
+    }
+
+    @Test
+    public void testRetainedBytesCap() {
+        // 512x512的画布占用1MB，上限只能保留一个数组
+        CanvasPool pool = new CanvasPool(3L << 19);
+        BufferedImage a = pool.lease(512, 512);
+        BufferedImage b = pool.lease(512, 512);
+        Assert.assertTrue(pool.release(a));
+        Assert.assertTrue(pool.release(b));
+        Assert.assertEquals(1L << 20, pool.getRetainedBytes());
+        pool.clear();
+        Assert.assertEquals(0, pool.getRetainedBytes());
+        Assert.assertThrows(IllegalArgumentException.class, () -> new CanvasPool(-1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> pool.lease(0, 10));
+    }
+
+    @Test
+    public void testLeakDetection() throws InterruptedException {
+        CanvasPool pool = new CanvasPool(64L << 20);
+        pool.lease(400, 300);
+        for (int i = 0; i < 50 && pool.getLeakCount() == 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        Assert.assertEquals(1, pool.getLeakCount());
+        Assert.assertEquals(0, pool.getLeasedCount());
+        // 泄漏的数组不会被放回池中
+        Assert.assertEquals(0, pool.getRetainedBytes());
+    }
+
+    @Test
+    public void testCombinerRelease() {
+        CanvasPool pool = CanvasPool.shared();
+        // 公开构造方法不经过画布池
+        int leased = pool.getLeasedCount();
+        new ImageCombiner(500, 400, ImageCombiner.OutputFormat.PNG).release();
+        Assert.assertEquals(leased, pool.getLeasedCount());
+
+        ImageCombiner combiner = ImageCombiner.leased(500, 400, ImageCombiner.OutputFormat.PNG);
+        Assert.assertEquals(0xFFFFFFFF, combiner.getCombinedImage().getRGB(0, 0));
+        leased = pool.getLeasedCount();
+        combiner.release();
+        combiner.release();
+        Assert.assertEquals(leased - 1, pool.getLeasedCount());
+
+        // 录制模式下绘制的池化图像在回放后才归还
+        RecordingImageCombiner recording = new RecordingImageCombiner(500, 400, ImageCombiner.OutputFormat.PNG);
+        ImageCombiner card = ImageCombiner.leased(200, 100, ImageCombiner.OutputFormat.PNG);
+        card.setColor(Color.BLUE).fillRect(0, 0, 200, 100);
+        recording.drawImage(card.getCombinedImage(), 10, 10);
+        recording.recycle(card.getCombinedImage());
+        recording.combine();
+        Assert.assertEquals(0xFF0000FF, recording.getCombinedImage().getRGB(20, 20));
+        int before = pool.getLeasedCount();
+        recording.release();
+        Assert.assertEquals(before - 2, pool.getLeasedCount());
+    }
+}
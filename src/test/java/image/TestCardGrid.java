@@ -0,0 +1,120 @@
+package image;
+
+import io.github.kingprimes.image.CanvasPool;
+import io.github.kingprimes.image.CardGrid;
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.RecordingImageCombiner;
+import io.github.kingprimes.utils.Fonts;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+public class TestCardGrid {
+
+    private static final int CARD_WIDTH = 120;
+    private static final int CARD_HEIGHT = 80;
+    private static final List<Integer> CARDS = IntStream.range(0, 23).boxed().toList();
+    // 卡片之间相互重叠，绘制顺序不同会得到不同的结果
+    private static final IntFunction<Point> PLACEMENT = CardGrid.grid(5, 10, 20, CARD_WIDTH - 30, CARD_HEIGHT - 20);
+
+    private static BufferedImage renderCard(int index) {
+        ImageCombiner card = new ImageCombiner(CARD_WIDTH, CARD_HEIGHT, ImageCombiner.OutputFormat.PNG);
+        card.setColor(new Color(index * 10, 255 - index * 10, 128, 200))
+                .fillRoundRect(0, 0, CARD_WIDTH, CARD_HEIGHT, 15, 15)
+                .setColor(Color.BLACK)
+                .setFont(Fonts.FONT_TEXT.deriveFont(24f))
+                .addCenteredText("卡片 " + index, 50);
+        return card.getCombinedImage();
+    }
+
+    private static ImageCombiner page() {
+        return new ImageCombiner(600, 500, ImageCombiner.OutputFormat.PNG);
+    }
+
+    private static int[] pixels(ImageCombiner combiner) {
+        BufferedImage image = combiner.getCombinedImage();
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    @Test
+    public void testGrid() {
+        Assert.assertEquals(new Point(10, 20), PLACEMENT.apply(0));
+        Assert.assertEquals(new Point(10 + 4 * 90, 20), PLACEMENT.apply(4));
+        Assert.assertEquals(new Point(10 + 90, 20 + 2 * 60), PLACEMENT.apply(11));
+        Assert.assertThrows(IllegalArgumentException.class, () -> CardGrid.grid(0, 0, 0, 1, 1));
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        ImageCombiner sequential = page();
+        for (int i = 0; i < CARDS.size(); i++) {
+            Point point = PLACEMENT.apply(i);
+            sequential.drawImage(renderCard(CARDS.get(i)), point.x, point.y);
+        }
+        int[] expected = pixels(sequential);
+
+        Assert.assertArrayEquals(expected, pixels(CardGrid.drawCards(page(), CARDS, TestCardGrid::renderCard, PLACEMENT)));
+        // 卡片数不是批大小的整数倍，且多于一批
+        for (int parallelism : new int[]{1, 3, 8}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                ImageCombiner parallel = CardGrid.drawCards(page(), CARDS, TestCardGrid::renderCard, PLACEMENT, pool);
+                Assert.assertArrayEquals("parallelism=" + parallelism, expected, pixels(parallel));
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void testFailedCardReturnsBatchCanvases() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        int leased = CanvasPool.shared().getLeasedCount();
+        ImageCombiner page = page();
+        try {
+            IllegalStateException e = Assert.assertThrows(IllegalStateException.class, () ->
+                    CardGrid.drawCards(page, CARDS, index -> {
+                        if (index == 4) {
+                            throw new IllegalStateException("card " + index);
+                        }
+                        // 大于最小池化尺寸，才会从画布池租用
+                        return CanvasPool.shared().lease(200, CanvasPool.MIN_POOLED_PIXELS / 200 + 1);
+                    }, PLACEMENT, pool));
+            Assert.assertTrue(e.getMessage().contains("card 4"));
+        } finally {
+            page.release();
+            pool.shutdownNow();
+        }
+        // 同一批中渲染成功的卡片画布都已归还
+        Assert.assertEquals(leased, CanvasPool.shared().getLeasedCount());
+    }
+
+    @Test
+    public void testRecordingPageKeepsCardsUntilRelease() {
+        // 大于最小池化尺寸，才会从画布池租用
+        Function<Integer, BufferedImage> pooled =
+                index -> CanvasPool.shared().lease(200, CanvasPool.MIN_POOLED_PIXELS / 200 + 1);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        int leased = CanvasPool.shared().getLeasedCount();
+        RecordingImageCombiner recording = new RecordingImageCombiner(600, 500, ImageCombiner.OutputFormat.PNG);
+        try {
+            // 普通页面每批绘制后即归还卡片画布
+            CardGrid.drawCards(page(), CARDS, pooled, PLACEMENT, pool);
+            Assert.assertEquals(leased, CanvasPool.shared().getLeasedCount());
+            // 录制模式的页面在回放时才读取卡片图像，所有卡片画布都保留到页面释放
+            CardGrid.drawCards(recording, CARDS, pooled, PLACEMENT, pool);
+            Assert.assertEquals(leased + CARDS.size(), CanvasPool.shared().getLeasedCount());
+        } finally {
+            recording.release();
+            pool.shutdownNow();
+        }
+        Assert.assertEquals(leased, CanvasPool.shared().getLeasedCount());
+    }
+}
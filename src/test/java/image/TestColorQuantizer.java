@@ -0,0 +1,103 @@
+package image;
+
+import io.github.kingprimes.image.encoder.ColorQuantizer;
+import io.github.kingprimes.image.encoder.IndexedImage;
+import io.github.kingprimes.image.encoder.IndexedPngEncoder;
+import io.github.kingprimes.image.encoder.PngEncoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class TestColorQuantizer {
+
+    private static BufferedImage decode(byte[] png) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    @Test
+    public void testFewColorsAreLossless() throws IOException {
+        BufferedImage image = new BufferedImage(123, 45, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, 123, 45);
+        g2.setColor(new Color(30, 144, 255));
+        g2.fillRect(10, 10, 50, 20);
+        g2.setComposite(AlphaComposite.Src);
+        g2.setColor(new Color(255, 0, 0, 100));
+        g2.fillRect(70, 5, 30, 30);
+        g2.dispose();
+
+        IndexedImage indexed = ColorQuantizer.DEFAULT.quantize(image);
+        Assert.assertEquals(3, indexed.palette().length);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IndexedPngEncoder.DEFAULT.encode(image, out);
+        BufferedImage decoded = decode(out.toByteArray());
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                Assert.assertEquals(image.getRGB(x, y), decoded.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testGradientIsQuantizedWithinBudget() throws IOException {
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setPaint(new GradientPaint(0, 0, Color.ORANGE, 300, 200, Color.MAGENTA));
+        g2.fillRect(0, 0, 300, 200);
+        g2.setPaint(new GradientPaint(0, 200, Color.CYAN, 300, 0, Color.BLACK));
+        g2.fillOval(50, 20, 200, 160);
+        g2.dispose();
+
+        for (boolean dither : new boolean[]{false, true}) {
+            ColorQuantizer quantizer = new ColorQuantizer(64, dither);
+            IndexedImage indexed = quantizer.quantize(image);
+            Assert.assertTrue(indexed.palette().length <= 64);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new PngEncoder(6).encodeIndexed(indexed, out);
+            BufferedImage decoded = decode(out.toByteArray());
+            double error = 0;
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    Assert.assertEquals(indexed.argb(x, y), decoded.getRGB(x, y));
+                    int a = image.getRGB(x, y), b = decoded.getRGB(x, y);
+                    for (int shift = 0; shift < 24; shift += 8) {
+                        int d = ((a >> shift) & 0xFF) - ((b >> shift) & 0xFF);
+                        error += d * d;
+                    }
+                }
+            }
+            double mse = error / (image.getWidth() * image.getHeight() * 3.0);
+            Assert.assertTrue("mse " + mse, mse < 40);
+        }
+    }
+
+    @Test
+    public void testLowBitDepthPacking() throws IOException {
+        for (int colors : new int[]{2, 4, 16}) {
+            BufferedImage image = new BufferedImage(37, 11, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < 11; y++) {
+                for (int x = 0; x < 37; x++) {
+                    int v = (x * 7 + y * 3) % colors * (255 / (colors - 1));
+                    image.setRGB(x, y, new Color(v, 255 - v, v / 2).getRGB());
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            IndexedPngEncoder.DEFAULT.encode(image, out);
+            BufferedImage decoded = decode(out.toByteArray());
+            for (int y = 0; y < 11; y++) {
+                for (int x = 0; x < 37; x++) {
+                    Assert.assertEquals(image.getRGB(x, y), decoded.getRGB(x, y));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package image;
+
+import io.github.kingprimes.image.CanvasPool;
+import io.github.kingprimes.image.CardGrid;
+import io.github.kingprimes.image.DisplayList;
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.RecordingImageCombiner;
+import io.github.kingprimes.image.encoder.PngEncoder;
+import io.github.kingprimes.utils.Fonts;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+public class TestDisplayList {
+
+    private static final int WIDTH = 400;
+
+    private static final Consumer<ImageCombiner> SCENE = combiner -> {
+        combiner.setColor(new Color(30, 30, 60))
+                .fillRoundRect(10, 10, 380, 120, 20, 20)
+                .setStroke(3)
+                .setColor(Color.ORANGE)
+                .drawLine(20, 150, 380, 150)
+                .setFont(Fonts.FONT_TEXT.deriveFont(28f))
+                .setColor(Color.WHITE)
+                .addCenteredText("显示列表 Display List", 60)
+                .addShape(new Ellipse2D.Double(40, 170, 80, 80), Color.CYAN, Color.RED, 2);
+        BufferedImage icon = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        icon.setRGB(3, 3, 0xFF00FF00);
+        combiner.drawImage(icon, 200, 200, 48, 48);
+        // 直接使用Graphics2D及其子上下文的绘制也会被录制
+        Graphics2D g = (Graphics2D) combiner.getGraphics().create();
+        g.translate(300, 180);
+        g.rotate(Math.toRadians(15));
+        g.setColor(Color.MAGENTA);
+        g.fillRect(0, 0, 40, 40);
+        g.dispose();
+        combiner.setColor(Color.GREEN).addText("末尾", 20, 290);
+    };
+
+    private static final int TALL_HEIGHT = 1500;
+
+    private static final Consumer<ImageCombiner> TALL_SCENE = combiner -> {
+        for (int y = 0; y < TALL_HEIGHT; y += 150) {
+            combiner.setColor(new Color(y % 256, 80, 160))
+                    .fillRoundRect(10, y + 5, 380, 140, 20, 20)
+                    // 斜线跨越多个条带的边界
+                    .setStroke(3)
+                    .setColor(Color.ORANGE)
+                    .drawLine(20, y + 75, 380, y + 149)
+                    .setFont(Fonts.FONT_TEXT.deriveFont(28f))
+                    .setColor(Color.WHITE)
+                    .addText("条带 Band " + y, 30, y + 60);
+            Graphics2D g = (Graphics2D) combiner.getGraphics().create();
+            AffineTransform saved = g.getTransform();
+            g.rotate(Math.toRadians(30), 300, y + 100);
+            g.setColor(Color.MAGENTA);
+            g.fillRect(280, y + 80, 60, 60);
+            g.setTransform(saved);
+            g.clipRect(0, y + 100, WIDTH, 20);
+            g.setColor(Color.CYAN);
+            g.fillOval(150, y + 90, 80, 80);
+            g.dispose();
+        }
+    };
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private static DisplayList record() {
+        RecordingImageCombiner recording = new RecordingImageCombiner(WIDTH, ImageCombiner.OutputFormat.PNG);
+        SCENE.accept(recording);
+        return recording.finish();
+    }
+
+    @Test
+    public void testReplayMatchesDirectRendering() {
+        DisplayList list = record();
+        int height = list.getBottom();
+        Assert.assertTrue("测得的高度应覆盖最后一行文字: " + height, height > 290 && height < 320);
+
+        ImageCombiner direct = new ImageCombiner(WIDTH, height, ImageCombiner.OutputFormat.PNG);
+        SCENE.accept(direct);
+        ImageCombiner replayed = list.rasterize(WIDTH, height, ImageCombiner.OutputFormat.PNG);
+        Assert.assertArrayEquals(pixels(direct.getCombinedImage()), pixels(replayed.getCombinedImage()));
+
+        // 重复回放结果一致
+        Assert.assertArrayEquals(pixels(replayed.getCombinedImage()),
+                pixels(list.rasterize(WIDTH, height, ImageCombiner.OutputFormat.PNG).getCombinedImage()));
+    }
+
+    @Test
+    public void testBounds() {
+        Assert.assertEquals(0, new RecordingImageCombiner(WIDTH, ImageCombiner.OutputFormat.PNG).finish().getBottom());
+
+        RecordingImageCombiner recording = new RecordingImageCombiner(WIDTH, ImageCombiner.OutputFormat.PNG);
+        recording.fillRect(10, 20, 30, 40);
+        recording.setStroke(10).drawLine(100, 100, 200, 100);
+        DisplayList list = recording.finish();
+        // 包含1像素抗锯齿余量，线段按描边宽度与方形线帽向外扩展
+        Assert.assertEquals(new Rectangle(9, 19, 197, 87), list.getBounds());
+        Assert.assertThrows(IllegalStateException.class, () -> recording.fillRect(0, 0, 1, 1));
+    }
+
+    @Test
+    public void testCombineAllocatesMeasuredCanvas() {
+        RecordingImageCombiner recording = new RecordingImageCombiner(WIDTH, ImageCombiner.OutputFormat.PNG);
+        recording.setColor(Color.BLUE).fillRect(0, 0, WIDTH, 123);
+        recording.combine();
+        Assert.assertEquals(WIDTH, recording.getCombinedImage().getWidth());
+        Assert.assertEquals(124, recording.getCombinedImage().getHeight());
+        Assert.assertTrue(recording.getCombinedImageOutStream().size() > 0);
+    }
+
+    @Test
+    public void testConcurrentReplay() throws Exception {
+        DisplayList list = record();
+        int[] expected = pixels(list.rasterize(ImageCombiner.OutputFormat.PNG).getCombinedImage());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> pixels(list.rasterize(ImageCombiner.OutputFormat.PNG).getCombinedImage())));
+            }
+            for (Future<int[]> future : futures) {
+                Assert.assertArrayEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBandedRasterizeMatchesSequential() {
+        RecordingImageCombiner recording = new RecordingImageCombiner(WIDTH, TALL_HEIGHT, ImageCombiner.OutputFormat.PNG);
+        Assert.assertEquals(TALL_HEIGHT, recording.getCanvasHeight());
+        TALL_SCENE.accept(recording);
+        DisplayList list = recording.finish();
+        Assert.assertTrue(list.isBandable());
+
+        ImageCombiner direct = new ImageCombiner(WIDTH, TALL_HEIGHT, ImageCombiner.OutputFormat.PNG);
+        TALL_SCENE.accept(direct);
+        int[] expected = pixels(direct.getCombinedImage());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // 包括不能整除画布高度的条带数，以及条带高度小于单行内容的情况
+            for (int bands : new int[]{1, 2, 7, 64}) {
+                BufferedImage banded = list.rasterize(WIDTH, TALL_HEIGHT, ImageCombiner.OutputFormat.PNG, bands, pool)
+                        .getCombinedImage();
+                Assert.assertArrayEquals("bands=" + bands, expected, pixels(banded));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        recording.combine();
+        Assert.assertArrayEquals(expected, pixels(recording.getCombinedImage()));
+    }
+
+    @Test
+    public void testFailedBandReturnsCanvas() {
+        RecordingImageCombiner recording = new RecordingImageCombiner(WIDTH, TALL_HEIGHT, ImageCombiner.OutputFormat.PNG);
+        TALL_SCENE.accept(recording);
+        // 只在最后一个条带回放时失败，其余条带正常完成
+        recording.getGraphics().setPaint(new Paint() {
+            @Override
+            public PaintContext createContext(ColorModel cm, Rectangle deviceBounds, Rectangle2D userBounds,
+                                              AffineTransform xform, RenderingHints hints) {
+                throw new IllegalStateException("broken paint");
+            }
+
+            @Override
+            public int getTransparency() {
+                return OPAQUE;
+            }
+        });
+        recording.fillRect(0, TALL_HEIGHT - 50, WIDTH, 20);
+        DisplayList list = recording.finish();
+        int leased = CanvasPool.shared().getLeasedCount();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int bands : new int[]{1, 7}) {
+                RuntimeException e = Assert.assertThrows(RuntimeException.class,
+                        () -> list.rasterize(WIDTH, TALL_HEIGHT, ImageCombiner.OutputFormat.PNG, bands, pool));
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("broken paint"));
+                Assert.assertEquals("bands=" + bands, leased, CanvasPool.shared().getLeasedCount());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStreamedPngMatchesRasterize() throws IOException {
+        RecordingImageCombiner recording = new RecordingImageCombiner(WIDTH, TALL_HEIGHT, ImageCombiner.OutputFormat.PNG);
+        TALL_SCENE.accept(recording);
+        DisplayList list = recording.finish();
+        ImageCombiner rasterized = list.rasterize(WIDTH, TALL_HEIGHT, ImageCombiner.OutputFormat.PNG);
+        int[] expected = pixels(rasterized.getCombinedImage());
+        rasterized.release();
+        for (int stripHeight : new int[]{37, 256, TALL_HEIGHT * 2}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            list.writePng(WIDTH, TALL_HEIGHT, stripHeight, PngEncoder.DEFAULT, out);
+            Assert.assertArrayEquals("stripHeight=" + stripHeight, expected,
+                    pixels(ImageIO.read(new ByteArrayInputStream(out.toByteArray()))));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.combine(out);
+        Assert.assertArrayEquals(expected, pixels(ImageIO.read(new ByteArrayInputStream(out.toByteArray()))));
+        Assert.assertThrows(IllegalStateException.class, recording::getCombinedImage);
+        recording.release();
+
+        // 录制了非SRC_OVER合成时写出alpha通道
+        Assert.assertTrue(list.isOpaque());
+        RecordingImageCombiner translucent = new RecordingImageCombiner(WIDTH, 300, ImageCombiner.OutputFormat.PNG);
+        translucent.setColor(Color.BLUE).fillRect(0, 0, WIDTH, 300);
+        translucent.getGraphics().setComposite(AlphaComposite.Src);
+        translucent.setColor(new Color(255, 0, 0, 100)).fillRect(50, 50, 100, 100);
+        Assert.assertFalse(translucent.finish().isOpaque());
+        out = new ByteArrayOutputStream();
+        translucent.combine(out);
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals(new Color(255, 0, 0, 100).getRGB(), decoded.getRGB(60, 60));
+        Assert.assertEquals(Color.BLUE.getRGB(), decoded.getRGB(10, 10));
+        translucent.release();
+    }
+
+    @Test
+    public void testStreamedPngKeepsRecordedCards() throws IOException {
+        // 大于最小池化尺寸，才会从画布池租用
+        int cardHeight = CanvasPool.MIN_POOLED_PIXELS / 200 + 1;
+        List<Integer> cards = IntStream.range(0, 23).boxed().toList();
+        int leased = CanvasPool.shared().getLeasedCount();
+        int[] peak = {0};
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(int b) {
+                peak[0] = Math.max(peak[0], CanvasPool.shared().getLeasedCount());
+                super.write(b);
+            }
+
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                peak[0] = Math.max(peak[0], CanvasPool.shared().getLeasedCount());
+                super.write(b, off, len);
+            }
+        };
+        RecordingImageCombiner recording = new RecordingImageCombiner(WIDTH, TALL_HEIGHT, ImageCombiner.OutputFormat.PNG);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            CardGrid.drawCards(recording, cards, index -> {
+                BufferedImage card = CanvasPool.shared().lease(200, cardHeight);
+                Graphics2D g = card.createGraphics();
+                g.setColor(new Color(index * 10, 100, 200));
+                g.fillRect(0, 0, 200, cardHeight);
+                g.dispose();
+                return card;
+            }, CardGrid.grid(2, 0, 0, 200, cardHeight + 10), pool);
+            recording.combine(out);
+        } finally {
+            recording.release();
+            pool.shutdownNow();
+        }
+        // 输出期间只新租用一个条带画布，录制引用的卡片图像全部保留到页面释放
+        Assert.assertEquals(leased + cards.size() + 1, peak[0]);
+        Assert.assertEquals(leased, CanvasPool.shared().getLeasedCount());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals(new Color(220, 100, 200).getRGB(), decoded.getRGB(10, 11 * (cardHeight + 10) + 10));
+    }
+
+    @Test
+    public void testCopyAreaDisablesBanding() {
+        RecordingImageCombiner recording = new RecordingImageCombiner(WIDTH, 600, ImageCombiner.OutputFormat.PNG);
+        recording.setColor(Color.RED).fillRect(0, 0, 50, 50);
+        recording.getGraphics().copyArea(0, 0, 50, 50, 0, 500);
+        DisplayList list = recording.finish();
+        Assert.assertFalse(list.isBandable());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            BufferedImage image = list.rasterize(WIDTH, 600, ImageCombiner.OutputFormat.PNG, 4, pool).getCombinedImage();
+            Assert.assertEquals(Color.RED.getRGB(), image.getRGB(10, 510));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package image;
+
+import io.github.kingprimes.image.FilterEngine;
+import io.github.kingprimes.image.FilterUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestFilterEngine {
+
+    private static BufferedImage random(int width, int height, long seed) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(seed);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    /**
+     * 逐像素钳制坐标的一维卷积，与原有的高斯模糊实现相同
+     */
+    private static int[] reference(int[] pixels, int width, int height, float[] kernel, boolean horizontal) {
+        int half = kernel.length / 2;
+        int[] output = new int[pixels.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                float a = 0, r = 0, g = 0, b = 0;
+                for (int k = 0; k < kernel.length; k++) {
+                    int px = horizontal ? Math.min(width - 1, Math.max(0, x + k - half)) : x;
+                    int py = horizontal ? y : Math.min(height - 1, Math.max(0, y + k - half));
+                    int pixel = pixels[py * width + px];
+                    a += kernel[k] * ((pixel >> 24) & 0xFF);
+                    r += kernel[k] * ((pixel >> 16) & 0xFF);
+                    g += kernel[k] * ((pixel >> 8) & 0xFF);
+                    b += kernel[k] * (pixel & 0xFF);
+                }
+                output[y * width + x] = (((int) a & 0xFF) << 24) | (((int) r & 0xFF) << 16)
+                        | (((int) g & 0xFF) << 8) | ((int) b & 0xFF);
+            }
+        }
+        return output;
+    }
+
+    @Test
+    public void testGaussianBlurMatchesReference() {
+        int[][] sizes = {{1, 1}, {1, 9}, {7, 1}, {3, 3}, {37, 23}, {64, 48}};
+        for (int[] size : sizes) {
+            int width = size[0], height = size[1];
+            BufferedImage image = random(width, height, width * 31L + height);
+            // 半透明像素在复制为ARGB图像时会经过一次合成，参照结果基于复制后的像素
+            int[] pixels = FilterEngine.pixels(FilterEngine.copyArgb(image)).clone();
+            for (int radius : new int[]{1, 2, 5, 12}) {
+                float[] kernel = FilterEngine.gaussianKernel(radius);
+                int[] expected = reference(reference(pixels, width, height, kernel, true), width, height, kernel, false);
+                BufferedImage blurred = FilterUtils.gaussianBlur(image, radius);
+                Assert.assertArrayEquals(width + "x" + height + " r=" + radius, expected,
+                        blurred.getRGB(0, 0, width, height, null, 0, width));
+            }
+        }
+        BufferedImage image = random(4, 4, 1);
+        Assert.assertSame(image, FilterUtils.gaussianBlur(image, 0));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> FilterEngine.convolveSeparable(new int[4], 2, 2, new float[]{0.5f, 0.5f}));
+    }
+
+    @Test
+    public void testBoxBlur() {
+        // 纯色图像模糊后不变
+        int[] flat = new int[50 * 30];
+        Arrays.fill(flat, 0x80336699);
+        FilterEngine.boxBlur(flat, 50, 30, 9);
+        for (int pixel : flat) {
+            Assert.assertEquals(0x80336699, pixel);
+        }
+
+        // 与精确高斯模糊的差异很小
+        int width = 120, height = 90;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, (x / 10 + y / 10) % 2 == 0 ? 0xFFFFFFFF : 0xFF000000);
+            }
+        }
+        for (int radius : new int[]{3, 9, 30}) {
+            BufferedImage exact = FilterUtils.gaussianBlur(image, radius);
+            BufferedImage fast = FilterUtils.fastGaussianBlur(image, radius);
+            double error = 0;
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    error += Math.abs((exact.getRGB(x, y) & 0xFF) - (fast.getRGB(x, y) & 0xFF));
+                }
+            }
+            // 小半径时盒宽度只能取奇数，近似误差较大
+            Assert.assertTrue("r=" + radius + " mean error " + error / (width * height), error / (width * height) < 8);
+        }
+    }
+}
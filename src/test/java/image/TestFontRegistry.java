@@ -0,0 +1,74 @@
+package image;
+
+import io.github.kingprimes.image.FontRegistry;
+import io.github.kingprimes.image.GraphicsUtils;
+import io.github.kingprimes.utils.Fonts;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class TestFontRegistry {
+
+    private static Graphics2D graphics() {
+        Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        GraphicsUtils.setQualityRenderingHints(g);
+        return g;
+    }
+
+    @Test
+    public void testDeriveMatchesFont() {
+        Font base = Fonts.FONT_TEXT;
+        Assert.assertEquals(base.deriveFont(24f), FontRegistry.derive(base, 24f));
+        Assert.assertEquals(base.deriveFont(Font.BOLD, 40), FontRegistry.derive(base, Font.BOLD, 40));
+        Assert.assertSame(FontRegistry.derive(base, Font.BOLD, 40), FontRegistry.derive(base, Font.BOLD, 40));
+        Assert.assertNotSame(FontRegistry.derive(base, Font.BOLD, 40), FontRegistry.derive(base, Font.PLAIN, 40));
+
+        // 调用后修改变换对象不影响缓存
+        AffineTransform transform = AffineTransform.getRotateInstance(0.5);
+        Font rotated = FontRegistry.derive(base, Font.PLAIN, 18f, transform);
+        Assert.assertEquals(base.deriveFont(Font.PLAIN, 18f).deriveFont(transform), rotated);
+        transform.setToIdentity();
+        Assert.assertSame(rotated, FontRegistry.derive(base, Font.PLAIN, 18f, AffineTransform.getRotateInstance(0.5)));
+    }
+
+    @Test
+    public void testMetricsCache() {
+        Graphics2D g = graphics();
+        Font font = FontRegistry.derive(Fonts.FONT_TEXT, 28f);
+        long misses = FontRegistry.getMetricsMissCount();
+        FontMetrics metrics = FontRegistry.metrics(g, font);
+        Assert.assertSame(metrics, FontRegistry.metrics(graphics(), font));
+        Assert.assertTrue(FontRegistry.getMetricsMissCount() - misses <= 1);
+        Assert.assertEquals(g.getFontMetrics(font).stringWidth("集团赏金 Riven"), metrics.stringWidth("集团赏金 Riven"));
+        Assert.assertEquals(font.getLineMetrics("", g.getFontRenderContext()).getAscent(),
+                FontRegistry.lineMetrics(font, g.getFontRenderContext()).getAscent(), 0f);
+
+        // 不同的渲染上下文（抗锯齿设置不同）得到不同的度量信息
+        Graphics2D plain = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        plain.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+        plain.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
+        Assert.assertEquals(plain.getFontRenderContext(), FontRegistry.metrics(plain, font).getFontRenderContext());
+        Assert.assertTrue(FontRegistry.getHitRate() > 0);
+    }
+
+    @Test
+    public void testConcurrentDerive() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Font> fonts = pool.submit(() -> IntStream.range(0, 1000).parallel()
+                    .mapToObj(i -> FontRegistry.derive(Fonts.FONT_WARFRAME_ICON, Font.BOLD, 10 + i % 5))
+                    .toList()).join();
+            for (Font font : fonts) {
+                Assert.assertSame(FontRegistry.derive(Fonts.FONT_WARFRAME_ICON, Font.BOLD, font.getSize2D()), font);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package image;
+
+import io.github.kingprimes.image.GraphicsUtils;
+import io.github.kingprimes.image.IconAtlas;
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.model.enums.IconEnum;
+import io.github.kingprimes.utils.Fonts;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestIconAtlas {
+
+    private static final Font ICON_FONT = Fonts.FONT_WARFRAME_ICON;
+
+    private static ImageCombiner canvas(long seed) {
+        ImageCombiner combiner = new ImageCombiner(200, 100, ImageCombiner.OutputFormat.PNG);
+        Random random = new Random(seed);
+        int[] pixels = new int[200 * 100];
+        for (int i = 0; i < pixels.length; i++) {
+            // 一半不透明背景，一半半透明背景
+            pixels[i] = seed % 2 == 0 ? 0xFF000000 | random.nextInt() : random.nextInt();
+        }
+        BufferedImage background = new BufferedImage(200, 100, BufferedImage.TYPE_INT_ARGB);
+        background.setRGB(0, 0, 200, 100, pixels, 0, 200);
+        return combiner.drawImage(background, 0, 0);
+    }
+
+    private static int[] pixels(ImageCombiner combiner) {
+        BufferedImage image = combiner.getCombinedImage();
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    @Test
+    public void testBlitMatchesText() {
+        IconAtlas atlas = new IconAtlas(ICON_FONT, 24f, 32f, 48f);
+        Color[] colors = {Color.WHITE, new Color(0xFFD700), new Color(30, 144, 255, 160)};
+        for (int seed = 0; seed < 4; seed++) {
+            for (float size : new float[]{24f, 32f, 48f, 40f}) {
+                for (Color color : colors) {
+                    ImageCombiner text = canvas(seed).setFont(ICON_FONT.deriveFont(size)).setColor(color);
+                    ImageCombiner icon = canvas(seed).setFont(ICON_FONT.deriveFont(size)).setColor(color);
+                    for (IconEnum value : IconEnum.values()) {
+                        int x = 10 + value.ordinal() * 15;
+                        text.addText(value.getIcon(), x, 70);
+                        icon.addIcon(atlas, value.getIcon(), x, 70);
+                    }
+                    Assert.assertArrayEquals("size=" + size + " color=" + color, pixels(text), pixels(icon));
+                }
+            }
+        }
+        // 40号字未登记，始终走文本绘制
+        Assert.assertEquals(3 * 3 * IconEnum.values().length, atlas.size());
+        Assert.assertTrue(atlas.getHitCount() > atlas.getMissCount());
+    }
+
+    @Test
+    public void testFallback() {
+        IconAtlas atlas = new IconAtlas(ICON_FONT, 32f);
+        Graphics2D g = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        GraphicsUtils.setQualityRenderingHints(g);
+        g.setFont(ICON_FONT.deriveFont(32f));
+        g.setColor(Color.WHITE);
+        Assert.assertTrue(atlas.draw(g, IconEnum.PLATINUM.getIcon(), 10, 50));
+
+        g.setFont(ICON_FONT.deriveFont(30f));
+        Assert.assertFalse(atlas.draw(g, IconEnum.PLATINUM.getIcon(), 10, 50));
+        g.setFont(ICON_FONT.deriveFont(32f));
+        g.setPaint(new GradientPaint(0, 0, Color.WHITE, 100, 100, Color.BLACK));
+        Assert.assertFalse(atlas.draw(g, IconEnum.PLATINUM.getIcon(), 10, 50));
+        g.setColor(Color.WHITE);
+        g.scale(2, 2);
+        Assert.assertFalse(atlas.draw(g, IconEnum.PLATINUM.getIcon(), 10, 50));
+
+        // 不透明画布使用LCD抗锯齿，无法用位图复现
+        Graphics2D opaque = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB).createGraphics();
+        GraphicsUtils.setQualityRenderingHints(opaque);
+        opaque.setFont(ICON_FONT.deriveFont(32f));
+        Assert.assertFalse(atlas.draw(opaque, IconEnum.PLATINUM.getIcon(), 10, 50));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> new IconAtlas(ICON_FONT));
+    }
+
+    @Test
+    public void testPreloadAndLimit() {
+        IconAtlas atlas = new IconAtlas(ICON_FONT, 4, 24f, 32f);
+        atlas.preload(Arrays.stream(IconEnum.values()).map(IconEnum::getIcon).toList(), Color.WHITE);
+        Assert.assertEquals(4, atlas.size());
+
+        IconAtlas preloaded = new IconAtlas(ICON_FONT, 32f);
+        preloaded.preload(Arrays.asList(IconEnum.DUCATS.getIcon(), IconEnum.CREDITS.getIcon()), Color.WHITE, Color.BLACK);
+        Assert.assertEquals(4, preloaded.getMissCount());
+        canvas(0).setFont(ICON_FONT).setColor(Color.WHITE).addIcon(preloaded, IconEnum.DUCATS.getIcon(), 10, 50);
+        Assert.assertEquals(4, preloaded.getMissCount());
+        Assert.assertEquals(1, preloaded.getHitCount());
+    }
+}
@@ -0,0 +1,110 @@
+package image;
+
+import io.github.kingprimes.image.BlendComposite;
+import io.github.kingprimes.image.LayerStack;
+import io.github.kingprimes.image.LayerUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+public class TestLayerStack {
+
+    private static BufferedImage random(int width, int height, long seed) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(seed);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(4) == 0 ? random.nextInt() | 0xFF000000 : random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    /**
+     * 用同样的图层从头合成整张画布
+     */
+    private static int[] fullRender(LayerStack stack) {
+        LayerStack fresh = new LayerStack(300, 200, Color.WHITE);
+        stack.getLayers().forEach(fresh::addLayer);
+        return pixels(fresh.render());
+    }
+
+    @Test
+    public void testIncrementalRenderMatchesFullRender() {
+        LayerStack stack = new LayerStack(300, 200, Color.WHITE);
+        stack.addLayer(random(120, 100, 1), 10, 10);
+        stack.addLayer(random(120, 100, 2), 60, 40, 0.6f, null);
+        stack.addLayer(random(100, 80, 3), 150, 90, 1f, BlendComposite.getInstance(BlendComposite.Mode.MULTIPLY));
+        stack.addLayer(random(80, 80, 4), 200, 20, 0.8f, BlendComposite.getInstance(BlendComposite.Mode.SCREEN, 0.5f));
+        BufferedImage output = stack.render();
+        Assert.assertEquals(300L * 200, stack.getRecompositedPixels());
+        Assert.assertArrayEquals(fullRender(stack), pixels(output));
+
+        stack.setLayerPosition(1, 120, 60);
+        Assert.assertArrayEquals(fullRender(stack), pixels(stack.render()));
+        stack.moveLayerTo(0, 3);
+        Assert.assertArrayEquals(fullRender(stack), pixels(stack.render()));
+        stack.removeLayer(2);
+        Assert.assertArrayEquals(fullRender(stack), pixels(stack.render()));
+        stack.addLayer(random(50, 50, 5), -20, 170, 1f, AlphaComposite.getInstance(AlphaComposite.SRC_ATOP, 0.7f));
+        Assert.assertArrayEquals(fullRender(stack), pixels(stack.render()));
+        Assert.assertSame(output, stack.render());
+    }
+
+    @Test
+    public void testOnlyDirtyRegionsAreRecomposited() {
+        LayerStack stack = new LayerStack(300, 200, null);
+        stack.addLayer(random(40, 40, 1), 0, 0);
+        stack.addLayer(random(40, 40, 2), 200, 100);
+        stack.render();
+        long full = stack.getRecompositedPixels();
+
+        // 移动图层：旧位置与新位置两个互不相交的区域
+        stack.setLayerPosition(0, 50, 0);
+        Assert.assertEquals(2, stack.getDirtyRegions().size());
+        stack.render();
+        Assert.assertEquals(full + 2 * 40 * 40, stack.getRecompositedPixels());
+        Assert.assertTrue(stack.getDirtyRegions().isEmpty());
+
+        // 不重叠的图层调整顺序无需重新合成
+        stack.moveLayerTo(0, 1);
+        Assert.assertTrue(stack.getDirtyRegions().isEmpty());
+
+        // 超出画布的部分不计入脏区域
+        stack.addLayer(random(40, 40, 3), 280, 190);
+        Assert.assertEquals(new Rectangle(280, 190, 20, 10), stack.getDirtyRegions().getFirst());
+        stack.render();
+        Assert.assertEquals(full + 2 * 40 * 40 + 20 * 10, stack.getRecompositedPixels());
+        Assert.assertThrows(IllegalArgumentException.class, () -> stack.removeLayer(3));
+    }
+
+    @Test
+    public void testBlendModesAndLayerUtils() {
+        BufferedImage base = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        base.setRGB(0, 0, 0xFF808080);
+        BufferedImage top = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        top.setRGB(0, 0, 0xFFFF4000);
+        LayerUtils.addLayer(base, 0, 0, 1f, null);
+        LayerUtils.addLayer(top, 0, 0, 1f, BlendComposite.getInstance(BlendComposite.Mode.MULTIPLY));
+        try {
+            Assert.assertEquals(0xFF802000, LayerUtils.renderLayers(1, 1, null).getRGB(0, 0));
+            LayerUtils.moveLayerTo(1, 0);
+            Assert.assertEquals(0xFF808080, LayerUtils.renderLayers(1, 1, null).getRGB(0, 0));
+        } finally {
+            LayerUtils.clearLayers();
+        }
+
+        LayerStack stack = new LayerStack(1, 1, new Color(0x808080));
+        stack.addLayer(top, 0, 0, 1f, BlendComposite.getInstance(BlendComposite.Mode.SCREEN));
+        Assert.assertEquals(0xFFFFA080, stack.render().getRGB(0, 0));
+        stack.setLayer(0, new LayerUtils.Layer(top, 0, 0, 0.5f, BlendComposite.getInstance(BlendComposite.Mode.DIFFERENCE)));
+        Assert.assertEquals(0xFF7F6080, stack.render().getRGB(0, 0));
+    }
+}
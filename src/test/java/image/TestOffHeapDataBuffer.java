@@ -0,0 +1,93 @@
+package image;
+
+import io.github.kingprimes.image.CanvasPool;
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.OffHeapDataBuffer;
+import io.github.kingprimes.image.encoder.PngEncoder;
+import io.github.kingprimes.image.encoder.WebpEncoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class TestOffHeapDataBuffer {
+
+    private static void draw(BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.setColor(new Color(0x3366CC));
+        g.fillRect(10, 10, 100, 50);
+        g.setColor(Color.RED);
+        g.drawLine(0, 0, image.getWidth() - 1, image.getHeight() - 1);
+        g.dispose();
+    }
+
+    private static byte[] encode(BufferedImage image, boolean webp) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (webp) {
+            WebpEncoder.DEFAULT.encode(image, out);
+        } else {
+            new PngEncoder(4).encode(image, out);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testDrawAndEncodeMatchHeapCanvas() throws IOException {
+        long allocated = OffHeapDataBuffer.getAllocatedBytes();
+        BufferedImage heap = new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage offHeap = OffHeapDataBuffer.createImage(300, 200);
+        OffHeapDataBuffer buffer = OffHeapDataBuffer.ofCanvas(offHeap);
+        Assert.assertNotNull(buffer);
+        Assert.assertEquals(0, offHeap.getRGB(150, 100));
+        Assert.assertEquals(allocated + 300 * 200 * 4, OffHeapDataBuffer.getAllocatedBytes());
+
+        draw(heap);
+        draw(offHeap);
+        Assert.assertArrayEquals(heap.getRGB(0, 0, 300, 200, null, 0, 300), offHeap.getRGB(0, 0, 300, 200, null, 0, 300));
+        Assert.assertArrayEquals(encode(heap, false), encode(offHeap, false));
+        Assert.assertArrayEquals(encode(heap, true), encode(offHeap, true));
+        // 子图不能按整张画布的行布局读取
+        Assert.assertNull(OffHeapDataBuffer.ofCanvas(offHeap.getSubimage(10, 10, 20, 20)));
+        Assert.assertSame(buffer, OffHeapDataBuffer.of(offHeap.getSubimage(10, 10, 20, 20)));
+
+        buffer.close();
+        buffer.close();
+        Assert.assertTrue(buffer.isClosed());
+        Assert.assertEquals(allocated, OffHeapDataBuffer.getAllocatedBytes());
+        Assert.assertThrows(IllegalStateException.class, () -> offHeap.getRGB(0, 0));
+    }
+
+    @Test
+    public void testPoolReleasesOffHeapCanvas() {
+        long allocated = OffHeapDataBuffer.getAllocatedBytes();
+        CanvasPool pool = new CanvasPool(64L << 20, 100 * 100);
+        BufferedImage small = pool.lease(50, 50);
+        Assert.assertNull(OffHeapDataBuffer.of(small));
+        BufferedImage image = pool.lease(400, 300);
+        OffHeapDataBuffer buffer = OffHeapDataBuffer.of(image);
+        Assert.assertNotNull(buffer);
+        Assert.assertEquals(1, pool.getLeasedCount());
+        Assert.assertTrue(pool.release(image));
+        Assert.assertTrue(buffer.isClosed());
+        Assert.assertEquals(0, pool.getRetainedBytes());
+        Assert.assertEquals(allocated, OffHeapDataBuffer.getAllocatedBytes());
+    }
+
+    @Test
+    public void testCombinerCloseReleasesMemory() {
+        long allocated = OffHeapDataBuffer.getAllocatedBytes();
+        BufferedImage canvas = CanvasPool.shared().leaseOffHeap(200, 100);
+        try (ImageCombiner combiner = new ImageCombiner(canvas, ImageCombiner.OutputFormat.PNG)) {
+            combiner.setColor(Color.BLUE).fillRect(0, 0, 200, 100).combine();
+            Assert.assertEquals(0xFF0000FF, combiner.getCombinedImage().getRGB(100, 50));
+            Assert.assertTrue(combiner.getCombinedImageOutStream().size() > 0);
+        }
+        Assert.assertTrue(OffHeapDataBuffer.of(canvas).isClosed());
+        Assert.assertEquals(allocated, OffHeapDataBuffer.getAllocatedBytes());
+    }
+}
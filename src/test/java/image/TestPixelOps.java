@@ -0,0 +1,109 @@
+package image;
+
+import io.github.kingprimes.image.FilterUtils;
+import io.github.kingprimes.image.PixelOps;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class TestPixelOps {
+
+    private static BufferedImage random(int width, int height, int type, long seed) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Random random = new Random(seed);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    /**
+     * 原有的逐像素getRGB/setRGB灰度实现
+     */
+    private static BufferedImage legacyGrayScale(BufferedImage image) {
+        BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int rgb = image.getRGB(x, y);
+                int gray = (int) (0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF));
+                result.setRGB(x, y, (rgb & 0xFF000000) | (gray << 16) | (gray << 8) | gray);
+            }
+        }
+        return result;
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    @Test
+    public void testGrayScaleMatchesLegacy() {
+        BufferedImage argb = random(300, 250, BufferedImage.TYPE_INT_ARGB, 1);
+        BufferedImage bgr = random(120, 80, BufferedImage.TYPE_3BYTE_BGR, 2);
+        BufferedImage sub = argb.getSubimage(10, 20, 100, 50);
+        for (BufferedImage image : new BufferedImage[]{argb, bgr, sub}) {
+            Assert.assertArrayEquals(pixels(legacyGrayScale(image)), pixels(FilterUtils.grayScale(image)));
+        }
+        // 原图不变
+        Assert.assertArrayEquals(pixels(random(300, 250, BufferedImage.TYPE_INT_ARGB, 1)), pixels(argb));
+    }
+
+    @Test
+    public void testForRowsCoversEachRowOnce() {
+        for (int parallelism : new int[]{1, 3, 8}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                for (int height : new int[]{1, 7, 1000}) {
+                    AtomicIntegerArray visits = new AtomicIntegerArray(height);
+                    PixelOps.forRows(64, height, (fromRow, toRow) -> {
+                        for (int y = fromRow; y < toRow; y++) {
+                            visits.incrementAndGet(y);
+                        }
+                    }, pool);
+                    for (int y = 0; y < height; y++) {
+                        Assert.assertEquals(1, visits.get(y));
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void testPointOperations() {
+        int pixel = 0x80C86432;
+        Assert.assertEquals(pixel, PixelOps.colorMatrix(new float[]{
+                1, 0, 0, 0, 0,
+                0, 1, 0, 0, 0,
+                0, 0, 1, 0, 0,
+                0, 0, 0, 1, 0}).apply(pixel));
+        // 颜色矩阵交换红蓝通道
+        Assert.assertEquals(0x803264C8, PixelOps.colorMatrix(new float[]{
+                0, 0, 1, 0, 0,
+                0, 1, 0, 0, 0,
+                1, 0, 0, 0, 0,
+                0, 0, 0, 1, 0}).apply(pixel));
+
+        Assert.assertEquals(0x80643219, PixelOps.premultiply().apply(pixel));
+        Assert.assertEquals(0, PixelOps.unpremultiply().apply(0x00123456));
+        for (int i = 0; i < 1000; i++) {
+            int value = new Random(i).nextInt() | 0xFF000000;
+            Assert.assertEquals(value, PixelOps.premultiply().andThen(PixelOps.unpremultiply()).apply(value));
+        }
+
+        Assert.assertEquals(pixel, PixelOps.brightnessContrast(0f, 1f).apply(pixel));
+        Assert.assertEquals(0x80FFFFFF, PixelOps.brightnessContrast(1f, 1f).apply(pixel));
+        Assert.assertEquals(0x80808080, PixelOps.brightnessContrast(0f, 0f).apply(pixel));
+        Assert.assertEquals(pixel, PixelOps.tint(Color.RED, 0f).apply(pixel));
+        Assert.assertEquals(0x80FF0000, PixelOps.tint(Color.RED, 1f).apply(pixel));
+        Assert.assertThrows(IllegalArgumentException.class, () -> PixelOps.colorMatrix(new float[16]));
+    }
+}
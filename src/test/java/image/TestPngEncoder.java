@@ -0,0 +1,123 @@
+package image;
+
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.encoder.ImageIOEncoder;
+import io.github.kingprimes.image.encoder.PngEncoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class TestPngEncoder {
+
+    private static BufferedImage sample(int type, boolean translucent) {
+        BufferedImage image = new BufferedImage(517, 389, type);
+        Graphics2D g2 = image.createGraphics();
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g2.setPaint(new GradientPaint(0, 0, Color.RED, 517, 389, Color.BLUE));
+        g2.fillOval(20, 20, 400, 300);
+        g2.setColor(Color.BLACK);
+        g2.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 40));
+        g2.drawString("PNG 编码测试", 60, 200);
+        if (translucent) {
+            g2.setComposite(AlphaComposite.Src);
+            g2.setColor(new Color(0, 128, 0, 90));
+            g2.fillRect(300, 250, 150, 100);
+        }
+        g2.dispose();
+        return image;
+    }
+
+    private static BufferedImage roundTrip(PngEncoder encoder, BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.encode(image, out);
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+        Assert.assertEquals(expected.getWidth(), actual.getWidth());
+        Assert.assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                Assert.assertEquals("pixel " + x + "," + y, expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testAllFiltersAndStripLayouts() throws IOException {
+        BufferedImage image = sample(BufferedImage.TYPE_INT_ARGB, true);
+        for (PngEncoder.Filter filter : PngEncoder.Filter.values()) {
+            for (int stripRows : new int[]{0, 1, 37, 1000}) {
+                for (boolean parallel : new boolean[]{false, true}) {
+                    assertSamePixels(image, roundTrip(new PngEncoder(6, filter, stripRows, parallel), image));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRowWriterMatchesImage() throws IOException {
+        BufferedImage image = sample(BufferedImage.TYPE_INT_ARGB, true);
+        int height = image.getHeight();
+        for (PngEncoder.Filter filter : PngEncoder.Filter.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (PngEncoder.RowWriter writer = new PngEncoder(6, filter, 0, false).openRows(out, image.getWidth(), height, true)) {
+                // 条带高度不一，包括子图与单行条带
+                writer.writeRows(image, 0, 100);
+                writer.writeRows(image.getSubimage(0, 100, image.getWidth(), 1));
+                writer.writeRows(image.getSubimage(0, 50, image.getWidth(), height - 50), 51, height - 50);
+                Assert.assertEquals(height, writer.getRowsWritten());
+            }
+            assertSamePixels(image, ImageIO.read(new ByteArrayInputStream(out.toByteArray())));
+        }
+
+        BufferedImage opaque = sample(BufferedImage.TYPE_INT_RGB, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PngEncoder.RowWriter writer = PngEncoder.DEFAULT.openRows(out, opaque.getWidth(), opaque.getHeight(), false)) {
+            writer.writeRows(opaque);
+            Assert.assertThrows(IllegalArgumentException.class, () -> writer.writeRows(opaque, 0, 1));
+        }
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertFalse(decoded.getColorModel().hasAlpha());
+        assertSamePixels(opaque, decoded);
+
+        PngEncoder.RowWriter incomplete = PngEncoder.DEFAULT.openRows(new ByteArrayOutputStream(), 10, 10, true);
+        incomplete.writeRows(new BufferedImage(10, 5, BufferedImage.TYPE_INT_ARGB));
+        Assert.assertThrows(IllegalStateException.class, incomplete::close);
+    }
+
+    @Test
+    public void testOpaqueImageWritesRgb() throws IOException {
+        BufferedImage image = sample(BufferedImage.TYPE_INT_ARGB, false);
+        BufferedImage decoded = roundTrip(PngEncoder.DEFAULT, image);
+        Assert.assertFalse(decoded.getColorModel().hasAlpha());
+        assertSamePixels(image, decoded);
+        assertSamePixels(sample(BufferedImage.TYPE_INT_RGB, false),
+                roundTrip(new PngEncoder(1), sample(BufferedImage.TYPE_INT_RGB, false)));
+    }
+
+    @Test
+    public void testSubimageAndFallback() throws IOException {
+        BufferedImage image = sample(BufferedImage.TYPE_INT_ARGB, true);
+        BufferedImage sub = image.getSubimage(31, 17, 300, 200);
+        assertSamePixels(sub, roundTrip(new PngEncoder(9, PngEncoder.Filter.PAETH, 50, true), sub));
+
+        BufferedImage gray = new BufferedImage(64, 64, BufferedImage.TYPE_BYTE_GRAY);
+        Assert.assertNotNull(roundTrip(PngEncoder.DEFAULT, gray));
+    }
+
+    @Test
+    public void testCombinerEncoderOverride() {
+        ImageCombiner combiner = new ImageCombiner(sample(BufferedImage.TYPE_INT_ARGB, true), ImageCombiner.OutputFormat.PNG);
+        combiner.setEncoder(ImageIOEncoder.PNG).combine();
+        Assert.assertTrue(combiner.getCombinedImageOutStream().size() > 0);
+        Assert.assertSame(ImageIOEncoder.PNG, combiner.getEncoder());
+    }
+}
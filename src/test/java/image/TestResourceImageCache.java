@@ -0,0 +1,38 @@
+package image;
+
+import io.github.kingprimes.image.ImageIOUtils;
+import io.github.kingprimes.image.ResourceImageCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+
+public class TestResourceImageCache {
+
+    @Test
+    public void testDecodeOnceAndCopyOnWrite() {
+        ResourceImageCache cache = new ResourceImageCache(4, 64L * 1024 * 1024);
+        cache.warmUp(ImageIOUtils.RIVEN_TEMPLATE_PATH);
+        Assert.assertEquals(1, cache.getMissCount());
+
+        BufferedImage shared = cache.get(ImageIOUtils.RIVEN_TEMPLATE_PATH);
+        BufferedImage copy = cache.getCopy(ImageIOUtils.RIVEN_TEMPLATE_PATH);
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertNotSame(shared, copy);
+        Assert.assertEquals(shared.getType(), copy.getType());
+
+        int original = shared.getRGB(10, 10);
+        copy.setRGB(10, 10, ~original);
+        Assert.assertEquals(original, shared.getRGB(10, 10));
+    }
+
+    @Test
+    public void testBoundedByEntries() {
+        ResourceImageCache cache = new ResourceImageCache(1, 64L * 1024 * 1024);
+        cache.warmUp(ImageIOUtils.RIVEN_TEMPLATE_PATH, "/image/nova.png");
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertTrue(cache.contains("/image/nova.png"));
+    }
+}
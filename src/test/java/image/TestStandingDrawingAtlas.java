@@ -0,0 +1,42 @@
+package image;
+
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.StandingDrawingAtlas;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+public class TestStandingDrawingAtlas {
+
+    @Test
+    public void testPreScaledSprites() {
+        StandingDrawingAtlas atlas = new StandingDrawingAtlas(List.of("/image/1.png"),
+                List.of(StandingDrawingAtlas.TWO_INCH, StandingDrawingAtlas.ONE_INCH)).build();
+
+        BufferedImage twoInch = atlas.getSprite(0, 413, 625);
+        Assert.assertEquals(BufferedImage.TYPE_INT_ARGB, twoInch.getType());
+        Assert.assertTrue(twoInch.getWidth() <= 413 && twoInch.getHeight() <= 625);
+        Assert.assertSame(twoInch, atlas.getRandomSprite(413, 625));
+
+        BufferedImage oneInch = atlas.getSprite(0, 240, 360);
+        Assert.assertTrue(oneInch.getWidth() <= 240 && oneInch.getHeight() <= 360);
+        Assert.assertNull(atlas.getSprite(0, 100, 100));
+    }
+
+    @Test
+    public void testCombinerUsesDefaultAtlas() {
+        StandingDrawingAtlas.setDefault(new StandingDrawingAtlas(List.of("/image/1.png"),
+                List.of(StandingDrawingAtlas.TWO_INCH, StandingDrawingAtlas.ONE_INCH)));
+        try {
+            ImageCombiner combiner = new ImageCombiner(800, 1000, ImageCombiner.OutputFormat.PNG);
+            combiner.drawStandingDrawing();
+            Assert.assertNotNull(combiner.getCombinedImage());
+            Assert.assertNotEquals(Color.WHITE.getRGB(), combiner.getCombinedImage().getRGB(800 - 433 + 206, 1000 - 645 + 312));
+        } finally {
+            StandingDrawingAtlas.setDefault(null);
+        }
+    }
+}
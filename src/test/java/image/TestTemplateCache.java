@@ -0,0 +1,76 @@
+package image;
+
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.TemplateCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class TestTemplateCache {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T10:00:00Z");
+
+    private static int[] render(TemplateCache cache, Object key, Instant expiresAt, Consumer<ImageCombiner> painter, String timeLeft) {
+        try (ImageCombiner combiner = cache.open(key, expiresAt, 240, 120, ImageCombiner.OutputFormat.PNG, painter)) {
+            combiner.setColor(Color.BLACK)
+                    .setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 20))
+                    .addText(timeLeft, 20, 90);
+            return combiner.getCombinedImage().getRGB(0, 0, 240, 120, null, 0, 240);
+        }
+    }
+
+    @Test
+    public void testCachedTemplateMatchesFullRender() {
+        AtomicInteger painted = new AtomicInteger();
+        Consumer<ImageCombiner> painter = combiner -> {
+            painted.incrementAndGet();
+            combiner.setColor(new Color(0x3366CC))
+                    .fillRect(0, 0, 240, 120)
+                    .setColor(Color.WHITE)
+                    .fillRoundRect(10, 10, 220, 100, 20, 20);
+        };
+        TemplateCache cache = new TemplateCache(4, Clock.fixed(NOW, ZoneOffset.UTC));
+        TemplateCache disabled = new TemplateCache(0);
+
+        int[] first = render(cache, "cycle", NOW.plusSeconds(60), painter, "1m 0s");
+        int[] second = render(cache, "cycle", NOW.plusSeconds(60), painter, "59s");
+        Assert.assertEquals(1, painted.get());
+        Assert.assertEquals(1, cache.hitCount());
+        Assert.assertEquals(1, cache.missCount());
+        Assert.assertArrayEquals(render(disabled, "cycle", null, painter, "1m 0s"), first);
+        Assert.assertArrayEquals(render(disabled, "cycle", null, painter, "59s"), second);
+        Assert.assertEquals(0, disabled.size());
+    }
+
+    @Test
+    public void testExpiryAndEviction() {
+        AtomicInteger painted = new AtomicInteger();
+        Consumer<ImageCombiner> painter = combiner -> painted.incrementAndGet();
+        TemplateCache cache = new TemplateCache(2, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // 已过期的轮换不缓存
+        render(cache, "a", NOW, painter, "0s");
+        Assert.assertEquals(0, cache.size());
+
+        render(cache, "a", null, painter, "1");
+        render(cache, "b", null, painter, "1");
+        render(cache, "a", null, painter, "2");
+        render(cache, "c", null, painter, "1");
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(4, painted.get());
+        // b最久未使用，已被淘汰
+        render(cache, "a", null, painter, "3");
+        render(cache, "b", null, painter, "2");
+        Assert.assertEquals(5, painted.get());
+
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertThrows(IllegalArgumentException.class, () -> new TemplateCache(-1));
+    }
+}
@@ -0,0 +1,101 @@
+package image;
+
+import io.github.kingprimes.image.GraphicsUtils;
+import io.github.kingprimes.image.TextLayoutEngine;
+import io.github.kingprimes.image.TextUtils;
+import io.github.kingprimes.utils.Fonts;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestTextLayoutEngine {
+
+    private static FontMetrics metrics(float size) {
+        Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        GraphicsUtils.setQualityRenderingHints(g);
+        return g.getFontMetrics(Fonts.FONT_TEXT.deriveFont(size));
+    }
+
+    /**
+     * 逐字符测量整行前缀的原始换行算法，作为结果一致性的参照
+     */
+    private static String[] reference(FontMetrics metrics, String text, int maxWidth) {
+        List<String> lines = new ArrayList<>();
+        StringBuilder currentLine = new StringBuilder();
+        for (String word : text.split("")) {
+            if (metrics.stringWidth(currentLine + word + " ") <= maxWidth) {
+                currentLine.append(word);
+            } else if (currentLine.isEmpty()) {
+                lines.add(word);
+            } else {
+                lines.add(currentLine.toString().trim());
+                currentLine = new StringBuilder(word);
+            }
+        }
+        if (!currentLine.isEmpty()) {
+            lines.add(currentLine.toString().trim());
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    @Test
+    public void testMatchesPrefixMeasurement() {
+        String alphabet = "abcdefg hijk LMNOP 0123 .,;!? 紫卡分析趋势任务奖励加成集团赏金 ";
+        Random random = new Random(42);
+        for (float size : new float[]{14f, 18f, 24f}) {
+            FontMetrics metrics = metrics(size);
+            for (int i = 0; i < 200; i++) {
+                StringBuilder text = new StringBuilder();
+                int length = random.nextInt(300);
+                for (int j = 0; j < length; j++) {
+                    text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                int maxWidth = 1 + random.nextInt(500);
+                Assert.assertArrayEquals(text + " @" + maxWidth, reference(metrics, text.toString(), maxWidth),
+                        new TextLayoutEngine(8).wrap(metrics, text.toString(), maxWidth));
+                Assert.assertEquals(metrics.stringWidth(text.toString()),
+                        new TextLayoutEngine(8).stringWidth(metrics, text.toString()));
+            }
+        }
+    }
+
+    @Test
+    public void testGraphemeClustersAndHardBreaks() {
+        FontMetrics metrics = metrics(24f);
+        TextLayoutEngine engine = new TextLayoutEngine(8);
+        // 组合字符与代理对不会被拆开
+        for (String line : engine.wrap(metrics, "e\u0301e\u0301 \uD83D\uDE00\uD83D\uDE00 \uD842\uDFB7", 1)) {
+            Assert.assertFalse(line, Character.isLowSurrogate(line.charAt(0)) || line.charAt(0) == '\u0301');
+        }
+        Assert.assertArrayEquals(new String[]{"第一行", "", "第三行"}, engine.wrap(metrics, "第一行\n\r\n第三行", 1000));
+        Assert.assertArrayEquals(new String[0], engine.wrap(metrics, "", 100));
+    }
+
+    @Test
+    public void testLayoutCache() {
+        FontMetrics metrics = metrics(18f);
+        TextLayoutEngine engine = new TextLayoutEngine(2);
+        String[] first = engine.wrap(metrics, "集团赏金任务奖励", 60);
+        first[0] = "modified";
+        Assert.assertNotEquals("modified", engine.wrap(metrics, "集团赏金任务奖励", 60)[0]);
+        Assert.assertEquals(1, engine.getMissCount());
+        Assert.assertEquals(1, engine.getHitCount());
+
+        // 不同宽度、不同字体都是不同的排版
+        engine.wrap(metrics, "集团赏金任务奖励", 80);
+        engine.wrap(metrics(20f), "集团赏金任务奖励", 80);
+        Assert.assertEquals(3, engine.getMissCount());
+        Assert.assertEquals(2, engine.size());
+
+        // 计算高度与绘制共用同一次排版
+        TextUtils.wrapText(metrics, "只排版一次的文本", 50);
+        long misses = TextLayoutEngine.shared().getMissCount();
+        TextUtils.calculateWrappedTextHeight(metrics, "只排版一次的文本", 50, 5);
+        Assert.assertEquals(misses, TextLayoutEngine.shared().getMissCount());
+    }
+}
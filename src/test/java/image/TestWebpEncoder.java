@@ -0,0 +1,147 @@
+package image;
+
+import io.github.kingprimes.DrawImagePlugin;
+import io.github.kingprimes.ForwardingDrawImagePlugin;
+import io.github.kingprimes.defaultdraw.DefaultDrawImagePlugin;
+import io.github.kingprimes.image.ImageCombiner;
+import io.github.kingprimes.image.encoder.WebpEncoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class TestWebpEncoder {
+
+    private static void assertRoundTrip(WebpEncoder encoder, BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.encode(image, out);
+        assertPixels(image, out.toByteArray());
+    }
+
+    private static void assertPixels(BufferedImage image, byte[] webp) throws IOException {
+        int[] decoded = WebpLosslessDecoder.decode(webp);
+        Assert.assertEquals(image.getWidth(), decoded[0]);
+        Assert.assertEquals(image.getHeight(), decoded[1]);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                Assert.assertEquals("pixel " + x + "," + y, image.getRGB(x, y), decoded[2 + y * image.getWidth() + x]);
+            }
+        }
+    }
+
+    private static BufferedImage drawing(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setColor(new Color(0xF5F5F5));
+        g2.fillRect(0, 0, width, height);
+        g2.setPaint(new GradientPaint(0, 0, Color.ORANGE, width, height, new Color(30, 60, 200, 120)));
+        g2.fillRoundRect(10, 10, width - 20, height / 2, 30, 30);
+        g2.setColor(Color.DARK_GRAY);
+        g2.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 28));
+        g2.drawString("WebP 无损编码", 30, height - 30);
+        g2.setComposite(AlphaComposite.Clear);
+        g2.fillRect(width - 40, 0, 40, 40);
+        g2.dispose();
+        return image;
+    }
+
+    @Test
+    public void testRoundTripConfigurations() throws IOException {
+        BufferedImage image = drawing(331, 157);
+        for (boolean predictor : new boolean[]{false, true}) {
+            for (int cacheBits : new int[]{0, 1, 10, 11}) {
+                assertRoundTrip(new WebpEncoder(predictor, cacheBits, 8), image);
+            }
+        }
+    }
+
+    @Test
+    public void testNoiseAndDegenerateSizes() throws IOException {
+        Random random = new Random(42);
+        BufferedImage noise = new BufferedImage(97, 61, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < noise.getHeight(); y++) {
+            for (int x = 0; x < noise.getWidth(); x++) {
+                noise.setRGB(x, y, random.nextInt(4) == 0 ? noise.getRGB(Math.max(0, x - 1), y) : random.nextInt());
+            }
+        }
+        assertRoundTrip(WebpEncoder.DEFAULT, noise);
+        assertRoundTrip(WebpEncoder.DEFAULT, new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB));
+        assertRoundTrip(WebpEncoder.DEFAULT, drawing(1, 300));
+        assertRoundTrip(WebpEncoder.DEFAULT, drawing(300, 1));
+        assertRoundTrip(WebpEncoder.DEFAULT, drawing(3, 3));
+
+        BufferedImage flat = new BufferedImage(2000, 1500, BufferedImage.TYPE_INT_RGB);
+        assertRoundTrip(WebpEncoder.DEFAULT, flat);
+    }
+
+    @Test
+    public void testReferenceImage() throws IOException {
+        BufferedImage source = ImageIO.read(new File("draw/draw_alerts.png"));
+        BufferedImage image = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        image.createGraphics().drawImage(source, 0, 0, null);
+        assertRoundTrip(WebpEncoder.DEFAULT, image);
+    }
+
+    @Test
+    public void testPluginOutputFormat() throws IOException {
+        List<String> help = List.of("帮助 - 显示帮助", "警报 - 查看警报");
+        DrawImagePlugin png = new DefaultDrawImagePlugin();
+        DrawImagePlugin webp = png.withOutputFormat(ImageCombiner.OutputFormat.WEBP);
+        Assert.assertSame(png, png.withOutputFormat(ImageCombiner.OutputFormat.PNG));
+        Assert.assertEquals(ImageCombiner.OutputFormat.WEBP, webp.getOutputFormat());
+
+        byte[] bytes = webp.drawHelpImage(help);
+        Assert.assertEquals("RIFF", new String(bytes, 0, 4, StandardCharsets.US_ASCII));
+        Assert.assertEquals("WEBP", new String(bytes, 8, 4, StandardCharsets.US_ASCII));
+        BufferedImage reference = ImageIO.read(new ByteArrayInputStream(png.drawHelpImage(help)));
+        int[] decoded = WebpLosslessDecoder.decode(bytes);
+        Assert.assertEquals(reference.getWidth(), decoded[0]);
+        Assert.assertEquals(reference.getHeight(), decoded[1]);
+        Assert.assertEquals(0, webp.drawAlertsImage(List.of()).length);
+    }
+
+    @Test
+    public void testSubclassKeepsOverrides() throws IOException {
+        BufferedImage image = drawing(120, 80);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        DrawImagePlugin plugin = new DefaultDrawImagePlugin() {
+            @Override
+            public byte[] drawHelpImage(List<String> helpInfo) {
+                return png.toByteArray();
+            }
+        };
+        DrawImagePlugin webp = plugin.withOutputFormat(ImageCombiner.OutputFormat.WEBP);
+        Assert.assertEquals(ImageCombiner.OutputFormat.WEBP, webp.getOutputFormat());
+        assertPixels(image, webp.drawHelpImage(List.of()));
+        Assert.assertSame(plugin, plugin.withOutputFormat(ImageCombiner.OutputFormat.PNG));
+    }
+
+    @Test
+    public void testTranscodingFallback() throws IOException {
+        BufferedImage image = drawing(120, 80);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        DrawImagePlugin plugin = new ForwardingDrawImagePlugin(new DefaultDrawImagePlugin()) {
+            @Override
+            protected byte[] draw(String method, Supplier<byte[]> call, Object... args) {
+                return png.toByteArray();
+            }
+        };
+        DrawImagePlugin webp = plugin.withOutputFormat(ImageCombiner.OutputFormat.WEBP);
+        Assert.assertEquals(ImageCombiner.OutputFormat.WEBP, webp.getOutputFormat());
+        assertPixels(image, webp.drawHelpImage(List.of()));
+        Assert.assertSame(plugin, webp.withOutputFormat(ImageCombiner.OutputFormat.PNG));
+    }
+}
@@ -0,0 +1,428 @@
+package image;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 测试用的最小VP8L（无损WebP）解码器，按规范独立实现，用于验证编码结果
+ * <p>支持预测、交叉颜色、减绿变换与颜色缓存；不支持调色板变换与meta prefix codes</p>
+ */
+final class WebpLosslessDecoder {
+
+    private static final int[] CODE_LENGTH_ORDER = {17, 18, 0, 1, 2, 3, 4, 5, 16, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15};
+    private static final int[] PLANE_TO_CODE = {
+            0x18, 0x07, 0x17, 0x19, 0x28, 0x06, 0x27, 0x29, 0x16, 0x1a,
+            0x26, 0x2a, 0x38, 0x05, 0x37, 0x39, 0x15, 0x1b, 0x36, 0x3a,
+            0x25, 0x2b, 0x48, 0x04, 0x47, 0x49, 0x14, 0x1c, 0x35, 0x3b,
+            0x46, 0x4a, 0x24, 0x2c, 0x58, 0x45, 0x4b, 0x34, 0x3c, 0x03,
+            0x57, 0x59, 0x13, 0x1d, 0x56, 0x5a, 0x23, 0x2d, 0x44, 0x4c,
+            0x55, 0x5b, 0x33, 0x3d, 0x68, 0x02, 0x67, 0x69, 0x12, 0x1e,
+            0x66, 0x6a, 0x22, 0x2e, 0x54, 0x5c, 0x43, 0x4d, 0x65, 0x6b,
+            0x32, 0x3e, 0x78, 0x01, 0x77, 0x79, 0x53, 0x5d, 0x11, 0x1f,
+            0x64, 0x6c, 0x42, 0x4e, 0x76, 0x7a, 0x21, 0x2f, 0x75, 0x7b,
+            0x31, 0x3f, 0x63, 0x6d, 0x52, 0x5e, 0x00, 0x74, 0x7c, 0x41,
+            0x4f, 0x10, 0x20, 0x62, 0x6e, 0x30, 0x73, 0x7d, 0x51, 0x5f,
+            0x40, 0x72, 0x7e, 0x61, 0x6f, 0x50, 0x71, 0x7f, 0x60, 0x70
+    };
+
+    private final byte[] data;
+    private int bitPosition;
+
+    private WebpLosslessDecoder(byte[] data, int offset) {
+        this.data = data;
+        this.bitPosition = offset * 8;
+    }
+
+    /**
+     * 解码WebP文件
+     *
+     * @return [0]=宽, [1]=高, 其后为ARGB像素
+     */
+    static int[] decode(byte[] file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(file).order(ByteOrder.LITTLE_ENDIAN);
+        if (!"RIFF".equals(new String(file, 0, 4)) || !"WEBP".equals(new String(file, 8, 4))
+                || !"VP8L".equals(new String(file, 12, 4))) {
+            throw new IOException("not a VP8L file");
+        }
+        if (buffer.getInt(4) != file.length - 8) {
+            throw new IOException("bad RIFF size");
+        }
+        int chunkSize = buffer.getInt(16);
+        if (20 + chunkSize + (chunkSize & 1) != file.length) {
+            throw new IOException("bad chunk size");
+        }
+        WebpLosslessDecoder decoder = new WebpLosslessDecoder(file, 20);
+        if (decoder.bits(8) != 0x2F) {
+            throw new IOException("bad signature");
+        }
+        int width = decoder.bits(14) + 1;
+        int height = decoder.bits(14) + 1;
+        decoder.bits(1);
+        if (decoder.bits(3) != 0) {
+            throw new IOException("bad version");
+        }
+        int[] pixels = decoder.decodeImage(width, height);
+        int[] result = new int[pixels.length + 2];
+        result[0] = width;
+        result[1] = height;
+        System.arraycopy(pixels, 0, result, 2, pixels.length);
+        return result;
+    }
+
+    private int bits(int n) throws IOException {
+        int value = 0;
+        for (int i = 0; i < n; i++) {
+            int byteIndex = bitPosition >> 3;
+            if (byteIndex >= data.length) {
+                throw new IOException("unexpected end of data");
+            }
+            value |= ((data[byteIndex] >> (bitPosition & 7)) & 1) << i;
+            bitPosition++;
+        }
+        return value;
+    }
+
+    private int[] decodeImage(int width, int height) throws IOException {
+        int[] transforms = new int[4];
+        int[][] transformData = new int[4][];
+        int[] transformBits = new int[4];
+        int count = 0;
+        boolean[] seen = new boolean[4];
+        while (bits(1) == 1) {
+            int type = bits(2);
+            if (seen[type]) {
+                throw new IOException("duplicate transform");
+            }
+            seen[type] = true;
+            transforms[count] = type;
+            switch (type) {
+                case 0, 1 -> {
+                    int sizeBits = bits(3) + 2;
+                    int w = (width + (1 << sizeBits) - 1) >> sizeBits;
+                    int h = (height + (1 << sizeBits) - 1) >> sizeBits;
+                    transformBits[count] = sizeBits;
+                    transformData[count] = decodeEntropyImage(w, h, false);
+                }
+                case 2 -> {
+                }
+                default -> throw new IOException("color indexing not supported");
+            }
+            count++;
+        }
+        int[] pixels = decodeEntropyImage(width, height, true);
+        for (int t = count - 1; t >= 0; t--) {
+            switch (transforms[t]) {
+                case 0 -> inversePredictor(pixels, width, height, transformBits[t], transformData[t]);
+                case 1 -> inverseCrossColor(pixels, width, height, transformBits[t], transformData[t]);
+                default -> {
+                    for (int i = 0; i < pixels.length; i++) {
+                        int p = pixels[i];
+                        int g = (p >> 8) & 0xFF;
+                        int r = (((p >> 16) & 0xFF) + g) & 0xFF;
+                        int b = ((p & 0xFF) + g) & 0xFF;
+                        pixels[i] = (p & 0xFF00FF00) | r << 16 | b;
+                    }
+                }
+            }
+        }
+        return pixels;
+    }
+
+    private int[] decodeEntropyImage(int width, int height, boolean topLevel) throws IOException {
+        int cacheBits = 0;
+        if (bits(1) == 1) {
+            cacheBits = bits(4);
+            if (cacheBits < 1 || cacheBits > 11) {
+                throw new IOException("bad cache bits");
+            }
+        }
+        if (topLevel && bits(1) == 1) {
+            throw new IOException("meta prefix codes not supported");
+        }
+        int cacheSize = cacheBits > 0 ? 1 << cacheBits : 0;
+        Huffman green = readCode(256 + 24 + cacheSize);
+        Huffman red = readCode(256);
+        Huffman blue = readCode(256);
+        Huffman alpha = readCode(256);
+        Huffman distance = readCode(40);
+        int[] cache = new int[Math.max(1, cacheSize)];
+
+        int[] pixels = new int[width * height];
+        int i = 0;
+        int lastCached = 0;
+        while (i < pixels.length) {
+            int s = green.read(this);
+            if (s < 256) {
+                int r = red.read(this);
+                int b = blue.read(this);
+                int a = alpha.read(this);
+                pixels[i++] = a << 24 | r << 16 | s << 8 | b;
+            } else if (s < 256 + 24) {
+                int length = prefixValue(s - 256);
+                int code = prefixValue(distance.read(this));
+                int dist;
+                if (code > 120) {
+                    dist = code - 120;
+                } else {
+                    int plane = PLANE_TO_CODE[code - 1];
+                    int yOffset = plane >> 4;
+                    int xOffset = 8 - (plane & 0xF);
+                    dist = xOffset + yOffset * width;
+                    if (dist < 1) {
+                        dist = 1;
+                    }
+                }
+                if (dist > i || i + length > pixels.length) {
+                    throw new IOException("bad backward reference");
+                }
+                for (int k = 0; k < length; k++, i++) {
+                    pixels[i] = pixels[i - dist];
+                }
+            } else {
+                int index = s - 280;
+                if (index >= cacheSize) {
+                    throw new IOException("bad cache index");
+                }
+                pixels[i++] = cache[index];
+            }
+            if (cacheBits > 0) {
+                for (; lastCached < i; lastCached++) {
+                    cache[(0x1E35A7BD * pixels[lastCached]) >>> (32 - cacheBits)] = pixels[lastCached];
+                }
+            }
+        }
+        return pixels;
+    }
+
+    private int prefixValue(int code) throws IOException {
+        if (code < 4) {
+            return code + 1;
+        }
+        int extraBits = (code - 2) >> 1;
+        int offset = (2 + (code & 1)) << extraBits;
+        return offset + bits(extraBits) + 1;
+    }
+
+    private Huffman readCode(int alphabetSize) throws IOException {
+        int[] lengths = new int[alphabetSize];
+        if (bits(1) == 1) {
+            int numSymbols = bits(1) + 1;
+            int first = bits(bits(1) == 0 ? 1 : 8);
+            if (numSymbols == 1) {
+                return Huffman.single(first);
+            }
+            int second = bits(8);
+            lengths[first] = 1;
+            lengths[second] = 1;
+            return new Huffman(lengths);
+        }
+        int numCodes = bits(4) + 4;
+        int[] codeLengthLengths = new int[19];
+        for (int i = 0; i < numCodes; i++) {
+            codeLengthLengths[CODE_LENGTH_ORDER[i]] = bits(3);
+        }
+        Huffman codeLengthCode = new Huffman(codeLengthLengths);
+        int maxSymbol = alphabetSize;
+        if (bits(1) == 1) {
+            int lengthBits = 2 + 2 * bits(3);
+            maxSymbol = 2 + bits(lengthBits);
+        }
+        int symbol = 0;
+        int previous = 8;
+        while (symbol < alphabetSize) {
+            if (maxSymbol-- == 0) {
+                break;
+            }
+            int code = codeLengthCode.read(this);
+            if (code < 16) {
+                lengths[symbol++] = code;
+                if (code != 0) {
+                    previous = code;
+                }
+            } else {
+                int repeat;
+                int value = 0;
+                if (code == 16) {
+                    repeat = 3 + bits(2);
+                    value = previous;
+                } else if (code == 17) {
+                    repeat = 3 + bits(3);
+                } else {
+                    repeat = 11 + bits(7);
+                }
+                if (symbol + repeat > alphabetSize) {
+                    throw new IOException("code length overflow");
+                }
+                for (int k = 0; k < repeat; k++) {
+                    lengths[symbol++] = value;
+                }
+            }
+        }
+        return new Huffman(lengths);
+    }
+
+    private static void inversePredictor(int[] pixels, int width, int height, int sizeBits, int[] modes) {
+        int blocksX = (width + (1 << sizeBits) - 1) >> sizeBits;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y * width + x;
+                int prediction;
+                if (x == 0 && y == 0) {
+                    prediction = 0xFF000000;
+                } else if (y == 0) {
+                    prediction = pixels[i - 1];
+                } else if (x == 0) {
+                    prediction = pixels[i - width];
+                } else {
+                    int mode = (modes[(y >> sizeBits) * blocksX + (x >> sizeBits)] >> 8) & 0xF;
+                    int l = pixels[i - 1], t = pixels[i - width], tl = pixels[i - width - 1], tr = pixels[i - width + 1];
+                    prediction = switch (mode) {
+                        case 0 -> 0xFF000000;
+                        case 1 -> l;
+                        case 2 -> t;
+                        case 3 -> tr;
+                        case 4 -> tl;
+                        case 5 -> avg(avg(l, tr), t);
+                        case 6 -> avg(l, tl);
+                        case 7 -> avg(l, t);
+                        case 8 -> avg(tl, t);
+                        case 9 -> avg(t, tr);
+                        case 10 -> avg(avg(l, tl), avg(t, tr));
+                        case 11 -> select(l, t, tl);
+                        case 12 -> perChannel(l, t, tl, 0);
+                        case 13 -> perChannel(avg(l, t), tl, 0, 1);
+                        default -> throw new IllegalStateException("bad predictor " + mode);
+                    };
+                }
+                int p = pixels[i];
+                int result = 0;
+                for (int shift = 0; shift < 32; shift += 8) {
+                    result |= ((((p >>> shift) & 0xFF) + ((prediction >>> shift) & 0xFF)) & 0xFF) << shift;
+                }
+                pixels[i] = result;
+            }
+        }
+    }
+
+    private static void inverseCrossColor(int[] pixels, int width, int height, int sizeBits, int[] elements) {
+        int blocksX = (width + (1 << sizeBits) - 1) >> sizeBits;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int e = elements[(y >> sizeBits) * blocksX + (x >> sizeBits)];
+                byte greenToRed = (byte) e, greenToBlue = (byte) (e >> 8), redToBlue = (byte) (e >> 16);
+                int i = y * width + x;
+                int p = pixels[i];
+                byte green = (byte) (p >> 8);
+                int red = ((p >> 16) + ((greenToRed * green) >> 5)) & 0xFF;
+                int blue = (p + ((greenToBlue * green) >> 5) + ((redToBlue * (byte) red) >> 5)) & 0xFF;
+                pixels[i] = (p & 0xFF00FF00) | red << 16 | blue;
+            }
+        }
+    }
+
+    private static int avg(int a, int b) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            result |= ((((a >>> shift) & 0xFF) + ((b >>> shift) & 0xFF)) / 2) << shift;
+        }
+        return result;
+    }
+
+    private static int select(int l, int t, int tl) {
+        int pL = 0, pT = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int a = (l >>> shift) & 0xFF, b = (t >>> shift) & 0xFF, c = (tl >>> shift) & 0xFF;
+            int estimate = a + b - c;
+            pL += Math.abs(estimate - a);
+            pT += Math.abs(estimate - b);
+        }
+        return pL < pT ? l : t;
+    }
+
+    /**
+     * half=0: clamp(a + b - c)；half=1: clamp(a + (a - b) / 2)
+     */
+    private static int perChannel(int a, int b, int c, int half) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int x = (a >>> shift) & 0xFF, y = (b >>> shift) & 0xFF, z = (c >>> shift) & 0xFF;
+            int v = half == 0 ? x + y - z : x + (x - y) / 2;
+            result |= Math.min(255, Math.max(0, v)) << shift;
+        }
+        return result;
+    }
+
+    /**
+     * 逐位解码的规范哈夫曼码
+     */
+    private static final class Huffman {
+        private final int[] counts = new int[16];
+        private final int[] symbols;
+        private final int singleSymbol;
+
+        Huffman(int[] lengths) throws IOException {
+            int nonZero = 0;
+            int last = 0;
+            for (int s = 0; s < lengths.length; s++) {
+                counts[lengths[s]]++;
+                if (lengths[s] > 0) {
+                    nonZero++;
+                    last = s;
+                }
+            }
+            counts[0] = 0;
+            symbols = new int[nonZero];
+            int[] offsets = new int[16];
+            for (int len = 1; len < 15; len++) {
+                offsets[len + 1] = offsets[len] + counts[len];
+            }
+            for (int s = 0; s < lengths.length; s++) {
+                if (lengths[s] > 0) {
+                    symbols[offsets[lengths[s]]++] = s;
+                }
+            }
+            if (nonZero == 1) {
+                singleSymbol = last;
+                return;
+            }
+            singleSymbol = -1;
+            // 非单符号编码必须是完整的前缀码
+            long kraft = 0;
+            for (int len = 1; len < 16; len++) {
+                kraft += (long) counts[len] << (15 - len);
+            }
+            if (nonZero == 0 || kraft != 1L << 15) {
+                throw new IOException("incomplete prefix code");
+            }
+        }
+
+        private Huffman(int symbol) {
+            symbols = new int[]{symbol};
+            singleSymbol = symbol;
+        }
+
+        static Huffman single(int symbol) {
+            return new Huffman(symbol);
+        }
+
+        int read(WebpLosslessDecoder decoder) throws IOException {
+            if (singleSymbol >= 0) {
+                return singleSymbol;
+            }
+            int code = 0, first = 0, index = 0;
+            for (int len = 1; len < 16; len++) {
+                code |= decoder.bits(1);
+                int count = counts[len];
+                if (code - first < count) {
+                    return symbols[index + code - first];
+                }
+                index += count;
+                first += count;
+                first <<= 1;
+                code <<= 1;
+            }
+            throw new IOException("bad huffman code");
+        }
+    }
+}